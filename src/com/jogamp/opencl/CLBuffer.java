@@ -125,6 +125,7 @@ public class CLBuffer<B extends Buffer> extends CLMemory<B> {
             childs = new ArrayList<CLSubBuffer<B>>();
         }
         childs.add(clSubBuffer);
+        getContext().onMemoryCreated(clSubBuffer);
         return clSubBuffer;
     }
 
@@ -0,0 +1,73 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl;
+
+import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLEvent.CommandType;
+
+/**
+ * Receives the commands enqueued on instrumented {@link CLCommandQueue}s, blocking host waits and the program builds
+ * and memory objects of instrumented {@link CLContext}s, e.g. for tracing or profiling. All timestamps are nanoseconds.
+ * Implementations are called on the enqueueing thread and on OpenCL callback threads, they should return quickly.
+ * @see CLCommandQueue#addCommandListener(CLCommandListener)
+ * @see CLContext#addCommandListener(CLCommandListener)
+ * @see CLEventList#addWaitListener(CLCommandListener)
+ */
+public interface CLCommandListener {
+
+    /**
+     * Called after a command has been enqueued, host time span of the enqueue call
+     * (includes the execution of blocking commands).
+     * @param name name of the kernel for kernel commands, null otherwise.
+     */
+    public void commandEnqueued(CLCommandQueue queue, CommandType type, String name, long hostStart, long hostEnd);
+
+    /**
+     * Called after {@link #commandEnqueued} of kernel commands.
+     * @param globalWorkSize global size per dimension starting at the buffer position, null for tasks.
+     * @param localWorkSize work group size per dimension starting at the buffer position or null.
+     */
+    public void kernelEnqueued(CLCommandQueue queue, CLKernel kernel, int workDimension, PointerBuffer globalWorkSize, PointerBuffer localWorkSize);
+
+    /**
+     * Returns true if the listener needs {@link #commandCompleted} calls, queried once when the listener is added.
+     * Profiling queues only enqueue commands with events and register completion callbacks while such a listener is
+     * registered.
+     */
+    public boolean needsCompletion();
+
+    /**
+     * Called from an OpenCL callback thread after a command of a queue with {@link CLCommandQueue.Mode#PROFILING_MODE}
+     * completed if the listener {@link #needsCompletion() needs completion}. The profiling timestamps are device time,
+     * the host enqueue time can be used to estimate the clock offset.
+     * @param hostEnqueued host time before the command was enqueued.
+     */
+    public void commandCompleted(CLCommandQueue queue, CommandType type, String name, long hostEnqueued,
+                                 long queued, long submit, long start, long end);
+
+    /**
+     * Called after a blocking host wait returned.
+     * @param queue the finished queue or null for {@link CLEventList} waits.
+     */
+    public void waitCompleted(CLCommandQueue queue, long hostStart, long hostEnd);
+
+    /**
+     * Called after the build call of a program returned or failed, asynchronous builds with a
+     * {@link com.jogamp.opencl.util.CLBuildListener} may still be running.
+     * @param options build options or null.
+     * @param devices devices of the build or null for all devices of the context.
+     */
+    public void programBuilt(CLProgram program, String options, CLDevice[] devices, boolean success, long hostStart, long hostEnd);
+
+    /**
+     * Called after a memory object has been created.
+     */
+    public void memoryCreated(CLMemory<?> memory);
+
+    /**
+     * Called after a memory object has been released.
+     */
+    public void memoryReleased(CLMemory<?> memory);
+
+}
@@ -45,8 +45,11 @@ import java.util.List;
 
 import com.jogamp.common.nio.CachedBufferFactory;
 import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLEvent.CommandType;
 import com.jogamp.opencl.gl.CLGLObject;
 import com.jogamp.opencl.llb.CL;
+import com.jogamp.opencl.llb.CL12;
+import com.jogamp.opencl.llb.CL20;
 
 /**
  * The command queue is used to queue a set of operations for a specific {@link CLDevice}.
@@ -64,9 +67,15 @@ import com.jogamp.opencl.llb.CL;
 public class CLCommandQueue extends CLObjectResource {
 
     private final CL cl;
+    private CL deviceCL;
     private final CLDevice device;
     private final long properties;
 
+    private static final CLCommandListener[] NO_LISTENERS = new CLCommandListener[0];
+    private volatile CLCommandListener[] listeners = NO_LISTENERS;
+    // listeners which need commandCompleted calls
+    private volatile CLCommandListener[] completionListeners = NO_LISTENERS;
+
     /*
      * Those direct memory buffers are used to move data between the JVM and OpenCL.
      */
@@ -75,6 +84,15 @@ public class CLCommandQueue extends CLObjectResource {
     private final PointerBuffer ibB;
     private final PointerBuffer ibC;
 
+    /*
+     * Event id of commands traced without event list and the state of the command being enqueued,
+     * see beginCommand and endCommand.
+     */
+    private final PointerBuffer traceID;
+    private CLCommandListener[] commandListeners = NO_LISTENERS;
+    private CLCommandListener[] commandCompletionListeners = NO_LISTENERS;
+    private long commandStart;
+
     private CLCommandQueue(final CLContext context, final long id, final CLDevice device, final long properties) {
         super(context, id);
 
@@ -83,11 +101,12 @@ public class CLCommandQueue extends CLObjectResource {
         this.cl = context.getPlatform().getCLBinding();
 
         final int pbsize = PointerBuffer.ELEMENT_SIZE;
-        final CachedBufferFactory factory = CachedBufferFactory.create(9*pbsize + 4, true);
+        final CachedBufferFactory factory = CachedBufferFactory.create(10*pbsize + 4, true);
 
         this.ibA = PointerBuffer.wrap(factory.newDirectByteBuffer(3*pbsize));
         this.ibB = PointerBuffer.wrap(factory.newDirectByteBuffer(3*pbsize));
         this.ibC = PointerBuffer.wrap(factory.newDirectByteBuffer(3*pbsize));
+        this.traceID = PointerBuffer.wrap(factory.newDirectByteBuffer(pbsize));
 
         this.pbA = factory.newDirectIntBuffer(1);
 
@@ -123,6 +142,14 @@ public class CLCommandQueue extends CLObjectResource {
      * Calls {@native clEnqueueWriteBuffer}.
      */
     public CLCommandQueue putWriteBuffer(final CLBuffer<?> writeBuffer, final boolean blockingWrite, final CLEventList condition, final CLEventList events) {
+        return putWriteBuffer(writeBuffer, 0, blockingWrite, condition, events);
+    }
+
+    /**
+     * Calls {@native clEnqueueWriteBuffer}.
+     * Writes the content of the NIO buffer to the given byte offset of the OpenCL buffer.
+     */
+    public CLCommandQueue putWriteBuffer(final CLBuffer<?> writeBuffer, final long offset, final boolean blockingWrite, final CLEventList condition, final CLEventList events) {
 
         PointerBuffer conditionIDs = null;
         int conditions = 0;
@@ -131,18 +158,17 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueWriteBuffer(
                 ID, writeBuffer.ID, clBoolean(blockingWrite),
-                0, writeBuffer.getNIOSize(), writeBuffer.buffer,
-                conditions, conditionIDs, events==null ? null : events.IDs);
+                offset, writeBuffer.getNIOSize(), writeBuffer.buffer,
+                conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
-            throw newException(ret, "can not enqueue write-buffer: " + writeBuffer + " with " + toStr(condition, events));
+            throw newException(ret, "can not enqueue write-buffer: " + writeBuffer + " offset: " + offset + " with " + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.WRITE_BUFFER, null, events);
 
         return this;
     }
@@ -167,6 +193,14 @@ public class CLCommandQueue extends CLObjectResource {
      * Calls {@native clEnqueueReadBuffer}.
      */
     public CLCommandQueue putReadBuffer(final CLBuffer<?> readBuffer, final boolean blockingRead, final CLEventList condition, final CLEventList events) {
+        return putReadBuffer(readBuffer, 0, blockingRead, condition, events);
+    }
+
+    /**
+     * Calls {@native clEnqueueReadBuffer}.
+     * Reads from the given byte offset of the OpenCL buffer into the NIO buffer.
+     */
+    public CLCommandQueue putReadBuffer(final CLBuffer<?> readBuffer, final long offset, final boolean blockingRead, final CLEventList condition, final CLEventList events) {
 
         PointerBuffer conditionIDs = null;
         int conditions = 0;
@@ -175,18 +209,17 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueReadBuffer(
                 ID, readBuffer.ID, clBoolean(blockingRead),
-                0, readBuffer.getNIOSize(), readBuffer.buffer,
-                conditions, conditionIDs, events==null ? null : events.IDs);
+                offset, readBuffer.getNIOSize(), readBuffer.buffer,
+                conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
-            throw newException(ret, "can not enqueue read-buffer: " + readBuffer + " with " + toStr(condition, events));
+            throw newException(ret, "can not enqueue read-buffer: " + readBuffer + " offset: " + offset + " with " + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.READ_BUFFER, null, events);
 
         return this;
     }
@@ -224,18 +257,17 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyBuffer(
                         ID, src.ID, dest.ID, srcOffset, destOffset, bytesToCopy,
-                        conditions, conditionIDs, events==null ? null : events.IDs);
+                        conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue copy-buffer from " + src + " to " + dest + " with srcOffset: "+ srcOffset
                     + " dstOffset: " + destOffset + " bytesToCopy: " + bytesToCopy + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_BUFFER, null, events);
 
         return this;
     }
@@ -298,10 +330,11 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibB, hostX, hostY, hostZ);
         copy2NIO(ibC, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueWriteBufferRect(
                 ID, writeBuffer.ID, clBoolean(blockingWrite), ibA, ibB, ibC,
                 rowPitch, slicePitch, hostRowPitch, hostSlicePitch, writeBuffer.getBuffer(),
-                conditions, conditionIDs, events==null ? null : events.IDs);
+                conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, bufferRectToString("write", writeBuffer,
@@ -310,9 +343,7 @@ public class CLCommandQueue extends CLObjectResource {
                                         rangeX, rangeY, rangeZ, condition, events)  );
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.WRITE_BUFFER_RECT, null, events);
 
         return this;
     }
@@ -376,10 +407,11 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibB, hostX, hostY, hostZ);
         copy2NIO(ibC, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueReadBufferRect(
                 ID, readBuffer.ID, clBoolean(blockingRead), ibA, ibB, ibC,
                 rowPitch, slicePitch, hostRowPitch, hostSlicePitch, readBuffer.getBuffer(),
-                conditions, conditionIDs, events==null ? null : events.IDs);
+                conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, bufferRectToString("read", readBuffer,
@@ -388,9 +420,7 @@ public class CLCommandQueue extends CLObjectResource {
                                         rangeX, rangeY, rangeZ, condition, events)  );
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.READ_BUFFER_RECT, null, events);
 
         return this;
     }
@@ -457,10 +487,11 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibB, destOriginX, destOriginY, destOriginZ);
         copy2NIO(ibC, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyBufferRect(
                         ID, src.ID, dest.ID, ibA, ibB, ibC,
                         srcRowPitch, srcSlicePitch, destRowPitch, destSlicePitch,
-                        conditions, conditionIDs, events==null ? null : events.IDs);
+                        conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue copy-buffer-rect from " + src + " to " + dest + "\n"
@@ -470,9 +501,7 @@ public class CLCommandQueue extends CLObjectResource {
                        + " range: " + toStr(rangeX, rangeY, rangeZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_BUFFER_RECT, null, events);
 
         return this;
     }
@@ -526,17 +555,16 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, originX, originY, 0);
         copy2NIO(ibB, rangeX, rangeY, 1);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueWriteImage(ID, writeImage.ID, clBoolean(blockingWrite),
                                          ibA, ibB, inputRowPitch, 0, writeImage.buffer,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue write-image " + writeImage + " with inputRowPitch: " + inputRowPitch
                        + " origin: " + toStr(originX, originY)+ " range: " + toStr(rangeX, rangeY) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.WRITE_IMAGE, null, events);
         return this;
     }
 
@@ -586,18 +614,17 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, originX, originY, originZ);
         copy2NIO(ibB, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueWriteImage(ID, writeImage.ID, clBoolean(blockingWrite),
                                          ibA, ibB, inputRowPitch, inputSlicePitch, writeImage.buffer,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue write-image " + writeImage + " with inputRowPitch: " + inputRowPitch + " inputSlicePitch: " + inputSlicePitch
                        + " origin: " + toStr(originX, originY, originZ)+ " range: " + toStr(rangeX, rangeY, rangeZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.WRITE_IMAGE, null, events);
         return this;
     }
 
@@ -649,17 +676,16 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, originX, originY, 0);
         copy2NIO(ibB, rangeX, rangeY, 1);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueReadImage(ID, readImage.ID, clBoolean(blockingRead),
                                          ibA, ibB, inputRowPitch, 0, readImage.buffer,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue read-image " + readImage + " with inputRowPitch: " + inputRowPitch
                        + " origin: " + toStr(originX, originY)+ " range: " + toStr(rangeX, rangeY) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.READ_IMAGE, null, events);
         return this;
     }
 
@@ -709,17 +735,16 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, originX, originY, originZ);
         copy2NIO(ibB, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueReadImage(ID, readImage.ID, clBoolean(blockingRead),
                                         ibA, ibB, inputRowPitch, inputSlicePitch, readImage.buffer,
-                                        conditions, conditionIDs, events==null ? null : events.IDs);
+                                        conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue read-image " + readImage + " with inputRowPitch: " + inputRowPitch + " inputSlicePitch: " + inputSlicePitch
                        + " origin: " + toStr(originX, originY, originZ)+ " range: " + toStr(rangeX, rangeY, rangeZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.READ_IMAGE, null, events);
         return this;
     }
 
@@ -776,17 +801,16 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibB, dstOriginX, dstOriginY, 0);
         copy2NIO(ibC, rangeX, rangeY, 1);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyImage(ID, srcImage.ID, dstImage.ID, ibA, ibB, ibC,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue copy-image " + srcImage +" to "+ dstImage
                     + " with srcOrigin: " + toStr(srcOriginX, srcOriginY) + " dstOrigin: " + toStr(dstOriginX, dstOriginY)
                     + " range:  " + toStr(rangeX, rangeY) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_IMAGE, null, events);
         return this;
     }
 
@@ -843,17 +867,16 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibB, dstOriginX, dstOriginY, dstOriginZ);
         copy2NIO(ibC, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyImage(ID, srcImage.ID, dstImage.ID, ibA, ibB, ibC,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue copy-image " + srcImage +" to "+ dstImage
                     + " with srcOrigin: " + toStr(srcOriginX, srcOriginY, srcOriginZ) + " dstOrigin: " + toStr(dstOriginX, dstOriginY, dstOriginZ)
                     + " range:  " + toStr(rangeX, rangeY, rangeZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_IMAGE, null, events);
         return this;
     }
 
@@ -908,18 +931,17 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, dstOriginX, dstOriginY, 0);
         copy2NIO(ibB, rangeX, rangeY, 1);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyBufferToImage(ID, srcBuffer.ID, dstImage.ID,
                                          srcOffset, ibA, ibB,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue a copy from " + srcBuffer +" to "+ dstImage
                     + " with srcOffset: " + srcOffset + " dstOrigin: " + toStr(dstOriginX, dstOriginY)
                     + " range:  " + toStr(rangeX, rangeY) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_BUFFER_TO_IMAGE, null, events);
         return this;
     }
 
@@ -973,18 +995,17 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, dstOriginX, dstOriginY, dstOriginZ);
         copy2NIO(ibB, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyBufferToImage(ID, srcBuffer.ID, dstImage.ID,
                                          srcOffset, ibA, ibB,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue a copy from " + srcBuffer +" to "+ dstImage
                     + " with srcOffset: " + srcOffset + " dstOrigin: " + toStr(dstOriginX, dstOriginY, dstOriginZ)
                     + " range:  " + toStr(rangeX, rangeY, dstOriginZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_BUFFER_TO_IMAGE, null, events);
         return this;
     }
 
@@ -1039,18 +1060,17 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, srcOriginX, srcOriginY, 0);
         copy2NIO(ibB, rangeX, rangeY, 1);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyImageToBuffer(ID, srcImage.ID, dstBuffer.ID,
                                          ibA, ibB, dstOffset,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue a copy from " + srcImage +" to "+ dstBuffer
                     + " with srcOrigin: " + toStr(srcOriginX, srcOriginY) + " range: " + toStr(rangeX, rangeY)
                     + " dstOffset: " + dstOffset + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_IMAGE_TO_BUFFER, null, events);
         return this;
     }
 
@@ -1104,18 +1124,17 @@ public class CLCommandQueue extends CLObjectResource {
         copy2NIO(ibA, srcOriginX, srcOriginY, srcOriginZ);
         copy2NIO(ibB, rangeX, rangeY, rangeZ);
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueCopyImageToBuffer(ID, srcImage.ID, dstBuffer.ID,
                                          ibA, ibB, dstOffset,
-                                         conditions, conditionIDs, events==null ? null : events.IDs);
+                                         conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue a copy from " + srcImage +" to "+ dstBuffer
                     + " with srcOrigin: " + toStr(srcOriginX, srcOriginY, srcOriginZ) + " range: " + toStr(rangeX, rangeY, rangeZ)
                     + " dstOffset: " + dstOffset + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.COPY_IMAGE_TO_BUFFER, null, events);
         return this;
     }
 
@@ -1160,17 +1179,16 @@ public class CLCommandQueue extends CLObjectResource {
         }
 
         final IntBuffer error = pbA;
+        final PointerBuffer eventIDs = beginCommand(events);
         final ByteBuffer mappedBuffer = cl.clEnqueueMapBuffer(ID, buffer.ID, clBoolean(blockingMap),
                                          flag.FLAGS, offset, length,
-                                         conditions, conditionIDs, events==null ? null : events.IDs, error);
+                                         conditions, conditionIDs, eventIDs, error);
         if(error.get(0) != CL_SUCCESS) {
             throw newException(error.get(0), "can not map " + buffer + " with: " + flag
                     + " offset: " + offset + " lenght: " + length + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.MAP_BUFFER, null, events);
 
         return mappedBuffer;
     }
@@ -1238,9 +1256,10 @@ public class CLCommandQueue extends CLObjectResource {
         final PointerBuffer _imageRowPitch = PointerBuffer.allocateDirect(1); // size_t*
         final PointerBuffer _imageSlicePitch = PointerBuffer.allocateDirect(1); // size_t*
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final ByteBuffer mappedImage = cl.clEnqueueMapImage(ID, image.ID, clBoolean(blockingMap),
                                          flag.FLAGS, ibB, ibC, _imageRowPitch, _imageSlicePitch,
-                                         conditions, conditionIDs, events==null ? null : events.IDs, error);
+                                         conditions, conditionIDs, eventIDs, error);
         if(error.get(0) != CL_SUCCESS) {
             throw newException(error.get(0), "can not map " + image + " with: " + flag
                     + " offset: " + toStr(offsetX, offsetY) + " range: " + toStr(rangeX, rangeY) + toStr(condition, events));
@@ -1253,9 +1272,7 @@ public class CLCommandQueue extends CLObjectResource {
             imageSlicePitch[0] = _imageSlicePitch.get(0);
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.MAP_IMAGE, null, events);
 
         return mappedImage;
     }
@@ -1308,17 +1325,16 @@ public class CLCommandQueue extends CLObjectResource {
         final IntBuffer error = pbA;
         copy2NIO(ibB, offsetX, offsetY, offsetZ);
         copy2NIO(ibC, rangeX, rangeY, rangeZ);
+        final PointerBuffer eventIDs = beginCommand(events);
         final ByteBuffer mappedImage = cl.clEnqueueMapImage(ID, image.ID, clBoolean(blockingMap),
                                          flag.FLAGS, ibB, ibC, null, null,
-                                         conditions, conditionIDs, events==null ? null : events.IDs, error);
+                                         conditions, conditionIDs, eventIDs, error);
         if(error.get(0) != CL_SUCCESS) {
             throw newException(error.get(0), "can not map " + image + " with: " + flag
                     + " offset: " + toStr(offsetX, offsetY, offsetZ) + " range: " + toStr(rangeX, rangeY, rangeZ) + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.MAP_IMAGE, null, events);
 
         return mappedImage;
     }
@@ -1349,27 +1365,101 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueUnmapMemObject(ID, memory.ID, mapped,
-                                        conditions, conditionIDs, events==null ? null : events.IDs);
+                                        conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not unmap " + memory + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
+        endCommand(CommandType.UNMAP_MEM_OBJECT, null, events);
+        return this;
+    }
+
+    /**
+     * Calls {@native clEnqueueMigrateMemObjects}.
+     * @see #putMigrateMemObjects(CLMemory[], boolean, boolean, CLEventList, CLEventList)
+     */
+    public CLCommandQueue putMigrateMemObjects(final CLMemory<?>... memObjects) {
+        return putMigrateMemObjects(memObjects, false, false, null, null);
+    }
+
+    /**
+     * Calls {@native clEnqueueMigrateMemObjects}.
+     * Moves the memory objects to the device of this queue, or to the host if toHost is set.
+     * If contentUndefined is set only the memory is allocated, the content is not transferred.
+     * Requires an OpenCL 1.2 or later device.
+     * @see #isMigrateMemObjectsSupported()
+     */
+    public CLCommandQueue putMigrateMemObjects(final CLMemory<?>[] memObjects, final boolean toHost, final boolean contentUndefined,
+                                               final CLEventList condition, final CLEventList events) {
+
+        PointerBuffer conditionIDs = null;
+        int conditions = 0;
+        if(condition != null) {
+            conditionIDs = condition.IDsView;
+            conditions   = condition.size;
+        }
+
+        final PointerBuffer memIDs = PointerBuffer.allocateDirect(memObjects.length);
+        for (final CLMemory<?> memory : memObjects) {
+            memIDs.put(memory.ID);
+        }
+        memIDs.rewind();
+
+        long flags = 0;
+        if(toHost) {
+            flags |= CL12.CL_MIGRATE_MEM_OBJECT_HOST;
+        }
+        if(contentUndefined) {
+            flags |= CL12.CL_MIGRATE_MEM_OBJECT_CONTENT_UNDEFINED;
         }
+
+        final PointerBuffer eventIDs = beginCommand(events);
+        final CL binding = getDeviceCLBinding();
+        final int ret;
+        if(binding instanceof CL12) {
+            ret = ((CL12)binding).clEnqueueMigrateMemObjects(ID, memObjects.length, memIDs, flags,
+                    conditions, conditionIDs, eventIDs);
+        }else if(binding instanceof CL20) {
+            ret = ((CL20)binding).clEnqueueMigrateMemObjects(ID, memObjects.length, memIDs, flags,
+                    conditions, conditionIDs, eventIDs);
+        }else{
+            throw new UnsupportedOperationException("clEnqueueMigrateMemObjects requires OpenCL 1.2 but device version is "+device.getVersion());
+        }
+
+        if(ret != CL_SUCCESS) {
+            throw newException(ret, "can not enqueue migrate-mem-objects " + Arrays.asList(memObjects) + toStr(condition, events));
+        }
+
+        endCommand(CommandType.MIGRATE_MEM_OBJECTS, null, events);
         return this;
     }
 
+    /**
+     * Returns true if {@link #putMigrateMemObjects} can be used on this queue, i.e. on all devices since OpenCL 1.2.
+     */
+    public boolean isMigrateMemObjectsSupported() {
+        final CL binding = getDeviceCLBinding();
+        return binding instanceof CL12 || binding instanceof CL20;
+    }
+
+    private CL getDeviceCLBinding() {
+        if(deviceCL == null) {
+            deviceCL = CLPlatform.getLowLevelCLInterfaceForDevice(device.ID);
+        }
+        return deviceCL;
+    }
+
     /**
      * Calls {@native clEnqueueMarker}.
      */
     public CLCommandQueue putMarker(final CLEventList events) {
-        final int ret = cl.clEnqueueMarker(ID, events.IDs);
+        final int ret = cl.clEnqueueMarker(ID, beginCommand(events));
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue marker " + events);
         }
-        events.createEvent(context);
+        endCommand(CommandType.MARKER, null, events);
         return this;
     }
 
@@ -1448,13 +1538,13 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
-        final int ret = cl.clEnqueueTask(ID, kernel.ID, conditions, conditionIDs, events==null ? null : events.IDs);
+        final PointerBuffer eventIDs = beginCommand(events);
+        final int ret = cl.clEnqueueTask(ID, kernel.ID, conditions, conditionIDs, eventIDs);
         if(ret != CL_SUCCESS) {
             checkForError(ret, "can not enqueue Task: " + kernel + toStr(condition, events));
         }
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.TASK, kernel.name, events);
+        kernelEnqueued(kernel, 1, null, null);
         return this;
     }
 
@@ -1625,13 +1715,14 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueNDRangeKernel(
                 ID, kernel.ID, workDimension,
                 globalWorkOffset,
                 globalWorkSize,
                 localWorkSize,
                 conditions, conditionIDs,
-                events==null ? null : events.IDs);
+                eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not enqueue "+workDimension+"DRange " + kernel+ "\n"
@@ -1641,9 +1732,8 @@ public class CLCommandQueue extends CLObjectResource {
                     + " " + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.NDRANGE_KERNEL, kernel.name, events);
+        kernelEnqueued(kernel, workDimension, globalWorkSize, localWorkSize);
 
         return this;
     }
@@ -1700,17 +1790,16 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueAcquireGLObjects(ID, glObjectIDs.remaining(), glObjectIDs,
                     conditions, conditionIDs,
-                    events==null ? null : events.IDs);
+                    eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not aquire " + glObjectIDs + " with " + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.ACQUIRE_GL_OBJECTS, null, events);
 
         return this;
     }
@@ -1767,17 +1856,16 @@ public class CLCommandQueue extends CLObjectResource {
             conditions   = condition.size;
         }
 
+        final PointerBuffer eventIDs = beginCommand(events);
         final int ret = cl.clEnqueueReleaseGLObjects(ID, glObjectIDs.remaining(), glObjectIDs,
                 conditions, conditionIDs,
-                events==null ? null : events.IDs);
+                eventIDs);
 
         if(ret != CL_SUCCESS) {
             throw newException(ret, "can not release " + glObjectIDs + "with " + toStr(condition, events));
         }
 
-        if(events != null) {
-            events.createEvent(context);
-        }
+        endCommand(CommandType.RELEASE_GL_OBJECTS, null, events);
 
         return this;
     }
@@ -1786,8 +1874,16 @@ public class CLCommandQueue extends CLObjectResource {
      * Calls {@native clFinish}.
      */
     public CLCommandQueue finish() {
+        final CLCommandListener[] current = listeners;
+        final long start = current.length == 0 ? 0 : System.nanoTime();
         final int ret = cl.clFinish(ID);
         checkForError(ret, "can not finish command queue");
+        if(current.length != 0) {
+            final long end = System.nanoTime();
+            for (final CLCommandListener listener : current) {
+                listener.waitCompleted(this, start, end);
+            }
+        }
         return this;
     }
 
@@ -1800,6 +1896,128 @@ public class CLCommandQueue extends CLObjectResource {
         return this;
     }
 
+    /**
+     * Adds a listener receiving all commands enqueued on this queue and all {@link #finish()} waits.
+     * If profiling is {@link #isProfilingEnabled() enabled} and a listener {@link CLCommandListener#needsCompletion()
+     * needs completion} every command is enqueued with an event, internal events are created for commands enqueued
+     * without event list.
+     * Queues without listeners are not affected.
+     */
+    public synchronized void addCommandListener(final CLCommandListener listener) {
+        if(listener == null) {
+            throw new NullPointerException("listener was null");
+        }
+        listeners = add(listeners, listener);
+        if(listener.needsCompletion()) {
+            completionListeners = add(completionListeners, listener);
+        }
+    }
+
+    public synchronized void removeCommandListener(final CLCommandListener listener) {
+        listeners = remove(listeners, listener);
+        completionListeners = remove(completionListeners, listener);
+    }
+
+    private static CLCommandListener[] add(final CLCommandListener[] array, final CLCommandListener listener) {
+        final CLCommandListener[] copy = Arrays.copyOf(array, array.length+1);
+        copy[array.length] = listener;
+        return copy;
+    }
+
+    private static CLCommandListener[] remove(final CLCommandListener[] array, final CLCommandListener listener) {
+        final List<CLCommandListener> list = new ArrayList<CLCommandListener>(Arrays.asList(array));
+        if(!list.remove(listener)) {
+            return array;
+        }
+        return list.isEmpty() ? NO_LISTENERS : list.toArray(new CLCommandListener[list.size()]);
+    }
+
+    /**
+     * Prepares the enqueue of a command and returns the event id buffer the command has to be enqueued with.
+     * Reads the listeners once, if there are listeners the enqueue time is taken. Commands of profiling queues
+     * enqueued without event list get the internal event id buffer only if a listener needs completion.
+     * Must be followed by {@link #endCommand} after the command has been enqueued successfully.
+     */
+    private PointerBuffer beginCommand(final CLEventList events) {
+        final CLCommandListener[] current = listeners;
+        commandListeners = current;
+        if(current.length == 0) {
+            return events == null ? null : events.IDs;
+        }
+        final CLCommandListener[] completion = completionListeners;
+        commandCompletionListeners = completion;
+        commandStart = System.nanoTime();
+        if(events == null) {
+            return completion.length != 0 && isProfilingEnabled() ? traceID : null;
+        }
+        return events.IDs;
+    }
+
+    /**
+     * Creates the event of the command enqueued after {@link #beginCommand} and notifies the listeners.
+     */
+    private void endCommand(final CommandType type, final String name, final CLEventList events) {
+        if(events != null) {
+            events.createEvent(context);
+        }
+        final CLCommandListener[] current = commandListeners;
+        if(current.length != 0) {
+            commandEnqueued(current, commandCompletionListeners, type, name, commandStart, events);
+        }
+    }
+
+    /**
+     * Passes the work sizes of the kernel command ended by {@link #endCommand} to the listeners.
+     */
+    private void kernelEnqueued(final CLKernel kernel, final int workDimension, final PointerBuffer globalWorkSize, final PointerBuffer localWorkSize) {
+        for (final CLCommandListener listener : commandListeners) {
+            listener.kernelEnqueued(this, kernel, workDimension, globalWorkSize, localWorkSize);
+        }
+    }
+
+    /**
+     * Notifies the listeners and registers a completion callback collecting the profiling info of the command
+     * if a listener needs completion.
+     */
+    private void commandEnqueued(final CLCommandListener[] current, final CLCommandListener[] completion, final CommandType type,
+                                 final String name, final long enqueued, final CLEventList events) {
+
+        final long end = System.nanoTime();
+        for (final CLCommandListener listener : current) {
+            listener.commandEnqueued(this, type, name, enqueued, end);
+        }
+
+        if(completion.length == 0 || !isProfilingEnabled()) {
+            return;
+        }
+        final long id;
+        if(events != null) {
+            // the caller owns this event and may release it any time, keep a reference of our own
+            id = events.getEvent(events.size()-1).ID;
+            checkForError(cl.clRetainEvent(id), "can not retain event");
+        }else{
+            id = traceID.get(0);
+        }
+        new CLEvent(context, id).registerCallback(new CLEventListener() {
+            @Override
+            public void eventStateChanged(final CLEvent e, final int status) {
+                try{
+                    if(status == CLEvent.ExecutionStatus.COMPLETE.STATUS) {
+                        final long queued = e.getProfilingInfo(CLEvent.ProfilingCommand.QUEUED);
+                        final long submit = e.getProfilingInfo(CLEvent.ProfilingCommand.SUBMIT);
+                        final long start  = e.getProfilingInfo(CLEvent.ProfilingCommand.START);
+                        final long end    = e.getProfilingInfo(CLEvent.ProfilingCommand.END);
+                        for (final CLCommandListener listener : completion) {
+                            listener.commandCompleted(CLCommandQueue.this, type, name, enqueued, queued, submit, start, end);
+                        }
+                    }
+                }finally{
+                    e.release();
+                }
+            }
+        });
+    }
+
     /**
      * Returns true only when {@link Mode#PROFILING_MODE} has been enabled.
      */
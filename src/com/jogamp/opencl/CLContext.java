@@ -40,6 +40,7 @@ import java.nio.IntBuffer;
 import java.nio.LongBuffer;
 import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -57,6 +58,7 @@ import com.jogamp.opencl.CLSampler.AddressingMode;
 import com.jogamp.opencl.CLSampler.FilteringMode;
 import com.jogamp.opencl.llb.CL;
 import com.jogamp.opencl.llb.impl.CLImageFormatImpl;
+import com.jogamp.opencl.util.CLDeviceProfiler;
 
 /**
  * CLContext is responsible for managing objects such as command-queues, memory,
@@ -90,6 +92,9 @@ public class CLContext extends CLObjectResource {
 
     private final ErrorDispatcher errorHandler;
 
+    private static final CLCommandListener[] NO_LISTENERS = new CLCommandListener[0];
+    private volatile CLCommandListener[] listeners = NO_LISTENERS;
+
     protected CLContext(final CLPlatform platform, final long contextID, final ErrorDispatcher dispatcher) {
         super(contextID);
         this.platform = platform;
@@ -347,7 +352,7 @@ public class CLContext extends CLObjectResource {
      */
     public final CLBuffer<?> createBuffer(final int size, final int flags) {
         final CLBuffer<?> buffer = CLBuffer.create(this, size, flags);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
@@ -363,7 +368,7 @@ public class CLContext extends CLObjectResource {
      */
     public final <B extends Buffer> CLBuffer<B> createBuffer(final B directBuffer, final int flags) {
         final CLBuffer<B> buffer = CLBuffer.create(this, directBuffer, flags);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
@@ -393,7 +398,7 @@ public class CLContext extends CLObjectResource {
      */
     public final <B extends Buffer> CLImage2d<B> createImage2d(final B directBuffer, final int width, final int height, final int rowPitch, final CLImageFormat format, final Mem... flags) {
         final CLImage2d<B> image = CLImage2d.createImage(this, directBuffer, width, height, rowPitch, format, Mem.flagsToInt(flags));
-        memoryObjects.add(image);
+        onMemoryCreated(image);
         return image;
     }
 
@@ -423,7 +428,7 @@ public class CLContext extends CLObjectResource {
      */
     public final <B extends Buffer> CLImage3d<B> createImage3d(final B directBuffer, final int width, final int height, final int depth, final int rowPitch, final int slicePitch, final CLImageFormat format, final Mem... flags) {
         final CLImage3d<B> image = CLImage3d.createImage(this, directBuffer, width, height, depth, rowPitch, slicePitch, format, Mem.flagsToInt(flags));
-        memoryObjects.add(image);
+        onMemoryCreated(image);
         return image;
     }
 
@@ -438,6 +443,9 @@ public class CLContext extends CLObjectResource {
                 queuesMap.put(device, list);
             }
             list.add(queue);
+            for (final CLCommandListener listener : listeners) {
+                queue.addCommandListener(listener);
+            }
         }
 
         return queue;
@@ -453,8 +461,21 @@ public class CLContext extends CLObjectResource {
         programs.remove(program);
     }
 
+    /**
+     * Registers a memory object created by this context.
+     */
+    protected void onMemoryCreated(final CLMemory<?> buffer) {
+        memoryObjects.add(buffer);
+        for (final CLCommandListener listener : listeners) {
+            listener.memoryCreated(buffer);
+        }
+    }
+
     void onMemoryReleased(final CLMemory<?> buffer) {
         memoryObjects.remove(buffer);
+        for (final CLCommandListener listener : listeners) {
+            listener.memoryReleased(buffer);
+        }
     }
 
     void onCommandQueueReleased(final CLDevice device, final CLCommandQueue queue) {
@@ -479,6 +500,45 @@ public class CLContext extends CLObjectResource {
         errorHandler.removeHandler(handler);
     }
 
+    /**
+     * Adds a listener receiving the program builds and memory objects of this context and, like
+     * {@link CLCommandQueue#addCommandListener(CLCommandListener)}, the commands of all current and future queues.
+     * Contexts without listeners are not affected.
+     */
+    public void addCommandListener(final CLCommandListener listener) {
+        if(listener == null) {
+            throw new NullPointerException("listener was null");
+        }
+        synchronized(queuesMap) {
+            final CLCommandListener[] copy = Arrays.copyOf(listeners, listeners.length+1);
+            copy[listeners.length] = listener;
+            listeners = copy;
+            for (final List<CLCommandQueue> queues : queuesMap.values()) {
+                for (final CLCommandQueue queue : queues) {
+                    queue.addCommandListener(listener);
+                }
+            }
+        }
+    }
+
+    public void removeCommandListener(final CLCommandListener listener) {
+        synchronized(queuesMap) {
+            final List<CLCommandListener> list = new ArrayList<CLCommandListener>(Arrays.asList(listeners));
+            if(list.remove(listener)) {
+                listeners = list.isEmpty() ? NO_LISTENERS : list.toArray(new CLCommandListener[list.size()]);
+                for (final List<CLCommandQueue> queues : queuesMap.values()) {
+                    for (final CLCommandQueue queue : queues) {
+                        queue.removeCommandListener(listener);
+                    }
+                }
+            }
+        }
+    }
+
+    CLCommandListener[] getCommandListeners() {
+        return listeners;
+    }
+
     private void release(final Collection<? extends CLResource> resources) {
         // resources remove themselves when released, see above
         while(!resources.isEmpty()) {
@@ -540,8 +600,8 @@ public class CLContext extends CLObjectResource {
 
         final ByteBuffer buffer = impl.getBuffer();
         for (int i = 0; i < formats.length; i++) {
-            formats[i] = new CLImageFormat(CLImageFormatImpl.create(buffer.slice()));
             buffer.position(i*CLImageFormatImpl.size());
+            formats[i] = new CLImageFormat(CLImageFormatImpl.create(buffer.slice()));
         }
 
         return formats;
@@ -621,6 +681,14 @@ public class CLContext extends CLObjectResource {
         return CLPlatform.findMaxFlopsDevice(getDevices(), type);
     }
 
+    /**
+     * Returns the device with the highest measured FLOPS from this context.
+     * @see CLPlatform#getMaxFlopsDevice(CLDeviceProfiler, com.jogamp.opencl.util.Filter[])
+     */
+    public CLDevice getMaxFlopsDevice(final CLDeviceProfiler profiler) {
+        return CLPlatform.findMeasuredMaxFlopsDevice(getDevices(), profiler);
+    }
+
     /**
      * Returns the maximum {@link CLDevice#getMemBaseAddrAlign()} of all devices.
      */
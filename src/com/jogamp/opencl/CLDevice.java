@@ -29,6 +29,7 @@
 package com.jogamp.opencl;
 
 import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -38,7 +39,11 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.nio.PointerBuffer;
 import com.jogamp.opencl.llb.CL;
+import com.jogamp.opencl.llb.CL12;
+import com.jogamp.opencl.llb.CL20;
 import com.jogamp.opencl.spi.CLInfoAccessor;
 import com.jogamp.opencl.util.CLUtil;
 
@@ -54,19 +59,71 @@ public class CLDevice extends CLObject {
 
     private Set<String> extensions;
 
-    private final CLInfoAccessor deviceInfo;
+    private final CLSnapshotAccessor deviceInfo;
     private final CLPlatform platform;
 
     protected CLDevice(final CLPlatform platform, final long id) {
         super(id);
         this.platform = platform;
-        this.deviceInfo = platform.getAccessorFactory().createDeviceInfoAccessor(platform.getCLBinding(), id);
+        this.deviceInfo = createInfoAccessor(platform, id);
     }
 
     protected CLDevice(final CLContext context, final long id) {
         super(context, id);
         this.platform = context.getPlatform();
-        this.deviceInfo = platform.getAccessorFactory().createDeviceInfoAccessor(platform.getCLBinding(), id);
+        this.deviceInfo = createInfoAccessor(platform, id);
+    }
+
+    private static CLSnapshotAccessor createInfoAccessor(final CLPlatform platform, final long id) {
+        final CLInfoAccessor live = platform.getAccessorFactory().createDeviceInfoAccessor(platform.getCLBinding(), id);
+        return new CLSnapshotAccessor(live, id, CLSnapshotAccessor.DEVICES);
+    }
+
+    /**
+     * Fetches all static properties of this device in one pass and returns them as immutable snapshot.
+     * Subsequent calls to the property getters of all device objects representing this device are served
+     * from the snapshot without native calls. Returns the existing snapshot if one has already been taken.
+     * @see #restore(CLInfoSnapshot)
+     */
+    public CLInfoSnapshot snapshot() {
+        final CLInfoSnapshot.Recorder recorder = new CLInfoSnapshot.Recorder(
+                deviceInfo.getLiveAccessor(), true, CL.CL_DEVICE_NAME, CL.CL_DEVICE_AVAILABLE);
+        return deviceInfo.take(recorder, new CLSnapshotAccessor.PropertySource() {
+            @Override
+            public Map<String, String> getProperties() {
+                return CLDevice.this.getProperties();
+            }
+        });
+    }
+
+    /**
+     * Serves the property getters of this device from the given snapshot, typically a snapshot
+     * of a previous run which has been deserialized.
+     * <p>
+     * No native call is made, the snapshot is trusted to describe this device. Device IDs are only valid
+     * within one process, snapshots of a warm start are therefore matched with the devices by discovery order:
+     * <pre>
+     *     CLDevice[] devices = platform.listCLDevices();
+     *     for (int i = 0; i &lt; devices.length; i++) {
+     *         devices[i].restore(snapshots[i]);
+     *     }
+     * </pre>
+     * </p>
+     * @throws IllegalArgumentException if the snapshot is not a device snapshot.
+     */
+    public void restore(final CLInfoSnapshot snapshot) {
+        if(!snapshot.isDeviceSnapshot()) {
+            throw new IllegalArgumentException(snapshot+" is not a device snapshot");
+        }
+        deviceInfo.restore(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of this device or null if no snapshot has been taken.
+     * @see #snapshot()
+     */
+    public CLInfoSnapshot getSnapshot() {
+        return deviceInfo.current();
     }
 
     public CLCommandQueue createCommandQueue() {
@@ -701,6 +758,156 @@ public class CLDevice extends CLObject {
         return extensions;
     }
 
+    /**
+     * Returns the maximum number of sub devices this device can be partitioned into
+     * or 0 if the device does not support partitioning.
+     * @see #partitionEqually(int)
+     */
+    @CLProperty("CL_DEVICE_PARTITION_MAX_SUB_DEVICES")
+    public int getMaxSubDevices() {
+        if(!getVersion().isAtLeast(CLVersion.CL_1_2)) {
+            return 0;
+        }
+        return (int)deviceInfo.getUInt32Long(CL12.CL_DEVICE_PARTITION_MAX_SUB_DEVICES);
+    }
+
+    /**
+     * Returns the affinity domains supported by {@link #partitionByAffinityDomain}.
+     */
+    @CLProperty("CL_DEVICE_PARTITION_AFFINITY_DOMAIN")
+    public EnumSet<AffinityDomain> getPartitionAffinityDomains() {
+        if(!getVersion().isAtLeast(CLVersion.CL_1_2)) {
+            return EnumSet.noneOf(AffinityDomain.class);
+        }
+        return AffinityDomain.valuesOf(deviceInfo.getLong(CL12.CL_DEVICE_PARTITION_AFFINITY_DOMAIN));
+    }
+
+    /**
+     * Returns the device this sub device was partitioned from or null if this is a root device.
+     */
+    public CLDevice getParentDevice() {
+        if(!getVersion().isAtLeast(CLVersion.CL_1_2)) {
+            return null;
+        }
+        final long parent = deviceInfo.getLong(CL12.CL_DEVICE_PARENT_DEVICE);
+        return parent == 0 ? null : new CLDevice(platform, parent);
+    }
+
+    /**
+     * Returns true if this device is a sub device created by partitioning another device.
+     */
+    public boolean isSubDevice() {
+        return getParentDevice() != null;
+    }
+
+    /**
+     * Partitions this device into as many sub devices as possible, each with the given number of compute units.
+     * Calls {@native clCreateSubDevices} with CL_DEVICE_PARTITION_EQUALLY, requires OpenCL 1.2.
+     * <p>
+     * Sub devices can be used like root devices, e.g. with {@link CLContext#create(CLDevice...)}
+     * or a {@link com.jogamp.opencl.util.CLMultiContext}, and should be released
+     * with {@link #releaseSubDevice()} when they are no longer used. Like listed devices they are not
+     * associated with a context, command queues can be created once a context was created with them.
+     * </p>
+     */
+    public CLDevice[] partitionEqually(final int computeUnits) {
+        if(computeUnits <= 0) {
+            throw new IllegalArgumentException("computeUnits must be positive but was "+computeUnits);
+        }
+        return createSubDevices(CL12.CL_DEVICE_PARTITION_EQUALLY, computeUnits, 0);
+    }
+
+    /**
+     * Partitions this device into one sub device per count with the given number of compute units each.
+     * Calls {@native clCreateSubDevices} with CL_DEVICE_PARTITION_BY_COUNTS, requires OpenCL 1.2.
+     * @see #partitionEqually(int)
+     */
+    public CLDevice[] partitionByCounts(final int... computeUnits) {
+        if(computeUnits.length == 0) {
+            throw new IllegalArgumentException("computeUnits was empty");
+        }
+        final long[] properties = new long[computeUnits.length+3];
+        properties[0] = CL12.CL_DEVICE_PARTITION_BY_COUNTS;
+        for (int i = 0; i < computeUnits.length; i++) {
+            if(computeUnits[i] <= 0) {
+                throw new IllegalArgumentException("computeUnits must be positive but was "+computeUnits[i]);
+            }
+            properties[i+1] = computeUnits[i];
+        }
+        properties[computeUnits.length+1] = CL12.CL_DEVICE_PARTITION_BY_COUNTS_LIST_END;
+        properties[computeUnits.length+2] = 0;
+        return createSubDevices(properties);
+    }
+
+    /**
+     * Partitions this device into one sub device per affinity domain, for example one per NUMA node or shared L3 cache.
+     * Calls {@native clCreateSubDevices} with CL_DEVICE_PARTITION_BY_AFFINITY_DOMAIN, requires OpenCL 1.2.
+     * @see #getPartitionAffinityDomains()
+     * @see #partitionEqually(int)
+     */
+    public CLDevice[] partitionByAffinityDomain(final AffinityDomain domain) {
+        return createSubDevices(CL12.CL_DEVICE_PARTITION_BY_AFFINITY_DOMAIN, domain.DOMAIN, 0);
+    }
+
+    private CLDevice[] createSubDevices(final long... properties) {
+
+        final PointerBuffer props = PointerBuffer.allocateDirect(properties.length);
+        for (final long property : properties) {
+            props.put(property);
+        }
+        props.rewind();
+
+        final CL binding = getDeviceCLBinding();
+        final IntBuffer count = Buffers.newDirectIntBuffer(1);
+        int ret = createSubDevices(binding, props, 0, null, count);
+        CLException.checkForError(ret, "can not partition "+this);
+
+        final PointerBuffer ids = PointerBuffer.allocateDirect(count.get(0));
+        ret = createSubDevices(binding, props, count.get(0), ids, null);
+        CLException.checkForError(ret, "can not partition "+this);
+
+        final CLDevice[] devices = new CLDevice[count.get(0)];
+        for (int i = 0; i < devices.length; i++) {
+            devices[i] = new CLDevice(platform, ids.get(i));
+        }
+        return devices;
+    }
+
+    private int createSubDevices(final CL binding, final PointerBuffer properties, final int count, final PointerBuffer ids, final IntBuffer countRet) {
+        if(binding instanceof CL12) {
+            return ((CL12)binding).clCreateSubDevices(ID, properties, count, ids, countRet);
+        }else if(binding instanceof CL20) {
+            return ((CL20)binding).clCreateSubDevices(ID, properties, count, ids, countRet);
+        }
+        throw new UnsupportedOperationException("device partitioning requires OpenCL 1.2 but device version is "+getVersion());
+    }
+
+    /**
+     * Releases this sub device. Contexts created with this device keep it alive until they are released.
+     * Calls {@native clReleaseDevice}.
+     * @throws IllegalStateException if this is not a sub device.
+     */
+    public void releaseSubDevice() {
+        if(!isSubDevice()) {
+            throw new IllegalStateException(this+" is not a sub device");
+        }
+        final CL binding = getDeviceCLBinding();
+        final int ret;
+        if(binding instanceof CL12) {
+            ret = ((CL12)binding).clReleaseDevice(ID);
+        }else if(binding instanceof CL20) {
+            ret = ((CL20)binding).clReleaseDevice(ID);
+        }else{
+            throw new UnsupportedOperationException("can not release sub device, device version is "+getVersion());
+        }
+        CLException.checkForError(ret, "can not release "+this);
+        deviceInfo.forget();
+    }
+
+    private CL getDeviceCLBinding() {
+        return CLPlatform.getLowLevelCLInterfaceForDevice(ID);
+    }
+
     /**
      * Returns a Map of device properties with the enum names as keys.
      * @see CLUtil#obtainDeviceProperties(com.jogamp.opencl.CLDevice)
@@ -743,6 +950,64 @@ public class CLDevice extends CLObject {
         return hash;
     }
 
+    /**
+     * Enumeration for the affinity domains a device can be partitioned by.
+     * @see CLDevice#partitionByAffinityDomain(AffinityDomain)
+     */
+    public enum AffinityDomain {
+
+        /**
+         * Split the device into sub devices sharing a NUMA node.
+         */
+        NUMA(CL12.CL_DEVICE_AFFINITY_DOMAIN_NUMA),
+
+        /**
+         * Split the device into sub devices sharing a level 4 data cache.
+         */
+        L4_CACHE(CL12.CL_DEVICE_AFFINITY_DOMAIN_L4_CACHE),
+
+        /**
+         * Split the device into sub devices sharing a level 3 data cache.
+         */
+        L3_CACHE(CL12.CL_DEVICE_AFFINITY_DOMAIN_L3_CACHE),
+
+        /**
+         * Split the device into sub devices sharing a level 2 data cache.
+         */
+        L2_CACHE(CL12.CL_DEVICE_AFFINITY_DOMAIN_L2_CACHE),
+
+        /**
+         * Split the device into sub devices sharing a level 1 data cache.
+         */
+        L1_CACHE(CL12.CL_DEVICE_AFFINITY_DOMAIN_L1_CACHE),
+
+        /**
+         * Split the device along the next partitionable affinity domain,
+         * the first of NUMA, L4, L3, L2 and L1 the device supports.
+         */
+        NEXT_PARTITIONABLE(CL12.CL_DEVICE_AFFINITY_DOMAIN_NEXT_PARTITIONABLE);
+
+        /**
+         * Value of wrapped OpenCL affinity domain.
+         */
+        public final int DOMAIN;
+
+        private AffinityDomain(final int domain) {
+            this.DOMAIN = domain;
+        }
+
+        public static EnumSet<AffinityDomain> valuesOf(final long bitfield) {
+            final EnumSet<AffinityDomain> set = EnumSet.noneOf(AffinityDomain.class);
+            for (final AffinityDomain domain : values()) {
+                if((domain.DOMAIN & bitfield) != 0) {
+                    set.add(domain);
+                }
+            }
+            return set;
+        }
+
+    }
+
     /**
      * Enumeration for the execution capabilities of the device.
      */
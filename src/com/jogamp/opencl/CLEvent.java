@@ -30,6 +30,7 @@ package com.jogamp.opencl;
 
 import com.jogamp.opencl.impl.CLTLInfoAccessor;
 import com.jogamp.opencl.llb.CL;
+import com.jogamp.opencl.llb.CL12;
 import com.jogamp.opencl.llb.impl.CLEventCallback;
 import com.jogamp.common.nio.PointerBuffer;
 import java.nio.Buffer;
@@ -297,7 +298,8 @@ public class CLEvent extends CLObjectResource {
         USER(CL_COMMAND_USER),
         ACQUIRE_GL_OBJECTS(CL_COMMAND_ACQUIRE_GL_OBJECTS),
         RELEASE_GL_OBJECTS(CL_COMMAND_RELEASE_GL_OBJECTS),
-        GL_FENCE_SYNC_OBJECT_KHR(CL_COMMAND_GL_FENCE_SYNC_OBJECT_KHR);
+        GL_FENCE_SYNC_OBJECT_KHR(CL_COMMAND_GL_FENCE_SYNC_OBJECT_KHR),
+        MIGRATE_MEM_OBJECTS(CL12.CL_COMMAND_MIGRATE_MEM_OBJECTS);
 
         /**
          * Value of wrapped OpenCL command type.
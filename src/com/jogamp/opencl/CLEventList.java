@@ -30,7 +30,11 @@ package com.jogamp.opencl;
 
 import com.jogamp.common.nio.CachedBufferFactory;
 import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.llb.CL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Fixed size list for storing CLEvents.
@@ -38,6 +42,9 @@ import java.util.Iterator;
  */
 public final class CLEventList implements CLResource, AutoCloseable, Iterable<CLEvent> {
 
+    private static final CLCommandListener[] NO_LISTENERS = new CLCommandListener[0];
+    private static volatile CLCommandListener[] waitListeners = NO_LISTENERS;
+
     private final CLEvent[] events;
 
     /**
@@ -108,7 +115,7 @@ public final class CLEventList implements CLResource, AutoCloseable, Iterable<CL
      */
     public void waitForEvents() {
         if(size > 0) {
-            events[0].getPlatform().getCLBinding().clWaitForEvents(size, IDsView);
+            waitFor(events[0].getPlatform().getCLBinding(), size, IDsView);
         }
     }
 
@@ -122,7 +129,7 @@ public final class CLEventList implements CLResource, AutoCloseable, Iterable<CL
         }
 
         final PointerBuffer view = getEventBuffer(start);
-        getEvent(start).getPlatform().getCLBinding().clWaitForEvents(range, view);
+        waitFor(getEvent(start).getPlatform().getCLBinding(), range, view);
     }
 
     /**
@@ -130,7 +137,38 @@ public final class CLEventList implements CLResource, AutoCloseable, Iterable<CL
      */
     public void waitForEvent(final int index) {
         final PointerBuffer view = getEventBuffer(index);
-        getEvent(index).getPlatform().getCLBinding().clWaitForEvents(1, view);
+        waitFor(getEvent(index).getPlatform().getCLBinding(), 1, view);
+    }
+
+    private static void waitFor(final CL cl, final int count, final PointerBuffer ids) {
+        final CLCommandListener[] current = waitListeners;
+        final long start = current.length == 0 ? 0 : System.nanoTime();
+        cl.clWaitForEvents(count, ids);
+        if(current.length != 0) {
+            final long end = System.nanoTime();
+            for (final CLCommandListener listener : current) {
+                listener.waitCompleted(null, start, end);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener receiving all blocking waits of all event lists.
+     */
+    public static synchronized void addWaitListener(final CLCommandListener listener) {
+        if(listener == null) {
+            throw new NullPointerException("listener was null");
+        }
+        final CLCommandListener[] copy = Arrays.copyOf(waitListeners, waitListeners.length+1);
+        copy[waitListeners.length] = listener;
+        waitListeners = copy;
+    }
+
+    public static synchronized void removeWaitListener(final CLCommandListener listener) {
+        final List<CLCommandListener> list = new ArrayList<CLCommandListener>(Arrays.asList(waitListeners));
+        if(list.remove(listener)) {
+            waitListeners = list.isEmpty() ? NO_LISTENERS : list.toArray(new CLCommandListener[list.size()]);
+        }
     }
 
     /**
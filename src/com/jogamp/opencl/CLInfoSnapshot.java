@@ -0,0 +1,265 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl;
+
+import com.jogamp.opencl.spi.CLInfoAccessor;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the static info properties of a {@link CLDevice} or {@link CLPlatform}.
+ * <p>
+ * A snapshot is taken in one pass over all {@link CLProperty} getters. Once taken, the getters of all
+ * device or platform objects with the same ID are served from the snapshot without native calls.
+ * Snapshots are serializable and can be {@link CLDevice#restore(CLInfoSnapshot) restored} on a later run
+ * to skip querying the properties again.
+ * </p>
+ * @see CLDevice#snapshot()
+ * @see CLPlatform#snapshot()
+ */
+public final class CLInfoSnapshot implements CLInfoAccessor, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean device;
+    private final int nameKey;
+
+    private final int[] longKeys;
+    private final long[] longValues;
+    private final int[] uintKeys;
+    private final long[] uintValues;
+    private final int[] stringKeys;
+    private final String[] stringValues;
+    private final int[] intsKeys;
+    private final int[][] intsValues;
+
+    private final Map<String, String> properties;
+
+    private CLInfoSnapshot(final Recorder recorder, final Map<String, String> properties) {
+        this.device = recorder.device;
+        this.nameKey = recorder.nameKey;
+
+        this.longKeys = keys(recorder.longs);
+        this.longValues = new long[longKeys.length];
+        for (int i = 0; i < longKeys.length; i++) {
+            longValues[i] = recorder.longs.get(longKeys[i]);
+        }
+        this.uintKeys = keys(recorder.uints);
+        this.uintValues = new long[uintKeys.length];
+        for (int i = 0; i < uintKeys.length; i++) {
+            uintValues[i] = recorder.uints.get(uintKeys[i]);
+        }
+        this.stringKeys = keys(recorder.strings);
+        this.stringValues = new String[stringKeys.length];
+        for (int i = 0; i < stringKeys.length; i++) {
+            stringValues[i] = recorder.strings.get(stringKeys[i]);
+        }
+        this.intsKeys = keys(recorder.ints);
+        this.intsValues = new int[intsKeys.length][];
+        for (int i = 0; i < intsKeys.length; i++) {
+            intsValues[i] = recorder.ints.get(intsKeys[i]);
+        }
+
+        this.properties = Collections.unmodifiableMap(new TreeMap<String, String>(properties));
+    }
+
+    private static int[] keys(final Map<Integer, ?> map) {
+        final int[] keys = new int[map.size()];
+        int i = 0;
+        for (final Integer key : map.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Returns true if this is a snapshot of a device, false if it is a snapshot of a platform.
+     */
+    public boolean isDeviceSnapshot() {
+        return device;
+    }
+
+    /**
+     * Returns the device or platform name stored in this snapshot.
+     */
+    public String getName() {
+        final int index = Arrays.binarySearch(stringKeys, nameKey);
+        return index < 0 ? null : stringValues[index];
+    }
+
+    /**
+     * Returns the properties of the device or platform with the {@link CLProperty} names as keys.
+     * @see CLDevice#getProperties()
+     * @see CLPlatform#getProperties()
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns true if the value of the given key is part of this snapshot.
+     */
+    public boolean contains(final int key) {
+        return Arrays.binarySearch(longKeys, key) >= 0 || Arrays.binarySearch(uintKeys, key) >= 0
+            || Arrays.binarySearch(stringKeys, key) >= 0 || Arrays.binarySearch(intsKeys, key) >= 0;
+    }
+
+    // lookups used by the accessors, index < 0 if the key is not cached
+
+    int indexOfLong(final int key) {
+        return Arrays.binarySearch(longKeys, key);
+    }
+
+    long longAt(final int index) {
+        return longValues[index];
+    }
+
+    int indexOfUInt32(final int key) {
+        return Arrays.binarySearch(uintKeys, key);
+    }
+
+    long uint32At(final int index) {
+        return uintValues[index];
+    }
+
+    int indexOfString(final int key) {
+        return Arrays.binarySearch(stringKeys, key);
+    }
+
+    String stringAt(final int index) {
+        return stringValues[index];
+    }
+
+    int indexOfInts(final int key, final int n) {
+        final int index = Arrays.binarySearch(intsKeys, key);
+        return (index >= 0 && intsValues[index].length == n) ? index : -1;
+    }
+
+    int[] intsAt(final int index) {
+        return intsValues[index].clone();
+    }
+
+    @Override
+    public long getLong(final int key) {
+        final int index = indexOfLong(key);
+        if(index < 0) {
+            throw missing(key);
+        }
+        return longValues[index];
+    }
+
+    @Override
+    public long getUInt32Long(final int key) {
+        final int index = indexOfUInt32(key);
+        if(index < 0) {
+            throw missing(key);
+        }
+        return uintValues[index];
+    }
+
+    @Override
+    public String getString(final int key) {
+        final int index = indexOfString(key);
+        if(index < 0) {
+            throw missing(key);
+        }
+        return stringValues[index];
+    }
+
+    @Override
+    public int[] getInts(final int key, final int n) {
+        final int index = indexOfInts(key, n);
+        if(index < 0) {
+            throw missing(key);
+        }
+        return intsAt(index);
+    }
+
+    private IllegalArgumentException missing(final int key) {
+        return new IllegalArgumentException("property 0x"+Integer.toHexString(key)+" is not part of this snapshot");
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" ["+(device ? "device" : "platform")+": "+getName()
+                +" properties: "+(longKeys.length+uintKeys.length+stringKeys.length+intsKeys.length)+"]";
+    }
+
+    /**
+     * Accessor delegating to the live accessor and recording all static values.
+     */
+    static final class Recorder implements CLInfoAccessor {
+
+        private final CLInfoAccessor live;
+        private final boolean device;
+        private final int nameKey;
+        private final Set<Integer> dynamicKeys;
+
+        private final Map<Integer, Long> longs = new TreeMap<Integer, Long>();
+        private final Map<Integer, Long> uints = new TreeMap<Integer, Long>();
+        private final Map<Integer, String> strings = new TreeMap<Integer, String>();
+        private final Map<Integer, int[]> ints = new TreeMap<Integer, int[]>();
+
+        Recorder(final CLInfoAccessor live, final boolean device, final int nameKey, final int... dynamicKeys) {
+            this.live = live;
+            this.device = device;
+            this.nameKey = nameKey;
+            this.dynamicKeys = new HashSet<Integer>();
+            for (final int key : dynamicKeys) {
+                this.dynamicKeys.add(key);
+            }
+        }
+
+        @Override
+        public synchronized long getLong(final int key) {
+            final long value = live.getLong(key);
+            if(!dynamicKeys.contains(key)) {
+                longs.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized long getUInt32Long(final int key) {
+            final long value = live.getUInt32Long(key);
+            if(!dynamicKeys.contains(key)) {
+                uints.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized String getString(final int key) {
+            final String value = live.getString(key);
+            if(!dynamicKeys.contains(key)) {
+                strings.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized int[] getInts(final int key, final int n) {
+            final int[] value = live.getInts(key, n);
+            if(!dynamicKeys.contains(key)) {
+                ints.put(key, value.clone());
+            }
+            return value;
+        }
+
+        synchronized CLInfoSnapshot toSnapshot(final Map<String, String> properties) {
+            // the name is always part of the snapshot, applications match snapshots and devices with it
+            if(!strings.containsKey(nameKey)) {
+                strings.put(nameKey, live.getString(nameKey));
+            }
+            return new CLInfoSnapshot(this, properties);
+        }
+    }
+
+}
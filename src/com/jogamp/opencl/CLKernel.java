@@ -110,6 +110,12 @@ public class CLKernel extends CLObjectResource implements Cloneable {
         return this;
     }
 
+    public CLKernel putArg(final CLSampler value) {
+        setArg(argIndex, value);
+        argIndex++;
+        return this;
+    }
+
     public CLKernel putArg(final short value) {
         setArg(argIndex, value);
         argIndex++;
@@ -177,6 +183,14 @@ public class CLKernel extends CLObjectResource implements Cloneable {
         return this;
     }
 
+    /**
+     * Sets a <code>sampler_t</code> argument.
+     */
+    public CLKernel setArg(final int argumentIndex, final CLSampler value) {
+        setArgument(argumentIndex, is32Bit()?4:8, wrap(value.ID));
+        return this;
+    }
+
     public CLKernel setArg(final int argumentIndex, final short value) {
         setArgument(argumentIndex, 2, wrap(value));
         return this;
@@ -228,6 +242,8 @@ public class CLKernel extends CLObjectResource implements Cloneable {
             final Object value = values[i];
             if(value instanceof CLMemory<?>) {
                 setArg(i, (CLMemory<?>)value);
+            }else if(value instanceof CLSampler) {
+                setArg(i, (CLSampler)value);
             }else if(value instanceof Short) {
                 setArg(i, (Short)value);
             }else if(value instanceof Integer) {
@@ -39,7 +39,10 @@ import com.jogamp.opencl.llb.impl.CLImpl11;
 import com.jogamp.opencl.llb.impl.CLImpl12;
 import com.jogamp.opencl.llb.impl.CLImpl20;
 import com.jogamp.opencl.spi.CLAccessorFactory;
+import com.jogamp.opencl.spi.CLBindingProvider;
 import com.jogamp.opencl.spi.CLInfoAccessor;
+import com.jogamp.opencl.util.CLDeviceProfile;
+import com.jogamp.opencl.util.CLDeviceProfiler;
 import com.jogamp.opencl.util.Filter;
 
 import java.nio.IntBuffer;
@@ -109,12 +112,13 @@ public class CLPlatform {
     public final CLVersion version;
 
     protected static CL cl;
-    private static CLAccessorFactory defaultFactory;
+    private static volatile CLAccessorFactory defaultFactory;
     private final CLAccessorFactory factory;
 
     private Set<String> extensions;
 
     protected final CLPlatformInfoAccessor info;
+    private final CLSnapshotAccessor snapshotInfo;
 
     private CLPlatform(final long id) {
         this(id, null);
@@ -128,15 +132,17 @@ public class CLPlatform {
         }else{
             this.factory = factory;
         }
-        this.info = this.factory.createPlatformInfoAccessor(cl, id);
+        this.snapshotInfo = new CLSnapshotAccessor(this.factory.createPlatformInfoAccessor(cl, id), id, CLSnapshotAccessor.PLATFORMS);
+        this.info = snapshotInfo;
         this.version = new CLVersion(getInfoString(CL_PLATFORM_VERSION));
     }
 
     /**
      * @returns true if OpenCL is available on this machine,
-     * i.e. all native libraries could be loaded (CL and CL/JNI).
+     * i.e. all native libraries could be loaded (CL and CL/JNI), or if JOCL has been initialized with a
+     * {@link CLBindingProvider}.
      */
-    public static boolean isAvailable() { return CLImpl11.isAvailable(); }
+    public static boolean isAvailable() { return defaultFactory instanceof CLBindingProvider || CLImpl11.isAvailable(); }
 
     /**
      * Eagerly initializes JOCL. Subsequent calls do nothing.
@@ -147,14 +153,15 @@ public class CLPlatform {
         initialize(null);
     }
 
-    // keep package private until SPI is stablized
     /**
      * Eagerly initializes JOCL. Subsequent calls do nothing.
+     * If the factory implements {@link CLBindingProvider} its binding replaces the native OpenCL implementation,
+     * this has to happen before any other use of JOCL.
      * @param factory CLAccessorFactory used for creating the bindings.
      * @throws JogampRuntimeException if something went wrong in the initialization (e.g. OpenCL lib not found).
      * @see #isAvailable()
      */
-    synchronized static void initialize(final CLAccessorFactory factory) throws JogampRuntimeException {
+    public synchronized static void initialize(final CLAccessorFactory factory) throws JogampRuntimeException {
         if(cl != null) {
             return;
         }
@@ -167,6 +174,11 @@ public class CLPlatform {
             }
         }
 
+        if(defaultFactory instanceof CLBindingProvider) {
+            cl = ((CLBindingProvider)defaultFactory).getBinding();
+            return;
+        }
+
         if( !CLImpl11.isAvailable() ) {
             throw new JogampRuntimeException("JOCL is not available");
         }
@@ -253,19 +265,36 @@ public class CLPlatform {
      */
     public static CL getLowLevelCLInterfaceForDevice(final long device) {
         initialize();
+
+        if(defaultFactory instanceof CLBindingProvider) {
+            return cl;
+        }
         
         CLInfoAccessor deviceInfo = defaultFactory.createDeviceInfoAccessor(cl, device);
-        CLVersion version = new CLVersion(deviceInfo.getString(CL_DEVICE_VERSION));
-
-        if(version.isEqual(CLVersion.CL_1_2))
-        	return new CLImpl12();
+        CLVersion version = getBindingVersion(new CLVersion(deviceInfo.getString(CL_DEVICE_VERSION)));
 
         if(version.isEqual(CLVersion.CL_2_0))
         	return new CLImpl20();
 
+        if(version.isEqual(CLVersion.CL_1_2))
+        	return new CLImpl12();
+
         return cl;
     }
 
+    /**
+     * Returns the version of the newest binding interface usable with a device of the given version,
+     * OpenCL 2.0 for all later devices, 1.2 for 1.2 devices and 1.1 otherwise.
+     */
+    static CLVersion getBindingVersion(final CLVersion deviceVersion) {
+        if(deviceVersion.isAtLeast(CLVersion.CL_2_0)) {
+            return CLVersion.CL_2_0;
+        }else if(deviceVersion.isAtLeast(CLVersion.CL_1_2)) {
+            return CLVersion.CL_1_2;
+        }
+        return CLVersion.CL_1_1;
+    }
+
     /**
      * Hint to allow the implementation to release the resources allocated by the OpenCL compiler.
      * Calls to {@link CLProgram#build()} after unloadCompiler will reload the compiler if necessary.
@@ -385,12 +414,18 @@ public class CLPlatform {
         return maxFLOPSDevice;
     }
 
+    static CLDevice findMeasuredMaxFlopsDevice(final CLDevice[] devices, final CLDeviceProfiler profiler) {
+        initialize();
+        return profiler.getBestDevice(devices, CLDeviceProfile.Metric.FLOPS);
+    }
+
 
     /**
      * Returns the device with maximal FLOPS from this platform.
      * The device speed is estimated by calculating the product of
      * MAX_COMPUTE_UNITS and MAX_CLOCK_FREQUENCY.
      * @see #getMaxFlopsDevice(com.jogamp.opencl.CLDevice.Type...)
+     * @see #getMaxFlopsDevice(CLDeviceProfiler, Filter[])
      */
     public CLDevice getMaxFlopsDevice() {
         return findMaxFlopsDevice(listCLDevices());
@@ -414,6 +449,15 @@ public class CLPlatform {
         return findMaxFlopsDevice(listCLDevices(filter));
     }
 
+    /**
+     * Returns the device with the highest measured FLOPS of all devices of this platform matching the given filters.
+     * Devices without a profile are profiled first, see {@link CLDeviceProfiler#getProfile(CLDevice)}.
+     * @see CLDeviceProfiler#getBestDevice(CLDevice[], CLDeviceProfile.Metric)
+     */
+    public CLDevice getMaxFlopsDevice(final CLDeviceProfiler profiler, final Filter<CLDevice>... filter) {
+        return findMeasuredMaxFlopsDevice(listCLDevices(filter), profiler);
+    }
+
     /**
      * Returns the platform name.
      */
@@ -525,6 +569,45 @@ public class CLPlatform {
         return CLUtil.obtainPlatformProperties(this);
     }
 
+    /**
+     * Fetches all properties of this platform in one pass and returns them as immutable snapshot.
+     * Subsequent calls to the property getters of all platform objects representing this platform are served
+     * from the snapshot without native calls. Returns the existing snapshot if one has already been taken.
+     * @see #restore(CLInfoSnapshot)
+     * @see CLDevice#snapshot()
+     */
+    public CLInfoSnapshot snapshot() {
+        final CLInfoSnapshot.Recorder recorder = new CLInfoSnapshot.Recorder(snapshotInfo.getLiveAccessor(), false, CL_PLATFORM_NAME);
+        return snapshotInfo.take(recorder, new CLSnapshotAccessor.PropertySource() {
+            @Override
+            public Map<String, String> getProperties() {
+                return CLPlatform.this.getProperties();
+            }
+        });
+    }
+
+    /**
+     * Serves the property getters of this platform from the given snapshot, typically a snapshot
+     * of a previous run which has been deserialized. No native call is made, the snapshot is trusted
+     * to describe this platform.
+     * @throws IllegalArgumentException if the snapshot is not a platform snapshot.
+     * @see CLDevice#restore(CLInfoSnapshot)
+     */
+    public void restore(final CLInfoSnapshot snapshot) {
+        if(snapshot.isDeviceSnapshot()) {
+            throw new IllegalArgumentException(snapshot+" is not a platform snapshot");
+        }
+        snapshotInfo.restore(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of this platform or null if no snapshot has been taken.
+     * @see #snapshot()
+     */
+    public CLInfoSnapshot getSnapshot() {
+        return snapshotInfo.current();
+    }
+
     /**
      * Returns a info string in exchange for a key (CL_PLATFORM_*).
      */
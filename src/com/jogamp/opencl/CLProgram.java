@@ -377,6 +377,9 @@ public class CLProgram extends CLObjectResource {
 	            throw newException(ret, "\nInterrupted while waiting to get build lock");
 			}
 
+            final CLCommandListener[] listeners = context.getCommandListeners();
+            final long start = listeners.length == 0 ? 0 : System.nanoTime();
+
             boolean exception = true;
             try{
                 ret = binding.clBuildProgram(ID, count, deviceIDs, options, callback);
@@ -385,6 +388,12 @@ public class CLProgram extends CLObjectResource {
                 if(callback == null || exception) {
                     buildLock.release();
                 }
+                if(listeners.length != 0) {
+                    final long end = System.nanoTime();
+                    for (final CLCommandListener commandListener : listeners) {
+                        commandListener.programBuilt(this, options, devices, !exception && ret == CL_SUCCESS, start, end);
+                    }
+                }
             }
         }
 
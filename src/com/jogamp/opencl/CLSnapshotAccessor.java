@@ -0,0 +1,175 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl;
+
+import com.jogamp.opencl.spi.CLInfoAccessor;
+import com.jogamp.opencl.spi.CLPlatformInfoAccessor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Info accessor of a device or platform serving cached values from a {@link CLInfoSnapshot}.
+ * Values which are not part of the snapshot are queried from the live accessor.
+ * Snapshots are registered by object ID, all objects with the same ID share one snapshot.
+ * The snapshot of an ID must be {@link #forget() forgotten} when the object is released, since the
+ * implementation may reuse the ID; every accessor revalidates its cached snapshot after such a change.
+ */
+final class CLSnapshotAccessor implements CLPlatformInfoAccessor {
+
+    static final Registry DEVICES = new Registry();
+    static final Registry PLATFORMS = new Registry();
+
+    private final CLInfoAccessor live;
+    private final long id;
+    private final Registry registry;
+
+    private volatile CLInfoAccessor delegate;
+    private volatile Cached cached = Cached.NONE;
+
+    CLSnapshotAccessor(final CLInfoAccessor live, final long id, final Registry registry) {
+        this.live = live;
+        this.delegate = live;
+        this.id = id;
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the snapshot of this object or null if none has been taken yet.
+     */
+    CLInfoSnapshot current() {
+        Cached current = cached;
+        // only look into the registry if snapshots have been added or forgotten since the last lookup
+        final int registered = registry.generation.get();
+        if(registered != current.generation) {
+            current = new Cached(registry.snapshots.get(id), registered);
+            cached = current;
+        }
+        return current.snapshot;
+    }
+
+    /**
+     * Takes a snapshot by invoking all property getters of the given object while recording the returned values.
+     */
+    synchronized CLInfoSnapshot take(final CLInfoSnapshot.Recorder recorder, final PropertySource source) {
+        final CLInfoSnapshot existing = current();
+        if(existing != null) {
+            return existing;
+        }
+        delegate = recorder;
+        final CLInfoSnapshot snap;
+        try{
+            snap = recorder.toSnapshot(source.getProperties());
+        }finally{
+            delegate = live;
+        }
+        restore(snap);
+        return snap;
+    }
+
+    synchronized void restore(final CLInfoSnapshot snap) {
+        registry.put(id, snap);
+    }
+
+    void forget() {
+        registry.remove(id);
+    }
+
+    CLInfoAccessor getLiveAccessor() {
+        return live;
+    }
+
+    @Override
+    public long getLong(final int key) {
+        final CLInfoSnapshot snap = current();
+        if(snap != null) {
+            final int index = snap.indexOfLong(key);
+            if(index >= 0) {
+                return snap.longAt(index);
+            }
+        }
+        return delegate.getLong(key);
+    }
+
+    @Override
+    public long getUInt32Long(final int key) {
+        final CLInfoSnapshot snap = current();
+        if(snap != null) {
+            final int index = snap.indexOfUInt32(key);
+            if(index >= 0) {
+                return snap.uint32At(index);
+            }
+        }
+        return delegate.getUInt32Long(key);
+    }
+
+    @Override
+    public String getString(final int key) {
+        final CLInfoSnapshot snap = current();
+        if(snap != null) {
+            final int index = snap.indexOfString(key);
+            if(index >= 0) {
+                return snap.stringAt(index);
+            }
+        }
+        return delegate.getString(key);
+    }
+
+    @Override
+    public int[] getInts(final int key, final int n) {
+        final CLInfoSnapshot snap = current();
+        if(snap != null) {
+            final int index = snap.indexOfInts(key, n);
+            if(index >= 0) {
+                return snap.intsAt(index);
+            }
+        }
+        return delegate.getInts(key, n);
+    }
+
+    @Override
+    public long[] getDeviceIDs(final long type) {
+        return ((CLPlatformInfoAccessor)live).getDeviceIDs(type);
+    }
+
+    /**
+     * Produces the property map of the object a snapshot is taken of.
+     */
+    interface PropertySource {
+        Map<String, String> getProperties();
+    }
+
+    /**
+     * The snapshot found in the registry at the given registry generation.
+     */
+    private static final class Cached {
+
+        private static final Cached NONE = new Cached(null, -1);
+
+        private final CLInfoSnapshot snapshot;
+        private final int generation;
+
+        private Cached(final CLInfoSnapshot snapshot, final int generation) {
+            this.snapshot = snapshot;
+            this.generation = generation;
+        }
+    }
+
+    static final class Registry {
+
+        private final Map<Long, CLInfoSnapshot> snapshots = new ConcurrentHashMap<Long, CLInfoSnapshot>();
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private void put(final long id, final CLInfoSnapshot snap) {
+            snapshots.put(id, snap);
+            generation.incrementAndGet();
+        }
+
+        private void remove(final long id) {
+            snapshots.remove(id);
+            generation.incrementAndGet();
+        }
+    }
+
+}
@@ -252,7 +252,7 @@ public final class CLGLContext extends CLContext {
      */
     public final <B extends Buffer> CLGLBuffer<B> createFromGLBuffer(final B directBuffer, final int glBuffer, final long glBufferSize, final int flags) {
         final CLGLBuffer<B> buffer = CLGLBuffer.create(this, directBuffer, glBufferSize, flags, glBuffer);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
@@ -271,7 +271,7 @@ public final class CLGLContext extends CLContext {
 
     public final <B extends Buffer> CLGLImage2d<B> createFromGLRenderbuffer(final B directBuffer, final int glBuffer, final int flags) {
         final CLGLImage2d<B> buffer = CLGLImage2d.createFromGLRenderbuffer(this, directBuffer, flags, glBuffer);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
@@ -290,7 +290,7 @@ public final class CLGLContext extends CLContext {
 
     public final <B extends Buffer> CLGLTexture2d<B> createFromGLTexture2d(final B directBuffer, final int target, final int texture, final int mipmap, final int flags) {
         final CLGLTexture2d<B> buffer = CLGLTexture2d.createFromGLTexture2d(this, directBuffer, target, texture, mipmap, flags);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
@@ -309,7 +309,7 @@ public final class CLGLContext extends CLContext {
 
     public final <B extends Buffer> CLGLTexture3d<B> createFromGLTexture3d(final B directBuffer, final int target, final int texture, final int mipmap, final int flags) {
         final CLGLTexture3d<B> buffer = CLGLTexture3d.createFromGLTexture3d(this, directBuffer, flags, target, mipmap, texture);
-        memoryObjects.add(buffer);
+        onMemoryCreated(buffer);
         return buffer;
     }
 
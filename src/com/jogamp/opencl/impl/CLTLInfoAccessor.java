@@ -30,6 +30,7 @@ package com.jogamp.opencl.impl;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import com.jogamp.common.nio.Buffers;
 import com.jogamp.common.nio.PointerBuffer;
@@ -48,6 +49,11 @@ public abstract class CLTLInfoAccessor implements CLInfoAccessor {
 
     private static final int BB_SIZE = 512;
 
+    /**
+     * Upper bound for growing the thread local buffer, larger values are read into temporary buffers.
+     */
+    private static final int MAX_BB_SIZE = 64*1024;
+
     protected final static ThreadLocal<ByteBuffer> localBB = new ThreadLocal<ByteBuffer>() {
 
         @Override
@@ -65,6 +71,11 @@ public abstract class CLTLInfoAccessor implements CLInfoAccessor {
 
     };
 
+    // string values returned by previous queries, reused as long as the queried bytes are equal
+    private int[] internKeys = new int[0];
+    private byte[][] internBytes = new byte[0][];
+    private String[] internValues = new String[0];
+
     @Override
     public final long getUInt32Long(final int key) {
         final ByteBuffer buffer = getBB(4).putInt(0, 0);
@@ -83,51 +94,158 @@ public abstract class CLTLInfoAccessor implements CLInfoAccessor {
         return buffer.getLong(0);
     }
 
+    /**
+     * Returns the String value for the given key.
+     * Values equal to the value of the previous query of the same key are returned as the same,
+     * previously created String instance without allocating.
+     */
     @Override
     public final String getString(final int key) {
 
-        final PointerBuffer sizeBuffer = getNSB();
-        int ret = getInfo(key, 0, null, sizeBuffer);
-        CLException.checkForError(ret, "error while asking for info string");
+        final ByteBuffer buffer = readString(key);
+        final int length = stringLength(buffer);
 
-        final int clSize = (int)sizeBuffer.get(0);
-        final ByteBuffer buffer = getBB(clSize);
+        synchronized(this) {
+            final int index = indexOfInterned(key);
+            if(index >= 0 && equals(internBytes[index], buffer, length)) {
+                return internValues[index];
+            }
+        }
 
-        ret = getInfo(key, buffer.capacity(), buffer, null);
-        CLException.checkForError(ret, "error while asking for info string");
+        final byte[] array = new byte[length];
+        buffer.get(array, 0, length).rewind();
+        final String value = CLUtil.clString2JavaString(array, length);
+
+        synchronized(this) {
+            intern(key, array, value);
+        }
+        return value;
+    }
 
-        final byte[] array = new byte[clSize];
-        buffer.get(array).rewind();
+    /**
+     * Appends the String value for the given key to the given builder without allocating
+     * (if the builder has enough capacity). Info strings are ASCII, every byte is appended as one char.
+     * @return the number of appended chars.
+     */
+    public final int getString(final int key, final StringBuilder dest) {
 
-        return CLUtil.clString2JavaString(array, clSize);
+        final ByteBuffer buffer = readString(key);
+        final int length = stringLength(buffer);
 
+        for (int i = 0; i < length; i++) {
+            dest.append((char)(buffer.get(i) & 0xFF));
+        }
+        return length;
     }
 
     @Override
     public final int[] getInts(final int key, final int n) {
+        return getInts(key, new int[n]);
+    }
+
+    /**
+     * Fills the given array with the <code>size_t</code> values of the given key
+     * without allocating.
+     * @return dest
+     */
+    public final int[] getInts(final int key, final int[] dest) {
         // FIXME: Really 8 bytes per int on 64bit platforms ?
-        final ByteBuffer buffer = getBB(n * (Platform.is32Bit()?4:8));
+        final ByteBuffer buffer = getBB(dest.length * (Platform.is32Bit()?4:8));
         final int ret = getInfo(key, buffer.capacity(), buffer, null);
         CLException.checkForError(ret, "error while asking for info value");
 
-        final int[] array = new int[n];
-        for(int i = 0; i < array.length; i++) {
+        for(int i = 0; i < dest.length; i++) {
             if(Platform.is32Bit()) {
-                array[i] = buffer.getInt();
+                dest[i] = buffer.getInt();
             }else{
-                array[i] = (int)buffer.getLong();
+                dest[i] = (int)buffer.getLong();
             }
         }
         buffer.rewind();
 
-        return array;
+        return dest;
     }
 
+    /**
+     * Reads the string value of the given key into a (thread local, if possible) buffer.
+     */
+    private ByteBuffer readString(final int key) {
+
+        final PointerBuffer sizeBuffer = getNSB();
+        int ret = getInfo(key, 0, null, sizeBuffer);
+        CLException.checkForError(ret, "error while asking for info string");
+
+        final int clSize = (int)sizeBuffer.get(0);
+        final ByteBuffer buffer = getBB(clSize);
+
+        ret = getInfo(key, buffer.capacity(), buffer, null);
+        CLException.checkForError(ret, "error while asking for info string");
+
+        buffer.limit(clSize);
+        return buffer;
+    }
+
+    /**
+     * Returns the length of the string in the buffer without trailing zeros and resets the buffer.
+     */
+    private static int stringLength(final ByteBuffer buffer) {
+        // certain char queries on windows always claim to have a fixed length, see CLUtil.clString2JavaString
+        int length = buffer.limit();
+        while(length > 0 && buffer.get(length-1) == 0) {
+            length--;
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private static boolean equals(final byte[] array, final ByteBuffer buffer, final int length) {
+        if(array.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if(array[i] != buffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOfInterned(final int key) {
+        for (int i = 0; i < internKeys.length; i++) {
+            if(internKeys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void intern(final int key, final byte[] bytes, final String value) {
+        int index = indexOfInterned(key);
+        if(index < 0) {
+            index = internKeys.length;
+            internKeys = Arrays.copyOf(internKeys, index+1);
+            internBytes = Arrays.copyOf(internBytes, index+1);
+            internValues = Arrays.copyOf(internValues, index+1);
+            internKeys[index] = key;
+        }
+        internBytes[index] = bytes;
+        internValues[index] = value;
+    }
+
+    /**
+     * Returns a buffer with at least the given capacity. The thread local buffer grows on demand
+     * up to {@value #MAX_BB_SIZE} bytes, only larger requests allocate a temporary buffer.
+     */
     protected ByteBuffer getBB(final int minCapacity) {
-        if(minCapacity > BB_SIZE) {
-            return Buffers.newDirectByteBuffer(minCapacity);
+        final ByteBuffer buffer = localBB.get();
+        if(minCapacity <= buffer.capacity()) {
+            return buffer;
+        }else if(minCapacity <= MAX_BB_SIZE) {
+            final ByteBuffer grown = Buffers.newDirectByteBuffer(Math.min(MAX_BB_SIZE, Integer.highestOneBit(minCapacity-1) << 1));
+            localBB.set(grown);
+            return grown;
         }else{
-            return localBB.get();
+            return Buffers.newDirectByteBuffer(minCapacity);
         }
     }
 
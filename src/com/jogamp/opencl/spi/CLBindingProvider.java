@@ -0,0 +1,20 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.spi;
+
+import com.jogamp.opencl.llb.CL;
+
+/**
+ * Optional interface of a {@link CLAccessorFactory} which provides the low level binding,
+ * replacing the native OpenCL implementation.
+ * @see com.jogamp.opencl.CLPlatform#initialize(CLAccessorFactory)
+ */
+public interface CLBindingProvider {
+
+    /**
+     * Returns the binding JOCL uses for all OpenCL calls.
+     */
+    CL getBinding();
+
+}
@@ -104,4 +104,17 @@ public class CLDeviceFilters {
         };
     }
 
+    /**
+     * Accepts all devices with a measured score of at least minScore for the given metric.
+     * Devices without a profile are profiled first.
+     * @see CLDeviceProfile.Metric#score(CLDeviceProfile)
+     */
+    public static Filter<CLDevice> profile(final CLDeviceProfiler profiler, final CLDeviceProfile.Metric metric, final double minScore) {
+        return new Filter<CLDevice>() {
+            public boolean accept(final CLDevice item) {
+                return metric.score(profiler.getProfile(item)) >= minScore;
+            }
+        };
+    }
+
 }
@@ -0,0 +1,170 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.opencl.CLDevice;
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Measured performance characteristics of a {@link CLDevice}.
+ * Profiles are created by a {@link CLDeviceProfiler} and identified by device, driver and compute unit count,
+ * since results of one driver version are not representative for another.
+ * @see CLDeviceProfiler
+ * @see CLDeviceFilters#profile(CLDeviceProfiler, Metric, double)
+ */
+public final class CLDeviceProfile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String key;
+    private final double memoryBandwidth;
+    private final double flops;
+    private final long launchLatency;
+    private final double transferRate;
+
+    CLDeviceProfile(final String key, final double memoryBandwidth, final double flops, final long launchLatency, final double transferRate) {
+        this.key = key;
+        this.memoryBandwidth = memoryBandwidth;
+        this.flops = flops;
+        this.launchLatency = launchLatency;
+        this.transferRate = transferRate;
+    }
+
+    /**
+     * Returns the key identifying the device and driver the profile was measured on.
+     */
+    public static String keyOf(final CLDevice device) {
+        return device.getVendor()+" "+device.getName()+" "+device.getMaxComputeUnits()+"CU"
+             +" driver "+device.getDriverVersion()+" "+device.getPlatform().getVersion();
+    }
+
+    /**
+     * Returns true if this profile has been measured on a device with the same name, compute units and driver.
+     */
+    public boolean matches(final CLDevice device) {
+        return key.equals(keyOf(device));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the global memory bandwidth of a device to device copy in bytes per second (read plus write).
+     */
+    public double getMemoryBandwidth() {
+        return memoryBandwidth;
+    }
+
+    /**
+     * Returns the measured single precision multiply-add throughput in floating point operations per second.
+     */
+    public double getFlops() {
+        return flops;
+    }
+
+    /**
+     * Returns the round trip time of an empty kernel launch in nanoseconds.
+     */
+    public long getLaunchLatency() {
+        return launchLatency;
+    }
+
+    /**
+     * Returns the host to device transfer rate of a blocking buffer write in bytes per second.
+     */
+    public double getTransferRate() {
+        return transferRate;
+    }
+
+    Properties toProperties() {
+        final Properties properties = new Properties();
+        properties.setProperty("key", key);
+        properties.setProperty("memoryBandwidth", Double.toString(memoryBandwidth));
+        properties.setProperty("flops", Double.toString(flops));
+        properties.setProperty("launchLatency", Long.toString(launchLatency));
+        properties.setProperty("transferRate", Double.toString(transferRate));
+        return properties;
+    }
+
+    /**
+     * Returns the profile stored in the given properties or null if they are incomplete.
+     */
+    static CLDeviceProfile fromProperties(final Properties properties) {
+        final String key = properties.getProperty("key");
+        final String memoryBandwidth = properties.getProperty("memoryBandwidth");
+        final String flops = properties.getProperty("flops");
+        final String launchLatency = properties.getProperty("launchLatency");
+        final String transferRate = properties.getProperty("transferRate");
+        if(key == null || memoryBandwidth == null || flops == null || launchLatency == null || transferRate == null) {
+            return null;
+        }
+        try{
+            return new CLDeviceProfile(key, Double.parseDouble(memoryBandwidth), Double.parseDouble(flops),
+                                       Long.parseLong(launchLatency), Double.parseDouble(transferRate));
+        }catch(final NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" ["+key
+                +" bandwidth: "+(long)(memoryBandwidth/1000000)+" MB/s"
+                +" flops: "+(long)(flops/1000000)+" MFLOPS"
+                +" launch latency: "+launchLatency/1000+" us"
+                +" transfer rate: "+(long)(transferRate/1000000)+" MB/s]";
+    }
+
+    /**
+     * Measured quantities devices can be ranked by. Higher scores are better.
+     */
+    public enum Metric {
+
+        /**
+         * Global memory bandwidth.
+         */
+        MEMORY_BANDWIDTH {
+            @Override
+            public double score(final CLDeviceProfile profile) {
+                return profile.memoryBandwidth;
+            }
+        },
+
+        /**
+         * Multiply-add throughput.
+         */
+        FLOPS {
+            @Override
+            public double score(final CLDeviceProfile profile) {
+                return profile.flops;
+            }
+        },
+
+        /**
+         * Kernel launch latency, the score is the number of launches per second.
+         */
+        LAUNCH_LATENCY {
+            @Override
+            public double score(final CLDeviceProfile profile) {
+                return profile.launchLatency <= 0 ? Double.MAX_VALUE : 1000000000.0 / profile.launchLatency;
+            }
+        },
+
+        /**
+         * Host to device transfer rate.
+         */
+        TRANSFER_RATE {
+            @Override
+            public double score(final CLDeviceProfile profile) {
+                return profile.transferRate;
+            }
+        };
+
+        public abstract double score(CLDeviceProfile profile);
+
+    }
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.util.CLDeviceProfile.Metric;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures {@link CLDeviceProfile}s with short micro benchmarks and ranks devices by the measured numbers.
+ * <p>
+ * Every benchmark is calibrated: the number of repetitions doubles until the measurement takes at least the
+ * {@link #setCalibrationTime calibration time}. Profiles are kept in memory and, if the profiler has a directory,
+ * stored as properties file per device and driver, so the benchmarks run once per machine and driver update.
+ * </p>
+ * <pre>
+ * CLDeviceProfiler profiler = CLDeviceProfiler.create();
+ * CLDevice device = platform.getMaxFlopsDevice(profiler);
+ * </pre>
+ * @see com.jogamp.opencl.CLPlatform#getMaxFlopsDevice(CLDeviceProfiler, Filter[])
+ */
+public class CLDeviceProfiler {
+
+    private static final String PROGRAM_SOURCE =
+              "kernel void copy(global const float4* in, global float4* out) {\n"
+            + "    int i = get_global_id(0);\n"
+            + "    out[i] = in[i];\n"
+            + "}\n"
+            + "kernel void madd(global float* out, float a, float b) {\n"
+            + "    float4 x0 = (float4)(get_global_id(0)), x1 = x0+1, x2 = x0+2, x3 = x0+3;\n"
+            + "    for(int i = 0; i < 128; i++) {\n"
+            + "        x0 = mad(x0, a, b); x1 = mad(x1, a, b); x2 = mad(x2, a, b); x3 = mad(x3, a, b);\n"
+            + "    }\n"
+            + "    out[get_global_id(0)] = dot(x0+x1, x2+x3);\n"
+            + "}\n"
+            + "kernel void empty() { }\n";
+
+    // 128 iterations * 4 vectors * 4 components * 2 flops
+    private static final int FLOPS_PER_ITEM = 128*4*4*2;
+
+    private static final int MAX_BUFFER_SIZE = 32*1024*1024;
+
+    private final File directory;
+    private final Map<String, CLDeviceProfile> profiles = new HashMap<String, CLDeviceProfile>();
+    private long calibrationNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private CLDeviceProfiler(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a profiler storing profiles in the <code>.jocl/profiles</code> directory of the user's home.
+     */
+    public static CLDeviceProfiler create() {
+        return create(new File(System.getProperty("user.home"), ".jocl"+File.separator+"profiles"));
+    }
+
+    /**
+     * Creates a profiler storing profiles in the given directory. Profiles are only kept in memory if directory is null.
+     */
+    public static CLDeviceProfiler create(final File directory) {
+        return new CLDeviceProfiler(directory);
+    }
+
+    /**
+     * Sets the minimum duration of every benchmark.
+     */
+    public synchronized CLDeviceProfiler setCalibrationTime(final long time, final TimeUnit unit) {
+        if(time <= 0) {
+            throw new IllegalArgumentException("time must be positive but was "+time);
+        }
+        this.calibrationNanos = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * Returns the profile of the given device. Cached or stored profiles are returned if they match device and driver,
+     * otherwise the device is {@link #profile profiled}.
+     */
+    public synchronized CLDeviceProfile getProfile(final CLDevice device) {
+        final String key = CLDeviceProfile.keyOf(device);
+        CLDeviceProfile profile = profiles.get(key);
+        if(profile == null) {
+            profile = load(key);
+            if(profile == null) {
+                return profile(device);
+            }
+            profiles.put(key, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Runs the benchmarks on the given device and stores the new profile, replacing any previous profile.
+     */
+    public synchronized CLDeviceProfile profile(final CLDevice device) {
+        final CLDeviceProfile profile = measure(device);
+        profiles.put(profile.getKey(), profile);
+        store(profile);
+        return profile;
+    }
+
+    /**
+     * Returns the given devices in descending order of their score for the given metric.
+     */
+    public CLDevice[] rank(final CLDevice[] devices, final Metric metric) {
+        final Map<CLDevice, Double> scores = new HashMap<CLDevice, Double>();
+        for (final CLDevice device : devices) {
+            scores.put(device, metric.score(getProfile(device)));
+        }
+        final CLDevice[] ranked = devices.clone();
+        Arrays.sort(ranked, new Comparator<CLDevice>() {
+            @Override
+            public int compare(final CLDevice a, final CLDevice b) {
+                return Double.compare(scores.get(b), scores.get(a));
+            }
+        });
+        return ranked;
+    }
+
+    /**
+     * Returns the device with the highest score for the given metric or null if devices is empty.
+     */
+    public CLDevice getBestDevice(final CLDevice[] devices, final Metric metric) {
+        return devices.length == 0 ? null : rank(devices, metric)[0];
+    }
+
+    /**
+     * Returns the directory profiles are stored in or null.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    private CLDeviceProfile measure(final CLDevice device) {
+
+        // a detached copy, creating the temporary context on the device itself would associate
+        // the caller's device with a context which is released after profiling
+        final CLContext context = CLContext.create(new CLDevice(device.getPlatform(), device.ID) { });
+        try{
+            final CLDevice contextDevice = context.getDevices()[0];
+            final CLCommandQueue queue = contextDevice.createCommandQueue();
+            final CLProgram program = context.createProgram(PROGRAM_SOURCE).build();
+
+            final int bufferSize = (int)Math.min(MAX_BUFFER_SIZE, contextDevice.getMaxMemAllocSize()/2) & ~15;
+            final CLBuffer<ByteBuffer> host = context.createByteBuffer(bufferSize, Mem.READ_ONLY);
+            final CLBuffer<?> dest = context.createBuffer(bufferSize, Mem.WRITE_ONLY);
+
+            // host to device transfer rate
+            final double transferNanos = measure(new Benchmark() {
+                @Override
+                void run() {
+                    queue.putWriteBuffer(host, true);
+                }
+            }, queue);
+
+            // global memory bandwidth
+            final CLKernel copy = program.createCLKernel("copy").putArg(host).putArg(dest);
+            final int vectors = bufferSize/16;
+            final double copyNanos = measure(new Benchmark() {
+                @Override
+                void run() {
+                    queue.put1DRangeKernel(copy, 0, vectors, 0);
+                }
+            }, queue);
+
+            // multiply-add throughput
+            final int items = contextDevice.getMaxComputeUnits() * 16 * 1024;
+            final CLBuffer<?> out = context.createBuffer(items*4, Mem.WRITE_ONLY);
+            final CLKernel madd = program.createCLKernel("madd").putArg(out).putArg(0.999f).putArg(0.001f);
+            final double maddNanos = measure(new Benchmark() {
+                @Override
+                void run() {
+                    queue.put1DRangeKernel(madd, 0, items, 0);
+                }
+            }, queue);
+
+            // launch round trip
+            final CLKernel empty = program.createCLKernel("empty");
+            final double launchNanos = measure(new Benchmark() {
+                @Override
+                void run() {
+                    queue.put1DRangeKernel(empty, 0, 1, 0);
+                    queue.finish();
+                }
+            }, queue);
+
+            return new CLDeviceProfile(CLDeviceProfile.keyOf(device),
+                                       2.0*bufferSize / (copyNanos / 1000000000.0),
+                                       (double)items*FLOPS_PER_ITEM / (maddNanos / 1000000000.0),
+                                       (long)launchNanos,
+                                       bufferSize / (transferNanos / 1000000000.0));
+        }finally{
+            context.release();
+        }
+    }
+
+    /**
+     * Returns the mean duration of one benchmark run in nanoseconds.
+     */
+    private double measure(final Benchmark benchmark, final CLCommandQueue queue) {
+
+        // warm up, includes lazy allocations and kernel compilation of some drivers
+        benchmark.run();
+        queue.finish();
+
+        int runs = 1;
+        while(true) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                benchmark.run();
+            }
+            queue.finish();
+            final long time = System.nanoTime() - start;
+            if(time >= calibrationNanos || runs >= 1 << 20) {
+                return Math.max(1, time) / (double)runs;
+            }
+            runs *= 2;
+        }
+    }
+
+    private File fileOf(final String key) {
+        return new File(directory, key.replaceAll("[^A-Za-z0-9._-]", "_")+".properties");
+    }
+
+    private CLDeviceProfile load(final String key) {
+        if(directory == null) {
+            return null;
+        }
+        final File file = fileOf(key);
+        if(!file.isFile()) {
+            return null;
+        }
+        try{
+            final Properties properties = new Properties();
+            final InputStream in = new FileInputStream(file);
+            try{
+                properties.load(in);
+            }finally{
+                in.close();
+            }
+            final CLDeviceProfile profile = CLDeviceProfile.fromProperties(properties);
+            // different keys may map to the same file name
+            return profile != null && profile.getKey().equals(key) ? profile : null;
+        }catch(final IOException ex) {
+            Logger.getLogger(getClass().getName()).warning("can not read device profile "+file+": "+ex.getMessage());
+            return null;
+        }
+    }
+
+    private void store(final CLDeviceProfile profile) {
+        if(directory == null) {
+            return;
+        }
+        final File file = fileOf(profile.getKey());
+        try{
+            if(!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("can not create directory "+directory);
+            }
+            final OutputStream out = new FileOutputStream(file);
+            try{
+                profile.toProperties().store(out, "JOCL device profile");
+            }finally{
+                out.close();
+            }
+        }catch(final IOException ex) {
+            // the profile is still cached in memory
+            Logger.getLogger(getClass().getName()).warning("can not store device profile "+file+": "+ex.getMessage());
+        }
+    }
+
+    private static abstract class Benchmark {
+        abstract void run();
+    }
+
+}
@@ -0,0 +1,501 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLCommandListener;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLEvent.CommandType;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits Java Flight Recorder events for JOCL activity of instrumented contexts.
+ * <table border="1">
+ * <tr><th>event</th><th>fields</th></tr>
+ * <tr><td>jocl.ProgramBuild</td><td>program, options, devices, success, buildTime</td></tr>
+ * <tr><td>jocl.MemoryCreate</td><td>id, type, size, flags</td></tr>
+ * <tr><td>jocl.MemoryRelease</td><td>id, type, size, flags</td></tr>
+ * <tr><td>jocl.KernelEnqueue</td><td>kernel, device, dimensions, globalWorkSize, localWorkSize</td></tr>
+ * <tr><td>jocl.Wait</td><td>operation (finish or waitForEvents), device, waitTime</td></tr>
+ * </table>
+ * <p>
+ * While any of its events is enabled the recorder is a {@link CLCommandListener} of the instrumented contexts and
+ * receives the {@link CLEventList#addWaitListener(CLCommandListener) event list waits} of all contexts. Without
+ * running recording it is not registered at all, instrumented contexts run like contexts without recorder.
+ * The events are committed when the operation returned, builds and waits carry their host time as field.
+ * The events are defined at runtime with the dynamic JFR API, JOCL itself does not depend on JFR.
+ * </p>
+ * <pre>
+ * if(CLFlightRecorder.isAvailable()) {
+ *     CLFlightRecorder.install().instrument(context);
+ * }
+ * </pre>
+ */
+public class CLFlightRecorder implements CLCommandListener, CLResource {
+
+    private static CLFlightRecorder instance;
+
+    private final EventType programBuild;
+    private final EventType memoryCreate;
+    private final EventType memoryRelease;
+    private final EventType kernelEnqueue;
+    private final EventType hostWait;
+
+    private final Map<CLDevice, String> deviceNames = new ConcurrentHashMap<CLDevice, String>();
+    // instrumented contexts, the recorder is their listener while attached
+    private final Map<CLContext, Boolean> contexts = new HashMap<CLContext, Boolean>();
+    private final Object recorderListener;
+    private boolean attached;
+    private volatile boolean released;
+
+    private CLFlightRecorder() {
+        final JFR jfr = JFR.load();
+
+        programBuild = new EventType(jfr, "jocl.ProgramBuild", "Program Build", "Build of an OpenCL program",
+                new Field(long.class,    "program", "Program ID"),
+                new Field(String.class,  "options", "Options"),
+                new Field(String.class,  "devices", "Devices"),
+                new Field(boolean.class, "success", "Success"),
+                new Field(long.class,    "buildTime", "Build Time", "jdk.jfr.Timespan", "NANOSECONDS"));
+
+        memoryCreate = new EventType(jfr, "jocl.MemoryCreate", "Memory Create", "Creation of an OpenCL memory object", memoryFields());
+        memoryRelease = new EventType(jfr, "jocl.MemoryRelease", "Memory Release", "Release of an OpenCL memory object", memoryFields());
+
+        kernelEnqueue = new EventType(jfr, "jocl.KernelEnqueue", "Kernel Enqueue", "Kernel launch enqueued on a command queue",
+                new Field(String.class, "kernel", "Kernel"),
+                new Field(String.class, "device", "Device"),
+                new Field(int.class,    "dimensions", "Dimensions"),
+                new Field(String.class, "globalWorkSize", "Global Work Size"),
+                new Field(String.class, "localWorkSize", "Local Work Size"));
+
+        hostWait = new EventType(jfr, "jocl.Wait", "Wait", "Host thread blocked until OpenCL commands completed",
+                new Field(String.class, "operation", "Operation"),
+                new Field(String.class, "device", "Device"),
+                new Field(long.class,   "waitTime", "Wait Time", "jdk.jfr.Timespan", "NANOSECONDS"));
+
+        recorderListener = jfr.addListener(new Runnable() {
+            @Override
+            public void run() {
+                refresh();
+            }
+        });
+        refresh();
+    }
+
+    private static Field[] memoryFields() {
+        return new Field[] {
+                new Field(long.class,   "id", "ID"),
+                new Field(String.class, "type", "Type"),
+                new Field(long.class,   "size", "Size", "jdk.jfr.DataAmount", "BYTES"),
+                new Field(String.class, "flags", "Flags")};
+    }
+
+    /**
+     * Returns true if the JVM supports the dynamic flight recorder event API.
+     */
+    public static boolean isAvailable() {
+        try{
+            Class.forName("jdk.jfr.EventFactory");
+            return true;
+        }catch(final ClassNotFoundException ex) {
+            return false;
+        }catch(final LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Registers the JOCL events, the recorder listens to event list waits while recording.
+     * Returns the already installed recorder when called multiple times.
+     * @throws UnsupportedOperationException if flight recorder events are not available in this JVM.
+     */
+    public static synchronized CLFlightRecorder install() {
+        if(instance == null) {
+            instance = new CLFlightRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts recording the program builds, memory objects and commands of the given context.
+     * @return this
+     */
+    public CLFlightRecorder instrument(final CLContext context) {
+        synchronized(contexts) {
+            if(contexts.put(context, Boolean.TRUE) == null && attached) {
+                context.addCommandListener(this);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Stops recording the given context.
+     */
+    public void remove(final CLContext context) {
+        synchronized(contexts) {
+            if(contexts.remove(context) != null && attached) {
+                context.removeCommandListener(this);
+            }
+        }
+    }
+
+    /**
+     * Returns true while the recorder is registered as listener, i.e. while any of its events is enabled.
+     */
+    public boolean isAttached() {
+        synchronized(contexts) {
+            return attached;
+        }
+    }
+
+    private void refresh() {
+        programBuild.refresh();
+        memoryCreate.refresh();
+        memoryRelease.refresh();
+        kernelEnqueue.refresh();
+        hostWait.refresh();
+        attach(programBuild.enabled || memoryCreate.enabled || memoryRelease.enabled || kernelEnqueue.enabled || hostWait.enabled);
+    }
+
+    /**
+     * Registers or removes the recorder as listener of the instrumented contexts and of event list waits.
+     */
+    private void attach(final boolean enabled) {
+        synchronized(contexts) {
+            final boolean attach = enabled && !released;
+            if(attach == attached) {
+                return;
+            }
+            attached = attach;
+            for (final CLContext context : contexts.keySet()) {
+                if(attach) {
+                    context.addCommandListener(this);
+                }else{
+                    context.removeCommandListener(this);
+                }
+            }
+            if(attach) {
+                CLEventList.addWaitListener(this);
+            }else{
+                CLEventList.removeWaitListener(this);
+            }
+        }
+    }
+
+    private String nameOf(final CLDevice device) {
+        String name = deviceNames.get(device);
+        if(name == null) {
+            name = device.getName();
+            deviceNames.put(device, name);
+        }
+        return name;
+    }
+
+    /**
+     * Formats the sizes starting at the buffer position, see CLCommandQueue#toStr(PointerBuffer).
+     */
+    private static String toStr(final int dimensions, final PointerBuffer sizes) {
+        if(sizes == null) {
+            return null;
+        }
+        final int offset = sizes.position();
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < dimensions; i++) {
+            if(i > 0) {
+                sb.append('x');
+            }
+            sb.append(sizes.get(offset+i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void programBuilt(final CLProgram program, final String options, final CLDevice[] devices, final boolean success,
+                             final long hostStart, final long hostEnd) {
+        if(programBuild.enabled) {
+            final StringBuilder names = new StringBuilder();
+            for (final CLDevice device : devices == null || devices.length == 0 ? program.getCLDevices() : devices) {
+                if(names.length() > 0) {
+                    names.append(", ");
+                }
+                names.append(nameOf(device));
+            }
+            programBuild.commit(programBuild.instant(), program.ID, options, names.toString(), success, hostEnd-hostStart);
+        }
+    }
+
+    @Override
+    public void memoryCreated(final CLMemory<?> memory) {
+        if(memoryCreate.enabled) {
+            memoryCreate.commit(memoryCreate.instant(), memory.ID, memory.getClass().getSimpleName(), memory.getCLSize(), memory.getConfig().toString());
+        }
+    }
+
+    @Override
+    public void memoryReleased(final CLMemory<?> memory) {
+        if(memoryRelease.enabled) {
+            memoryRelease.commit(memoryRelease.instant(), memory.ID, memory.getClass().getSimpleName(), memory.getCLSize(), memory.getConfig().toString());
+        }
+    }
+
+    @Override
+    public void commandEnqueued(final CLCommandQueue queue, final CommandType type, final String name, final long hostStart, final long hostEnd) {
+    }
+
+    @Override
+    public void kernelEnqueued(final CLCommandQueue queue, final CLKernel kernel, final int workDimension,
+                               final PointerBuffer globalWorkSize, final PointerBuffer localWorkSize) {
+        if(kernelEnqueue.enabled) {
+            kernelEnqueue.commit(kernelEnqueue.instant(), kernel.name, nameOf(queue.getDevice()), workDimension,
+                                 globalWorkSize == null ? "1" : toStr(workDimension, globalWorkSize), toStr(workDimension, localWorkSize));
+        }
+    }
+
+    @Override
+    public boolean needsCompletion() {
+        return false;
+    }
+
+    @Override
+    public void commandCompleted(final CLCommandQueue queue, final CommandType type, final String name, final long hostEnqueued,
+                                 final long queued, final long submit, final long start, final long end) {
+    }
+
+    @Override
+    public void waitCompleted(final CLCommandQueue queue, final long hostStart, final long hostEnd) {
+        if(hostWait.enabled) {
+            hostWait.commit(hostWait.instant(), queue == null ? "waitForEvents" : "finish", queue == null ? null : nameOf(queue.getDevice()), hostEnd-hostStart);
+        }
+    }
+
+    /**
+     * Removes the recorder from all contexts, registered event types stay registered until the JVM exits.
+     */
+    @Override
+    public void release() {
+        synchronized(CLFlightRecorder.class) {
+            if(released) {
+                throw new RuntimeException(getClass().getSimpleName()+" already released");
+            }
+            released = true;
+            if(instance == this) {
+                instance = null;
+            }
+        }
+        JFR.load().removeListener(recorderListener);
+        synchronized(contexts) {
+            attach(false);
+            contexts.clear();
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [released: "+isReleased()+"]";
+    }
+
+    private static final class Field {
+
+        private final Class<?> type;
+        private final String name;
+        private final String label;
+        private final String unitType;
+        private final String unit;
+
+        private Field(final Class<?> type, final String name, final String label) {
+            this(type, name, label, null, null);
+        }
+
+        private Field(final Class<?> type, final String name, final String label, final String unitType, final String unit) {
+            this.type = type;
+            this.name = name;
+            this.label = label;
+            this.unitType = unitType;
+            this.unit = unit;
+        }
+    }
+
+    /**
+     * Dynamically defined event type, caches the enabled state which is refreshed when recordings start or stop.
+     */
+    private static final class EventType {
+
+        private final JFR jfr;
+        private final Object factory;
+        private final Object type;
+        private volatile boolean enabled;
+
+        private EventType(final JFR jfr, final String name, final String label, final String description, final Field... fields) {
+            this.jfr = jfr;
+            final List<Object> annotations = new ArrayList<Object>();
+            annotations.add(jfr.annotation("jdk.jfr.Name", name));
+            annotations.add(jfr.annotation("jdk.jfr.Label", label));
+            annotations.add(jfr.annotation("jdk.jfr.Description", description));
+            annotations.add(jfr.annotation("jdk.jfr.Category", new String[] {"JOCL"}));
+
+            final List<Object> values = new ArrayList<Object>();
+            for (final Field field : fields) {
+                final List<Object> fieldAnnotations = new ArrayList<Object>();
+                fieldAnnotations.add(jfr.annotation("jdk.jfr.Label", field.label));
+                if(field.unitType != null) {
+                    fieldAnnotations.add(jfr.annotation(field.unitType, field.unit));
+                }
+                values.add(jfr.newInstance(jfr.valueDescriptor, field.type, field.name, fieldAnnotations));
+            }
+            this.factory = jfr.invoke(jfr.create, null, annotations, values);
+            this.type = jfr.invoke(jfr.getEventType, factory);
+        }
+
+        private void refresh() {
+            enabled = (Boolean)jfr.invoke(jfr.isEnabled, type);
+        }
+
+        /**
+         * Returns an event without duration or null if disabled.
+         */
+        private Object instant() {
+            return enabled ? jfr.invoke(jfr.newEvent, factory) : null;
+        }
+
+        private void commit(final Object event, final Object... values) {
+            if(event == null) {
+                return;
+            }
+            for (int i = 0; i < values.length; i++) {
+                jfr.invoke(jfr.set, event, i, values[i]);
+            }
+            jfr.invoke(jfr.commit, event);
+        }
+    }
+
+    /**
+     * Reflective access to the jdk.jfr API.
+     */
+    private static final class JFR {
+
+        private static JFR jfr;
+
+        private final Constructor<?> annotationElement;
+        private final Constructor<?> valueDescriptor;
+        private final Class<?> listenerType;
+        private final Method create;
+        private final Method getEventType;
+        private final Method newEvent;
+        private final Method isEnabled;
+        private final Method set;
+        private final Method commit;
+        private final Method addListener;
+        private final Method removeListener;
+
+        private JFR() throws Exception {
+            final Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            final Class<?> event = Class.forName("jdk.jfr.Event");
+            final Class<?> recorder = Class.forName("jdk.jfr.FlightRecorder");
+            listenerType = Class.forName("jdk.jfr.FlightRecorderListener");
+            annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+            valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+            create = factory.getMethod("create", List.class, List.class);
+            getEventType = factory.getMethod("getEventType");
+            newEvent = factory.getMethod("newEvent");
+            isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+            set = event.getMethod("set", int.class, Object.class);
+            commit = event.getMethod("commit");
+            addListener = recorder.getMethod("addListener", listenerType);
+            removeListener = recorder.getMethod("removeListener", listenerType);
+        }
+
+        private static synchronized JFR load() {
+            if(jfr == null) {
+                try{
+                    jfr = new JFR();
+                }catch(final Exception ex) {
+                    throw new UnsupportedOperationException("flight recorder events not available", ex);
+                }catch(final LinkageError ex) {
+                    throw new UnsupportedOperationException("flight recorder events not available", ex);
+                }
+            }
+            return jfr;
+        }
+
+        private Object annotation(final String type, final Object value) {
+            try{
+                return newInstance(annotationElement, Class.forName(type), value);
+            }catch(final ClassNotFoundException ex) {
+                throw new UnsupportedOperationException("flight recorder annotation not available: "+type, ex);
+            }
+        }
+
+        private Object newInstance(final Constructor<?> constructor, final Object... args) {
+            try{
+                return constructor.newInstance(args);
+            }catch(final InvocationTargetException ex) {
+                throw new RuntimeException(ex.getCause());
+            }catch(final InstantiationException ex) {
+                throw new RuntimeException(ex);
+            }catch(final IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        private Object invoke(final Method method, final Object target, final Object... args) {
+            try{
+                return method.invoke(target, args);
+            }catch(final InvocationTargetException ex) {
+                throw new RuntimeException(ex.getCause());
+            }catch(final IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        /**
+         * Registers a FlightRecorderListener calling back on every recording state change.
+         */
+        private Object addListener(final Runnable callback) {
+            final Object listener = Proxy.newProxyInstance(CLFlightRecorder.class.getClassLoader(), new Class<?>[] {listenerType}, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if(method.getDeclaringClass() == Object.class) {
+                        if(method.getName().equals("equals")) {
+                            return proxy == args[0];
+                        }else if(method.getName().equals("hashCode")) {
+                            return System.identityHashCode(proxy);
+                        }
+                        return "CLFlightRecorder listener";
+                    }
+                    callback.run();
+                    return null;
+                }
+            });
+            invoke(addListener, null, listener);
+            return listener;
+        }
+
+        private void removeListener(final Object listener) {
+            invoke(removeListener, null, listener);
+        }
+    }
+
+}
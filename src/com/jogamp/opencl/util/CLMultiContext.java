@@ -3,8 +3,12 @@
  */
 package com.jogamp.opencl.util;
 
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
 import com.jogamp.opencl.CLContext;
 import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLMemory;
 import com.jogamp.opencl.CLPlatform;
 import com.jogamp.opencl.CLResource;
 import java.util.ArrayList;
@@ -19,16 +23,22 @@ import static com.jogamp.opencl.CLDevice.Type.*;
 
 /**
  * Utility for organizing multiple {@link CLContext}s.
- *
+ * <p>
+ * By default one context is created per device to workaround driver bugs. Multi contexts created with
+ * {@link #createShared} use one context per platform instead, memory objects can then be shared between
+ * the devices of a platform and moved with {@link #migrate} or {@link #copy} without going through host memory.
+ * </p>
  * @author Michael Bien
  */
 public class CLMultiContext implements CLResource {
 
     private final List<CLContext> contexts;
+    private final boolean shared;
     private boolean released;
 
-    private CLMultiContext() {
-        contexts = new ArrayList<CLContext>();
+    private CLMultiContext(final boolean shared) {
+        this.contexts = new ArrayList<CLContext>();
+        this.shared = shared;
     }
 
     /**
@@ -70,6 +80,38 @@ public class CLMultiContext implements CLResource {
      * The devices don't have to be from the same platform.
      */
     public static CLMultiContext create(final Collection<CLDevice> devices) {
+        return create(devices, false);
+    }
+
+    /**
+     * Creates a multi context with one context per platform containing all devices of the specified platforms.
+     * @see #createShared(java.util.Collection)
+     */
+    public static CLMultiContext createShared(final CLPlatform... platforms) {
+
+        if(platforms == null) {
+            throw new NullPointerException("platform list was null");
+        }else if(platforms.length == 0) {
+            throw new IllegalArgumentException("platform list was empty");
+        }
+
+        final List<CLDevice> devices = new ArrayList<CLDevice>();
+        for (final CLPlatform platform : platforms) {
+            devices.addAll(asList(platform.listCLDevices()));
+        }
+        return create(devices, true);
+    }
+
+    /**
+     * Creates a multi context with one context per platform containing the specified devices of that platform.
+     * Memory objects can be shared between devices of the same platform.
+     * Some drivers are known to misbehave with multi device contexts, use {@link #create(java.util.Collection)} in that case.
+     */
+    public static CLMultiContext createShared(final Collection<CLDevice> devices) {
+        return create(devices, true);
+    }
+
+    private static CLMultiContext create(final Collection<CLDevice> devices, final boolean shared) {
 
         if(devices.isEmpty()) {
             throw new IllegalArgumentException("device list was empty");
@@ -78,14 +120,23 @@ public class CLMultiContext implements CLResource {
         final Map<CLPlatform, List<CLDevice>> platformDevicesMap = filterPlatformConflicts(devices);
 
         // create contexts
-        final CLMultiContext mc = new CLMultiContext();
-        for (final Map.Entry<CLPlatform, List<CLDevice>> entry : platformDevicesMap.entrySet()) {
-            final List<CLDevice> list = entry.getValue();
-            // one context per device to workaround driver bugs
-            for (final CLDevice device : list) {
-                final CLContext context = CLContext.create(device);
-                mc.contexts.add(context);
+        final CLMultiContext mc = new CLMultiContext(shared);
+        try{
+            for (final Map.Entry<CLPlatform, List<CLDevice>> entry : platformDevicesMap.entrySet()) {
+                final List<CLDevice> list = entry.getValue();
+                if(shared) {
+                    mc.contexts.add(CLContext.create(list.toArray(new CLDevice[list.size()])));
+                }else{
+                    // one context per device to workaround driver bugs
+                    for (final CLDevice device : list) {
+                        final CLContext context = CLContext.create(device);
+                        mc.contexts.add(context);
+                    }
+                }
             }
+        }catch(final RuntimeException ex) {
+            mc.release();
+            throw ex;
         }
 
         return mc;
@@ -95,11 +146,58 @@ public class CLMultiContext implements CLResource {
      * Creates a multi context with specified contexts.
      */
     public static CLMultiContext wrap(final CLContext... contexts) {
-        final CLMultiContext mc = new CLMultiContext();
+        boolean shared = false;
+        for (final CLContext context : contexts) {
+            shared |= context.getDevices().length > 1;
+        }
+        final CLMultiContext mc = new CLMultiContext(shared);
         mc.contexts.addAll(asList(contexts));
         return mc;
     }
 
+    /**
+     * Enqueues the migration of the memory objects to the device of the given queue.
+     * Uses {@native clEnqueueMigrateMemObjects} if available, otherwise the implementation moves
+     * the memory objects on first use and only a marker is enqueued if events are requested.
+     * @throws IllegalArgumentException if a memory object is not in the context of the queue.
+     */
+    public static void migrate(final CLCommandQueue queue, final CLEventList condition, final CLEventList events, final CLMemory<?>... memObjects) {
+        for (final CLMemory<?> memory : memObjects) {
+            checkContext(queue, memory);
+        }
+        if(queue.isMigrateMemObjectsSupported()) {
+            queue.putMigrateMemObjects(memObjects, false, false, condition, events);
+        }else{
+            if(condition != null) {
+                queue.putWaitForEvents(condition, false);
+            }
+            if(events != null) {
+                queue.putMarker(events);
+            }
+        }
+    }
+
+    /**
+     * Enqueues a device to device copy of src to dest on the given queue.
+     * Both buffers must be in the context of the queue, this is the case for buffers of devices of the same platform
+     * in a {@link #createShared shared} multi context.
+     * @throws IllegalArgumentException if a buffer is not in the context of the queue.
+     */
+    public static void copy(final CLCommandQueue queue, final CLBuffer<?> src, final CLBuffer<?> dest, final CLEventList condition, final CLEventList events) {
+        checkContext(queue, src);
+        checkContext(queue, dest);
+        if(dest.getCLSize() < src.getCLSize()) {
+            throw new IllegalArgumentException("dest buffer is smaller than src buffer, "+dest.getCLSize()+" < "+src.getCLSize());
+        }
+        queue.putCopyBuffer(src, dest, 0, 0, src.getCLSize(), condition, events);
+    }
+
+    private static void checkContext(final CLCommandQueue queue, final CLMemory<?> memory) {
+        if(!queue.getContext().equals(memory.getContext())) {
+            throw new IllegalArgumentException(memory+" is not in the context of "+queue);
+        }
+    }
+
     /**
      * filter devices; don't allow the same device to be used in more than one platform.
      * example: a CPU available via the AMD and Intel SDKs shouldn't end up in two contexts
@@ -147,6 +245,28 @@ public class CLMultiContext implements CLResource {
         contexts.clear();
     }
 
+    /**
+     * Returns the context containing the given device or null if the device is not part of this multi context.
+     */
+    public CLContext getContext(final CLDevice device) {
+        for (final CLContext context : contexts) {
+            for (final CLDevice candidate : context.getDevices()) {
+                if(candidate.equals(device)) {
+                    return context;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the devices of a platform share one context.
+     * @see #createShared(java.util.Collection)
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
     public List<CLContext> getContexts() {
         return Collections.unmodifiableList(contexts);
     }
@@ -0,0 +1,426 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLCommandListener;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLEvent.CommandType;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Records a timeline of instrumented {@link CLCommandQueue}s and writes it as Chrome trace event JSON,
+ * which can be opened with <code>chrome://tracing</code> or <a href="https://ui.perfetto.dev">Perfetto</a>.
+ * <p>
+ * Every device is shown as process with one track per queue holding the device execution spans of all commands,
+ * queues need {@link CLCommandQueue.Mode#PROFILING_MODE} for device spans. The host process has one track per thread
+ * holding the enqueue calls and blocking waits ({@link CLCommandQueue#finish()} and {@link CLEventList} waits).
+ * Device timestamps are mapped to host time by the smallest observed enqueue latency.
+ * </p>
+ * <p>
+ * Recording is lock-free: events are written to a bounded ring buffer which is periodically flushed to the file
+ * by a background thread. Events are dropped if the buffer is full, see {@link #getDroppedEvents()}.
+ * </p>
+ * <pre>
+ * CLTimelineTracer tracer = CLTimelineTracer.create(new File("trace.json"));
+ * tracer.instrument(queue);
+ * ...
+ * tracer.release();
+ * </pre>
+ */
+public class CLTimelineTracer implements CLResource {
+
+    private static final int HOST_PID = 1;
+
+    private final Writer writer;
+    private final long base = System.nanoTime();
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong writeCursor = new AtomicLong();
+    private volatile long readCursor;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Map<CLCommandQueue, Track> tracks = new ConcurrentHashMap<CLCommandQueue, Track>();
+    private final Map<CLDevice, Integer> devices = new ConcurrentHashMap<CLDevice, Integer>();
+    private final AtomicInteger nextTrack = new AtomicInteger();
+    private final Listener listener = new Listener();
+    private final ThreadLocal<Boolean> namedThread = new ThreadLocal<Boolean>();
+
+    private final ScheduledExecutorService flusher;
+    private boolean first = true;
+    private boolean released;
+
+    private CLTimelineTracer(final Writer writer, final int capacity, final long flushInterval, final TimeUnit unit) {
+        this.writer = writer;
+        final int size = Integer.highestOneBit(capacity-1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size-1;
+
+        metadata("process_name", HOST_PID, 0, "host");
+
+        this.flusher = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "timeline-flush-thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try{
+                    flush();
+                }catch(final IOException ex) {
+                    Logger.getLogger(CLTimelineTracer.class.getName()).warning("can not write trace: "+ex.getMessage());
+                }
+            }
+        }, flushInterval, flushInterval, unit);
+
+        CLEventList.addWaitListener(listener);
+    }
+
+    /**
+     * Creates a tracer writing to the given file with a buffer of 64k events flushed every second.
+     */
+    public static CLTimelineTracer create(final File file) throws IOException {
+        return create(file, 1 << 16, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a tracer writing to the given file.
+     * @param capacity maximum number of buffered events, rounded up to the next power of two.
+     * @param flushInterval time between two flushes of the buffer to the file.
+     */
+    public static CLTimelineTracer create(final File file, final int capacity, final long flushInterval, final TimeUnit unit) throws IOException {
+        if(capacity <= 1) {
+            throw new IllegalArgumentException("capacity must be greater than 1 but was "+capacity);
+        }else if(flushInterval <= 0) {
+            throw new IllegalArgumentException("flushInterval must be positive but was "+flushInterval);
+        }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        writer.write("[\n");
+        return new CLTimelineTracer(writer, capacity, flushInterval, unit);
+    }
+
+    /**
+     * Starts tracing all commands of the given queue.
+     * @return this
+     */
+    public CLTimelineTracer instrument(final CLCommandQueue queue) {
+        if(tracks.containsKey(queue)) {
+            return this;
+        }
+        final CLDevice device = queue.getDevice();
+        Integer pid = devices.get(device);
+        if(pid == null) {
+            synchronized(devices) {
+                pid = devices.get(device);
+                if(pid == null) {
+                    pid = HOST_PID + 1 + devices.size();
+                    devices.put(device, pid);
+                    metadata("process_name", pid, 0, device.getName());
+                }
+            }
+        }
+        final Track track = new Track(pid, nextTrack.incrementAndGet());
+        tracks.put(queue, track);
+        metadata("thread_name", pid, track.tid, "queue "+track.tid+(queue.isProfilingEnabled() ? "" : " (no profiling)"));
+        queue.addCommandListener(listener);
+        return this;
+    }
+
+    /**
+     * Stops tracing the given queue.
+     */
+    public void remove(final CLCommandQueue queue) {
+        if(tracks.remove(queue) != null) {
+            queue.removeCommandListener(listener);
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes all buffered events to the file.
+     */
+    public synchronized void flush() throws IOException {
+        if(released) {
+            return;
+        }
+        long read = readCursor;
+        final StringBuilder sb = new StringBuilder(128);
+        while(true) {
+            final Slot slot = slots[(int)(read & mask)];
+            if(slot.sequence != read+1) {
+                break;
+            }
+            sb.setLength(0);
+            slot.appendTo(sb, base);
+            slot.name = null;
+            read++;
+            readCursor = read;
+
+            if(!first) {
+                writer.write(",\n");
+            }
+            first = false;
+            writer.write(sb.toString());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Stops tracing, flushes all events and closes the file.
+     */
+    @Override
+    public void release() {
+        synchronized(this) {
+            if(released) {
+                throw new RuntimeException(getClass().getSimpleName()+" already released");
+            }
+        }
+        CLEventList.removeWaitListener(listener);
+        for (final CLCommandQueue queue : new ArrayList<CLCommandQueue>(tracks.keySet())) {
+            remove(queue);
+        }
+        flusher.shutdown();
+        synchronized(this) {
+            try{
+                flush();
+                writer.write("\n]\n");
+                writer.close();
+            }catch(final IOException ex) {
+                throw new RuntimeException("can not write trace", ex);
+            }finally{
+                released = true;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [queues: "+tracks.size()+" capacity: "+slots.length+" dropped: "+dropped.get()+"]";
+    }
+
+    private void metadata(final String type, final int pid, final long tid, final String name) {
+        record('M', type, null, 0, 0, pid, tid, name);
+    }
+
+    private void hostSpan(final String name, final String category, final long start, final long end) {
+        final Thread thread = Thread.currentThread();
+        if(namedThread.get() == null) {
+            namedThread.set(Boolean.TRUE);
+            metadata("thread_name", HOST_PID, thread.getId(), thread.getName());
+        }
+        record('X', name, category, start, end-start, HOST_PID, thread.getId(), null);
+    }
+
+    /**
+     * Claims the next free slot and publishes the event, drops the event if the buffer is full.
+     */
+    private void record(final char phase, final String name, final String category, final long ts, final long dur,
+                        final int pid, final long tid, final String arg) {
+        long write;
+        do{
+            write = writeCursor.get();
+            if(write - readCursor >= slots.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }while(!writeCursor.compareAndSet(write, write+1));
+
+        final Slot slot = slots[(int)(write & mask)];
+        slot.phase = phase;
+        slot.name = name;
+        slot.category = category;
+        slot.ts = ts;
+        slot.dur = dur;
+        slot.pid = pid;
+        slot.tid = tid;
+        slot.arg = arg;
+        slot.sequence = write+1;
+    }
+
+    private static void appendString(final StringBuilder sb, final String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if(c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            }else if(c < 0x20) {
+                sb.append(String.format(Locale.ROOT, "\\u%04x", (int)c));
+            }else{
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void appendMicros(final StringBuilder sb, final long nanos) {
+        sb.append(nanos / 1000).append('.');
+        final long fraction = Math.abs(nanos % 1000);
+        if(fraction < 100) {
+            sb.append('0');
+        }
+        if(fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Buffered trace event, published by writing the sequence.
+     */
+    private static final class Slot {
+
+        private volatile long sequence;
+        private char phase;
+        private String name;
+        private String category;
+        private long ts;
+        private long dur;
+        private int pid;
+        private long tid;
+        private String arg;
+
+        private void appendTo(final StringBuilder sb, final long base) {
+            sb.append("{\"name\":");
+            appendString(sb, name);
+            sb.append(",\"ph\":\"").append(phase).append('"');
+            sb.append(",\"pid\":").append(pid).append(",\"tid\":").append(tid);
+            if(phase == 'M') {
+                sb.append(",\"args\":{\"name\":");
+                appendString(sb, arg);
+                sb.append("}}");
+            }else{
+                sb.append(",\"cat\":");
+                appendString(sb, category);
+                sb.append(",\"ts\":");
+                appendMicros(sb, ts-base);
+                sb.append(",\"dur\":");
+                appendMicros(sb, dur);
+                sb.append('}');
+            }
+        }
+    }
+
+    /**
+     * Device track of a queue.
+     */
+    private static final class Track {
+
+        private final int pid;
+        private final int tid;
+
+        /**
+         * host time minus device time, the largest observed difference between enqueue call and device queued timestamp.
+         */
+        private final AtomicLong offset = new AtomicLong(Long.MIN_VALUE);
+
+        private Track(final int pid, final int tid) {
+            this.pid = pid;
+            this.tid = tid;
+        }
+
+        private long toHostTime(final long hostEnqueued, final long queued, final long deviceTime) {
+            final long sample = hostEnqueued - queued;
+            long current;
+            while(sample > (current = offset.get())) {
+                if(offset.compareAndSet(current, sample)) {
+                    current = sample;
+                    break;
+                }
+            }
+            return deviceTime + current;
+        }
+    }
+
+    private final class Listener implements CLCommandListener {
+
+        @Override
+        public void commandEnqueued(final CLCommandQueue queue, final CommandType type, final String name, final long hostStart, final long hostEnd) {
+            hostSpan(name != null ? name : type.name(), "enqueue", hostStart, hostEnd);
+        }
+
+        @Override
+        public void kernelEnqueued(final CLCommandQueue queue, final CLKernel kernel, final int workDimension,
+                                   final PointerBuffer globalWorkSize, final PointerBuffer localWorkSize) {
+        }
+
+        @Override
+        public boolean needsCompletion() {
+            return true;
+        }
+
+        @Override
+        public void commandCompleted(final CLCommandQueue queue, final CommandType type, final String name, final long hostEnqueued,
+                                     final long queued, final long submit, final long start, final long end) {
+            final Track track = tracks.get(queue);
+            if(track != null) {
+                record('X', name != null ? name : type.name(), type == CommandType.NDRANGE_KERNEL || type == CommandType.TASK ? "kernel" : "transfer",
+                       track.toHostTime(hostEnqueued, queued, start), end-start, track.pid, track.tid, null);
+            }
+        }
+
+        @Override
+        public void waitCompleted(final CLCommandQueue queue, final long hostStart, final long hostEnd) {
+            hostSpan(queue == null ? "waitForEvents" : "finish", "wait", hostStart, hostEnd);
+        }
+
+        // only queues are traced
+
+        @Override
+        public void programBuilt(final CLProgram program, final String options, final CLDevice[] devices, final boolean success,
+                                 final long hostStart, final long hostEnd) {
+        }
+
+        @Override
+        public void memoryCreated(final CLMemory<?> memory) {
+        }
+
+        @Override
+        public void memoryReleased(final CLMemory<?> memory) {
+        }
+
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLMemory.Map;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLResource;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelined transfer of buffers between two {@link CLCommandQueue}s of different contexts.
+ * <p>
+ * Buffers of different contexts can not be copied on the device, the data has to go through host memory.
+ * The engine splits a transfer into chunks and moves every chunk through a pinned staging buffer of the source context:
+ * the chunk is copied into the staging buffer, mapped and written from the mapped memory into the destination buffer.
+ * Several staging buffers are in flight, so the device to host and host to device transfers of consecutive chunks overlap.
+ * </p>
+ * Transfers of one engine are serialized, use one engine per queue pair for concurrent transfers.
+ * @see CLMultiContext
+ */
+public class CLTransferEngine implements CLResource {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4*1024*1024;
+    public static final int DEFAULT_CHUNKS_IN_FLIGHT = 3;
+
+    private final CLCommandQueue srcQueue;
+    private final CLCommandQueue destQueue;
+    private final int chunkSize;
+    private final Slot[] slots;
+
+    private long bytes;
+    private long nanos;
+    private int transfers;
+    private double lastThroughput;
+
+    private boolean released;
+
+    private CLTransferEngine(final CLCommandQueue srcQueue, final CLCommandQueue destQueue, final int chunkSize, final int chunksInFlight) {
+        this.srcQueue = srcQueue;
+        this.destQueue = destQueue;
+        this.chunkSize = chunkSize;
+        this.slots = new Slot[chunksInFlight];
+        try{
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new Slot(srcQueue.getContext().createBuffer(chunkSize, Mem.READ_WRITE, Mem.ALLOCATE_BUFFER));
+            }
+        }catch(final RuntimeException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Creates a transfer engine with {@link #DEFAULT_CHUNKS_IN_FLIGHT} staging buffers of {@link #DEFAULT_CHUNK_SIZE} bytes.
+     */
+    public static CLTransferEngine create(final CLCommandQueue srcQueue, final CLCommandQueue destQueue) {
+        return create(srcQueue, destQueue, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNKS_IN_FLIGHT);
+    }
+
+    /**
+     * Creates a transfer engine with chunksInFlight staging buffers of chunkSize bytes in the context of the source queue.
+     */
+    public static CLTransferEngine create(final CLCommandQueue srcQueue, final CLCommandQueue destQueue, final int chunkSize, final int chunksInFlight) {
+        if(srcQueue == null) {
+            throw new NullPointerException("srcQueue was null");
+        }else if(destQueue == null) {
+            throw new NullPointerException("destQueue was null");
+        }else if(chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive but was "+chunkSize);
+        }else if(chunksInFlight <= 0) {
+            throw new IllegalArgumentException("chunksInFlight must be positive but was "+chunksInFlight);
+        }
+        return new CLTransferEngine(srcQueue, destQueue, chunkSize, chunksInFlight);
+    }
+
+    /**
+     * Transfers the content of src into dest and blocks until the transfer completed.
+     * @see #transfer(CLBuffer, int, CLBuffer, int, int)
+     */
+    public CLTransferEngine transfer(final CLBuffer<?> src, final CLBuffer<?> dest) {
+        if(dest.getCLSize() < src.getCLSize()) {
+            throw new IllegalArgumentException("dest buffer is smaller than src buffer, "+dest.getCLSize()+" < "+src.getCLSize());
+        }
+        return transfer(src, 0, dest, 0, (int)src.getCLSize());
+    }
+
+    /**
+     * Transfers length bytes from src, starting at srcOffset, to dest at destOffset and blocks until the transfer completed.
+     * src must be a buffer of the source queue's context, dest a buffer of the destination queue's context.
+     */
+    public synchronized CLTransferEngine transfer(final CLBuffer<?> src, final int srcOffset, final CLBuffer<?> dest, final int destOffset, final int length) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }else if(!src.getContext().equals(srcQueue.getContext())) {
+            throw new IllegalArgumentException(src+" is not in the context of "+srcQueue);
+        }else if(!dest.getContext().equals(destQueue.getContext())) {
+            throw new IllegalArgumentException(dest+" is not in the context of "+destQueue);
+        }else if(srcOffset < 0 || destOffset < 0 || length < 0
+              || srcOffset+(long)length > src.getCLSize() || destOffset+(long)length > dest.getCLSize()) {
+            throw new IndexOutOfBoundsException("srcOffset: "+srcOffset+" destOffset: "+destOffset+" length: "+length
+                                              +" src size: "+src.getCLSize()+" dest size: "+dest.getCLSize());
+        }
+
+        final long start = System.nanoTime();
+
+        final ArrayDeque<Slot> free = new ArrayDeque<Slot>(slots.length);
+        final ArrayDeque<Slot> mapping = new ArrayDeque<Slot>(slots.length);
+        final ArrayDeque<Slot> writing = new ArrayDeque<Slot>(slots.length);
+        for (final Slot slot : slots) {
+            free.add(slot);
+        }
+
+        int issued = 0;
+        try{
+            while(issued < length || !mapping.isEmpty() || !writing.isEmpty()) {
+
+                // device to staging copies for all free slots
+                while(issued < length && !free.isEmpty()) {
+                    final Slot slot = free.poll();
+                    mapping.add(slot);
+                    slot.read(src, srcOffset+issued, destOffset+issued, Math.min(chunkSize, length-issued));
+                    issued += slot.length;
+                }
+                srcQueue.flush();
+
+                // staging to device writes as soon as the staging buffers are mapped, recycle slots afterwards
+                if(!mapping.isEmpty()) {
+                    final Slot slot = mapping.poll();
+                    writing.add(slot);
+                    slot.write(dest);
+                    destQueue.flush();
+                }else{
+                    final Slot slot = writing.peek();
+                    slot.recycle();
+                    free.add(writing.poll());
+                }
+            }
+        }finally{
+            // never leave a staging buffer mapped or a pending write of mapped memory behind
+            for (final Slot slot : mapping) {
+                slot.abort();
+            }
+            for (final Slot slot : writing) {
+                slot.abort();
+            }
+            srcQueue.flush();
+        }
+
+        final long time = System.nanoTime() - start;
+        bytes += length;
+        nanos += time;
+        transfers++;
+        lastThroughput = time == 0 ? 0 : length / (time / 1000000000.0);
+
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes transferred since creation or the last {@link #resetStatistics() reset}.
+     */
+    public synchronized long getBytesTransferred() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of completed transfers since creation or the last {@link #resetStatistics() reset}.
+     */
+    public synchronized int getTransferCount() {
+        return transfers;
+    }
+
+    /**
+     * Returns the time spent in transfers since creation or the last {@link #resetStatistics() reset}.
+     */
+    public synchronized long getTransferTime(final TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the mean throughput of all transfers in bytes per second.
+     */
+    public synchronized double getThroughput() {
+        return nanos == 0 ? 0 : bytes / (nanos / 1000000000.0);
+    }
+
+    /**
+     * Returns the throughput of the last transfer in bytes per second.
+     */
+    public synchronized double getLastThroughput() {
+        return lastThroughput;
+    }
+
+    public synchronized void resetStatistics() {
+        bytes = 0;
+        nanos = 0;
+        transfers = 0;
+        lastThroughput = 0;
+    }
+
+    public CLCommandQueue getSourceQueue() {
+        return srcQueue;
+    }
+
+    public CLCommandQueue getDestinationQueue() {
+        return destQueue;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getChunksInFlight() {
+        return slots.length;
+    }
+
+    /**
+     * Releases the staging buffers.
+     */
+    @Override
+    public synchronized void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final Slot slot : slots) {
+            if(slot != null) {
+                slot.release();
+            }
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [chunk size: "+chunkSize+" chunks in flight: "+slots.length
+                +" transferred: "+getBytesTransferred()+" bytes throughput: "+(long)getThroughput()+" bytes/s]";
+    }
+
+    /**
+     * A pinned staging buffer and the events of the chunk currently moved through it.
+     */
+    private final class Slot {
+
+        private final CLBuffer<?> staging;
+        private final CLEventList copied = new CLEventList(1);
+        private final CLEventList mapped = new CLEventList(1);
+        private final CLEventList written = new CLEventList(1);
+        private final CLEventList unmapped = new CLEventList(1);
+
+        private ByteBuffer memory;
+        private int destOffset;
+        private int length;
+
+        private Slot(final CLBuffer<?> staging) {
+            this.staging = staging;
+        }
+
+        private void read(final CLBuffer<?> src, final int srcOffset, final int destOffset, final int length) {
+            this.destOffset = destOffset;
+            this.length = length;
+
+            copied.release();
+            mapped.release();
+            srcQueue.putCopyBuffer(src, staging, srcOffset, 0, length, unmapped.size() == 0 ? null : unmapped, copied);
+            unmapped.release();
+            memory = srcQueue.putMapBuffer(staging, Map.READ, 0, length, false, copied, mapped);
+        }
+
+        private void write(final CLBuffer<?> dest) {
+            mapped.waitForEvents();
+            memory.rewind();
+            written.release();
+            destQueue.putWriteBuffer(dest.cloneWith(memory), destOffset, false, null, written);
+        }
+
+        private void recycle() {
+            written.waitForEvents();
+            srcQueue.putUnmapMemory(staging, memory, null, unmapped);
+            memory = null;
+        }
+
+        private void abort() {
+            if(memory != null) {
+                mapped.waitForEvents();
+                written.waitForEvents();
+                srcQueue.putUnmapMemory(staging, memory);
+                memory = null;
+            }
+        }
+
+        private void release() {
+            srcQueue.finish();
+            copied.release();
+            mapped.release();
+            written.release();
+            unmapped.release();
+            staging.release();
+        }
+    }
+
+}
@@ -29,9 +29,18 @@
 package com.jogamp.opencl.util;
 
 import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLEvent;
+import com.jogamp.opencl.CLEvent.ExecutionStatus;
 import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLEventListener;
+import com.jogamp.opencl.CLUserEvent;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -39,11 +48,19 @@ import java.util.concurrent.TimeUnit;
 /**
  * An utility for synchronizing multiple concurrent {@link CLCommandQueue}s.
  * This Barrier can be reused after it has been broken.
+ * <p>
+ * The barrier can be used in two modes. {@link #waitFor} blocks the calling thread until the queue reached
+ * the barrier and {@link #await()} lets the host wait for all queues. {@link #enqueueBarrier} does not block at all,
+ * it enqueues a device side barrier instead: no command enqueued after the barrier starts before all queues
+ * completed the commands enqueued before it. {@link #enqueueBarrier()} enqueues it on all queues at once, queues of
+ * the same context then wait on each other's markers without any host involvement.
+ * </p>
  * @author Michael Bien
  */
 public class MultiQueueBarrier {
 
     private CountDownLatch latch;
+    private DeviceBarrier deviceBarrier;
     private final Set<CLCommandQueue> queues;
     private final int count;
 
@@ -108,6 +125,105 @@ public class MultiQueueBarrier {
         return this;
     }
 
+    /**
+     * Enqueues a device side barrier without blocking the current Thread.
+     * A marker tracks the completion of all previously enqueued commands of the queue, subsequently enqueued
+     * commands wait for a user event which is completed as soon as the markers of all queues of this barrier
+     * completed. The barrier is broken after it has been enqueued on {@link #getCount() count} queues and
+     * is reused for the next round.
+     * <p>
+     * Queues may belong to different contexts, one user event is used per context. The user events are completed
+     * from the completion callbacks of the markers, use {@link #enqueueBarrier()} to avoid this host round trip.
+     * The queue is flushed to guarantee progress of the marker.
+     * This method may be invoked concurrently without synchronization on the MultiQueueBarrier object
+     * as long each Thread passes a distinct CLCommandQueue as parameter to this method.
+     * </p>
+     */
+    public MultiQueueBarrier enqueueBarrier(final CLCommandQueue queue) {
+        checkQueue(queue);
+
+        final DeviceBarrier barrier;
+        final CLEventList condition;
+        synchronized(this) {
+            if(deviceBarrier == null) {
+                deviceBarrier = new DeviceBarrier(count);
+            }
+            barrier = deviceBarrier;
+            condition = barrier.getCondition(queue.getContext());
+            if(barrier.arrive()) {
+                deviceBarrier = null;
+            }
+        }
+
+        final CLEventList marker = new CLEventList(1);
+        queue.putMarker(marker)
+             .putWaitForEvents(condition, false)
+             .flush();
+        barrier.track(marker);
+        return this;
+    }
+
+    /**
+     * Enqueues a device side barrier on all queues of this barrier without blocking the current Thread.
+     * Every queue enqueues a marker and then waits directly on the markers of all queues of its context, no host
+     * callback is involved. Queues of different contexts can not wait on each other's markers, they additionally
+     * wait on one user event per context which is completed from the completion callbacks of the markers like
+     * in {@link #enqueueBarrier(CLCommandQueue)}. All queues are flushed.
+     * @throws IllegalStateException if the barrier was created without queues or a barrier of
+     *          {@link #enqueueBarrier(CLCommandQueue)} is partially enqueued.
+     */
+    public MultiQueueBarrier enqueueBarrier() {
+        if(queues == null) {
+            throw new IllegalStateException("barrier was created without queues");
+        }
+        synchronized(this) {
+            if(deviceBarrier != null) {
+                throw new IllegalStateException("device barrier is partially enqueued, "+deviceBarrier.pending+" queues pending");
+            }
+        }
+
+        final Map<CLContext, List<CLCommandQueue>> byContext = new HashMap<CLContext, List<CLCommandQueue>>();
+        for (final CLCommandQueue queue : queues) {
+            List<CLCommandQueue> list = byContext.get(queue.getContext());
+            if(list == null) {
+                list = new ArrayList<CLCommandQueue>();
+                byContext.put(queue.getContext(), list);
+            }
+            list.add(queue);
+        }
+
+        // one marker list per context, waited on by all queues of the context
+        final Map<CLContext, CLEventList> markers = new HashMap<CLContext, CLEventList>();
+        for (final Map.Entry<CLContext, List<CLCommandQueue>> entry : byContext.entrySet()) {
+            final CLEventList list = new CLEventList(entry.getValue().size());
+            for (final CLCommandQueue queue : entry.getValue()) {
+                queue.putMarker(list);
+            }
+            markers.put(entry.getKey(), list);
+        }
+
+        final DeviceBarrier barrier = byContext.size() > 1 ? new DeviceBarrier(count) : null;
+        for (final CLCommandQueue queue : queues) {
+            final CLContext context = queue.getContext();
+            queue.putWaitForEvents(markers.get(context), false);
+            if(barrier != null) {
+                queue.putWaitForEvents(barrier.getCondition(context), false);
+            }
+            queue.flush();
+        }
+
+        if(barrier == null) {
+            for (final CLEventList list : markers.values()) {
+                list.release();
+            }
+        }else{
+            for (final CLEventList list : markers.values()) {
+                barrier.track(list);
+            }
+        }
+        return this;
+    }
+
     /**
      * Blocks until all Threads which called {@link #waitFor}
      * continue execution.
@@ -135,6 +251,11 @@ public class MultiQueueBarrier {
      */
     public void resetBarrier() {
         synchronized(this) {
+            // release queues waiting on a partially enqueued device barrier
+            if(deviceBarrier != null) {
+                deviceBarrier.open(ExecutionStatus.COMPLETE);
+                deviceBarrier = null;
+            }
             while(latch.getCount() > 0) {
                 latch.countDown();
             }
@@ -160,10 +281,103 @@ public class MultiQueueBarrier {
         return latch.getCount();
     }
 
+    /**
+     * Returns the number of queues which still have to {@link #enqueueBarrier enqueue} the current device barrier.
+     */
+    public synchronized int getDeviceCount() {
+        return deviceBarrier == null ? count : deviceBarrier.pending;
+    }
+
     private void checkQueue(final CLCommandQueue queue) throws IllegalArgumentException {
         if (queues != null && !queues.contains(queue)) {
             throw new IllegalArgumentException(queue + " is not in the allowedQueues Set: " + queues);
         }
     }
 
+    /**
+     * One round of a device side barrier.
+     */
+    private static final class DeviceBarrier {
+
+        private final Map<CLContext, CLEventList> conditions = new HashMap<CLContext, CLEventList>();
+        private int pending;
+        private int incomplete;
+        private boolean failed;
+        private boolean opened;
+
+        private DeviceBarrier(final int count) {
+            this.pending = count;
+            this.incomplete = count;
+        }
+
+        // must hold the barrier lock
+        private CLEventList getCondition(final CLContext context) {
+            CLEventList condition = conditions.get(context);
+            if(condition == null) {
+                condition = new CLEventList(CLUserEvent.create(context));
+                conditions.put(context, condition);
+            }
+            return condition;
+        }
+
+        // must hold the barrier lock, returns true if this was the last queue
+        private boolean arrive() {
+            return --pending == 0;
+        }
+
+        /**
+         * Counts the completion of every marker of the list, releases the list when all completed.
+         */
+        private void track(final CLEventList markers) {
+            final int[] remaining = new int[] {markers.size()};
+            final CLEvent[] events = new CLEvent[markers.size()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = markers.getEvent(i);
+            }
+            for (final CLEvent marker : events) {
+                marker.registerCallback(new CLEventListener() {
+                    @Override
+                    public void eventStateChanged(final CLEvent event, final int status) {
+                        final boolean last;
+                        synchronized(remaining) {
+                            last = --remaining[0] == 0;
+                        }
+                        if(last) {
+                            markers.release();
+                        }
+                        completed(status);
+                    }
+                });
+            }
+        }
+
+        private void completed(final int status) {
+            final ExecutionStatus result;
+            synchronized(this) {
+                if(status < 0) {
+                    failed = true;
+                }
+                if(--incomplete > 0 || opened) {
+                    return;
+                }
+                result = failed ? ExecutionStatus.ERROR : ExecutionStatus.COMPLETE;
+            }
+            open(result);
+        }
+
+        private void open(final ExecutionStatus status) {
+            synchronized(this) {
+                if(opened) {
+                    return;
+                }
+                opened = true;
+            }
+            for (final CLEventList condition : conditions.values()) {
+                ((CLUserEvent)condition.getEvent(0)).setStatus(status);
+                condition.release();
+            }
+        }
+
+    }
+
 }
@@ -10,12 +10,17 @@ import com.jogamp.opencl.CLResource;
 import com.jogamp.opencl.util.CLMultiContext;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -23,39 +28,128 @@ import java.util.concurrent.TimeUnit;
  * It serves as a multiplexer distributing tasks over N queues usually run on N devices.
  * The usage of this pool is similar to {@link ExecutorService} but it uses {@link CLTask}s
  * instead of {@link Callable}s and provides a per-queue context for resource sharing across all tasks of one queue.
+ * Tasks may be submitted with a {@link CLTaskClass} to share the pool between e.g. interactive and bulk work by weight.
+ * If no OpenCL device is available the pool can run {@link CLJavaQueueContext}s instead, see {@link #create(CLJavaContextFactory, int)}.
  * @author Michael Bien
  */
 public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource {
 
+    private final List<CLCommandQueue> queues;
+    private final boolean queueless;
     private List<CLQueueContext> contexts;
     private ExecutorService excecutor;
     private FinishAction finishAction = FinishAction.DO_NOTHING;
+    private final CLTaskClass defaultTaskClass = new CLTaskClass("default", 1);
+    private volatile TaskHedger<C> hedger;
     private boolean released;
 
     private CLCommandQueuePool(final CLQueueContextFactory<C> factory, final Collection<CLCommandQueue> queues) {
-        this.contexts = initContexts(queues, factory);
+        if(queues.isEmpty()) {
+            // neither the setup nor the queue threads can run without queues
+            throw new IllegalArgumentException("pool needs at least one queue");
+        }
+        this.queues = new ArrayList<CLCommandQueue>(queues);
+        this.queueless = false;
+        this.contexts = initContexts(this.queues, factory);
         initExecutor();
     }
 
-    private List<CLQueueContext> initContexts(final Collection<CLCommandQueue> queues, final CLQueueContextFactory<C> factory) {
-        final List<CLQueueContext> newContexts = new ArrayList<CLQueueContext>(queues.size());
+    private CLCommandQueuePool(final CLJavaContextFactory factory, final int size) {
+        this.queues = Collections.emptyList();
+        this.queueless = true;
+        this.contexts = initJavaContexts(size, factory);
+        initExecutor();
+    }
 
-        int index = 0;
-        for (final CLCommandQueue queue : queues) {
+    private List<CLQueueContext> initJavaContexts(final int size, final CLJavaContextFactory factory) {
+
+        final List<CLQueueContext> newContexts = new ArrayList<CLQueueContext>(size);
+        for (int i = 0; i < size; i++) {
+            final CLQueueContext old = this.contexts != null ? this.contexts.get(i) : null;
+            if(old != null) {
+                old.release();
+            }
+            newContexts.add(factory.setup(old));
+        }
+        return newContexts;
+    }
+
+    private List<CLQueueContext> initContexts(final Collection<CLCommandQueue> queues, final CLQueueContextFactory<C> factory) {
 
-            CLQueueContext old = null;
-            if(this.contexts != null && !this.contexts.isEmpty()) {
-                old = this.contexts.get(index++);
+        if(this.contexts != null) {
+            for (final CLQueueContext old : this.contexts) {
                 old.release();
             }
+        }
 
-            newContexts.add(factory.setup(queue, old));
+        // setup all contexts concurrently, the factory is responsible for sharing
+        // work between queues of identical devices (see CLSimpleContextFactory)
+        final ExecutorService setupExecutor = Executors.newFixedThreadPool(queues.size());
+        try{
+            final List<Future<C>> futures = new ArrayList<Future<C>>(queues.size());
+            int index = 0;
+            for (final CLCommandQueue queue : queues) {
+                final CLQueueContext old = (this.contexts != null && index < this.contexts.size()) ? this.contexts.get(index) : null;
+                futures.add(setupExecutor.submit(new Callable<C>() {
+                    @Override
+                    public C call() {
+                        return factory.setup(queue, old);
+                    }
+                }));
+                index++;
+            }
+            return collectContexts(futures);
+        }finally{
+            setupExecutor.shutdown();
+        }
+    }
+
+    private List<CLQueueContext> collectContexts(final List<Future<C>> futures) {
+
+        final List<CLQueueContext> newContexts = new ArrayList<CLQueueContext>(futures.size());
+        Throwable failure = null;
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                newContexts.add(futures.get(i).get());
+            } catch (final ExecutionException ex) {
+                if(failure == null) {
+                    failure = ex.getCause();
+                }
+            } catch (final InterruptedException ex) {
+                // stop waiting, setups which completed anyway are released below
+                for (final Future<C> pending : futures.subList(i, futures.size())) {
+                    if(!pending.cancel(true) && !pending.isCancelled()) {
+                        try {
+                            newContexts.add(pending.get());
+                        } catch (final ExecutionException ignore) {
+                        } catch (final InterruptedException ignore) {
+                        }
+                    }
+                }
+                Thread.currentThread().interrupt();
+                failure = ex;
+                break;
+            }
+        }
+
+        if(failure != null) {
+            // don't leak the contexts which could be set up
+            for (final CLQueueContext context : newContexts) {
+                context.release();
+            }
+            if(failure instanceof RuntimeException) {
+                throw (RuntimeException)failure;
+            }else if(failure instanceof Error) {
+                throw (Error)failure;
+            }
+            throw new RuntimeException("can not setup queue context", failure);
         }
         return newContexts;
     }
 
     private void initExecutor() {
-        this.excecutor = Executors.newFixedThreadPool(contexts.size(), new QueueThreadFactory(contexts));
+        this.excecutor = new QueueExecutor(contexts.size(), new QueueThreadFactory(contexts), defaultTaskClass);
     }
 
     public static <C extends CLQueueContext> CLCommandQueuePool<C> create(final CLQueueContextFactory<C> factory, final CLMultiContext mc, final CLCommandQueue.Mode... modes) {
@@ -74,12 +168,123 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
         return new CLCommandQueuePool<C>(factory, queues);
     }
 
+    /**
+     * Creates a pool of the given size running {@link CLJavaKernel}s on the CPU, e.g. if {@link com.jogamp.opencl.CLPlatform#isAvailable()}
+     * returns false. The pool has no command queues, every kernel launch runs in parallel on the executor of the factory,
+     * the size only limits the number of concurrently running tasks.
+     */
+    public static CLCommandQueuePool<CLJavaQueueContext> create(final CLJavaContextFactory factory, final int size) {
+        if(size <= 0) {
+            throw new IllegalArgumentException("size must be positive but was "+size);
+        }
+        return new CLCommandQueuePool<CLJavaQueueContext>(factory, size);
+    }
+
     /**
      * Submits this task to the pool for execution returning its {@link Future}.
      * @see ExecutorService#submit(java.util.concurrent.Callable)
      */
     public <R> Future<R> submit(final CLTask<? super C, R> task) {
-        return excecutor.submit(new TaskWrapper<C,R>(task, finishAction));
+        return submit(task, defaultTaskClass);
+    }
+
+    /**
+     * Submits this task with the given task class to the pool for execution returning its {@link Future}.
+     * Pending tasks of different classes are dispatched by weighted fair queuing.
+     * @see CLTaskClass
+     */
+    public <R> Future<R> submit(final CLTask<? super C, R> task, final CLTaskClass taskClass) {
+        if(taskClass == null) {
+            throw new NullPointerException("task class was null");
+        }
+        return submit(task, taskClass, true);
+    }
+
+    /**
+     * Submits the task, the task class only records the latency if record is set.
+     * Attempts of hedged tasks are not recorded, their future records the latency of the task once.
+     */
+    <R> Future<R> submit(final CLTask<? super C, R> task, final CLTaskClass taskClass, final boolean record) {
+        return excecutor.submit(new TaskWrapper<C,R>(task, finishAction, taskClass, record));
+    }
+
+    /**
+     * Submits this task for hedged execution returning its {@link Future}.
+     * If hedging is enabled and the task is still running after the configured percentile of the execution time of
+     * recent hedged tasks, a duplicate is started on another queue. Time spent waiting for a queue does not count. The first result wins, the other attempt is
+     * cancelled or its result ignored. Only idempotent tasks should be submitted this way.
+     * Behaves like {@link #submit(CLTask, CLTaskClass)} if hedging is disabled.
+     * @see #enableHedging(double, long, java.util.concurrent.TimeUnit)
+     */
+    public <R> Future<R> submitHedged(final CLTask<? super C, R> task, final CLTaskClass taskClass) {
+        final TaskHedger<C> current = hedger;
+        if(current == null) {
+            return submit(task, taskClass);
+        }
+        if(taskClass == null) {
+            throw new NullPointerException("task class was null");
+        }
+        return current.submit(task, taskClass);
+    }
+
+    /**
+     * Submits this task for hedged execution with the default task class.
+     * @see #submitHedged(CLTask, CLTaskClass)
+     */
+    public <R> Future<R> submitHedged(final CLTask<? super C, R> task) {
+        return submitHedged(task, defaultTaskClass);
+    }
+
+    /**
+     * Returns the task class of all tasks submitted to this pool without an explicit task class.
+     * Every pool has its own default class with weight 1.
+     */
+    public CLTaskClass getDefaultTaskClass() {
+        return defaultTaskClass;
+    }
+
+    /**
+     * Enables hedging for tasks submitted via {@link #submitHedged}, resets the hedging statistics.
+     * @param percentile execution time percentile in (0, 1) after which a duplicate is started, e.g. 0.95.
+     * @param minDelay the minimum time a task runs before a duplicate is started.
+     */
+    public void enableHedging(final double percentile, final long minDelay, final TimeUnit unit) {
+        final TaskHedger<C> old = hedger;
+        hedger = new TaskHedger<C>(this, percentile, unit.toNanos(minDelay));
+        if(old != null) {
+            old.shutdown();
+        }
+    }
+
+    /**
+     * Disables hedging, {@link #submitHedged} behaves like {@link #submit} afterwards.
+     */
+    public void disableHedging() {
+        final TaskHedger<C> old = hedger;
+        hedger = null;
+        if(old != null) {
+            old.shutdown();
+        }
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedger != null;
+    }
+
+    /**
+     * Returns how many duplicates have been started since hedging was enabled.
+     */
+    public long getHedgesFired() {
+        final TaskHedger<C> current = hedger;
+        return current == null ? 0 : current.getHedgesFired();
+    }
+
+    /**
+     * Returns how many duplicates completed before the original task since hedging was enabled.
+     */
+    public long getHedgesWon() {
+        final TaskHedger<C> current = hedger;
+        return current == null ? 0 : current.getHedgesWon();
     }
 
     /**
@@ -87,9 +292,17 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
      * Calls {@link #submit(com.jogamp.opencl.util.concurrent.CLTask)} for every task.
      */
     public <R> List<Future<R>> submitAll(final Collection<? extends CLTask<? super C, R>> tasks) {
+        return submitAll(tasks, defaultTaskClass);
+    }
+
+    /**
+     * Submits all tasks with the given task class to the pool for execution and returns their {@link Future}.
+     * Calls {@link #submit(com.jogamp.opencl.util.concurrent.CLTask, CLTaskClass)} for every task.
+     */
+    public <R> List<Future<R>> submitAll(final Collection<? extends CLTask<? super C, R>> tasks, final CLTaskClass taskClass) {
         final List<Future<R>> futures = new ArrayList<Future<R>>(tasks.size());
         for (final CLTask<? super C, R> task : tasks) {
-            futures.add(submit(task));
+            futures.add(submit(task, taskClass));
         }
         return futures;
     }
@@ -118,7 +331,7 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
             if(task == null) {
                 throw new NullPointerException("at least one task was null");
             }
-            wrapper.add(new TaskWrapper<C, R>(task, finishAction));
+            wrapper.add(new TaskWrapper<C, R>(task, finishAction, defaultTaskClass, true));
         }
         return wrapper;
     }
@@ -126,14 +339,23 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
     /**
      * Switches the context of all queues - this operation can be expensive.
      * Blocks until all tasks finish and sets up a new context for all queues.
+     * Pools without queues can only switch to another {@link CLJavaContextFactory}.
      * @return this
      */
     public CLCommandQueuePool<C> switchContext(final CLQueueContextFactory<C> factory) {
 
+        if(queueless && !(factory instanceof CLJavaContextFactory)) {
+            throw new IllegalArgumentException("pool without queues requires a "+CLJavaContextFactory.class.getSimpleName());
+        }
+
         excecutor.shutdown();
         finishQueues(); // just to be sure
 
-        contexts = initContexts(getQueues(), factory);
+        if(queueless) {
+            contexts = initJavaContexts(contexts.size(), (CLJavaContextFactory)factory);
+        }else{
+            contexts = initContexts(queues, factory);
+        }
         initExecutor();
         return this;
     }
@@ -142,8 +364,8 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
      * Calls {@link CLCommandQueue#flush()} on all queues.
      */
     public void flushQueues() {
-        for (final CLQueueContext context : contexts) {
-            context.queue.flush();
+        for (final CLCommandQueue queue : queues) {
+            queue.flush();
         }
     }
 
@@ -151,8 +373,8 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
      * Calls {@link CLCommandQueue#finish()} on all queues.
      */
     public void finishQueues() {
-        for (final CLQueueContext context : contexts) {
-            context.queue.finish();
+        for (final CLCommandQueue queue : queues) {
+            queue.finish();
         }
     }
 
@@ -165,22 +387,21 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
             throw new RuntimeException(getClass().getSimpleName()+" already released");
         }
         released = true;
+        disableHedging();
         excecutor.shutdown();
+        for (final CLCommandQueue queue : queues) {
+            queue.finish().release();
+        }
         for (final CLQueueContext context : contexts) {
-            context.queue.finish().release();
             context.release();
         }
     }
 
     /**
-     * Returns the command queues used in this pool.
+     * Returns the command queues used in this pool, empty for pools of {@link CLJavaQueueContext}s.
      */
     public List<CLCommandQueue> getQueues() {
-        final List<CLCommandQueue> queues = new ArrayList<CLCommandQueue>(contexts.size());
-        for (final CLQueueContext context : contexts) {
-            queues.add(context.queue);
-        }
-        return queues;
+        return new ArrayList<CLCommandQueue>(queues);
     }
 
     /**
@@ -244,29 +465,77 @@ public class CLCommandQueuePool<C extends CLQueueContext> implements CLResource
         }
     }
 
+    /**
+     * Fixed size executor dispatching tasks by weighted fair queuing between their task classes.
+     */
+    private static class QueueExecutor extends ThreadPoolExecutor {
+
+        private QueueExecutor(final int size, final ThreadFactory factory, final CLTaskClass defaultClass) {
+            super(size, size, 0L, TimeUnit.MILLISECONDS, new WeightedFairTaskQueue(defaultClass), factory);
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+            if(callable instanceof TaskWrapper) {
+                return new ClassifiedFuture<T>(callable, ((TaskWrapper<?, ?>)callable).taskClass);
+            }
+            return super.newTaskFor(callable);
+        }
+
+    }
+
+    private static class ClassifiedFuture<T> extends FutureTask<T> implements WeightedFairTaskQueue.Classified {
+
+        private final CLTaskClass taskClass;
+
+        private ClassifiedFuture(final Callable<T> callable, final CLTaskClass taskClass) {
+            super(callable);
+            this.taskClass = taskClass;
+        }
+
+        @Override
+        public CLTaskClass getTaskClass() {
+            return taskClass;
+        }
+
+    }
+
     private static class TaskWrapper<C extends CLQueueContext, R> implements Callable<R> {
 
         private final CLTask<? super C, R> task;
         private final FinishAction mode;
+        private final CLTaskClass taskClass;
+        private final boolean record;
+        private final long submitted;
 
-        public TaskWrapper(final CLTask<? super C, R> task, final FinishAction mode) {
+        public TaskWrapper(final CLTask<? super C, R> task, final FinishAction mode, final CLTaskClass taskClass, final boolean record) {
             this.task = task;
             this.mode = mode;
+            this.taskClass = taskClass;
+            this.record = record;
+            this.submitted = System.nanoTime();
         }
 
         public R call() throws Exception {
+            final long started = System.nanoTime();
             final CLQueueContext context = ((QueueThread)Thread.currentThread()).context;
-            // we make sure to only wrap tasks on the correct kind of thread, so this
-            // shouldn't fail (trying to genericize QueueThread properly becomes tricky)
-            @SuppressWarnings("unchecked")
-            final
-            R result = task.execute((C)context);
-            if(mode.equals(FinishAction.FLUSH)) {
-                context.queue.flush();
-            }else if(mode.equals(FinishAction.FINISH)) {
-                context.queue.finish();
+            try{
+                // we make sure to only wrap tasks on the correct kind of thread, so this
+                // shouldn't fail (trying to genericize QueueThread properly becomes tricky)
+                @SuppressWarnings("unchecked")
+                final
+                R result = task.execute((C)context);
+                if(mode.equals(FinishAction.FLUSH)) {
+                    context.flush();
+                }else if(mode.equals(FinishAction.FINISH)) {
+                    context.finish();
+                }
+                return result;
+            }finally{
+                if(record) {
+                    taskClass.record(started-submitted, System.nanoTime()-submitted);
+                }
             }
-            return result;
         }
 
     }
@@ -0,0 +1,72 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLCommandQueue;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates {@link CLJavaQueueContext}s holding copies of all registered {@link CLJavaKernel}s.
+ * <pre>
+ * CLJavaContextFactory factory = new CLJavaContextFactory().register(new ScaleKernel());
+ * CLCommandQueuePool&lt;CLJavaQueueContext&gt; pool = CLCommandQueuePool.create(factory, 2);
+ * </pre>
+ * All contexts of a factory share one {@link CLJavaExecutor}.
+ * @see CLCommandQueuePool#create(CLJavaContextFactory, int)
+ */
+public class CLJavaContextFactory extends CLQueueContextFactory<CLJavaQueueContext> {
+
+    private final CLJavaExecutor executor;
+    private final Map<String, CLJavaKernel> kernels = new LinkedHashMap<String, CLJavaKernel>();
+
+    /**
+     * Creates a factory using the {@link CLJavaExecutor#getDefault() default executor}.
+     */
+    public CLJavaContextFactory() {
+        this(CLJavaExecutor.getDefault());
+    }
+
+    public CLJavaContextFactory(final CLJavaExecutor executor) {
+        if(executor == null) {
+            throw new NullPointerException("executor was null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     * Registers the Java implementation of the kernel with the name of the given kernel,
+     * replacing any kernel with the same name. Only affects contexts created afterwards.
+     * @return this
+     */
+    public synchronized CLJavaContextFactory register(final CLJavaKernel kernel) {
+        if(kernel == null) {
+            throw new NullPointerException("kernel was null");
+        }
+        kernels.put(kernel.name, kernel);
+        return this;
+    }
+
+    /**
+     * Creates a new context, Java contexts have no queue.
+     * @param old the old context or null.
+     */
+    public synchronized CLJavaQueueContext setup(final CLQueueContext old) {
+        return new CLJavaQueueContext(executor, kernels);
+    }
+
+    /**
+     * Creates a new context, the queue is ignored.
+     * @see #setup(CLQueueContext)
+     */
+    @Override
+    public CLJavaQueueContext setup(final CLCommandQueue queue, final CLQueueContext old) {
+        return setup(old);
+    }
+
+    public CLJavaExecutor getExecutor() {
+        return executor;
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLResource;
+import com.jogamp.opencl.util.concurrent.CLJavaKernel.WorkItem;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link CLJavaKernel}s as parallel loops over their NDRange on all CPU cores.
+ * <p>
+ * The range is split into chunks which are claimed by the calling thread and the worker threads of this executor.
+ * The calling thread always participates, launches from inside a task of this executor or from many
+ * {@link CLCommandQueuePool} threads at the same time therefore can not deadlock, idle workers help the busiest launch.
+ * </p>
+ * @see CLJavaQueueContext
+ */
+public class CLJavaExecutor implements CLResource {
+
+    private static CLJavaExecutor defaultExecutor;
+
+    private final int parallelism;
+    private final ExecutorService workers;
+    private volatile int minChunkSize = 1024;
+    private boolean released;
+
+    private CLJavaExecutor(final int parallelism) {
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism-1 > 0 ? parallelism-1 : 1, new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "java-kernel-thread-"+index.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Creates an executor running kernels on the given number of threads, including the calling thread.
+     */
+    public static CLJavaExecutor create(final int parallelism) {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive but was "+parallelism);
+        }
+        return new CLJavaExecutor(parallelism);
+    }
+
+    /**
+     * Returns the shared executor using all available processors.
+     */
+    public static synchronized CLJavaExecutor getDefault() {
+        if(defaultExecutor == null) {
+            defaultExecutor = new CLJavaExecutor(Runtime.getRuntime().availableProcessors());
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the minimum number of work items per chunk, ranges smaller than twice this size run on the calling thread.
+     * @return this
+     */
+    public CLJavaExecutor setMinChunkSize(final int size) {
+        if(size <= 0) {
+            throw new IllegalArgumentException("size must be positive but was "+size);
+        }
+        this.minChunkSize = size;
+        return this;
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs the kernel for all work items of the NDRange and blocks until all have completed.
+     * Exceptions thrown by the kernel are rethrown on the calling thread.
+     * @param globalWorkOffset offset of the range or null.
+     * @param globalWorkSize size of the range per dimension.
+     * @param localWorkSize work group size or null, only checked for compatibility with the global size.
+     */
+    public void execute(final CLJavaKernel kernel, final long[] globalWorkOffset, final long[] globalWorkSize, final long[] localWorkSize) {
+
+        if(kernel == null) {
+            throw new NullPointerException("kernel was null");
+        }else if(globalWorkSize == null) {
+            throw new NullPointerException("globalWorkSize was null");
+        }
+        final int dimensions = globalWorkSize.length;
+        if(dimensions < 1 || dimensions > 3) {
+            throw new IllegalArgumentException("dimensions must be in [1, 3] but was "+dimensions);
+        }
+
+        long items = 1;
+        for (int i = 0; i < dimensions; i++) {
+            final long local = localWorkSize == null ? 0 : localWorkSize[i];
+            if(globalWorkSize[i] <= 0) {
+                throw new IllegalArgumentException("global work size must be positive but was "+globalWorkSize[i]);
+            }else if(local < 0 || (local > 0 && globalWorkSize[i] % local != 0)) {
+                throw new IllegalArgumentException("global work size "+globalWorkSize[i]+" is not a multiple of local work size "+local);
+            }
+            items *= globalWorkSize[i];
+        }
+
+        final long[] offset = globalWorkOffset == null ? new long[dimensions] : globalWorkOffset.clone();
+        final long[] size = globalWorkSize.clone();
+
+        // a few chunks per thread balance uneven work items
+        final long chunk = Math.max(minChunkSize, items / (parallelism*4L));
+        final Loop loop = new Loop(kernel, offset, size, items, chunk);
+
+        final int helpers = (int)Math.min(parallelism-1, (items-1) / chunk);
+        for (int i = 0; i < helpers; i++) {
+            try{
+                workers.execute(loop);
+            }catch(final RejectedExecutionException ex) {
+                // released, the calling thread does the work
+                break;
+            }
+        }
+        loop.run();
+        loop.await();
+    }
+
+    /**
+     * Runs a one dimensional range.
+     * @see #execute(CLJavaKernel, long[], long[], long[])
+     */
+    public void execute(final CLJavaKernel kernel, final long globalWorkOffset, final long globalWorkSize) {
+        execute(kernel, new long[] {globalWorkOffset}, new long[] {globalWorkSize}, null);
+    }
+
+    @Override
+    public synchronized void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        workers.shutdown();
+        synchronized(CLJavaExecutor.class) {
+            if(defaultExecutor == this) {
+                defaultExecutor = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [parallelism: "+parallelism+" min chunk size: "+minChunkSize+"]";
+    }
+
+    /**
+     * One kernel launch, run by the calling thread and all helping workers.
+     */
+    private static final class Loop implements Runnable {
+
+        private final CLJavaKernel kernel;
+        private final long[] offset;
+        private final long[] size;
+        private final long items;
+        private final long chunk;
+
+        private final AtomicLong next = new AtomicLong();
+        private final AtomicLong done = new AtomicLong();
+        private volatile Throwable failure;
+
+        private Loop(final CLJavaKernel kernel, final long[] offset, final long[] size, final long items, final long chunk) {
+            this.kernel = kernel;
+            this.offset = offset;
+            this.size = size;
+            this.items = items;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void run() {
+            final WorkItem item = new WorkItem(offset, size);
+            long start;
+            while((start = next.getAndAdd(chunk)) < items) {
+                final long end = Math.min(items, start+chunk);
+                try{
+                    if(failure == null) {
+                        item.moveTo(start);
+                        for (long i = start; i < end; i++) {
+                            kernel.run(item);
+                            item.next();
+                        }
+                    }
+                }catch(final Throwable t) {
+                    failure = t;
+                }finally{
+                    if(done.addAndGet(end-start) == items) {
+                        synchronized(this) {
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+        }
+
+        private void await() {
+            synchronized(this) {
+                boolean interrupted = false;
+                while(done.get() < items) {
+                    try{
+                        wait();
+                    }catch(final InterruptedException ex) {
+                        // chunks in progress still reference the caller's buffers, finish first
+                        interrupted = true;
+                    }
+                }
+                if(interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final Throwable t = failure;
+            if(t instanceof RuntimeException) {
+                throw (RuntimeException)t;
+            }else if(t instanceof Error) {
+                throw (Error)t;
+            }else if(t != null) {
+                throw new RuntimeException("kernel "+kernel.name+" failed", t);
+            }
+        }
+
+    }
+
+}
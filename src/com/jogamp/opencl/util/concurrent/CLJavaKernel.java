@@ -0,0 +1,209 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLMemory;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Java implementation of an OpenCL kernel, used by {@link CLJavaQueueContext}s if no OpenCL device is available.
+ * <p>
+ * Like an OpenCL kernel the implementation is called once per work item of the NDRange, possibly from many
+ * threads at the same time. Implementations should only read their arguments and write to distinct elements
+ * of their argument buffers. Work groups, barriers and local memory are not supported.
+ * </p>
+ * Example:
+ * <p><pre>
+ *     factory.register(new CLJavaKernel("scale", 2) {
+ *         public void run(WorkItem item) {
+ *             FloatBuffer data = getFloatBuffer(0);
+ *             int i = (int)item.getGlobalId(0);
+ *             data.put(i, data.get(i) * getFloat(1));
+ *         }
+ *     });
+ * </pre></p>
+ * Arguments are set like {@link com.jogamp.opencl.CLKernel} arguments. {@link CLMemory} and {@link CLTaskBuffer}
+ * arguments are replaced by their host buffer, boxed primitives are unboxed by the typed getters.
+ * @see CLJavaContextFactory#register(CLJavaKernel)
+ */
+public abstract class CLJavaKernel implements Cloneable {
+
+    public final String name;
+    public final int numArgs;
+
+    private Object[] args;
+    private int argIndex;
+
+    public CLJavaKernel(final String name, final int numArgs) {
+        if(name == null) {
+            throw new NullPointerException("name was null");
+        }else if(numArgs < 0) {
+            throw new IllegalArgumentException("numArgs must not be negative but was "+numArgs);
+        }
+        this.name = name;
+        this.numArgs = numArgs;
+        this.args = new Object[numArgs];
+    }
+
+    /**
+     * Runs one work item.
+     */
+    public abstract void run(WorkItem item);
+
+    /**
+     * Returns a copy of this kernel with its own arguments. Fields of subclasses are copied shallow.
+     */
+    public CLJavaKernel copy() {
+        try{
+            final CLJavaKernel copy = (CLJavaKernel)clone();
+            copy.args = args.clone();
+            return copy;
+        }catch(final CloneNotSupportedException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    public CLJavaKernel setArg(final int index, final Object value) {
+        if(index < 0 || index >= numArgs) {
+            throw new IndexOutOfBoundsException("argument index "+index+" out of bounds [0, "+numArgs+") of kernel "+name);
+        }
+        if(value instanceof CLMemory<?>) {
+            args[index] = ((CLMemory<?>)value).getBuffer();
+        }else if(value instanceof CLTaskBuffer<?>) {
+            args[index] = ((CLTaskBuffer<?>)value).getBuffer();
+        }else{
+            args[index] = value;
+        }
+        return this;
+    }
+
+    public CLJavaKernel setArgs(final Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            setArg(i, values[i]);
+        }
+        return this;
+    }
+
+    public CLJavaKernel putArg(final Object value) {
+        setArg(argIndex++, value);
+        return this;
+    }
+
+    public CLJavaKernel rewind() {
+        argIndex = 0;
+        return this;
+    }
+
+    public Object getArg(final int index) {
+        return args[index];
+    }
+
+    protected Buffer getBuffer(final int index) {
+        return (Buffer)args[index];
+    }
+
+    protected ByteBuffer getByteBuffer(final int index) {
+        return (ByteBuffer)args[index];
+    }
+
+    protected IntBuffer getIntBuffer(final int index) {
+        return (IntBuffer)args[index];
+    }
+
+    protected LongBuffer getLongBuffer(final int index) {
+        return (LongBuffer)args[index];
+    }
+
+    protected FloatBuffer getFloatBuffer(final int index) {
+        return (FloatBuffer)args[index];
+    }
+
+    protected DoubleBuffer getDoubleBuffer(final int index) {
+        return (DoubleBuffer)args[index];
+    }
+
+    protected int getInt(final int index) {
+        return ((Number)args[index]).intValue();
+    }
+
+    protected long getLong(final int index) {
+        return ((Number)args[index]).longValue();
+    }
+
+    protected float getFloat(final int index) {
+        return ((Number)args[index]).floatValue();
+    }
+
+    protected double getDouble(final int index) {
+        return ((Number)args[index]).doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [name: "+name+" args: "+numArgs+"]";
+    }
+
+    /**
+     * Position of the current work item in the NDRange. Instances are reused for all work items of a thread.
+     */
+    public static final class WorkItem {
+
+        private final int dimensions;
+        private final long[] offset;
+        private final long[] size;
+        private final long[] id;
+
+        WorkItem(final long[] offset, final long[] size) {
+            this.dimensions = size.length;
+            this.offset = offset;
+            this.size = size;
+            this.id = new long[dimensions];
+        }
+
+        /**
+         * Moves to the work item with the given linear index, dimension 0 is the fastest.
+         */
+        void moveTo(long index) {
+            for (int i = 0; i < dimensions; i++) {
+                id[i] = offset[i] + index % size[i];
+                index /= size[i];
+            }
+        }
+
+        /**
+         * Moves to the next work item.
+         */
+        void next() {
+            for (int i = 0; i < dimensions; i++) {
+                if(++id[i] < offset[i]+size[i]) {
+                    return;
+                }
+                id[i] = offset[i];
+            }
+        }
+
+        public int getWorkDim() {
+            return dimensions;
+        }
+
+        public long getGlobalId(final int dimension) {
+            return dimension < dimensions ? id[dimension] : 0;
+        }
+
+        public long getGlobalSize(final int dimension) {
+            return dimension < dimensions ? size[dimension] : 1;
+        }
+
+        public long getGlobalOffset(final int dimension) {
+            return dimension < dimensions ? offset[dimension] : 0;
+        }
+
+    }
+
+}
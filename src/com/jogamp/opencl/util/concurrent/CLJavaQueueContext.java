@@ -0,0 +1,180 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import java.nio.Buffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Queue context of a {@link CLCommandQueuePool} running {@link CLJavaKernel}s instead of OpenCL kernels.
+ * Used on machines without OpenCL driver, there is no command queue and no OpenCL context,
+ * {@link #getQueue()} and {@link #getCLContext()} return null.
+ * <p>
+ * Every context holds its own copies of the registered kernels, the launch methods mirror
+ * the NDRange methods of {@link com.jogamp.opencl.CLCommandQueue} but block until the kernel completed.
+ * Buffers are plain host buffers, writes and reads are not needed. The {@link CLTaskBuffer} methods inherited from
+ * {@link CLQueueContext} work on the host buffer, tasks using only those run unchanged on OpenCL queues.
+ * </p>
+ * @see CLJavaContextFactory
+ * @see CLCommandQueuePool#create(CLJavaContextFactory, int)
+ */
+public class CLJavaQueueContext extends CLQueueContext {
+
+    public final Map<String, CLJavaKernel> kernels;
+    private final CLJavaExecutor executor;
+    private volatile boolean released;
+
+    public CLJavaQueueContext(final CLJavaExecutor executor, final Map<String, CLJavaKernel> prototypes) {
+        super(null);
+        if(executor == null) {
+            throw new NullPointerException("executor was null");
+        }
+        final Map<String, CLJavaKernel> copies = new LinkedHashMap<String, CLJavaKernel>();
+        for (final CLJavaKernel prototype : prototypes.values()) {
+            copies.put(prototype.name, prototype.copy());
+        }
+        this.executor = executor;
+        this.kernels = Collections.unmodifiableMap(copies);
+    }
+
+    public Map<String, CLJavaKernel> getKernels() {
+        return kernels;
+    }
+
+    public CLJavaKernel getKernel(final String name) {
+        return kernels.get(name);
+    }
+
+    public CLJavaExecutor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public CLContext getCLContext() {
+        return null;
+    }
+
+    /**
+     * Returns a task buffer without device buffer, kernels work on the given host buffer.
+     */
+    @Override
+    public <B extends Buffer> CLTaskBuffer<B> createBuffer(final B directBuffer, final Mem... flags) {
+        return new CLTaskBuffer<B>(directBuffer, null);
+    }
+
+    /**
+     * Does nothing, kernels work on the host buffer.
+     */
+    @Override
+    public CLJavaQueueContext putWriteBuffer(final CLTaskBuffer<?> buffer, final boolean blocking) {
+        return this;
+    }
+
+    /**
+     * Does nothing, kernels work on the host buffer.
+     */
+    @Override
+    public CLJavaQueueContext putReadBuffer(final CLTaskBuffer<?> buffer, final boolean blocking) {
+        return this;
+    }
+
+    /**
+     * Sets the arguments of the Java kernel with the given name and runs it on all cores, blocks until it completed.
+     */
+    @Override
+    public CLJavaQueueContext put1DRangeKernel(final String name, final long globalWorkOffset, final long globalWorkSize,
+                                               final long localWorkSize, final Object... args) {
+        final CLJavaKernel kernel = kernels.get(name);
+        if(kernel == null) {
+            throw new IllegalArgumentException("no kernel "+name+" in "+this);
+        }
+        kernel.setArgs(args);
+        return put1DRangeKernel(kernel, globalWorkOffset, globalWorkSize, localWorkSize);
+    }
+
+    /**
+     * Does nothing, every launch blocks until it completed.
+     */
+    @Override
+    public CLJavaQueueContext flush() {
+        return this;
+    }
+
+    /**
+     * Does nothing, every launch blocks until it completed.
+     */
+    @Override
+    public CLJavaQueueContext finish() {
+        return this;
+    }
+
+    /**
+     * Runs a 1D range kernel on all cores, blocks until it completed.
+     * @param localWorkSize 0 or work group size, only checked for compatibility with the global size.
+     */
+    public CLJavaQueueContext put1DRangeKernel(final CLJavaKernel kernel, final long globalWorkOffset, final long globalWorkSize, final long localWorkSize) {
+        executor.execute(kernel, new long[] {globalWorkOffset}, new long[] {globalWorkSize},
+                         localWorkSize == 0 ? null : new long[] {localWorkSize});
+        return this;
+    }
+
+    /**
+     * Runs a 2D range kernel on all cores, blocks until it completed.
+     */
+    public CLJavaQueueContext put2DRangeKernel(final CLJavaKernel kernel, final long globalWorkOffsetX, final long globalWorkOffsetY,
+                                                final long globalWorkSizeX, final long globalWorkSizeY,
+                                                final long localWorkSizeX, final long localWorkSizeY) {
+        executor.execute(kernel, new long[] {globalWorkOffsetX, globalWorkOffsetY}, new long[] {globalWorkSizeX, globalWorkSizeY},
+                         localWorkSizeX == 0 && localWorkSizeY == 0 ? null : new long[] {localWorkSizeX, localWorkSizeY});
+        return this;
+    }
+
+    /**
+     * Runs a ND range kernel on all cores, blocks until it completed.
+     * @param globalWorkOffset offset or null.
+     * @param localWorkSize work group size or null.
+     */
+    public CLJavaQueueContext putNDRangeKernel(final CLJavaKernel kernel, final int workDimension, final long[] globalWorkOffset,
+                                                final long[] globalWorkSize, final long[] localWorkSize) {
+        if(globalWorkSize.length != workDimension) {
+            throw new IllegalArgumentException("work dimension "+workDimension+" does not match global work size dimension "+globalWorkSize.length);
+        }
+        executor.execute(kernel, globalWorkOffset, globalWorkSize, localWorkSize);
+        return this;
+    }
+
+    /**
+     * Runs a single work item kernel.
+     */
+    public CLJavaQueueContext putTask(final CLJavaKernel kernel) {
+        executor.execute(kernel, 0, 1);
+        return this;
+    }
+
+    /**
+     * The kernels are owned by this context, the shared executor is not released.
+     */
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [kernels: "+kernels.keySet()+"]";
+    }
+
+}
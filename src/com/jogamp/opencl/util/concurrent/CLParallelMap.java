@@ -0,0 +1,452 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLResource;
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Data parallel map and reduce over all queues of a {@link CLCommandQueuePool}.
+ * <p>
+ * The host buffer is split into chunks which are pulled by the queues of the pool.
+ * The chunk size of every queue is proportional to its measured throughput, faster devices
+ * therefore process a larger part of the buffer. Every queue streams its chunks, up to
+ * {@link #getChunksInFlight()} chunks are enqueued at any time to overlap transfers with computation.
+ * Every queue keeps one device buffer per chunk in flight, the buffers are reused by all chunks and later runs
+ * until this map is released.
+ * </p>
+ * Example:
+ * <p><pre>
+ *     CLParallelMap&lt;CLSimpleQueueContext&gt; map = CLParallelMap.create(pool);
+ *     map.map(data, new ChunkKernel&lt;CLSimpleQueueContext&gt;() {
+ *         public void enqueue(CLSimpleQueueContext qc, CLBuffer&lt;?&gt; chunk, int offset, int elements) {
+ *             CLKernel kernel = qc.getKernel("compute").putArg(chunk).putArg(elements).rewind();
+ *             qc.getQueue().put1DRangeKernel(kernel, 0, elements, 0);
+ *         }
+ *     });
+ * </pre></p>
+ * @see CLCommandQueuePool
+ */
+public class CLParallelMap<C extends CLQueueContext> implements CLResource {
+
+    private final CLCommandQueuePool<C> pool;
+    private final QueueThroughput throughput;
+    private final Map<CLCommandQueue, CLBuffer<?>[]> buffers;
+
+    private int minChunkSize = 1024*16;
+    private int maxChunkSize = 1024*1024*4;
+    private int chunksInFlight = 2;
+    private volatile boolean released;
+
+    private CLParallelMap(final CLCommandQueuePool<C> pool) {
+        this.pool = pool;
+        this.throughput = new QueueThroughput();
+        this.buffers = new ConcurrentHashMap<CLCommandQueue, CLBuffer<?>[]>();
+    }
+
+    /**
+     * Creates a new parallel map distributing its work over all queues of the given pool.
+     */
+    public static <C extends CLQueueContext> CLParallelMap<C> create(final CLCommandQueuePool<C> pool) {
+        if(pool == null) {
+            throw new NullPointerException("pool was null");
+        }
+        return new CLParallelMap<C>(pool);
+    }
+
+    /**
+     * Runs the kernel over all elements between position and limit of the given direct buffer.
+     * Every chunk is written to the device, processed by the kernel and read back into the same region.
+     * Blocks until all chunks have been processed.
+     * @return data
+     */
+    public <B extends Buffer> B map(final B data, final ChunkKernel<? super C> kernel) throws InterruptedException, ExecutionException {
+        run(data, kernel, null);
+        return data;
+    }
+
+    /**
+     * Runs the kernel over all elements between position and limit of the given direct buffer
+     * and reduces the results using the combiner.
+     * Blocks until all chunks have been processed.
+     * @return the combined result or null if the buffer was empty.
+     * @see HostCombiner
+     */
+    public <B extends Buffer, R> R reduce(final B data, final ChunkKernel<? super C> kernel, final Combiner<? super C, R> combiner) throws InterruptedException, ExecutionException {
+        if(combiner == null) {
+            throw new NullPointerException("combiner was null");
+        }
+        final List<R> partials = run(data, kernel, combiner);
+        R result = null;
+        for (final R partial : partials) {
+            if(partial != null) {
+                result = (result == null) ? partial : combiner.combine(result, partial);
+            }
+        }
+        return result;
+    }
+
+    private <B extends Buffer, R> List<R> run(final B data, final ChunkKernel<? super C> kernel, final Combiner<? super C, R> combiner) throws InterruptedException, ExecutionException {
+
+        if(kernel == null) {
+            throw new NullPointerException("kernel was null");
+        }else if(!data.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        }else if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+
+        final Partition<B> partition = new Partition<B>(data, data.position(), data.remaining(), throughput.weights(pool.getQueues()));
+
+        final List<Worker<B, R>> workers = new ArrayList<Worker<B, R>>(pool.getSize());
+        for (int i = 0; i < pool.getSize(); i++) {
+            workers.add(new Worker<B, R>(partition, kernel, combiner));
+        }
+
+        final List<Future<R>> futures = pool.invokeAll(workers);
+        final List<R> results = new ArrayList<R>(futures.size());
+        for (final Future<R> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    /**
+     * Returns the measured throughput of the given queue in elements per second or 0 if unknown.
+     */
+    public double getThroughput(final CLCommandQueue queue) {
+        return throughput.get(queue);
+    }
+
+    /**
+     * Returns the measured throughput of all queues in elements per second.
+     */
+    public Map<CLCommandQueue, Double> getThroughput() {
+        final Map<CLCommandQueue, Double> map = new HashMap<CLCommandQueue, Double>();
+        for (final CLCommandQueue queue : pool.getQueues()) {
+            map.put(queue, getThroughput(queue));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Forgets all throughput measurements, the next run splits the work evenly.
+     */
+    public void resetThroughput() {
+        throughput.clear();
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public int getChunksInFlight() {
+        return chunksInFlight;
+    }
+
+    /**
+     * Sets the lower and upper bound of the chunk size in elements.
+     * @return this
+     */
+    public CLParallelMap<C> setChunkSize(final int min, final int max) {
+        if(min <= 0 || max < min) {
+            throw new IllegalArgumentException("invalid chunk size bounds [min: "+min+" max: "+max+"]");
+        }
+        this.minChunkSize = min;
+        this.maxChunkSize = max;
+        return this;
+    }
+
+    /**
+     * Sets the number of chunks every queue keeps enqueued at the same time.
+     * @return this
+     */
+    public CLParallelMap<C> setChunksInFlight(final int chunks) {
+        if(chunks <= 0) {
+            throw new IllegalArgumentException("chunks in flight must be positive but was "+chunks);
+        }
+        this.chunksInFlight = chunks;
+        return this;
+    }
+
+    public CLCommandQueuePool<C> getPool() {
+        return pool;
+    }
+
+    /**
+     * Returns the chunk buffers of the queue, one per chunk in flight.
+     */
+    private CLBuffer<?>[] getBuffers(final CLCommandQueue queue) {
+        CLBuffer<?>[] slots = buffers.get(queue);
+        if(slots == null || slots.length != chunksInFlight) {
+            final CLBuffer<?>[] resized = new CLBuffer<?>[chunksInFlight];
+            if(slots != null) {
+                System.arraycopy(slots, 0, resized, 0, Math.min(slots.length, resized.length));
+                for (int i = resized.length; i < slots.length; i++) {
+                    if(slots[i] != null) {
+                        slots[i].release();
+                    }
+                }
+            }
+            slots = resized;
+            buffers.put(queue, slots);
+        }
+        return slots;
+    }
+
+    /**
+     * Releases the chunk buffers kept per queue. Does not release the pool.
+     */
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final CLBuffer<?>[] slots : buffers.values()) {
+            for (final CLBuffer<?> buffer : slots) {
+                if(buffer != null) {
+                    buffer.release();
+                }
+            }
+        }
+        buffers.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [queues: "+pool.getSize()+" chunk size: ["+minChunkSize+", "+maxChunkSize+"]"
+                                         +" in flight: "+chunksInFlight+"]";
+    }
+
+    /**
+     * Enqueues the kernel for one chunk of the buffer.
+     */
+    public interface ChunkKernel<C extends CLQueueContext> {
+
+        /**
+         * Enqueues all commands operating on the given chunk on {@link CLQueueContext#getQueue()}.
+         * The chunk has already been written to the device. Implementations should not block.
+         * @param chunk device buffer starting with the elements of this chunk, may be larger than the chunk.
+         *              Its host buffer is the region of the chunk.
+         * @param offset offset of the first element of this chunk relative to the position of the host buffer.
+         * @param elements number of elements of this chunk.
+         */
+        void enqueue(C context, CLBuffer<?> chunk, int offset, int elements);
+
+    }
+
+    /**
+     * Reduces chunks to partial results and combines them.
+     * {@link #reduce} is called on the queue thread while the processed chunk still resides on the device,
+     * this allows device side reductions which only read back the result.
+     * @see HostCombiner
+     */
+    public interface Combiner<C extends CLQueueContext, R> {
+
+        /**
+         * Reduces the processed chunk to a partial result.
+         */
+        R reduce(C context, CLBuffer<?> chunk, int elements);
+
+        /**
+         * Combines two partial results, must be associative.
+         */
+        R combine(R a, R b);
+
+    }
+
+    /**
+     * A {@link Combiner} reading every processed chunk back into its region of the host buffer before reducing it.
+     */
+    public static abstract class HostCombiner<C extends CLQueueContext, R> implements Combiner<C, R> {
+
+        @Override
+        public final R reduce(final C context, final CLBuffer<?> chunk, final int elements) {
+            context.getQueue().putReadBuffer(chunk, true);
+            return reduce(chunk.getBuffer());
+        }
+
+        /**
+         * Reduces the host copy of the processed chunk to a partial result.
+         */
+        public abstract R reduce(Buffer chunk);
+
+    }
+
+    /**
+     * Hands out consecutive chunks of the host buffer.
+     */
+    private final class Partition<B extends Buffer> {
+
+        private final B data;
+        private final int total;
+        private final Map<CLCommandQueue, Double> weights;
+        private int next;
+        private final int end;
+
+        private Partition(final B data, final int start, final int total, final Map<CLCommandQueue, Double> weights) {
+            this.data = data;
+            this.next = start;
+            this.end = start+total;
+            this.total = total;
+            this.weights = weights;
+        }
+
+        /**
+         * Returns {offset, elements} of the next chunk for the given queue or null if all elements are taken.
+         */
+        private synchronized int[] claim(final CLCommandQueue queue) {
+            final int remaining = end - next;
+            if(remaining <= 0) {
+                return null;
+            }
+            final Double weight = weights.get(queue);
+            // every queue processes its share in a few chunks
+            long size = (long)Math.ceil(total * (weight == null ? 1.0/weights.size() : weight) / (2*chunksInFlight));
+            size = Math.max(minChunkSize, Math.min(maxChunkSize, size));
+            final int elements = (int)Math.min(size, remaining);
+            final int[] chunk = new int[] {next, elements};
+            next += elements;
+            return chunk;
+        }
+
+    }
+
+    private static class PendingChunk {
+
+        private final CLBuffer<?> buffer;
+        private final CLEventList done;
+        private final int elements;
+
+        private PendingChunk(final CLBuffer<?> buffer, final CLEventList done, final int elements) {
+            this.buffer = buffer;
+            this.done = done;
+            this.elements = elements;
+        }
+
+        private void release() {
+            // the device buffer belongs to the queue and is reused by later chunks
+            done.release();
+        }
+    }
+
+    private final class Worker<B extends Buffer, R> implements CLTask<C, R> {
+
+        private final Partition<B> partition;
+        private final ChunkKernel<? super C> kernel;
+        private final Combiner<? super C, R> combiner;
+
+        private Worker(final Partition<B> partition, final ChunkKernel<? super C> kernel, final Combiner<? super C, R> combiner) {
+            this.partition = partition;
+            this.kernel = kernel;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public R execute(final C context) {
+
+            final CLCommandQueue queue = context.getQueue();
+            final LinkedList<PendingChunk> pending = new LinkedList<PendingChunk>();
+            final int base = partition.data.position();
+            final int elementSize = Buffers.sizeOfBufferElem(partition.data);
+            final CLBuffer<?>[] slots = getBuffers(queue);
+            int next = 0;
+
+            R result = null;
+            long elements = 0;
+            final long start = System.nanoTime();
+
+            try{
+                int[] chunk;
+                while((chunk = partition.claim(queue)) != null) {
+
+                    // at most chunksInFlight-1 chunks are pending, the chunk which used this slot has been retired
+                    final int slot = next++ % slots.length;
+                    final int bytes = chunk[1]*elementSize;
+                    if(slots[slot] == null || slots[slot].getCLSize() < bytes) {
+                        if(slots[slot] != null) {
+                            slots[slot].release();
+                        }
+                        slots[slot] = context.getCLContext().createBuffer(bytes, Mem.READ_WRITE);
+                    }
+
+                    final B slice = Buffers.slice(partition.data, chunk[0], chunk[1]);
+                    final CLBuffer<B> buffer = slots[slot].cloneWith(slice);
+                    final CLEventList done = new CLEventList(1);
+                    pending.add(new PendingChunk(buffer, done, chunk[1]));
+
+                    queue.putWriteBuffer(buffer, false);
+                    kernel.enqueue(context, buffer, chunk[0]-base, chunk[1]);
+                    if(combiner == null) {
+                        queue.putReadBuffer(buffer, false, done);
+                    }else{
+                        queue.putMarker(done);
+                    }
+                    queue.flush();
+
+                    if(pending.size() >= chunksInFlight) {
+                        result = retire(context, pending.removeFirst(), result);
+                    }
+                    elements += chunk[1];
+                }
+                while(!pending.isEmpty()) {
+                    result = retire(context, pending.removeFirst(), result);
+                }
+            }finally{
+                for (final PendingChunk left : pending) {
+                    left.release();
+                }
+            }
+
+            if(elements > 0) {
+                throughput.record(queue, elements, System.nanoTime()-start);
+            }
+            return result;
+        }
+
+        private R retire(final C context, final PendingChunk chunk, final R result) {
+            try{
+                chunk.done.waitForEvents();
+                if(combiner == null) {
+                    return result;
+                }
+                final R partial = combiner.reduce(context, chunk.buffer, chunk.elements);
+                if(result == null) {
+                    return partial;
+                }else if(partial == null) {
+                    return result;
+                }
+                return combiner.combine(result, partial);
+            }finally{
+                chunk.release();
+            }
+        }
+
+    }
+
+}
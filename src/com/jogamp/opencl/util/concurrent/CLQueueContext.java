@@ -6,8 +6,10 @@ package com.jogamp.opencl.util.concurrent;
 import com.jogamp.opencl.CLCommandQueue;
 import com.jogamp.opencl.CLContext;
 import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
 import com.jogamp.opencl.CLProgram;
 import com.jogamp.opencl.CLResource;
+import java.nio.Buffer;
 import java.util.Map;
 
 /**
@@ -18,6 +20,11 @@ import java.util.Map;
  * Possible candidates for those resources can be compiled CLPrograms, CLKernels
  * or even pre allocated CLBuffers.
  * </p>
+ * <p>
+ * Tasks which only use {@link #createBuffer}, {@link #putWriteBuffer}, {@link #putReadBuffer} and
+ * {@link #put1DRangeKernel(String, long, long, long, Object...)} run on OpenCL queues and on
+ * {@link CLJavaQueueContext}s alike, e.g. a {@code CLTask<CLQueueContext, R>}.
+ * </p>
  * @author Michael Bien
  */
 public abstract class CLQueueContext implements CLResource {
@@ -36,6 +43,76 @@ public abstract class CLQueueContext implements CLResource {
         return queue.getContext();
     }
 
+    /**
+     * Creates a device buffer of the size of the given direct buffer for tasks running on this context.
+     */
+    public <B extends Buffer> CLTaskBuffer<B> createBuffer(final B directBuffer, final Mem... flags) {
+        return new CLTaskBuffer<B>(directBuffer, getCLContext().createBuffer(directBuffer, flags));
+    }
+
+    /**
+     * Writes the host buffer to the device buffer.
+     */
+    public CLQueueContext putWriteBuffer(final CLTaskBuffer<?> buffer, final boolean blocking) {
+        queue.putWriteBuffer(buffer.getCLBuffer(), blocking);
+        return this;
+    }
+
+    /**
+     * Reads the device buffer back into the host buffer.
+     */
+    public CLQueueContext putReadBuffer(final CLTaskBuffer<?> buffer, final boolean blocking) {
+        queue.putReadBuffer(buffer.getCLBuffer(), blocking);
+        return this;
+    }
+
+    /**
+     * Sets the arguments of the kernel with the given name and enqueues it over the 1D range.
+     * {@link CLTaskBuffer} arguments are passed as their device buffer.
+     * @param localWorkSize 0 or work group size.
+     * @see #findKernel(String)
+     */
+    public CLQueueContext put1DRangeKernel(final String name, final long globalWorkOffset, final long globalWorkSize,
+                                           final long localWorkSize, final Object... args) {
+        final CLKernel kernel = findKernel(name);
+        if(kernel == null) {
+            throw new IllegalArgumentException("no kernel "+name+" in "+this);
+        }
+        if(args.length > 0) {
+            final Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = args[i] instanceof CLTaskBuffer<?> ? ((CLTaskBuffer<?>)args[i]).getCLBuffer() : args[i];
+            }
+            kernel.setArgs(values);
+        }
+        queue.put1DRangeKernel(kernel, globalWorkOffset, globalWorkSize, localWorkSize);
+        return this;
+    }
+
+    /**
+     * Calls {@link CLCommandQueue#flush()}.
+     */
+    public CLQueueContext flush() {
+        queue.flush();
+        return this;
+    }
+
+    /**
+     * Calls {@link CLCommandQueue#finish()}.
+     */
+    public CLQueueContext finish() {
+        queue.finish();
+        return this;
+    }
+
+    /**
+     * Returns the kernel launched by {@link #put1DRangeKernel(String, long, long, long, Object...)} or null.
+     * This context holds no kernels and returns null.
+     */
+    protected CLKernel findKernel(final String name) {
+        return null;
+    }
+
     /**
      * A simple queue context holding a precompiled program and its kernels.
      * @author Michael Bien
@@ -59,6 +136,11 @@ public abstract class CLQueueContext implements CLResource {
             return kernels.get(name);
         }
 
+        @Override
+        protected CLKernel findKernel(final String name) {
+            return getKernel(name);
+        }
+
         public CLProgram getProgram() {
             return program;
         }
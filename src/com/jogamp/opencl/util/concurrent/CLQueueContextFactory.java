@@ -4,8 +4,14 @@
 package com.jogamp.opencl.util.concurrent;
 
 import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLException;
 import com.jogamp.opencl.CLProgram;
 import com.jogamp.opencl.util.concurrent.CLQueueContext.CLSimpleQueueContext;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Creates {@link CLQueueContext}s.
@@ -30,22 +36,102 @@ public abstract class CLQueueContextFactory<C extends CLQueueContext> {
 
     /**
      * Creates {@link CLSimpleQueueContext}s containing a precompiled program.
+     * The program is compiled from source only once per distinct device, all other queues
+     * of identical devices load the resulting binaries instead. This makes the setup of
+     * a {@link CLCommandQueuePool} depend on the number of distinct devices rather
+     * than on the number of queues.
      * @author Michael Bien
      */
     public static class CLSimpleContextFactory extends CLQueueContextFactory<CLSimpleQueueContext> {
 
         private final String source;
+        private final ConcurrentMap<String, ProgramBinary> binaries;
 
         public CLSimpleContextFactory(final String source) {
             this.source = source;
+            this.binaries = new ConcurrentHashMap<String, ProgramBinary>();
         }
 
         @Override
         public CLSimpleQueueContext setup(final CLCommandQueue queue, final CLQueueContext old) {
-            final CLProgram program = queue.getContext().createProgram(source).build(queue.getDevice());
-            return new CLSimpleQueueContext(queue, program);
+
+            final CLDevice device = queue.getDevice();
+            final ProgramBinary binary = new ProgramBinary();
+            final String key = deviceKey(device);
+            final ProgramBinary cached = binaries.putIfAbsent(key, binary);
+
+            if(cached == null) {
+                // first queue on this kind of device, compile and publish the binary
+                CLProgram program = null;
+                try{
+                    program = buildFromSource(queue);
+                    binary.set(program.getBinaries().get(device));
+                }finally{
+                    if(binary.bytes == null) {
+                        // let the next setup try again
+                        binaries.remove(key, binary);
+                    }
+                    binary.done();
+                }
+                return new CLSimpleQueueContext(queue, program);
+            }
+
+            final byte[] bytes = cached.await();
+            if(bytes != null) {
+                CLProgram program = null;
+                try{
+                    program = queue.getContext().createProgram(Collections.singletonMap(device, bytes)).build(device);
+                    return new CLSimpleQueueContext(queue, program);
+                }catch(final CLException ex) {
+                    // binaries are not compatible after all, fall through and compile
+                    if(program != null && !program.isReleased()) {
+                        program.release();
+                    }
+                }
+            }
+            return new CLSimpleQueueContext(queue, buildFromSource(queue));
+        }
+
+        private CLProgram buildFromSource(final CLCommandQueue queue) {
+            return queue.getContext().createProgram(source).build(queue.getDevice());
+        }
+
+        /**
+         * Devices with the same key are assumed to be able to load each others program binaries.
+         */
+        private static String deviceKey(final CLDevice device) {
+            return device.getPlatform().getName()+"|"+device.getName()+"|"+device.getDriverVersion();
+        }
+
+    }
+
+    /**
+     * Program binary published by the first queue of a device kind, awaited by all others.
+     */
+    private static class ProgramBinary {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile byte[] bytes;
+
+        private void set(final byte[] bytes) {
+            if(bytes != null && bytes.length > 0) {
+                this.bytes = bytes;
+            }
+        }
+
+        private void done() {
+            latch.countDown();
         }
 
+        private byte[] await() {
+            try {
+                latch.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return bytes;
+        }
     }
 
 }
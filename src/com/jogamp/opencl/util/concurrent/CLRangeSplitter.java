@@ -0,0 +1,415 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLResource;
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Splits one logical 1D kernel launch over all queues of a {@link CLCommandQueuePool}.
+ * <p>
+ * The global range is divided into one contiguous share per queue. The size of a share is proportional to the
+ * measured throughput of its queue, the shares are rebalanced after every launch as the measurements change.
+ * Every queue runs its share with the share's offset as global work offset.
+ * </p>
+ * <p>
+ * {@link #launch(int, RangeKernel, Buffer, Buffer...)} passes sub buffers holding only the share to the kernel,
+ * element 0 belongs to the first work item of the share. Kernels therefore index their buffers with
+ * {@code get_global_id(0) - get_global_offset(0)}.
+ * </p>
+ * Example:
+ * <p><pre>
+ *     CLRangeSplitter&lt;CLSimpleQueueContext&gt; splitter = CLRangeSplitter.create(pool).setGranularity(64);
+ *     splitter.launch(elements, new RangeKernel&lt;CLSimpleQueueContext&gt;() {
+ *         public void enqueue(CLSimpleQueueContext qc, CLBuffer&lt;?&gt; output, CLBuffer&lt;?&gt;[] inputs, int offset, int size) {
+ *             CLKernel kernel = qc.getKernel("square").putArg(inputs[0]).putArg(output).rewind();
+ *             qc.getQueue().put1DRangeKernel(kernel, offset, size, 0);
+ *         }
+ *     }, result, data);
+ * </pre></p>
+ * @see CLParallelMap
+ * @see CLCommandQueuePool
+ */
+public class CLRangeSplitter<C extends CLQueueContext> implements CLResource {
+
+    private final CLCommandQueuePool<C> pool;
+    private final QueueThroughput throughput;
+    private final Map<CLCommandQueue, CLBuffer<?>[]> buffers;
+    private volatile Map<CLCommandQueue, Double> shares;
+
+    private int granularity = 1;
+    private volatile boolean released;
+
+    private CLRangeSplitter(final CLCommandQueuePool<C> pool) {
+        this.pool = pool;
+        this.throughput = new QueueThroughput();
+        this.buffers = new ConcurrentHashMap<CLCommandQueue, CLBuffer<?>[]>();
+        this.shares = Collections.emptyMap();
+    }
+
+    /**
+     * Creates a new range splitter distributing launches over all queues of the given pool.
+     */
+    public static <C extends CLQueueContext> CLRangeSplitter<C> create(final CLCommandQueuePool<C> pool) {
+        if(pool == null) {
+            throw new NullPointerException("pool was null");
+        }
+        return new CLRangeSplitter<C>(pool);
+    }
+
+    /**
+     * Runs the task once per queue with the share of the global range assigned to that queue.
+     * Blocks until all shares have been processed.
+     * @return the results of the tasks ordered by the offset of their share, empty shares produce null.
+     */
+    public <R> List<R> launch(final int globalSize, final RangeTask<? super C, R> task) throws InterruptedException, ExecutionException {
+        if(task == null) {
+            throw new NullPointerException("task was null");
+        }
+        return launch(globalSize, granularity, task);
+    }
+
+    /**
+     * Runs the kernel over the global range and gathers the output.
+     * <p>
+     * Every buffer must be direct and hold a multiple of globalSize elements between its position and limit,
+     * all elements belonging to one work item are transferred together. Every queue writes the regions of the
+     * inputs covered by its share to the device, runs the kernel and reads its region of the output back into the
+     * given buffer.
+     * The device buffers passed to the kernel are sub buffers holding exactly the share of the queue. Their parent
+     * buffers are kept per queue, grow to the largest share the queue processed and are reused by later launches
+     * until this splitter is released.
+     * </p>
+     * @return output
+     */
+    public <B extends Buffer> B launch(final int globalSize, final RangeKernel<? super C> kernel, final B output, final Buffer... inputs) throws InterruptedException, ExecutionException {
+        if(kernel == null) {
+            throw new NullPointerException("kernel was null");
+        }else if(output == null) {
+            throw new NullPointerException("output was null");
+        }else if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+
+        final Buffer[] hostBuffers = new Buffer[inputs.length+1];
+        hostBuffers[0] = output;
+        System.arraycopy(inputs, 0, hostBuffers, 1, inputs.length);
+
+        final int[] itemElements = new int[hostBuffers.length];
+        final long[] itemBytes = new long[hostBuffers.length];
+        for (int i = 0; i < hostBuffers.length; i++) {
+            final Buffer buffer = hostBuffers[i];
+            if(!buffer.isDirect()) {
+                throw new IllegalArgumentException("buffer must be direct");
+            }else if(globalSize == 0 || buffer.remaining() % globalSize != 0) {
+                throw new IllegalArgumentException("buffer size "+buffer.remaining()+" is not a multiple of the global size "+globalSize);
+            }
+            itemElements[i] = buffer.remaining() / globalSize;
+            itemBytes[i] = (long)itemElements[i] * Buffers.sizeOfBufferElem(buffer);
+            if(itemBytes[i] * globalSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("buffer of "+itemBytes[i] * globalSize+" bytes is too large");
+            }
+        }
+
+        launch(globalSize, granularity, new RangeTask<C, Void>() {
+            @Override
+            public Void execute(final C context, final int offset, final int size) {
+
+                final CLCommandQueue queue = context.getQueue();
+                final CLBuffer<?>[] device = getBuffers(context, hostBuffers.length, itemBytes, size);
+
+                // sub buffers at origin 0 need no alignment, the shares can start anywhere
+                final CLBuffer<?>[] shares = new CLBuffer<?>[hostBuffers.length];
+                try{
+                    for (int i = 0; i < shares.length; i++) {
+                        shares[i] = device[i].createSubBuffer(0, (int)(itemBytes[i]*size));
+                    }
+
+                    final CLBuffer<?>[] clInputs = new CLBuffer<?>[inputs.length];
+                    for (int i = 0; i < inputs.length; i++) {
+                        clInputs[i] = shares[i+1];
+                        final Buffer region = slice(inputs[i], offset*itemElements[i+1], size*itemElements[i+1]);
+                        queue.putWriteBuffer(shares[i+1].cloneWith(region), false);
+                    }
+
+                    kernel.enqueue(context, shares[0], clInputs, offset, size);
+
+                    final Buffer region = slice(output, offset*itemElements[0], size*itemElements[0]);
+                    queue.putReadBuffer(shares[0].cloneWith(region), true);
+                }finally{
+                    for (final CLBuffer<?> share : shares) {
+                        if(share != null) {
+                            share.release();
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+        return output;
+    }
+
+    /**
+     * Returns a view of the elements [offset, offset+size) relative to the position of the buffer.
+     */
+    private static Buffer slice(final Buffer buffer, final int offset, final int size) {
+        // Buffers.slice moves position and limit temporarily, all queues slice the same host buffers
+        synchronized(buffer) {
+            return Buffers.slice(buffer, buffer.position()+offset, size);
+        }
+    }
+
+    /**
+     * Returns the device buffers of the queue, the output first. Buffers which can not hold the given number of
+     * work items are reallocated.
+     */
+    private CLBuffer<?>[] getBuffers(final C context, final int count, final long[] itemBytes, final int items) {
+        final CLCommandQueue queue = context.getQueue();
+        CLBuffer<?>[] device = buffers.get(queue);
+        if(device == null || device.length < count) {
+            final CLBuffer<?>[] grown = new CLBuffer<?>[count];
+            if(device != null) {
+                System.arraycopy(device, 0, grown, 0, device.length);
+            }
+            device = grown;
+            buffers.put(queue, device);
+        }
+        for (int i = 0; i < count; i++) {
+            final int bytes = (int)(itemBytes[i] * items);
+            if(device[i] == null || device[i].getCLSize() < bytes) {
+                if(device[i] != null) {
+                    device[i].release();
+                }
+                device[i] = context.getCLContext().createBuffer(bytes, i == 0 ? Mem.READ_WRITE : Mem.READ_ONLY);
+            }
+        }
+        return device;
+    }
+
+    private <R> List<R> launch(final int globalSize, final int unit, final RangeTask<? super C, R> task) throws InterruptedException, ExecutionException {
+
+        if(globalSize < 0) {
+            throw new IllegalArgumentException("globalSize must not be negative but was "+globalSize);
+        }
+
+        final Plan<R> plan = new Plan<R>(globalSize, unit);
+
+        final List<CLTask<C, R>> tasks = new ArrayList<CLTask<C, R>>(plan.shares.size());
+        for (int i = 0; i < plan.shares.size(); i++) {
+            tasks.add(new CLTask<C, R>() {
+                @Override
+                public R execute(final C context) {
+                    final CLCommandQueue queue = context.getQueue();
+                    final Share<R> share = plan.claim(queue);
+                    if(share.size == 0) {
+                        return null;
+                    }
+                    final long start = System.nanoTime();
+                    share.result = task.execute(context, share.offset, share.size);
+                    // the claimed share may belong to another queue, the sample counts the work items this queue ran
+                    throughput.record(queue, share.size, System.nanoTime()-start);
+                    return share.result;
+                }
+            });
+        }
+
+        for (final Future<R> future : pool.invokeAll(tasks)) {
+            future.get();
+        }
+
+        final List<R> results = new ArrayList<R>(plan.shares.size());
+        for (final Share<R> share : plan.shares) {
+            results.add(share.result);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the fraction of the global range assigned to the given queue by the last launch.
+     */
+    public double getShare(final CLCommandQueue queue) {
+        final Double share = shares.get(queue);
+        return share == null ? 0 : share;
+    }
+
+    /**
+     * Returns the fractions of the global range assigned to the queues by the last launch.
+     */
+    public Map<CLCommandQueue, Double> getShares() {
+        return shares;
+    }
+
+    /**
+     * Returns the measured throughput of the given queue in work items per second or 0 if unknown.
+     */
+    public double getThroughput(final CLCommandQueue queue) {
+        return throughput.get(queue);
+    }
+
+    /**
+     * Forgets all throughput measurements, the next launch splits the range evenly.
+     */
+    public void resetThroughput() {
+        throughput.clear();
+    }
+
+    public int getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Sets the granularity of the shares in work items, typically the local work size of the kernel.
+     * All shares except the last are a multiple of the granularity.
+     * @return this
+     */
+    public CLRangeSplitter<C> setGranularity(final int granularity) {
+        if(granularity <= 0) {
+            throw new IllegalArgumentException("granularity must be positive but was "+granularity);
+        }
+        this.granularity = granularity;
+        return this;
+    }
+
+    public CLCommandQueuePool<C> getPool() {
+        return pool;
+    }
+
+    /**
+     * Releases the device buffers kept for {@link #launch(int, RangeKernel, Buffer, Buffer...)}. Does not release the pool.
+     */
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final CLBuffer<?>[] device : buffers.values()) {
+            for (final CLBuffer<?> buffer : device) {
+                if(buffer != null) {
+                    buffer.release();
+                }
+            }
+        }
+        buffers.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [queues: "+pool.getSize()+" granularity: "+granularity+" shares: "+shares.values()+"]";
+    }
+
+    /**
+     * Processes one share of the global range.
+     */
+    public interface RangeTask<C extends CLQueueContext, R> {
+
+        /**
+         * Processes the work items [offset, offset+size) on {@link CLQueueContext#getQueue()} and blocks until done.
+         * Typically enqueues the kernel with {@link CLCommandQueue#put1DRangeKernel} using offset as global work offset.
+         */
+        R execute(C context, int offset, int size);
+
+    }
+
+    /**
+     * Enqueues the kernel for one share of the global range.
+     * @see CLRangeSplitter#launch(int, RangeKernel, Buffer, Buffer...)
+     */
+    public interface RangeKernel<C extends CLQueueContext> {
+
+        /**
+         * Enqueues the kernel for the work items [offset, offset+size) on {@link CLQueueContext#getQueue()}.
+         * The regions of the inputs have already been written. Implementations should not block.
+         * @param output device buffer holding the share, element 0 belongs to work item offset.
+         * @param inputs device buffers holding the share, element 0 belongs to work item offset.
+         */
+        void enqueue(C context, CLBuffer<?> output, CLBuffer<?>[] inputs, int offset, int size);
+
+    }
+
+    /**
+     * The assignment of the global range to the queues for one launch.
+     */
+    private final class Plan<R> {
+
+        private final List<Share<R>> shares;
+
+        private Plan(final int globalSize, final int unit) {
+
+            final List<CLCommandQueue> queues = pool.getQueues();
+            final Map<CLCommandQueue, Double> weights = throughput.weights(queues);
+            final long units = (globalSize + (long)unit - 1) / unit;
+
+            this.shares = new ArrayList<Share<R>>(queues.size());
+            final Map<CLCommandQueue, Double> fractions = new HashMap<CLCommandQueue, Double>();
+
+            double cumulative = 0;
+            int offset = 0;
+            for (int i = 0; i < queues.size(); i++) {
+                final CLCommandQueue queue = queues.get(i);
+                cumulative += weights.get(queue);
+                final int end = (i == queues.size()-1) ? globalSize
+                                                       : (int)Math.min(globalSize, Math.round(cumulative*units) * unit);
+                final int size = Math.max(0, end-offset);
+                shares.add(new Share<R>(queue, offset, size));
+                fractions.put(queue, globalSize == 0 ? 0 : size/(double)globalSize);
+                offset += size;
+            }
+            CLRangeSplitter.this.shares = Collections.unmodifiableMap(fractions);
+        }
+
+        /**
+         * Returns the share of the given queue, or any unclaimed share if the queue already claimed its own.
+         */
+        private synchronized Share<R> claim(final CLCommandQueue queue) {
+            Share<R> next = null;
+            for (final Share<R> share : shares) {
+                if(!share.claimed) {
+                    if(share.queue.equals(queue)) {
+                        next = share;
+                        break;
+                    }else if(next == null) {
+                        next = share;
+                    }
+                }
+            }
+            next.claimed = true;
+            return next;
+        }
+
+    }
+
+    private static final class Share<R> {
+
+        private final CLCommandQueue queue;
+        private final int offset;
+        private final int size;
+        private boolean claimed;
+        private volatile R result;
+
+        private Share(final CLCommandQueue queue, final int offset, final int size) {
+            this.queue = queue;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+
+}
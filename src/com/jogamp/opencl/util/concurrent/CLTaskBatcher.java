@@ -0,0 +1,426 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLResource;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batching front-end for a {@link CLCommandQueuePool}.
+ * <p>
+ * Many small, independent requests are accumulated until either {@link #getMaxBatchSize()} requests are
+ * pending or the oldest pending request waited {@link #getMaxDelay(TimeUnit)}. The batch is then
+ * processed as a single task on the pool, usually with one kernel launch, and the results are scattered
+ * back to the per request futures. A larger batch size or delay trades latency for throughput.
+ * </p>
+ * All requests submitted to the same batcher must be compatible, i.e. processable by its {@link BatchProcessor}.
+ * @see PackedBatchProcessor
+ */
+public class CLTaskBatcher<C extends CLQueueContext, Q, R> implements CLResource {
+
+    private final CLCommandQueuePool<C> pool;
+    private final BatchProcessor<? super C, Q, R> processor;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private List<Request<Q, R>> pending;
+    private ScheduledFuture<?> deadline;
+
+    private volatile int maxBatchSize;
+    private volatile long maxDelayNanos;
+
+    private long batchCount;
+    private long requestCount;
+    private boolean released;
+
+    private CLTaskBatcher(final CLCommandQueuePool<C> pool, final BatchProcessor<? super C, Q, R> processor, final int maxBatchSize, final long maxDelayNanos) {
+        this.pool = pool;
+        this.processor = processor;
+        this.pending = new ArrayList<Request<Q, R>>();
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "batch-deadline-thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        setMaxBatchSize(maxBatchSize);
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Creates a new batcher submitting its batches to the given pool.
+     * @param maxBatchSize the number of requests which triggers a batch immediately.
+     * @param maxDelay the maximum time the oldest request waits for more requests.
+     */
+    public static <C extends CLQueueContext, Q, R> CLTaskBatcher<C, Q, R> create(final CLCommandQueuePool<C> pool, final BatchProcessor<? super C, Q, R> processor,
+                                                                                 final int maxBatchSize, final long maxDelay, final TimeUnit unit) {
+        if(pool == null || processor == null) {
+            throw new NullPointerException("pool and processor must not be null");
+        }
+        return new CLTaskBatcher<C, Q, R>(pool, processor, maxBatchSize, unit.toNanos(maxDelay));
+    }
+
+    /**
+     * Adds the request to the current batch and returns the {@link Future} of its result.
+     */
+    public Future<R> submit(final Q request) {
+
+        final Request<Q, R> future = new Request<Q, R>(request);
+        List<Request<Q, R>> full = null;
+
+        synchronized(lock) {
+            if(released) {
+                throw new IllegalStateException(getClass().getSimpleName()+" already released");
+            }
+            pending.add(future);
+            requestCount++;
+
+            if(pending.size() >= maxBatchSize) {
+                full = takePending();
+            }else if(pending.size() == 1) {
+                deadline = timer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if(full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Dispatches all pending requests immediately.
+     */
+    public void flush() {
+        final List<Request<Q, R>> batch;
+        synchronized(lock) {
+            if(pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private List<Request<Q, R>> takePending() {
+        final List<Request<Q, R>> batch = pending;
+        pending = new ArrayList<Request<Q, R>>(Math.min(maxBatchSize, 1024));
+        if(deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+        batchCount++;
+        return batch;
+    }
+
+    private void dispatch(final List<Request<Q, R>> batch) {
+        try{
+            pool.submit(new BatchTask(batch));
+        }catch(final RuntimeException ex) {
+            // e.g. the pool was released, the batch will never run
+            for (final Request<Q, R> request : batch) {
+                request.setException(ex);
+            }
+        }
+    }
+
+    /**
+     * Flushes all pending requests and stops accepting new ones. Does not release the pool.
+     */
+    @Override
+    public void release() {
+        final List<Request<Q, R>> batch;
+        synchronized(lock) {
+            if(released) {
+                throw new RuntimeException(getClass().getSimpleName()+" already released");
+            }
+            released = true;
+            batch = pending.isEmpty() ? null : takePending();
+        }
+        timer.shutdownNow();
+        if(batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        synchronized(lock) {
+            return released;
+        }
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getMaxDelay(final TimeUnit unit) {
+        return unit.convert(maxDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the number of pending requests which triggers a batch immediately.
+     */
+    public void setMaxBatchSize(final int size) {
+        if(size <= 0) {
+            throw new IllegalArgumentException("batch size must be positive but was "+size);
+        }
+        this.maxBatchSize = size;
+    }
+
+    /**
+     * Sets the maximum time the oldest pending request waits for the batch to fill up.
+     * Applies to batches started after this call.
+     */
+    public void setMaxDelay(final long delay, final TimeUnit unit) {
+        if(delay < 0) {
+            throw new IllegalArgumentException("delay must not be negative but was "+delay);
+        }
+        this.maxDelayNanos = unit.toNanos(delay);
+    }
+
+    /**
+     * Returns the average number of requests per dispatched batch.
+     */
+    public double getAverageBatchSize() {
+        synchronized(lock) {
+            final long requests = requestCount - pending.size();
+            return batchCount == 0 ? 0 : requests / (double)batchCount;
+        }
+    }
+
+    public CLCommandQueuePool<C> getPool() {
+        return pool;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [max batch size: "+maxBatchSize+" max delay: "+maxDelayNanos+"ns"
+                                         +" batches: "+batchCount+" requests: "+requestCount+"]";
+    }
+
+    /**
+     * Processes a whole batch of requests, usually with a single kernel launch.
+     */
+    public interface BatchProcessor<C extends CLQueueContext, Q, R> {
+
+        /**
+         * Processes all requests and returns their results in the same order.
+         * Runs on a queue thread of the pool, the results must be available when this method returns.
+         */
+        List<R> process(C context, List<Q> requests);
+
+    }
+
+    /**
+     * A {@link BatchProcessor} packing all requests into one input buffer, running one NDRange
+     * over all items of the batch and unpacking the results from one output buffer.
+     * The kernel receives the arguments (global input, global output, int itemCount) followed by
+     * the arguments set by {@link #getKernel}. The device buffers are kept per queue and grow on demand.
+     */
+    public static abstract class PackedBatchProcessor<C extends CLQueueContext, Q, R> implements BatchProcessor<C, Q, R>, CLResource {
+
+        private final int inputItemSize;
+        private final int outputItemSize;
+        private final Map<CLCommandQueue, CLBuffer<ByteBuffer>[]> buffers;
+        private boolean released;
+
+        /**
+         * @param inputItemSize size in bytes of one work item in the input buffer.
+         * @param outputItemSize size in bytes of one work item in the output buffer.
+         */
+        protected PackedBatchProcessor(final int inputItemSize, final int outputItemSize) {
+            this.inputItemSize = inputItemSize;
+            this.outputItemSize = outputItemSize;
+            this.buffers = new ConcurrentHashMap<CLCommandQueue, CLBuffer<ByteBuffer>[]>();
+        }
+
+        /**
+         * Returns the number of work items of this request.
+         */
+        protected abstract int getItemCount(Q request);
+
+        /**
+         * Writes getItemCount(request) items of the request into the input buffer at its current position.
+         */
+        protected abstract void pack(Q request, ByteBuffer input);
+
+        /**
+         * Reads the result of the request from the output buffer at its current position.
+         */
+        protected abstract R unpack(Q request, ByteBuffer output);
+
+        /**
+         * Returns the batch kernel of the given context. The first three arguments are set by the processor.
+         */
+        protected abstract CLKernel getKernel(C context);
+
+        @Override
+        public List<R> process(final C context, final List<Q> requests) {
+
+            int items = 0;
+            for (final Q request : requests) {
+                items += getItemCount(request);
+            }
+            if(items == 0) {
+                final List<R> results = new ArrayList<R>(requests.size());
+                for (final Q request : requests) {
+                    results.add(unpack(request, ByteBuffer.allocate(0)));
+                }
+                return results;
+            }
+
+            final CLCommandQueue queue = context.getQueue();
+            final CLBuffer<ByteBuffer>[] io = getBuffers(context, items);
+            final ByteBuffer input = io[0].getBuffer();
+            final ByteBuffer output = io[1].getBuffer();
+
+            input.clear();
+            for (final Q request : requests) {
+                pack(request, input);
+            }
+            input.rewind();
+
+            final CLKernel kernel = getKernel(context);
+            kernel.setArg(0, io[0]);
+            kernel.setArg(1, io[1]);
+            kernel.setArg(2, items);
+
+            queue.putWriteBuffer(io[0], false)
+                 .put1DRangeKernel(kernel, 0, items, 0)
+                 .putReadBuffer(io[1], true);
+
+            output.clear();
+            final List<R> results = new ArrayList<R>(requests.size());
+            for (final Q request : requests) {
+                final int end = output.position() + getItemCount(request)*outputItemSize;
+                results.add(unpack(request, output));
+                output.position(end);
+            }
+            output.rewind();
+            return results;
+        }
+
+        @SuppressWarnings("unchecked")
+        private CLBuffer<ByteBuffer>[] getBuffers(final C context, final int items) {
+            final CLCommandQueue queue = context.getQueue();
+            CLBuffer<ByteBuffer>[] io = buffers.get(queue);
+            if(io == null || io[0].getBuffer().capacity() < items*inputItemSize
+                          || io[1].getBuffer().capacity() < items*outputItemSize) {
+                if(io != null) {
+                    io[0].release();
+                    io[1].release();
+                }
+                // grow in powers of two to avoid reallocations on every slightly larger batch
+                final int capacity = Integer.highestOneBit(Math.max(1, items-1)) << 1;
+                io = new CLBuffer[] {
+                    context.getCLContext().createByteBuffer(Math.max(1, capacity*inputItemSize), Mem.READ_ONLY),
+                    context.getCLContext().createByteBuffer(Math.max(1, capacity*outputItemSize), Mem.WRITE_ONLY)
+                };
+                buffers.put(queue, io);
+            }
+            return io;
+        }
+
+        /**
+         * Releases all device buffers held by this processor.
+         */
+        @Override
+        public void release() {
+            if(released) {
+                throw new RuntimeException(getClass().getSimpleName()+" already released");
+            }
+            released = true;
+            for (final CLBuffer<ByteBuffer>[] io : buffers.values()) {
+                io[0].release();
+                io[1].release();
+            }
+            buffers.clear();
+        }
+
+        @Override
+        public boolean isReleased() {
+            return released;
+        }
+
+    }
+
+    private final class BatchTask implements CLTask<C, Void> {
+
+        private final List<Request<Q, R>> batch;
+
+        private BatchTask(final List<Request<Q, R>> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public Void execute(final C context) {
+
+            final List<Request<Q, R>> active = new ArrayList<Request<Q, R>>(batch.size());
+            final List<Q> requests = new ArrayList<Q>(batch.size());
+            for (final Request<Q, R> request : batch) {
+                if(!request.isCancelled()) {
+                    active.add(request);
+                    requests.add(request.request);
+                }
+            }
+            if(active.isEmpty()) {
+                return null;
+            }
+
+            try{
+                final List<R> results = processor.process(context, Collections.unmodifiableList(requests));
+                if(results == null || results.size() != active.size()) {
+                    throw new IllegalStateException("processor returned "+(results == null ? "null" : results.size())
+                                                   +" results for "+active.size()+" requests");
+                }
+                for (int i = 0; i < active.size(); i++) {
+                    active.get(i).set(results.get(i));
+                }
+            }catch(final Throwable t) {
+                for (final Request<Q, R> request : active) {
+                    request.setException(t);
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /**
+     * Future of a single request, completed by the batch it was dispatched with.
+     */
+    private static class Request<Q, R> extends SettableFuture<R> {
+
+        private final Q request;
+
+        private Request(final Q request) {
+            this.request = request;
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLResource;
+import java.nio.Buffer;
+
+/**
+ * Buffer of a {@link CLTask} which runs on OpenCL queues as well as on {@link CLJavaQueueContext}s.
+ * On OpenCL queues the host buffer is paired with a device buffer, Java kernels work on the host buffer directly
+ * and {@link #getCLBuffer()} returns null.
+ * Task buffers are passed as kernel arguments like {@link CLBuffer}s.
+ * @see CLQueueContext#createBuffer(Buffer, com.jogamp.opencl.CLMemory.Mem...)
+ */
+public class CLTaskBuffer<B extends Buffer> implements CLResource {
+
+    private final B buffer;
+    private final CLBuffer<B> clBuffer;
+    private volatile boolean released;
+
+    CLTaskBuffer(final B buffer, final CLBuffer<B> clBuffer) {
+        if(buffer == null) {
+            throw new NullPointerException("buffer was null");
+        }
+        this.buffer = buffer;
+        this.clBuffer = clBuffer;
+    }
+
+    /**
+     * Returns the host buffer.
+     */
+    public B getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the device buffer or null if the buffer belongs to a {@link CLJavaQueueContext}.
+     */
+    public CLBuffer<B> getCLBuffer() {
+        return clBuffer;
+    }
+
+    /**
+     * Releases the device buffer, the host buffer is not affected.
+     */
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        if(clBuffer != null) {
+            clBuffer.release();
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [buffer: "+buffer+" device: "+clBuffer+"]";
+    }
+
+}
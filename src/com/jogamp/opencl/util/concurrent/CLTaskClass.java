@@ -0,0 +1,112 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named class of tasks sharing the capacity of a {@link CLCommandQueuePool} by weight.
+ * <p>
+ * Pending tasks are scheduled by weighted fair queuing between their classes: a class with weight 4
+ * gets four times as many tasks dispatched as a class with weight 1 while both have tasks pending.
+ * No class starves as long as its weight is positive. Tasks of the same class run in FIFO order.
+ * </p>
+ * Every task class records the queuing and total latency of its tasks. Tasks submitted without a class
+ * belong to the {@link CLCommandQueuePool#getDefaultTaskClass() default class} of their pool.
+ * @see CLCommandQueuePool#submit(CLTask, CLTaskClass)
+ */
+public final class CLTaskClass {
+
+    private final String name;
+    private final int weight;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong latencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Creates a new task class.
+     * @param weight relative share of the pool capacity, must be positive.
+     */
+    public CLTaskClass(final String name, final int weight) {
+        if(name == null) {
+            throw new NullPointerException("name was null");
+        }else if(weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive but was "+weight);
+        }
+        this.name = name;
+        this.weight = weight;
+    }
+
+    void record(final long wait, final long latency) {
+        count.incrementAndGet();
+        waitNanos.addAndGet(wait);
+        latencyNanos.addAndGet(latency);
+        long max;
+        while(latency > (max = maxLatencyNanos.get())) {
+            if(maxLatencyNanos.compareAndSet(max, latency)) {
+                break;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the number of completed tasks of this class.
+     */
+    public long getTaskCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean time tasks of this class spent waiting for a queue.
+     */
+    public double getMeanWaitTime(final TimeUnit unit) {
+        final long n = count.get();
+        return n == 0 ? 0 : waitNanos.get() / (double)n / unit.toNanos(1);
+    }
+
+    /**
+     * Returns the mean time between submission and completion of tasks of this class.
+     */
+    public double getMeanLatency(final TimeUnit unit) {
+        final long n = count.get();
+        return n == 0 ? 0 : latencyNanos.get() / (double)n / unit.toNanos(1);
+    }
+
+    /**
+     * Returns the maximum time between submission and completion of tasks of this class.
+     */
+    public long getMaxLatency(final TimeUnit unit) {
+        return unit.convert(maxLatencyNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Resets the latency statistics of this class.
+     */
+    public void resetStatistics() {
+        count.set(0);
+        waitNanos.set(0);
+        latencyNanos.set(0);
+        maxLatencyNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [name: "+name+" weight: "+weight+" tasks: "+getTaskCount()
+                +" mean wait: "+getMeanWaitTime(TimeUnit.MICROSECONDS)+"us"
+                +" mean latency: "+getMeanLatency(TimeUnit.MICROSECONDS)+"us"
+                +" max latency: "+getMaxLatency(TimeUnit.MICROSECONDS)+"us]";
+    }
+
+}
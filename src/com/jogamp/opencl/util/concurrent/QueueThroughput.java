@@ -0,0 +1,99 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLCommandQueue;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Measured throughput of the queues of a pool, used to split work proportionally to the speed of the queues.
+ * Every queue keeps an exponential moving average of the work items per nanosecond it processed.
+ * @see CLParallelMap
+ * @see CLRangeSplitter
+ */
+final class QueueThroughput {
+
+    private final ConcurrentMap<CLCommandQueue, Average> averages = new ConcurrentHashMap<CLCommandQueue, Average>();
+
+    /**
+     * Records that the queue processed the given number of work items in the given time.
+     */
+    void record(final CLCommandQueue queue, final long items, final long nanos) {
+        Average average = averages.get(queue);
+        if(average == null) {
+            final Average newAverage = new Average();
+            average = averages.putIfAbsent(queue, newAverage);
+            if(average == null) {
+                average = newAverage;
+            }
+        }
+        average.record(items, nanos);
+    }
+
+    /**
+     * Returns the measured throughput of the given queue in work items per second or 0 if unknown.
+     */
+    double get(final CLCommandQueue queue) {
+        final Average average = averages.get(queue);
+        return average == null ? 0 : average.get() * 1000000000.0;
+    }
+
+    /**
+     * Returns the relative speed of every queue, the weights sum up to one.
+     * Queues without measurements are treated as average queues.
+     */
+    Map<CLCommandQueue, Double> weights(final List<CLCommandQueue> queues) {
+
+        final Map<CLCommandQueue, Double> weights = new HashMap<CLCommandQueue, Double>();
+
+        double sum = 0;
+        int known = 0;
+        for (final CLCommandQueue queue : queues) {
+            final Average average = averages.get(queue);
+            if(average != null && average.get() > 0) {
+                sum += average.get();
+                known++;
+            }
+        }
+
+        final double mean = known == 0 ? 1 : sum/known;
+        double total = 0;
+        for (final CLCommandQueue queue : queues) {
+            final Average average = averages.get(queue);
+            final double value = (average != null && average.get() > 0) ? average.get() : mean;
+            weights.put(queue, value);
+            total += value;
+        }
+        for (final CLCommandQueue queue : queues) {
+            weights.put(queue, weights.get(queue)/total);
+        }
+        return weights;
+    }
+
+    /**
+     * Forgets all measurements.
+     */
+    void clear() {
+        averages.clear();
+    }
+
+    private static final class Average {
+
+        private double value;
+
+        private synchronized void record(final long items, final long nanos) {
+            final double sample = items / (double)Math.max(1, nanos);
+            value = value == 0 ? sample : 0.5*value + 0.5*sample;
+        }
+
+        private synchronized double get() {
+            return value;
+        }
+    }
+
+}
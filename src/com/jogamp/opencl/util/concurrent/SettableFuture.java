@@ -0,0 +1,103 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link Future} completed explicitly by its producer, the first of {@link #set}, {@link #setException}
+ * and {@link #cancel} wins.
+ */
+class SettableFuture<V> implements Future<V> {
+
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private int state = PENDING;
+    private V value;
+    private Throwable failure;
+
+    /**
+     * Completes this future with the given value, returns false if it was already done.
+     */
+    synchronized boolean set(final V value) {
+        if(state != PENDING) {
+            return false;
+        }
+        this.value = value;
+        state = COMPLETED;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Fails this future with the given cause, returns false if it was already done.
+     */
+    synchronized boolean setException(final Throwable cause) {
+        if(state != PENDING) {
+            return false;
+        }
+        this.failure = cause;
+        state = FAILED;
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean cancel(final boolean mayInterruptIfRunning) {
+        if(state != PENDING) {
+            return false;
+        }
+        state = CANCELLED;
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    @Override
+    public synchronized V get() throws InterruptedException, ExecutionException {
+        while(state == PENDING) {
+            wait();
+        }
+        return report();
+    }
+
+    @Override
+    public synchronized V get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while(state == PENDING) {
+            final long remaining = deadline - System.nanoTime();
+            if(remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return report();
+    }
+
+    private V report() throws ExecutionException {
+        if(state == CANCELLED) {
+            throw new CancellationException();
+        }else if(state == FAILED) {
+            throw new ExecutionException(failure);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speculative execution of tasks for {@link CLCommandQueuePool#submitHedged}.
+ * A task which is still running after a percentile of the recent execution times is started a second time;
+ * since the first attempt occupies its queue, the duplicate always runs on another queue.
+ * The first successful attempt completes the future, the other attempt is cancelled.
+ * The task class records the latency of a hedged task once, from its submission until its future completed.
+ * Pools with a single queue never start duplicates.
+ */
+final class TaskHedger<C extends CLQueueContext> {
+
+    private static final int HISTORY = 256;
+
+    private final CLCommandQueuePool<C> pool;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final ScheduledExecutorService timer;
+
+    private final long[] history = new long[HISTORY];
+    private int samples;
+    private int next;
+    private long cachedDelay = -1;
+
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong won = new AtomicLong();
+
+    TaskHedger(final CLCommandQueuePool<C> pool, final double percentile, final long minDelayNanos) {
+        if(percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1) but was "+percentile);
+        }
+        this.pool = pool;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "hedging-timer-thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    <R> Future<R> submit(final CLTask<? super C, R> task, final CLTaskClass taskClass) {
+        // the hedge is armed when the primary starts, a duplicate of a waiting task would just wait too
+        final HedgedFuture<R> result = new HedgedFuture<R>(taskClass);
+        result.primary = pool.submit(new Attempt<R>(task, taskClass, result, false), taskClass, false);
+        return result;
+    }
+
+    private <R> void arm(final CLTask<? super C, R> task, final CLTaskClass taskClass, final HedgedFuture<R> result) {
+        if(pool.getSize() < 2) {
+            // the duplicate would wait for the queue of the primary
+            return;
+        }
+        try{
+            result.timer = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if(!result.isDone()) {
+                        fired.incrementAndGet();
+                        result.hedge = pool.submit(new Attempt<R>(task, taskClass, result, true), taskClass, false);
+                    }
+                }
+            }, getDelay(), TimeUnit.NANOSECONDS);
+        }catch(final RejectedExecutionException ex) {
+            // hedging was disabled in the meantime
+        }
+    }
+
+    private synchronized void record(final long latency) {
+        history[next] = latency;
+        next = (next+1) % HISTORY;
+        if(samples < HISTORY) {
+            samples++;
+        }
+        if(samples < 16 || next % 16 == 0) {
+            cachedDelay = -1;
+        }
+    }
+
+    private synchronized long getDelay() {
+        if(cachedDelay < 0) {
+            if(samples == 0) {
+                cachedDelay = minDelayNanos;
+            }else{
+                final long[] sorted = Arrays.copyOf(history, samples);
+                Arrays.sort(sorted);
+                final int index = Math.min(samples-1, (int)Math.ceil(percentile * samples) - 1);
+                cachedDelay = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+            }
+        }
+        return cachedDelay;
+    }
+
+    long getHedgesFired() {
+        return fired.get();
+    }
+
+    long getHedgesWon() {
+        return won.get();
+    }
+
+    synchronized int getSampleCount() {
+        return samples;
+    }
+
+    double getPercentile() {
+        return percentile;
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private final class Attempt<R> implements CLTask<C, R> {
+
+        private final CLTask<? super C, R> task;
+        private final CLTaskClass taskClass;
+        private final HedgedFuture<R> result;
+        private final boolean hedge;
+
+        private Attempt(final CLTask<? super C, R> task, final CLTaskClass taskClass, final HedgedFuture<R> result, final boolean hedge) {
+            this.task = task;
+            this.taskClass = taskClass;
+            this.result = result;
+            this.hedge = hedge;
+        }
+
+        @Override
+        public R execute(final C context) {
+            if(result.isDone()) {
+                return null;
+            }
+            final long started = System.nanoTime();
+            if(!hedge) {
+                result.started = started;
+                arm(task, taskClass, result);
+            }
+            try{
+                final R value = task.execute(context);
+                if(!hedge) {
+                    // also if the hedge won, otherwise the history would only keep the fast executions
+                    record(System.nanoTime()-started);
+                }
+                if(result.set(value)) {
+                    if(hedge) {
+                        won.incrementAndGet();
+                    }
+                    result.cancelOther(hedge);
+                }
+                return value;
+            }catch(final RuntimeException ex) {
+                result.fail(ex, hedge);
+                throw ex;
+            }catch(final Error err) {
+                result.fail(err, hedge);
+                throw err;
+            }
+        }
+
+    }
+
+    /**
+     * Future completed by the first successful attempt.
+     */
+    private static final class HedgedFuture<R> extends SettableFuture<R> {
+
+        private final AtomicInteger failures = new AtomicInteger();
+        private final CLTaskClass taskClass;
+        private final long submitted = System.nanoTime();
+        private volatile long started;
+        private volatile Future<R> primary;
+        private volatile Future<R> hedge;
+        private volatile ScheduledFuture<?> timer;
+
+        private HedgedFuture(final CLTaskClass taskClass) {
+            this.taskClass = taskClass;
+        }
+
+        private synchronized void fail(final Throwable t, final boolean fromHedge) {
+            if(isDone()) {
+                return;
+            }
+            // the task only fails if no other attempt can succeed anymore
+            final Future<R> other = fromHedge ? primary : hedge;
+            if(failures.incrementAndGet() == 2 || other == null || other.isDone()) {
+                if(setException(t)) {
+                    disarm();
+                }
+            }
+        }
+
+        // the attempts are not recorded, the task is recorded once before its result becomes visible
+        @Override
+        synchronized boolean set(final R value) {
+            if(isDone()) {
+                return false;
+            }
+            record();
+            return super.set(value);
+        }
+
+        @Override
+        synchronized boolean setException(final Throwable cause) {
+            if(isDone()) {
+                return false;
+            }
+            record();
+            return super.setException(cause);
+        }
+
+        /**
+         * The wait time is the time the primary waited for a queue.
+         */
+        private void record() {
+            taskClass.record(started-submitted, System.nanoTime()-submitted);
+        }
+
+        private void cancelOther(final boolean fromHedge) {
+            disarm();
+            final Future<R> other = fromHedge ? primary : hedge;
+            if(other != null) {
+                other.cancel(false);
+            }
+        }
+
+        private void disarm() {
+            final ScheduledFuture<?> pending = timer;
+            if(pending != null) {
+                pending.cancel(false);
+            }
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if(cancelled) {
+                disarm();
+                if(primary != null) {
+                    primary.cancel(mayInterruptIfRunning);
+                }
+                if(hedge != null) {
+                    hedge.cancel(mayInterruptIfRunning);
+                }
+            }
+            return cancelled;
+        }
+
+    }
+
+}
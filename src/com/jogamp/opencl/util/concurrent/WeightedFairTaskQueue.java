@@ -0,0 +1,320 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Unbounded executor work queue implementing start-time fair queuing between {@link CLTaskClass}es.
+ * Every task is tagged with a virtual start time on insertion, the task with the smallest tag is
+ * dispatched first. The classes with pending tasks are kept in a heap ordered by the tag of their oldest task,
+ * insertion and removal are O(log number of classes with pending tasks). Classes without pending tasks are
+ * forgotten once the virtual time passed their last finish tag, so per request classes do not accumulate.
+ * @see CLCommandQueuePool
+ */
+final class WeightedFairTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // classes with pending tasks or a finish tag after the virtual time
+    private final Map<CLTaskClass, ClassQueue> queues = new HashMap<CLTaskClass, ClassQueue>();
+    // classes with pending tasks by start tag of their oldest task, ties go to the older class
+    private final PriorityQueue<ClassQueue> heads = new PriorityQueue<ClassQueue>(16, new Comparator<ClassQueue>() {
+        @Override
+        public int compare(final ClassQueue a, final ClassQueue b) {
+            final int order = Double.compare(a.entries.peek().start, b.entries.peek().start);
+            return order != 0 ? order : (a.sequence < b.sequence ? -1 : a.sequence == b.sequence ? 0 : 1);
+        }
+    });
+    private final CLTaskClass defaultClass;
+
+    private double virtualTime;
+    private int size;
+    private long sequence;
+    // number of known classes which triggers the next removal of idle classes
+    private int sweepAt = 16;
+
+    /**
+     * @param defaultClass the class of all work items which do not implement {@link Classified}.
+     */
+    WeightedFairTaskQueue(final CLTaskClass defaultClass) {
+        this.defaultClass = defaultClass;
+    }
+
+    /**
+     * Implemented by work items which belong to a task class.
+     */
+    interface Classified {
+        CLTaskClass getTaskClass();
+    }
+
+    @Override
+    public boolean offer(final Runnable runnable) {
+        if(runnable == null) {
+            throw new NullPointerException();
+        }
+        final CLTaskClass taskClass = (runnable instanceof Classified) ? ((Classified)runnable).getTaskClass() : defaultClass;
+
+        lock.lock();
+        try{
+            ClassQueue queue = queues.get(taskClass);
+            if(queue == null) {
+                if(queues.size() >= sweepAt) {
+                    sweep();
+                }
+                queue = new ClassQueue(sequence++);
+                queues.put(taskClass, queue);
+            }
+            final double start = Math.max(virtualTime, queue.lastFinish);
+            queue.lastFinish = start + 1.0 / taskClass.getWeight();
+            queue.entries.add(new Entry(runnable, start));
+            if(queue.entries.size() == 1) {
+                heads.add(queue);
+            }
+            size++;
+            notEmpty.signal();
+        }finally{
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public void put(final Runnable runnable) {
+        offer(runnable);
+    }
+
+    @Override
+    public boolean offer(final Runnable runnable, final long timeout, final TimeUnit unit) {
+        return offer(runnable);
+    }
+
+    // must hold lock
+    private Runnable dequeue() {
+        final ClassQueue next = heads.poll();
+        if(next == null) {
+            return null;
+        }
+        final Entry entry = next.entries.poll();
+        if(!next.entries.isEmpty()) {
+            heads.add(next);
+        }
+        virtualTime = entry.start;
+        size--;
+        return entry.runnable;
+    }
+
+    /**
+     * Forgets the classes without pending tasks whose last finish tag the virtual time passed, a new task of
+     * such a class starts at the virtual time either way. Must hold lock.
+     */
+    private void sweep() {
+        final Iterator<ClassQueue> it = queues.values().iterator();
+        while(it.hasNext()) {
+            final ClassQueue queue = it.next();
+            if(queue.entries.isEmpty() && queue.lastFinish <= virtualTime) {
+                it.remove();
+            }
+        }
+        // amortizes the sweeps over the classes added in between
+        sweepAt = Math.max(16, 2*queues.size());
+    }
+
+    @Override
+    public Runnable poll() {
+        lock.lock();
+        try{
+            return dequeue();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try{
+            while(size == 0) {
+                notEmpty.await();
+            }
+            return dequeue();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            while(size == 0) {
+                if(nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try{
+            final ClassQueue next = heads.peek();
+            return next == null ? null : next.entries.peek().runnable;
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        lock.lock();
+        try{
+            for (final ClassQueue queue : queues.values()) {
+                final Iterator<Entry> it = queue.entries.iterator();
+                while(it.hasNext()) {
+                    if(it.next().runnable.equals(o)) {
+                        // the start tag of the head orders the heap
+                        heads.remove(queue);
+                        it.remove();
+                        if(!queue.entries.isEmpty()) {
+                            heads.add(queue);
+                        }
+                        size--;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try{
+            return size;
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of classes the queue currently keeps state for.
+     */
+    int getClassCount() {
+        lock.lock();
+        try{
+            return queues.size();
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super Runnable> c, final int maxElements) {
+        if(c == this) {
+            throw new IllegalArgumentException();
+        }
+        lock.lock();
+        try{
+            int n = 0;
+            Runnable runnable;
+            while(n < maxElements && (runnable = dequeue()) != null) {
+                c.add(runnable);
+                n++;
+            }
+            return n;
+        }finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot iterator, {@link Iterator#remove()} is not supported.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        final List<Runnable> snapshot = new ArrayList<Runnable>();
+        lock.lock();
+        try{
+            for (final ClassQueue queue : queues.values()) {
+                for (final Entry entry : queue.entries) {
+                    snapshot.add(entry.runnable);
+                }
+            }
+        }finally{
+            lock.unlock();
+        }
+        final Iterator<Runnable> it = snapshot.iterator();
+        return new Iterator<Runnable>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+            @Override
+            public Runnable next() {
+                return it.next();
+            }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove() not supported.");
+            }
+        };
+    }
+
+    private static final class ClassQueue {
+
+        private final ArrayDeque<Entry> entries = new ArrayDeque<Entry>();
+        private final long sequence;
+        private double lastFinish;
+
+        private ClassQueue(final long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+
+    private static final class Entry {
+
+        private final Runnable runnable;
+        private final double start;
+
+        private Entry(final Runnable runnable, final double start) {
+            this.runnable = runnable;
+            this.start = start;
+        }
+    }
+
+}
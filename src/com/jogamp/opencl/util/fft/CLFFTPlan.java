@@ -0,0 +1,461 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.fft;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reusable plan of a batched 1D or 2D complex-to-complex or 1D real-to-complex fast Fourier transform
+ * over {@link CLBuffer}s of floats.
+ * <p>
+ * Complex data is interleaved, real and imaginary part of an element are consecutive floats. 2D data is stored
+ * in row-major order and batched transforms follow each other without gaps. The forward transform uses the
+ * exponent sign -1 and is not normalized, the inverse transform is scaled by 1/N so that it inverts the forward
+ * transform. A real-to-complex transform of n reals produces the n/2+1 non-redundant complex elements.
+ * </p>
+ * <p>
+ * Transforms are computed by Stockham autosort passes with radix 4, 2, 3, 5, 7, 11 and 13, so every dimension must
+ * factor into these primes. Real transforms compute a complex transform of half the size and require an even size.
+ * The plan builds its kernels, computes the twiddle factors in double precision and allocates its temporary
+ * buffers on creation, executing a plan only enqueues the prepared kernels. In-place transforms pass the same
+ * buffer as input and output, the input of out-of-place transforms is not modified.
+ * </p>
+ * <pre>
+ * CLFFTPlan plan = CLFFTPlan.create2D(queue, 512, 512, 1);
+ * plan.forward(data, data);
+ * ...
+ * plan.release();
+ * </pre>
+ * Plans enqueue on an in-order queue and are not thread safe.
+ */
+public class CLFFTPlan implements CLResource {
+
+    private static final String SOURCE =
+              "inline float2 cmul(const float2 a, const float2 b) {\n"
+            + "    return (float2)(a.x*b.x - a.y*b.y, a.x*b.y + a.y*b.x);\n"
+            + "}\n"
+            + "\n"
+            // dir is 1 for the forward and -1 for the inverse transform
+            + "inline float2 twiddle(global const float2* twiddles, const int index, const float dir) {\n"
+            + "    const float2 w = twiddles[index];\n"
+            + "    return (float2)(w.x, dir*w.y);\n"
+            + "}\n"
+            + "\n"
+            // one radix R step of a Stockham pass, ns is the product of the radices of the previous passes
+            + "kernel void fft_pass(global const float2* in, global float2* out, global const float2* twiddles,\n"
+            + "                     const int n, const int ns, const int stride, const int inner,\n"
+            + "                     const int inner_dist, const int outer_dist, const int count,\n"
+            + "                     const float dir, const float scale) {\n"
+            + "    const int gid = get_global_id(0);\n"
+            + "    if(gid >= count) {\n"
+            + "        return;\n"
+            + "    }\n"
+            + "    const int m = n / R;\n"
+            + "    const int t = gid / m;\n"
+            + "    const int j = gid % m;\n"
+            + "    const int k = j % ns;\n"
+            + "    const int step = n / (ns*R);\n"
+            + "    const int base = (t / inner)*outer_dist + (t % inner)*inner_dist;\n"
+            + "\n"
+            + "    float2 v[R];\n"
+            + "    v[0] = in[base + j*stride];\n"
+            + "    for(int r = 1; r < R; r++) {\n"
+            + "        v[r] = cmul(in[base + (j + r*m)*stride], twiddle(twiddles, k*r*step, dir));\n"
+            + "    }\n"
+            + "#if R == 2\n"
+            + "    const float2 a = v[0];\n"
+            + "    v[0] = a + v[1];\n"
+            + "    v[1] = a - v[1];\n"
+            + "#elif R == 4\n"
+            + "    const float2 b0 = v[0] + v[2], b1 = v[0] - v[2];\n"
+            + "    const float2 b2 = v[1] + v[3], b3 = v[1] - v[3];\n"
+            // -i*b3 forward, i*b3 inverse
+            + "    const float2 rb3 = (float2)(dir*b3.y, -dir*b3.x);\n"
+            + "    v[0] = b0 + b2;\n"
+            + "    v[1] = b1 + rb3;\n"
+            + "    v[2] = b0 - b2;\n"
+            + "    v[3] = b1 - rb3;\n"
+            + "#else\n"
+            // small prime radix, the roots of unity of order R are every m-th twiddle
+            + "    float2 y[R];\n"
+            + "    for(int q = 0; q < R; q++) {\n"
+            + "        float2 s = v[0];\n"
+            + "        for(int r = 1; r < R; r++) {\n"
+            + "            s += cmul(v[r], twiddle(twiddles, ((r*q) % R)*m, dir));\n"
+            + "        }\n"
+            + "        y[q] = s;\n"
+            + "    }\n"
+            + "    for(int q = 0; q < R; q++) {\n"
+            + "        v[q] = y[q];\n"
+            + "    }\n"
+            + "#endif\n"
+            + "    const int d = (j / ns)*ns*R + k;\n"
+            + "    for(int r = 0; r < R; r++) {\n"
+            + "        out[base + (d + r*ns)*stride] = v[r] * scale;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            // splits the transform z of n/2 complex values made of n reals into the n/2+1 elements of the real transform
+            + "kernel void real_post(global const float2* z, global float2* out, global const float2* twiddles,\n"
+            + "                      const int h, const int count) {\n"
+            + "    const int gid = get_global_id(0);\n"
+            + "    if(gid >= count) {\n"
+            + "        return;\n"
+            + "    }\n"
+            + "    const int t = gid / (h+1);\n"
+            + "    const int k = gid % (h+1);\n"
+            + "    const float2 zk = z[t*h + k % h];\n"
+            + "    const float2 zc = z[t*h + (h-k) % h];\n"
+            + "    const float2 c = (float2)(zc.x, -zc.y);\n"
+            + "    const float2 even = (zk + c) * 0.5f;\n"
+            + "    const float2 odd = (zk - c) * 0.5f;\n"
+            + "    out[gid] = even + cmul(twiddles[k], (float2)(odd.y, -odd.x));\n"
+            + "}\n";
+
+    /**
+     * Radices in the order they are factored out.
+     */
+    private static final int[] RADICES = new int[] {4, 2, 3, 5, 7, 11, 13};
+
+    private final CLCommandQueue queue;
+    private final int[] size;
+    private final int batch;
+    private final boolean real;
+
+    private final List<CLProgram> programs = new ArrayList<CLProgram>();
+    private final List<CLBuffer<?>> buffers = new ArrayList<CLBuffer<?>>();
+    private final List<Pass> passes = new ArrayList<Pass>();
+    private final CLBuffer<FloatBuffer> temp;
+    private final CLBuffer<FloatBuffer> temp2;
+    private final CLKernel post;
+    private final int postCount;
+
+    private boolean released;
+
+    private CLFFTPlan(final CLCommandQueue queue, final int[] size, final int batch, final boolean real) {
+        this.queue = queue;
+        this.size = size;
+        this.batch = batch;
+        this.real = real;
+
+        final CLContext context = queue.getContext();
+        final CLDevice device = queue.getDevice();
+        try{
+            // the complex elements processed by the passes
+            final int elements = real ? size[0]/2*batch : size[0]*(size.length > 1 ? size[1] : 1)*batch;
+            temp = context.createFloatBuffer(Math.max(1, 2*elements), Mem.READ_WRITE);
+            buffers.add(temp);
+
+            final Map<Integer, CLProgram> radixPrograms = new HashMap<Integer, CLProgram>();
+            if(size.length == 1) {
+                final int n = real ? size[0]/2 : size[0];
+                addPasses(context, device, radixPrograms, n, 1, 1, 0, n, batch);
+            }else{
+                final int rows = size[0], cols = size[1];
+                // rows are contiguous, columns are strided by the row length
+                addPasses(context, device, radixPrograms, cols, 1, 1, 0, cols, batch*rows);
+                addPasses(context, device, radixPrograms, rows, cols, cols, 1, rows*cols, batch*cols);
+            }
+
+            if(real) {
+                final int h = size[0]/2;
+                temp2 = context.createFloatBuffer(Math.max(1, 2*elements), Mem.READ_WRITE);
+                buffers.add(temp2);
+                final CLBuffer<FloatBuffer> twiddles = createTwiddles(context, size[0], h+1);
+                final CLProgram program = getProgram(context, device, radixPrograms, 2);
+                post = program.createCLKernel("real_post");
+                postCount = (h+1)*batch;
+                post.setArg(2, twiddles).setArg(3, h).setArg(4, postCount);
+            }else{
+                temp2 = null;
+                post = null;
+                postCount = 0;
+            }
+            queue.finish();
+        }catch(final RuntimeException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Creates a plan of batch complex transforms of n elements.
+     * @throws IllegalArgumentException if n does not factor into 2, 3, 5, 7, 11 and 13.
+     */
+    public static CLFFTPlan create1D(final CLCommandQueue queue, final int n, final int batch) {
+        checkArguments(queue, batch, n);
+        return new CLFFTPlan(queue, new int[] {n}, batch, false);
+    }
+
+    /**
+     * Creates a plan of batch complex transforms of rows x cols elements stored in row-major order.
+     * @throws IllegalArgumentException if a dimension does not factor into 2, 3, 5, 7, 11 and 13.
+     */
+    public static CLFFTPlan create2D(final CLCommandQueue queue, final int rows, final int cols, final int batch) {
+        checkArguments(queue, batch, rows, cols);
+        return new CLFFTPlan(queue, new int[] {rows, cols}, batch, false);
+    }
+
+    /**
+     * Creates a plan of batch real-to-complex transforms of n reals, producing n/2+1 complex elements each.
+     * @throws IllegalArgumentException if n is odd or n/2 does not factor into 2, 3, 5, 7, 11 and 13.
+     */
+    public static CLFFTPlan createReal1D(final CLCommandQueue queue, final int n, final int batch) {
+        if(n % 2 != 0) {
+            throw new IllegalArgumentException("real transform size must be even but was "+n);
+        }
+        checkArguments(queue, batch, n/2);
+        return new CLFFTPlan(queue, new int[] {n}, batch, true);
+    }
+
+    private static void checkArguments(final CLCommandQueue queue, final int batch, final int... size) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("FFT plans require an in-order queue");
+        }else if(batch <= 0) {
+            throw new IllegalArgumentException("batch must be positive but was "+batch);
+        }
+        long elements = batch;
+        for (final int n : size) {
+            if(n <= 0) {
+                throw new IllegalArgumentException("size must be positive but was "+n);
+            }
+            factor(n);
+            elements *= n;
+        }
+        if(2*elements > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("transform of "+Arrays.toString(size)+" x "+batch+" exceeds the int index range");
+        }
+    }
+
+    /**
+     * Returns the radices of the passes of a transform of size n.
+     */
+    static int[] factor(final int n) {
+        final List<Integer> factors = new ArrayList<Integer>();
+        int rest = n;
+        for (final int radix : RADICES) {
+            while(rest % radix == 0) {
+                factors.add(radix);
+                rest /= radix;
+            }
+        }
+        if(rest != 1) {
+            throw new IllegalArgumentException("size must factor into 2, 3, 5, 7, 11 and 13 but was "+n);
+        }
+        final int[] radices = new int[factors.size()];
+        for (int i = 0; i < radices.length; i++) {
+            radices[i] = factors.get(i);
+        }
+        return radices;
+    }
+
+    /**
+     * Prepares one kernel per pass of count transforms of size n, transform t starts at
+     * <code>(t/inner)*outerDist + (t%inner)*innerDist</code> and its elements are stride apart.
+     */
+    private void addPasses(final CLContext context, final CLDevice device, final Map<Integer, CLProgram> radixPrograms,
+                           final int n, final int stride, final int inner, final int innerDist, final int outerDist, final int count) {
+        final int[] radices = factor(n);
+        if(radices.length == 0) {
+            return;
+        }
+        final CLBuffer<FloatBuffer> twiddles = createTwiddles(context, n, n);
+        int ns = 1;
+        for (final int radix : radices) {
+            final CLKernel kernel = getProgram(context, device, radixPrograms, radix).createCLKernel("fft_pass");
+            final int items = count*(n/radix);
+            kernel.setArg(2, twiddles).setArg(3, n).setArg(4, ns).setArg(5, stride).setArg(6, inner)
+                  .setArg(7, innerDist).setArg(8, outerDist).setArg(9, items);
+            passes.add(new Pass(kernel, items));
+            ns *= radix;
+        }
+    }
+
+    private CLProgram getProgram(final CLContext context, final CLDevice device, final Map<Integer, CLProgram> radixPrograms, final int radix) {
+        CLProgram program = radixPrograms.get(radix);
+        if(program == null) {
+            program = context.createProgram("#define R "+radix+"\n"+SOURCE).build(device);
+            programs.add(program);
+            radixPrograms.put(radix, program);
+        }
+        return program;
+    }
+
+    /**
+     * Uploads <code>exp(-2*pi*i*k/n)</code> for k in [0, count), computed in double precision.
+     */
+    private CLBuffer<FloatBuffer> createTwiddles(final CLContext context, final int n, final int count) {
+        final CLBuffer<FloatBuffer> twiddles = context.createFloatBuffer(2*count, Mem.READ_ONLY);
+        buffers.add(twiddles);
+        final FloatBuffer buffer = twiddles.getBuffer();
+        for (int k = 0; k < count; k++) {
+            final double angle = -2*Math.PI*k/n;
+            buffer.put(2*k, (float)Math.cos(angle)).put(2*k+1, (float)Math.sin(angle));
+        }
+        queue.putWriteBuffer(twiddles, false);
+        return twiddles;
+    }
+
+    /**
+     * Enqueues the forward transform of input into output, both may be the same buffer except for real transforms.
+     */
+    public void forward(final CLBuffer<FloatBuffer> input, final CLBuffer<FloatBuffer> output) {
+        execute(input, output, 1);
+    }
+
+    /**
+     * Enqueues the inverse transform scaled by 1/N of input into output, both may be the same buffer.
+     * @throws UnsupportedOperationException for real-to-complex plans.
+     */
+    public void inverse(final CLBuffer<FloatBuffer> input, final CLBuffer<FloatBuffer> output) {
+        if(real) {
+            throw new UnsupportedOperationException("real-to-complex plans only support forward transforms");
+        }
+        execute(input, output, -1);
+    }
+
+    private void execute(final CLBuffer<FloatBuffer> input, final CLBuffer<FloatBuffer> output, final int dir) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        final int inputFloats = real ? size[0]*batch : 2*getElements();
+        final int outputFloats = real ? 2*(size[0]/2+1)*batch : 2*getElements();
+        if(input.getCLCapacity() < inputFloats) {
+            throw new IllegalArgumentException("input capacity "+input.getCLCapacity()+" less than "+inputFloats);
+        }else if(output.getCLCapacity() < outputFloats) {
+            throw new IllegalArgumentException("output capacity "+output.getCLCapacity()+" less than "+outputFloats);
+        }else if(real && input.ID == output.ID) {
+            throw new IllegalArgumentException("real transforms can not be computed in place");
+        }
+
+        final int count = passes.size();
+        final float scale = dir < 0 ? 1.0f/(getElements()/batch) : 1;
+        CLBuffer<FloatBuffer> source = input;
+        if(real) {
+            // alternate between the temporary buffers, the post processing writes the output
+            for (int i = 0; i < count; i++) {
+                final CLBuffer<FloatBuffer> dest = i % 2 == 0 ? temp : temp2;
+                enqueuePass(passes.get(i), source, dest, dir, 1);
+                source = dest;
+            }
+            post.setArg(0, source).setArg(1, output);
+            queue.put1DRangeKernel(post, 0, postCount, 0);
+            return;
+        }
+
+        // the last pass writes the output unless the first pass would overwrite the input in place
+        final boolean inPlace = input.ID == output.ID;
+        final boolean copy = inPlace && count % 2 == 1;
+        for (int i = 0; i < count; i++) {
+            final boolean toOutput = copy ? i % 2 == 1 : (count-1-i) % 2 == 0;
+            final CLBuffer<FloatBuffer> dest = toOutput ? output : temp;
+            enqueuePass(passes.get(i), source, dest, dir, i == count-1 ? scale : 1);
+            source = dest;
+        }
+        if(source.ID != output.ID) {
+            queue.putCopyBuffer(source, output, 2L*getElements()*4);
+        }
+    }
+
+    private void enqueuePass(final Pass pass, final CLBuffer<FloatBuffer> source, final CLBuffer<FloatBuffer> dest,
+                             final float dir, final float scale) {
+        pass.kernel.setArg(0, source).setArg(1, dest).setArg(10, dir).setArg(11, scale);
+        queue.put1DRangeKernel(pass.kernel, 0, pass.items, 0);
+    }
+
+    /**
+     * Returns the number of complex elements of all transforms of a complex plan or the number of reals of a real plan.
+     */
+    private int getElements() {
+        int elements = batch;
+        for (final int n : size) {
+            elements *= n;
+        }
+        return elements;
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns the dimensions of one transform, rows first.
+     */
+    public int[] getSize() {
+        return size.clone();
+    }
+
+    public int getBatch() {
+        return batch;
+    }
+
+    public boolean isReal() {
+        return real;
+    }
+
+    /**
+     * Returns the number of kernel launches of a transform.
+     */
+    public int getPassCount() {
+        return passes.size() + (real ? 1 : 0);
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final CLProgram program : programs) {
+            program.release();
+        }
+        for (final CLBuffer<?> buffer : buffers) {
+            buffer.release();
+        }
+        programs.clear();
+        buffers.clear();
+        passes.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" ["+(real ? "real " : "complex ")+Arrays.toString(size)+" x "+batch
+                +" passes: "+getPassCount()+"]";
+    }
+
+    /**
+     * Kernel of one pass with all arguments but the buffers, direction and scale set.
+     */
+    private static final class Pass {
+
+        private final CLKernel kernel;
+        private final int items;
+
+        private Pass(final CLKernel kernel, final int items) {
+            this.kernel = kernel;
+            this.items = items;
+        }
+    }
+
+}
@@ -0,0 +1,830 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.image;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLImage2d;
+import com.jogamp.opencl.CLImageFormat;
+import com.jogamp.opencl.CLImageFormat.ChannelOrder;
+import com.jogamp.opencl.CLImageFormat.ChannelType;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import com.jogamp.opencl.CLSampler;
+import com.jogamp.opencl.CLSampler.AddressingMode;
+import com.jogamp.opencl.CLSampler.FilteringMode;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Image filters on {@link CLImage2d}s: separable Gaussian blur, box filter, resize with bilinear or bicubic
+ * sampling, Sobel gradient magnitude, colour conversion, 2D convolution with arbitrary weights and simple pointwise
+ * operations.
+ * <p>
+ * Operators read and write any image format which is accessed as float, i.e. normalized integer, half and float
+ * formats, and work on all four channels as returned by <code>read_imagef</code>. Source and destination must be
+ * different images. Pixels outside of the source are read with the {@link AddressingMode} of the operators,
+ * {@link AddressingMode#CLAMP_TO_EDGE} by default.
+ * </p>
+ * <p>
+ * A {@link Pipeline} chains operators and runs them as few kernels as possible: pointwise operations are fused into
+ * the kernel of the preceding operator and write their result directly, only operators reading neighbouring pixels
+ * start a new kernel. Intermediate results are stored in temporary images of the {@link #getIntermediateFormat()
+ * intermediate format}, the most precise RGBA format of {@link CLContext#getSupportedImage2dFormats} which is
+ * readable as float. Temporary images are reused by following calls.
+ * </p>
+ * <p>
+ * Programs only depend on the layout of a pipeline, i.e. its operators but not their parameters, they are built on
+ * first use of a layout and cached for the lifetime of the instance. Weights and scalar parameters are passed as
+ * kernel arguments, weights are uploaded to constant buffers of which the most recently used are kept.
+ * </p>
+ * <pre>
+ * CLImageOperators operators = CLImageOperators.create(queue);
+ * operators.gaussianBlur(input, output, 2.0f);
+ * operators.pipeline().resize(640, 480, Interpolation.BICUBIC).convertColor(ColorConversion.RGB_TO_GRAY)
+ *          .sobel().threshold(0.25f).apply(input, edges);
+ * </pre>
+ * Instances enqueue on an in-order queue and are not thread safe.
+ */
+public class CLImageOperators implements CLResource {
+
+    private static final String HEADER =
+              "#define READ(img, px, py) read_imagef(img, nearest, (float2)(((px)+0.5f)*inv_src.x, ((py)+0.5f)*inv_src.y))\n"
+            + "\n";
+
+    private static final String KERNEL_SIGNATURE =
+              "kernel void stage(read_only image2d_t src, write_only image2d_t dst, sampler_t nearest, sampler_t linear";
+
+    private static final String WEIGHTS_SIGNATURE =
+              ", constant float* W, const int kw, const int kh";
+
+    private static final String KERNEL_START =
+              "    const int x = get_global_id(0);\n"
+            + "    const int y = get_global_id(1);\n"
+            + "    const int2 src_size = get_image_dim(src);\n"
+            + "    const int2 dst_size = get_image_dim(dst);\n"
+            + "    const float2 inv_src = (float2)(1.0f/src_size.x, 1.0f/src_size.y);\n";
+
+    private static final String KERNEL_END =
+              "    write_imagef(dst, (int2)(x, y), v);\n"
+            + "}\n";
+
+    private static final String WEIGHTED =
+              "    float4 v = (float4)(0.0f);\n"
+            + "    for(int j = 0; j < kh; j++) {\n"
+            + "        for(int i = 0; i < kw; i++) {\n"
+            + "            v += W[j*kw + i] * READ(src, x+i-kw/2, y+j-kh/2);\n"
+            + "        }\n"
+            + "    }\n";
+
+    private static final String COPY =
+              "    float4 v = READ(src, x, y);\n";
+
+    private static final String SOBEL =
+              "    const float4 p00 = READ(src, x-1, y-1), p10 = READ(src, x, y-1), p20 = READ(src, x+1, y-1);\n"
+            + "    const float4 p01 = READ(src, x-1, y),   p11 = READ(src, x, y),   p21 = READ(src, x+1, y);\n"
+            + "    const float4 p02 = READ(src, x-1, y+1), p12 = READ(src, x, y+1), p22 = READ(src, x+1, y+1);\n"
+            + "    const float4 gx = (p20 + 2.0f*p21 + p22) - (p00 + 2.0f*p01 + p02);\n"
+            + "    const float4 gy = (p02 + 2.0f*p12 + p22) - (p00 + 2.0f*p10 + p20);\n"
+            + "    float4 v = sqrt(gx*gx + gy*gy);\n"
+            + "    v.w = p11.w;\n";
+
+    private static final String BILINEAR =
+              "    float4 v = read_imagef(src, linear, (float2)((x+0.5f)/dst_size.x, (y+0.5f)/dst_size.y));\n";
+
+    private static final String CUBIC_WEIGHTS =
+            // Catmull-Rom weights of the samples at -1, 0, 1 and 2
+              "float4 cubic_weights(const float t) {\n"
+            + "    return (float4)(((-0.5f*t + 1.0f)*t - 0.5f)*t,\n"
+            + "                    (1.5f*t - 2.5f)*t*t + 1.0f,\n"
+            + "                    ((-1.5f*t + 2.0f)*t + 0.5f)*t,\n"
+            + "                    (0.5f*t - 0.5f)*t*t);\n"
+            + "}\n"
+            + "\n";
+
+    private static final String BICUBIC =
+              "    const float2 pos = (float2)((x+0.5f)*src_size.x/dst_size.x - 0.5f, (y+0.5f)*src_size.y/dst_size.y - 0.5f);\n"
+            + "    const float2 base = floor(pos);\n"
+            + "    const float4 wx = cubic_weights(pos.x - base.x);\n"
+            + "    const float4 wy = cubic_weights(pos.y - base.y);\n"
+            + "    const int bx = (int)base.x;\n"
+            + "    const int by = (int)base.y;\n"
+            + "    float4 v = (float4)(0.0f);\n"
+            + "    for(int j = 0; j < 4; j++) {\n"
+            + "        const float w = j == 0 ? wy.x : j == 1 ? wy.y : j == 2 ? wy.z : wy.w;\n"
+            + "        v += w * (wx.x*READ(src, bx-1, by-1+j) + wx.y*READ(src, bx, by-1+j)\n"
+            + "                + wx.z*READ(src, bx+1, by-1+j) + wx.w*READ(src, bx+2, by-1+j));\n"
+            + "    }\n";
+
+    /**
+     * Number of weight buffers kept on the device.
+     */
+    private static final int CACHED_WEIGHTS = 16;
+
+    /**
+     * Channel types usable for intermediate images, the most precise first.
+     */
+    private static final ChannelType[] INTERMEDIATE_TYPES = new ChannelType[] {
+        ChannelType.FLOAT, ChannelType.HALF_FLOAT, ChannelType.UNORM_INT16, ChannelType.UNORM_INT8
+    };
+
+    /**
+     * Interpolation of {@link Pipeline#resize resized} images.
+     */
+    public enum Interpolation {
+
+        /**
+         * Linear interpolation of the 4 nearest pixels by the sampler.
+         */
+        BILINEAR,
+
+        /**
+         * Catmull-Rom spline through the 16 nearest pixels, sharper than bilinear but may overshoot at edges.
+         */
+        BICUBIC
+    }
+
+    /**
+     * Colour space conversions of the first three channels, alpha is kept.
+     * Luma and YCbCr use the ITU-R BT.601 coefficients, YCbCr in full range with chroma offset by 0.5.
+     */
+    public enum ColorConversion {
+
+        /**
+         * Replaces R, G and B by the luma Y.
+         */
+        RGB_TO_GRAY(
+              "    {\n"
+            + "        const float l = 0.299f*v.x + 0.587f*v.y + 0.114f*v.z;\n"
+            + "        v = (float4)(l, l, l, v.w);\n"
+            + "    }\n"),
+
+        RGB_TO_YCBCR(
+              "    v = (float4)(0.299f*v.x + 0.587f*v.y + 0.114f*v.z,\n"
+            + "                 -0.168736f*v.x - 0.331264f*v.y + 0.5f*v.z + 0.5f,\n"
+            + "                 0.5f*v.x - 0.418688f*v.y - 0.081312f*v.z + 0.5f, v.w);\n"),
+
+        YCBCR_TO_RGB(
+              "    v = (float4)(v.x + 1.402f*(v.z-0.5f),\n"
+            + "                 v.x - 0.344136f*(v.y-0.5f) - 0.714136f*(v.z-0.5f),\n"
+            + "                 v.x + 1.772f*(v.y-0.5f), v.w);\n"),
+
+        /**
+         * Swaps the first and third channel, converts between RGBA and BGRA.
+         */
+        SWAP_RB(
+              "    v = v.zyxw;\n");
+
+        private final String code;
+
+        private ColorConversion(final String code) {
+            this.code = code;
+        }
+    }
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+    private final Map<String, CLKernel> kernels = new HashMap<String, CLKernel>();
+    private final List<CLProgram> programs = new ArrayList<CLProgram>();
+    // uploaded weights by content in access order
+    private final Map<String, CLBuffer<FloatBuffer>> weights = new LinkedHashMap<String, CLBuffer<FloatBuffer>>(16, 0.75f, true);
+    // two temporary images per size
+    private final Map<String, CLImage2d<?>[]> temporaries = new HashMap<String, CLImage2d<?>[]>();
+
+    private AddressingMode addressing = AddressingMode.CLAMP_TO_EDGE;
+    private CLSampler nearest;
+    private CLSampler linear;
+    private CLImageFormat intermediate;
+
+    private boolean released;
+
+    private CLImageOperators(final CLCommandQueue queue) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+    }
+
+    /**
+     * Creates image operators running on the given queue.
+     * @throws IllegalArgumentException if the queue executes out of order.
+     * @throws UnsupportedOperationException if the device does not support images.
+     */
+    public static CLImageOperators create(final CLCommandQueue queue) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("image operators require an in-order queue");
+        }else if(!queue.getDevice().isImageSupportAvailable()) {
+            throw new UnsupportedOperationException(queue.getDevice().getName()+" does not support images");
+        }
+        return new CLImageOperators(queue);
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns a new empty pipeline, an empty pipeline copies the image.
+     */
+    public Pipeline pipeline() {
+        return new Pipeline();
+    }
+
+    /**
+     * Enqueues a Gaussian blur with the given standard deviation in pixels, as a horizontal and a vertical pass.
+     */
+    public void gaussianBlur(final CLImage2d<?> src, final CLImage2d<?> dst, final float sigma) {
+        pipeline().gaussianBlur(sigma).apply(src, dst);
+    }
+
+    /**
+     * Enqueues the mean of the (2*radiusX+1) x (2*radiusY+1) pixels around every pixel.
+     */
+    public void boxFilter(final CLImage2d<?> src, final CLImage2d<?> dst, final int radiusX, final int radiusY) {
+        pipeline().boxFilter(radiusX, radiusY).apply(src, dst);
+    }
+
+    /**
+     * Enqueues a resize of the source to the size of the destination.
+     */
+    public void resize(final CLImage2d<?> src, final CLImage2d<?> dst, final Interpolation interpolation) {
+        pipeline().resize(dst.width, dst.height, interpolation).apply(src, dst);
+    }
+
+    /**
+     * Enqueues the Sobel gradient magnitude of the first three channels, alpha is kept.
+     */
+    public void sobel(final CLImage2d<?> src, final CLImage2d<?> dst) {
+        pipeline().sobel().apply(src, dst);
+    }
+
+    public void convertColor(final CLImage2d<?> src, final CLImage2d<?> dst, final ColorConversion conversion) {
+        pipeline().convertColor(conversion).apply(src, dst);
+    }
+
+    /**
+     * Enqueues a 2D convolution with a row-major kernelWidth x kernelHeight matrix of weights.
+     * @see Pipeline#convolve
+     */
+    public void convolve(final CLImage2d<?> src, final CLImage2d<?> dst, final float[] weights,
+                         final int kernelWidth, final int kernelHeight) {
+        pipeline().convolve(weights, kernelWidth, kernelHeight).apply(src, dst);
+    }
+
+    /**
+     * Sets how pixels outside of source images are read, all modes are supported.
+     */
+    public void setAddressingMode(final AddressingMode mode) {
+        if(mode == null) {
+            throw new NullPointerException("mode was null");
+        }
+        if(mode != addressing) {
+            releaseSamplers();
+            addressing = mode;
+        }
+    }
+
+    public AddressingMode getAddressingMode() {
+        return addressing;
+    }
+
+    /**
+     * Returns the format of temporary images, the first RGBA format supported by the context for reading and writing
+     * of the channel types FLOAT, HALF_FLOAT, UNORM_INT16 and UNORM_INT8 unless set explicitly.
+     * @throws UnsupportedOperationException if the context supports none of these formats.
+     */
+    public CLImageFormat getIntermediateFormat() {
+        if(intermediate == null) {
+            final CLImageFormat[] formats = queue.getContext().getSupportedImage2dFormats(Mem.READ_WRITE);
+            final CLImageFormat format = selectFormat(formats, ChannelOrder.RGBA);
+            if(format == null) {
+                throw new UnsupportedOperationException(device.getName()+" supports no RGBA float image format for intermediate results");
+            }
+            intermediate = format;
+        }
+        return intermediate;
+    }
+
+    /**
+     * Sets the format of temporary images, e.g. a smaller format to save bandwidth.
+     * @throws IllegalArgumentException if the format is not readable as float or not supported for reading and writing.
+     */
+    public void setIntermediateFormat(final CLImageFormat format) {
+        if(format == null) {
+            throw new NullPointerException("format was null");
+        }else if(!isFloatFormat(format)) {
+            throw new IllegalArgumentException(format+" is not readable as float");
+        }
+        boolean supported = false;
+        for (final CLImageFormat candidate : queue.getContext().getSupportedImage2dFormats(Mem.READ_WRITE)) {
+            supported |= candidate.equals(format);
+        }
+        if(!supported) {
+            throw new IllegalArgumentException(format+" is not supported by "+device.getName());
+        }
+        releaseTemporaries();
+        intermediate = format;
+    }
+
+    /**
+     * Returns the first format of the given channel order in the list of supported formats, preferring
+     * FLOAT over HALF_FLOAT over UNORM_INT16 over UNORM_INT8 channels, or null if there is none.
+     */
+    public static CLImageFormat selectFormat(final CLImageFormat[] supported, final ChannelOrder order) {
+        for (final ChannelType type : INTERMEDIATE_TYPES) {
+            for (final CLImageFormat format : supported) {
+                if(format.getImageChannelOrder() == order && format.getImageChannelDataType() == type) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true for formats read and written as float, false for unnormalized integer formats.
+     */
+    public static boolean isFloatFormat(final CLImageFormat format) {
+        final ChannelType type = format.getImageChannelDataType();
+        if(type == null) {
+            return false;
+        }
+        switch(type) {
+            case SIGNED_INT8:
+            case SIGNED_INT16:
+            case SIGNED_INT32:
+            case UNSIGNED_INT8:
+            case UNSIGNED_INT16:
+            case UNSIGNED_INT32:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private static void checkImage(final String name, final CLImage2d<?> image) {
+        if(image == null) {
+            throw new NullPointerException(name+" was null");
+        }else if(!isFloatFormat(image.getFormat())) {
+            throw new IllegalArgumentException(name+" format "+image.getFormat()+" is not readable as float");
+        }
+    }
+
+    private static void checkFinite(final float[] values) {
+        for (final float value : values) {
+            checkFinite(value);
+        }
+    }
+
+    private static void checkFinite(final float value) {
+        if(Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException("value must be finite but was "+value);
+        }
+    }
+
+    private static float[] gaussian(final float sigma) {
+        if(!(sigma > 0) || Float.isInfinite(sigma)) {
+            throw new IllegalArgumentException("sigma must be positive but was "+sigma);
+        }
+        final int radius = (int)Math.ceil(3*sigma);
+        final float[] weights = new float[2*radius+1];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            final double d = i-radius;
+            weights[i] = (float)Math.exp(-d*d/(2.0*sigma*sigma));
+            sum += weights[i];
+        }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= sum;
+        }
+        return weights;
+    }
+
+    private static float[] box(final int radius) {
+        if(radius < 0) {
+            throw new IllegalArgumentException("radius must not be negative but was "+radius);
+        }
+        final float[] weights = new float[2*radius+1];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1.0f / weights.length;
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the kernel for the source, builds it on first use.
+     */
+    private CLKernel getKernel(final String source) {
+        CLKernel kernel = kernels.get(source);
+        if(kernel == null) {
+            final CLProgram program = queue.getContext().createProgram(source).build(device);
+            programs.add(program);
+            kernel = program.createCLKernel("stage");
+            kernels.put(source, kernel);
+        }
+        return kernel;
+    }
+
+    /**
+     * Returns a constant buffer holding the weights, uploads them on first use. Releases the least recently used
+     * buffer if more than {@link #CACHED_WEIGHTS} are cached, commands already enqueued with it are not affected.
+     */
+    private CLBuffer<FloatBuffer> getWeights(final float[] values) {
+        final String key = Arrays.toString(values);
+        CLBuffer<FloatBuffer> buffer = weights.get(key);
+        if(buffer == null) {
+            buffer = queue.getContext().createFloatBuffer(values.length, Mem.READ_ONLY);
+            buffer.getBuffer().put(values).rewind();
+            queue.putWriteBuffer(buffer, false);
+            weights.put(key, buffer);
+            if(weights.size() > CACHED_WEIGHTS) {
+                final Iterator<CLBuffer<FloatBuffer>> eldest = weights.values().iterator();
+                eldest.next().release();
+                eldest.remove();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a temporary image of the given size which is not the excluded image.
+     */
+    private CLImage2d<?> getTemporary(final int width, final int height, final CLImage2d<?> exclude) {
+        final String key = width+"x"+height;
+        CLImage2d<?>[] images = temporaries.get(key);
+        if(images == null) {
+            images = new CLImage2d<?>[2];
+            temporaries.put(key, images);
+        }
+        final int index = images[0] != null && images[0] == exclude ? 1 : 0;
+        if(images[index] == null) {
+            images[index] = queue.getContext().createImage2d(width, height, getIntermediateFormat(), Mem.READ_WRITE);
+        }
+        return images[index];
+    }
+
+    private void initSamplers() {
+        if(nearest == null) {
+            final CLContext context = queue.getContext();
+            nearest = context.createSampler(addressing, FilteringMode.NEAREST, true);
+            linear = context.createSampler(addressing, FilteringMode.LINEAR, true);
+        }
+    }
+
+    private void releaseSamplers() {
+        if(nearest != null) {
+            nearest.release();
+            linear.release();
+            nearest = null;
+            linear = null;
+        }
+    }
+
+    private void releaseTemporaries() {
+        for (final CLImage2d<?>[] images : temporaries.values()) {
+            for (final CLImage2d<?> image : images) {
+                if(image != null) {
+                    image.release();
+                }
+            }
+        }
+        temporaries.clear();
+    }
+
+    private void releaseWeights() {
+        for (final CLBuffer<FloatBuffer> buffer : weights.values()) {
+            buffer.release();
+        }
+        weights.clear();
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        releaseSamplers();
+        releaseTemporaries();
+        releaseWeights();
+        for (final CLProgram program : programs) {
+            program.release();
+        }
+        programs.clear();
+        kernels.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [device: "+device.getName()+" addressing: "+addressing
+                +" intermediate: "+intermediate+" kernels: "+kernels.size()+"]";
+    }
+
+    /**
+     * One kernel: an operator reading the source followed by fused pointwise operations. The source only depends on
+     * the layout, weights and scalar parameters are kernel arguments following the images and samplers.
+     */
+    private static final class Stage {
+
+        private final String declarations;
+        private final String body;
+        // output size, zero keeps the input size
+        private final int width;
+        private final int height;
+        // kw x kh weights of the WEIGHTED body, null for other operators
+        private final float[] weights;
+        private final int kw;
+        private final int kh;
+        private final StringBuilder pointwise = new StringBuilder();
+        private final List<Float> parameters = new ArrayList<Float>();
+
+        private Stage(final String declarations, final String body, final int width, final int height) {
+            this.declarations = declarations;
+            this.body = body;
+            this.width = width;
+            this.height = height;
+            this.weights = null;
+            this.kw = 0;
+            this.kh = 0;
+        }
+
+        private Stage(final float[] weights, final int kw, final int kh) {
+            this.declarations = "";
+            this.body = WEIGHTED;
+            this.width = 0;
+            this.height = 0;
+            this.weights = weights.clone();
+            this.kw = kw;
+            this.kh = kh;
+        }
+
+        /**
+         * Adds a scalar parameter and returns its name in the kernel.
+         */
+        private String parameter(final float value) {
+            checkFinite(value);
+            parameters.add(value);
+            return "p"+(parameters.size()-1);
+        }
+
+        private String source() {
+            final StringBuilder signature = new StringBuilder(KERNEL_SIGNATURE);
+            if(weights != null) {
+                signature.append(WEIGHTS_SIGNATURE);
+            }
+            for (int i = 0; i < parameters.size(); i++) {
+                signature.append(", const float p").append(i);
+            }
+            return HEADER + declarations + signature + ") {\n" + KERNEL_START + body + pointwise + KERNEL_END;
+        }
+    }
+
+    /**
+     * A reusable chain of operators, pointwise operations are fused into the kernel of the previous operator.
+     * Pipelines are created by {@link CLImageOperators#pipeline()} and run by {@link #apply}.
+     */
+    public final class Pipeline {
+
+        private final List<Stage> stages = new ArrayList<Stage>();
+
+        private Pipeline() { }
+
+        private Pipeline stencil(final String declarations, final String body) {
+            stages.add(new Stage(declarations, body, 0, 0));
+            return this;
+        }
+
+        /**
+         * Returns the stage pointwise operations are fused into.
+         */
+        private Stage last() {
+            if(stages.isEmpty()) {
+                stages.add(new Stage("", COPY, 0, 0));
+            }
+            return stages.get(stages.size()-1);
+        }
+
+        private Pipeline pointwise(final String code) {
+            last().pointwise.append(code);
+            return this;
+        }
+
+        /**
+         * Applies the expression of $ to the first three channels.
+         */
+        private Pipeline rgb(final String expression) {
+            return pointwise("    v = (float4)("+expression.replace("$", "v.x")+", "+expression.replace("$", "v.y")+", "
+                                                +expression.replace("$", "v.z")+", v.w);\n");
+        }
+
+        /**
+         * Adds a Gaussian blur with the standard deviation sigma in pixels.
+         */
+        public Pipeline gaussianBlur(final float sigma) {
+            return gaussianBlur(sigma, sigma);
+        }
+
+        /**
+         * Adds a Gaussian blur with different standard deviations in x and y, weights are cut off at 3 sigma.
+         */
+        public Pipeline gaussianBlur(final float sigmaX, final float sigmaY) {
+            return separable(gaussian(sigmaX), gaussian(sigmaY));
+        }
+
+        /**
+         * Adds the mean of the (2*radiusX+1) x (2*radiusY+1) pixels around every pixel.
+         */
+        public Pipeline boxFilter(final int radiusX, final int radiusY) {
+            return separable(box(radiusX), box(radiusY));
+        }
+
+        /**
+         * Adds a separable convolution, a horizontal pass with the first and a vertical pass with the second weights.
+         * Weights are centered at index length/2.
+         */
+        public Pipeline separable(final float[] horizontal, final float[] vertical) {
+            if(horizontal == null || vertical == null) {
+                throw new NullPointerException("weights were null");
+            }
+            checkWeights(horizontal);
+            checkWeights(vertical);
+            stages.add(new Stage(horizontal, horizontal.length, 1));
+            stages.add(new Stage(vertical, 1, vertical.length));
+            return this;
+        }
+
+        /**
+         * Adds a 2D convolution with a row-major kernelWidth x kernelHeight matrix of weights, centered at
+         * (kernelWidth/2, kernelHeight/2). The weights are not mirrored, i.e. this computes the correlation.
+         */
+        public Pipeline convolve(final float[] weights, final int kernelWidth, final int kernelHeight) {
+            if(weights == null) {
+                throw new NullPointerException("weights were null");
+            }else if(kernelWidth < 1 || kernelHeight < 1 || (long)kernelWidth*kernelHeight != weights.length) {
+                throw new IllegalArgumentException("weights must have "+kernelWidth+"x"+kernelHeight+" elements but had "+weights.length);
+            }
+            checkWeights(weights);
+            stages.add(new Stage(weights, kernelWidth, kernelHeight));
+            return this;
+        }
+
+        private void checkWeights(final float[] weights) {
+            if(weights.length == 0) {
+                throw new IllegalArgumentException("weights must not be empty");
+            }else if(weights.length*4L > device.getMaxConstantBufferSize()) {
+                throw new IllegalArgumentException(weights.length+" weights exceed the constant memory of "+device.getName());
+            }
+            checkFinite(weights);
+        }
+
+        /**
+         * Adds the Sobel gradient magnitude of every channel, alpha is kept.
+         */
+        public Pipeline sobel() {
+            return stencil("", SOBEL);
+        }
+
+        /**
+         * Adds a resize to width x height pixels, the pixel centers of both sizes are aligned.
+         */
+        public Pipeline resize(final int width, final int height, final Interpolation interpolation) {
+            if(interpolation == null) {
+                throw new NullPointerException("interpolation was null");
+            }else if(width < 1 || height < 1) {
+                throw new IllegalArgumentException("size must be positive but was "+width+"x"+height);
+            }
+            final boolean bicubic = interpolation == Interpolation.BICUBIC;
+            stages.add(new Stage(bicubic ? CUBIC_WEIGHTS : "", bicubic ? BICUBIC : BILINEAR, width, height));
+            return this;
+        }
+
+        public Pipeline convertColor(final ColorConversion conversion) {
+            if(conversion == null) {
+                throw new NullPointerException("conversion was null");
+            }
+            return pointwise(conversion.code);
+        }
+
+        /**
+         * Adds <code>c*factor + offset</code> for the first three channels c.
+         */
+        public Pipeline scale(final float factor, final float offset) {
+            final Stage stage = last();
+            return rgb("$*"+stage.parameter(factor)+" + "+stage.parameter(offset));
+        }
+
+        /**
+         * Adds <code>pow(c, gamma)</code> for the first three channels c, negative values are clamped to zero.
+         */
+        public Pipeline gamma(final float gamma) {
+            return rgb("pow(max($, 0.0f), "+last().parameter(gamma)+")");
+        }
+
+        /**
+         * Adds <code>1 - c</code> for the first three channels c.
+         */
+        public Pipeline invert() {
+            return rgb("1.0f-$");
+        }
+
+        /**
+         * Sets the first three channels to 0 if below the threshold and to 1 otherwise.
+         */
+        public Pipeline threshold(final float threshold) {
+            return rgb("step("+last().parameter(threshold)+", $)");
+        }
+
+        /**
+         * Clamps all four channels to [min, max].
+         */
+        public Pipeline clamp(final float min, final float max) {
+            if(!(min <= max)) {
+                throw new IllegalArgumentException("min must not be greater than max but was "+min+" > "+max);
+            }
+            final Stage stage = last();
+            return pointwise("    v = clamp(v, "+stage.parameter(min)+", "+stage.parameter(max)+");\n");
+        }
+
+        /**
+         * Returns the number of kernels a run of this pipeline enqueues.
+         */
+        public int getKernelCount() {
+            return Math.max(1, stages.size());
+        }
+
+        /**
+         * Enqueues the pipeline from the source to the destination image. Destination size must be the size after the
+         * last resize or the source size if there is none.
+         * @throws IllegalArgumentException if the images are the same, not readable as float or the destination size does not match.
+         */
+        public void apply(final CLImage2d<?> src, final CLImage2d<?> dst) {
+            if(released) {
+                throw new RuntimeException(CLImageOperators.class.getSimpleName()+" already released");
+            }
+            checkImage("source", src);
+            checkImage("destination", dst);
+            if(src == dst) {
+                throw new IllegalArgumentException("source and destination must be different images");
+            }
+            final List<Stage> run = stages.isEmpty() ? Collections.singletonList(new Stage("", COPY, 0, 0)) : stages;
+            int width = src.width;
+            int height = src.height;
+            for (final Stage stage : run) {
+                if(stage.width > 0) {
+                    width = stage.width;
+                    height = stage.height;
+                }
+            }
+            if(width != dst.width || height != dst.height) {
+                throw new IllegalArgumentException("destination must be "+width+"x"+height+" but was "+dst.width+"x"+dst.height);
+            }
+
+            initSamplers();
+            width = src.width;
+            height = src.height;
+            CLImage2d<?> input = src;
+            for (int i = 0; i < run.size(); i++) {
+                final Stage stage = run.get(i);
+                if(stage.width > 0) {
+                    width = stage.width;
+                    height = stage.height;
+                }
+                final CLImage2d<?> output = i == run.size()-1 ? dst : getTemporary(width, height, input);
+                final CLKernel kernel = getKernel(stage.source());
+                kernel.setArg(0, input).setArg(1, output).setArg(2, nearest).setArg(3, linear);
+                int arg = 4;
+                if(stage.weights != null) {
+                    kernel.setArg(arg++, getWeights(stage.weights)).setArg(arg++, stage.kw).setArg(arg++, stage.kh);
+                }
+                for (final Float parameter : stage.parameters) {
+                    kernel.setArg(arg++, parameter.floatValue());
+                }
+                queue.put2DRangeKernel(kernel, 0, 0, width, height, 0, 0);
+                input = output;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName()+" [stages: "+stages.size()+"]";
+        }
+    }
+
+}
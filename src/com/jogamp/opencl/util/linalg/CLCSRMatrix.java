@@ -0,0 +1,268 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.linalg;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLResource;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Sparse float matrix in compressed sparse row format, held in three {@link CLBuffer}s:
+ * the row pointers (rows+1 ints), the column indices and the values of the non-zero elements.
+ * The elements of row r are stored at <code>[rowPointers[r], rowPointers[r+1])</code>.
+ * <p>
+ * Matrices are created with a {@link Builder} from coordinate (COO) input in any order. The row length statistics
+ * computed while building are used by {@link CLSparse} to choose a multiply kernel.
+ * The elements are copied to the device when the matrix is built, the host buffers stay accessible through
+ * {@link CLBuffer#getBuffer()}.
+ * </p>
+ * @see CLSparse
+ */
+public class CLCSRMatrix implements CLResource {
+
+    private final int rows;
+    private final int cols;
+    private final int nonZeros;
+    private final CLBuffer<IntBuffer> rowPointers;
+    private final CLBuffer<IntBuffer> columns;
+    private final CLBuffer<FloatBuffer> values;
+
+    private final int maxRowLength;
+    private final double rowLengthDeviation;
+
+    private CLCSRMatrix(final int rows, final int cols, final int nonZeros, final CLBuffer<IntBuffer> rowPointers,
+                        final CLBuffer<IntBuffer> columns, final CLBuffer<FloatBuffer> values,
+                        final int maxRowLength, final double rowLengthDeviation) {
+        this.rows = rows;
+        this.cols = cols;
+        this.nonZeros = nonZeros;
+        this.rowPointers = rowPointers;
+        this.columns = columns;
+        this.values = values;
+        this.maxRowLength = maxRowLength;
+        this.rowLengthDeviation = rowLengthDeviation;
+    }
+
+    /**
+     * Returns a builder of a rows x cols matrix.
+     */
+    public static Builder builder(final int rows, final int cols) {
+        return new Builder(rows, cols, 1024);
+    }
+
+    /**
+     * Returns a builder of a rows x cols matrix with room for the expected number of non-zero elements.
+     */
+    public static Builder builder(final int rows, final int cols, final int expectedNonZeros) {
+        return new Builder(rows, cols, Math.max(1, expectedNonZeros));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return cols;
+    }
+
+    /**
+     * Returns the number of stored elements.
+     */
+    public int getNonZeros() {
+        return nonZeros;
+    }
+
+    public CLBuffer<IntBuffer> getRowPointers() {
+        return rowPointers;
+    }
+
+    public CLBuffer<IntBuffer> getColumnIndices() {
+        return columns;
+    }
+
+    public CLBuffer<FloatBuffer> getValues() {
+        return values;
+    }
+
+    public double getMeanRowLength() {
+        return rows == 0 ? 0 : (double)getNonZeros() / rows;
+    }
+
+    public int getMaxRowLength() {
+        return maxRowLength;
+    }
+
+    /**
+     * Returns the standard deviation of the row lengths.
+     */
+    public double getRowLengthDeviation() {
+        return rowLengthDeviation;
+    }
+
+    @Override
+    public void release() {
+        rowPointers.release();
+        columns.release();
+        values.release();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return values.isReleased();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" ["+rows+"x"+cols+" non-zeros: "+getNonZeros()
+                +" row length mean: "+String.format(Locale.ROOT, "%.1f", getMeanRowLength())+" max: "+maxRowLength+"]";
+    }
+
+    /**
+     * Collects coordinate (COO) elements in any order and sorts them into a {@link CLCSRMatrix}.
+     * <p>
+     * Column indices and values are written directly into the direct buffers which become the buffers of the matrix,
+     * only the row index of every element is kept on the heap until the matrix is built. Building sorts the elements
+     * by row in place, the order of the elements within a row is not defined. Duplicate coordinates are kept and
+     * add up in products.
+     * </p>
+     */
+    public static final class Builder {
+
+        private final int rows;
+        private final int cols;
+        private final int[] rowLengths;
+
+        private int[] rowIndices;
+        private IntBuffer columns;
+        private FloatBuffer values;
+        private int size;
+        private boolean built;
+
+        private Builder(final int rows, final int cols, final int capacity) {
+            if(rows < 0 || cols < 0) {
+                throw new IllegalArgumentException("dimensions must not be negative but were "+rows+"x"+cols);
+            }
+            this.rows = rows;
+            this.cols = cols;
+            this.rowLengths = new int[rows];
+            this.rowIndices = new int[capacity];
+            this.columns = Buffers.newDirectIntBuffer(capacity);
+            this.values = Buffers.newDirectFloatBuffer(capacity);
+        }
+
+        /**
+         * Adds the element at row, col.
+         * @throws IndexOutOfBoundsException if the coordinate is outside of the matrix.
+         */
+        public Builder add(final int row, final int col, final float value) {
+            if(built) {
+                throw new IllegalStateException("matrix already built");
+            }else if(row < 0 || row >= rows || col < 0 || col >= cols) {
+                throw new IndexOutOfBoundsException("("+row+", "+col+") outside of "+rows+"x"+cols);
+            }
+            if(size == rowIndices.length) {
+                grow();
+            }
+            rowIndices[size] = row;
+            columns.put(size, col);
+            values.put(size, value);
+            rowLengths[row]++;
+            size++;
+            return this;
+        }
+
+        private void grow() {
+            final int capacity = size < Integer.MAX_VALUE/2 ? size*2 : Integer.MAX_VALUE;
+            if(capacity == size) {
+                throw new IllegalStateException("too many elements");
+            }
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            final IntBuffer newColumns = Buffers.newDirectIntBuffer(capacity);
+            final FloatBuffer newValues = Buffers.newDirectFloatBuffer(capacity);
+            columns.rewind();
+            values.rewind();
+            newColumns.put(columns).rewind();
+            newValues.put(values).rewind();
+            columns = newColumns;
+            values = newValues;
+        }
+
+        /**
+         * Returns the number of added elements.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Sorts the elements by row and creates the matrix in the context, the builder can not be used afterwards.
+         */
+        public CLCSRMatrix build(final CLContext context) {
+            if(built) {
+                throw new IllegalStateException("matrix already built");
+            }
+            built = true;
+
+            final IntBuffer pointers = Buffers.newDirectIntBuffer(rows+1);
+            final int[] next = new int[rows];
+            int maxLength = 0;
+            double squares = 0;
+            for (int r = 0; r < rows; r++) {
+                next[r] = pointers.get(r);
+                pointers.put(r+1, next[r] + rowLengths[r]);
+                maxLength = Math.max(maxLength, rowLengths[r]);
+                squares += (double)rowLengths[r]*rowLengths[r];
+            }
+
+            // in place bucket sort, swaps every element into the next free slot of its row
+            for (int r = 0; r < rows; r++) {
+                final int end = pointers.get(r+1);
+                while(next[r] < end) {
+                    final int i = next[r];
+                    final int row = rowIndices[i];
+                    if(row == r) {
+                        next[r]++;
+                    }else{
+                        swap(i, next[row]++);
+                    }
+                }
+            }
+            rowIndices = null;
+
+            final double mean = rows == 0 ? 0 : (double)size / rows;
+            final double deviation = rows == 0 ? 0 : Math.sqrt(Math.max(0, squares/rows - mean*mean));
+
+            // the buffers are sized by capacity, zero sized buffers are not allowed
+            final int length = Math.max(1, size);
+            final IntBuffer columnSlice = ((IntBuffer)columns.duplicate().position(0).limit(length)).slice();
+            final FloatBuffer valueSlice = ((FloatBuffer)values.duplicate().position(0).limit(length)).slice();
+            columns = null;
+            values = null;
+
+            final CLBuffer<IntBuffer> pointerBuffer = context.createBuffer(pointers, Mem.READ_ONLY, Mem.COPY_BUFFER);
+            final CLBuffer<IntBuffer> columnBuffer = context.createBuffer(columnSlice, Mem.READ_ONLY, Mem.COPY_BUFFER);
+            final CLBuffer<FloatBuffer> valueBuffer = context.createBuffer(valueSlice, Mem.READ_ONLY, Mem.COPY_BUFFER);
+            return new CLCSRMatrix(rows, cols, size, pointerBuffer, columnBuffer, valueBuffer, maxLength, deviation);
+        }
+
+        private void swap(final int i, final int j) {
+            final int row = rowIndices[i];
+            rowIndices[i] = rowIndices[j];
+            rowIndices[j] = row;
+            final int col = columns.get(i);
+            columns.put(i, columns.get(j));
+            columns.put(j, col);
+            final float value = values.get(i);
+            values.put(i, values.get(j));
+            values.put(j, value);
+        }
+    }
+
+}
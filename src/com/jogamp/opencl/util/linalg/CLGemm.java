@@ -0,0 +1,483 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.linalg;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLException;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import com.jogamp.opencl.util.CLDeviceProfile;
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * General matrix multiply <code>C = alpha*op(A)*op(B) + beta*C</code> of float or double matrices in {@link CLBuffer}s,
+ * in the style of the BLAS routines SGEMM and DGEMM.
+ * <p>
+ * Matrices are stored in row-major order with a leading dimension, the distance between two rows in elements.
+ * <code>op(A)</code> is m x k, <code>op(B)</code> is k x n and C is m x n, transposed matrices are stored as the
+ * transpose, i.e. A is k x m if it is transposed. As in BLAS, C is not read if beta is zero.
+ * </p>
+ * <p>
+ * The kernel computes TS x TS tiles of C, staging TS x TS tiles of A and B in local memory. A work-group has
+ * TS x TS/WPT work items and every item computes WPT elements of a tile column. The {@link Tiling} is chosen
+ * per device and precision by running all tilings fitting the device limits on a {@value #TUNE_SIZE}
+ * matrix and keeping the fastest. Results are shared by all instances for devices with the same
+ * {@link CLDeviceProfile#keyOf key}. The batched multiply runs many multiplies of equally sized matrices at constant
+ * distances in one launch, the batch index is the third dimension of the NDRange. Double precision requires
+ * {@link CLDevice#isDoubleFPAvailable()}.
+ * </p>
+ * <pre>
+ * CLGemm gemm = CLGemm.create(queue);
+ * gemm.gemm(false, false, m, n, k, 1, a, k, b, n, 0, c, n);
+ * </pre>
+ * Instances enqueue on an in-order queue and are not thread safe.
+ */
+public class CLGemm implements CLResource {
+
+    private static final String SOURCE =
+              "#define RTS (TS/WPT)\n"
+            + "\n"
+            + "#ifdef TRANS_A\n"
+            + "#define A(r, c) a[(c)*lda + (r)]\n"
+            + "#else\n"
+            + "#define A(r, c) a[(r)*lda + (c)]\n"
+            + "#endif\n"
+            + "#ifdef TRANS_B\n"
+            + "#define B(r, c) b[(c)*ldb + (r)]\n"
+            + "#else\n"
+            + "#define B(r, c) b[(r)*ldb + (c)]\n"
+            + "#endif\n"
+            + "\n"
+            + "kernel void gemm(const int m, const int n, const int k, const T alpha,\n"
+            + "                 global const T* a, const int lda, const int stride_a,\n"
+            + "                 global const T* b, const int ldb, const int stride_b,\n"
+            + "                 const T beta, global T* c, const int ldc, const int stride_c) {\n"
+            // padded against bank conflicts
+            + "    local T as[TS][TS+1];\n"
+            + "    local T bs[TS][TS+1];\n"
+            + "    const int lx = get_local_id(0);\n"
+            + "    const int ly = get_local_id(1);\n"
+            + "    const int col = get_group_id(0)*TS + lx;\n"
+            + "    const int row = get_group_id(1)*TS;\n"
+            + "    const size_t batch = get_global_id(2);\n"
+            + "    a += batch*stride_a;\n"
+            + "    b += batch*stride_b;\n"
+            + "    c += batch*stride_c;\n"
+            + "\n"
+            + "    T acc[WPT];\n"
+            + "    for(int w = 0; w < WPT; w++) {\n"
+            + "        acc[w] = 0;\n"
+            + "    }\n"
+            + "    for(int t = 0; t < k; t += TS) {\n"
+            + "        for(int w = 0; w < WPT; w++) {\n"
+            + "            const int r = ly + w*RTS;\n"
+            + "            as[r][lx] = row+r < m && t+lx < k ? A(row+r, t+lx) : 0;\n"
+            + "            bs[r][lx] = t+r < k && col < n ? B(t+r, col) : 0;\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        for(int p = 0; p < TS; p++) {\n"
+            + "            const T bv = bs[p][lx];\n"
+            + "            for(int w = 0; w < WPT; w++) {\n"
+            + "                acc[w] += as[ly + w*RTS][p] * bv;\n"
+            + "            }\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    for(int w = 0; w < WPT; w++) {\n"
+            + "        const int r = row + ly + w*RTS;\n"
+            + "        if(r < m && col < n) {\n"
+            + "            global T* out = c + r*ldc + col;\n"
+            + "            *out = beta == 0 ? alpha*acc[w] : alpha*acc[w] + beta * *out;\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    /**
+     * Size of the square matrices used for autotuning.
+     */
+    public static final int TUNE_SIZE = 256;
+
+    private static final int[] TILE_SIZES = new int[] {8, 16, 32};
+    private static final int[] WORK_PER_THREAD = new int[] {1, 2, 4, 8};
+
+    private static final int TUNE_RUNS = 3;
+
+    // tuned tilings per device key and precision
+    private static final Map<String, Tiling> TUNED = new HashMap<String, Tiling>();
+
+    private static final Logger LOG = Logger.getLogger(CLGemm.class.getName());
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+    private final Map<String, CLKernel> kernels = new HashMap<String, CLKernel>();
+    private final List<CLProgram> programs = new ArrayList<CLProgram>();
+    private final Tiling[] tilings = new Tiling[2];
+
+    private boolean released;
+
+    private CLGemm(final CLCommandQueue queue) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+    }
+
+    /**
+     * Creates a matrix multiply running on the given queue.
+     * @throws IllegalArgumentException if the queue executes out of order.
+     */
+    public static CLGemm create(final CLCommandQueue queue) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("matrix multiply requires an in-order queue");
+        }
+        return new CLGemm(queue);
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Enqueues <code>C = alpha*op(A)*op(B) + beta*C</code>.
+     * @param transA true if A is stored transposed, k x m.
+     * @param transB true if B is stored transposed, n x k.
+     * @param lda leading dimension of A.
+     * @param ldb leading dimension of B.
+     * @param ldc leading dimension of C.
+     * @throws IllegalArgumentException if the buffers are too small or do not wrap the same float or double buffer type.
+     * @throws UnsupportedOperationException for double matrices if the device does not support double precision.
+     */
+    public void gemm(final boolean transA, final boolean transB, final int m, final int n, final int k,
+                     final double alpha, final CLBuffer<?> a, final int lda, final CLBuffer<?> b, final int ldb,
+                     final double beta, final CLBuffer<?> c, final int ldc) {
+        gemmBatched(transA, transB, m, n, k, alpha, a, lda, 0, b, ldb, 0, beta, c, ldc, 0, 1);
+    }
+
+    /**
+     * Enqueues batch multiplies <code>C[i] = alpha*op(A[i])*op(B[i]) + beta*C[i]</code> in one launch.
+     * Matrix i of a buffer starts at element <code>i*stride</code>, a stride of zero uses the same matrix for all
+     * multiplies, which is allowed for A and B.
+     * @see #gemm
+     */
+    public void gemmBatched(final boolean transA, final boolean transB, final int m, final int n, final int k,
+                            final double alpha, final CLBuffer<?> a, final int lda, final int strideA,
+                            final CLBuffer<?> b, final int ldb, final int strideB,
+                            final double beta, final CLBuffer<?> c, final int ldc, final int strideC, final int batch) {
+
+        final boolean dp = isDouble(c);
+        if(isDouble(a) != dp || isDouble(b) != dp) {
+            throw new IllegalArgumentException("matrices must have the same element type");
+        }else if(m < 0 || n < 0 || k < 0 || batch < 0) {
+            throw new IllegalArgumentException("dimensions must not be negative but were "+m+"x"+n+"x"+k+" batch "+batch);
+        }else if(strideA < 0 || strideB < 0 || strideC < 0) {
+            throw new IllegalArgumentException("strides must not be negative");
+        }else if(strideC == 0 && batch > 1) {
+            throw new IllegalArgumentException("batched results must not overlap");
+        }
+        checkMatrix("A", a, transA ? k : m, transA ? m : k, lda, strideA, batch);
+        checkMatrix("B", b, transB ? n : k, transB ? k : n, ldb, strideB, batch);
+        checkMatrix("C", c, m, n, ldc, strideC, batch);
+        if(m == 0 || n == 0 || batch == 0) {
+            return;
+        }
+
+        final Tiling tiling = getTiling(dp);
+        final CLKernel kernel = getKernel(dp, transA, transB, tiling);
+        setArgs(kernel, dp, m, n, k, alpha, a, lda, strideA, b, ldb, strideB, beta, c, ldc, strideC);
+
+        final int ts = tiling.tileSize;
+        queue.put3DRangeKernel(kernel, 0, 0, 0,
+                (long)(n+ts-1)/ts * ts, (long)(m+ts-1)/ts * tiling.getRowsPerPass(), batch,
+                ts, tiling.getRowsPerPass(), 1);
+    }
+
+    private static void setArgs(final CLKernel kernel, final boolean dp, final int m, final int n, final int k,
+                                final double alpha, final CLBuffer<?> a, final int lda, final int strideA,
+                                final CLBuffer<?> b, final int ldb, final int strideB,
+                                final double beta, final CLBuffer<?> c, final int ldc, final int strideC) {
+        kernel.setArg(0, m).setArg(1, n).setArg(2, k);
+        if(dp) {
+            kernel.setArg(3, alpha).setArg(10, beta);
+        }else{
+            kernel.setArg(3, (float)alpha).setArg(10, (float)beta);
+        }
+        kernel.setArg(4, a).setArg(5, lda).setArg(6, strideA)
+              .setArg(7, b).setArg(8, ldb).setArg(9, strideB)
+              .setArg(11, c).setArg(12, ldc).setArg(13, strideC);
+    }
+
+    private static boolean isDouble(final CLBuffer<?> buffer) {
+        final Buffer nio = buffer.getBuffer();
+        if(nio instanceof FloatBuffer) {
+            return false;
+        }else if(nio instanceof DoubleBuffer) {
+            return true;
+        }
+        throw new IllegalArgumentException("buffer must wrap a float or double buffer but was "+nio);
+    }
+
+    private static void checkMatrix(final String name, final CLBuffer<?> buffer, final int rows, final int cols,
+                                    final int ld, final int stride, final int batch) {
+        if(ld < Math.max(1, cols)) {
+            throw new IllegalArgumentException("leading dimension of "+name+" must be at least "+Math.max(1, cols)+" but was "+ld);
+        }
+        if(rows == 0 || cols == 0 || batch == 0) {
+            return;
+        }
+        final long required = (long)(batch-1)*stride + (long)(rows-1)*ld + cols;
+        if(required > buffer.getCLCapacity()) {
+            throw new IllegalArgumentException(name+" requires "+required+" elements but capacity is "+buffer.getCLCapacity());
+        }else if(required > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(name+" exceeds the int index range");
+        }
+    }
+
+    /**
+     * Returns all tilings fitting the work-group and local memory limits of the device.
+     */
+    public List<Tiling> getCandidateTilings(final boolean doublePrecision) {
+        final int elementSize = doublePrecision ? 8 : 4;
+        final int[] itemSizes = device.getMaxWorkItemSizes();
+        final List<Tiling> candidates = new ArrayList<Tiling>();
+        for (final int ts : TILE_SIZES) {
+            for (final int wpt : WORK_PER_THREAD) {
+                if(wpt > ts) {
+                    continue;
+                }
+                final Tiling tiling = new Tiling(ts, wpt);
+                if(ts <= itemSizes[0] && tiling.getRowsPerPass() <= itemSizes[1]
+                        && ts*tiling.getRowsPerPass() <= device.getMaxWorkGroupSize()
+                        && 2L*ts*(ts+1)*elementSize <= device.getLocalMemSize()) {
+                    candidates.add(tiling);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the tiling used for the given precision, autotunes it if the device has not been tuned yet.
+     */
+    public Tiling getTiling(final boolean doublePrecision) {
+        final int index = doublePrecision ? 1 : 0;
+        if(tilings[index] == null) {
+            final String key = CLDeviceProfile.keyOf(device)+(doublePrecision ? " double" : " float");
+            Tiling tiling;
+            synchronized(TUNED) {
+                tiling = TUNED.get(key);
+            }
+            if(tiling == null) {
+                tiling = autotune(doublePrecision);
+                synchronized(TUNED) {
+                    TUNED.put(key, tiling);
+                }
+            }
+            tilings[index] = tiling;
+        }
+        return tilings[index];
+    }
+
+    /**
+     * Overrides the tiling of this instance for the given precision.
+     */
+    public void setTiling(final boolean doublePrecision, final Tiling tiling) {
+        if(tiling == null) {
+            throw new NullPointerException("tiling was null");
+        }
+        tilings[doublePrecision ? 1 : 0] = tiling;
+    }
+
+    /**
+     * Measures all candidate tilings on {@value #TUNE_SIZE} matrices and returns the fastest.
+     */
+    private Tiling autotune(final boolean dp) {
+        if(dp) {
+            checkDoubleFP();
+        }
+        final List<Tiling> candidates = getCandidateTilings(dp);
+        if(candidates.isEmpty()) {
+            throw new RuntimeException(device.getName()+" has no work-group size or local memory for a tiled multiply");
+        }
+        final int size = TUNE_SIZE;
+        final CLContext context = queue.getContext();
+        final CLBuffer<?> a = dp ? context.createDoubleBuffer(size*size, Mem.READ_ONLY) : context.createFloatBuffer(size*size, Mem.READ_ONLY);
+        final CLBuffer<?> b = dp ? context.createDoubleBuffer(size*size, Mem.READ_ONLY) : context.createFloatBuffer(size*size, Mem.READ_ONLY);
+        final CLBuffer<?> c = dp ? context.createDoubleBuffer(size*size, Mem.READ_WRITE) : context.createFloatBuffer(size*size, Mem.READ_WRITE);
+        try{
+            queue.putWriteBuffer(a, false).putWriteBuffer(b, true);
+            Tiling best = null;
+            long bestTime = Long.MAX_VALUE;
+            for (final Tiling tiling : candidates) {
+                try{
+                    final CLKernel kernel = getKernel(dp, false, false, tiling);
+                    if(kernel.getWorkGroupSize(device) < tiling.tileSize*tiling.getRowsPerPass()) {
+                        continue;
+                    }
+                    setArgs(kernel, dp, size, size, size, 1, a, size, 0, b, size, 0, 0, c, size, 0);
+                    final long global = (size+tiling.tileSize-1)/tiling.tileSize;
+                    long time = Long.MAX_VALUE;
+                    // first run is warm-up
+                    for (int run = 0; run <= TUNE_RUNS; run++) {
+                        final long start = System.nanoTime();
+                        queue.put3DRangeKernel(kernel, 0, 0, 0,
+                                global*tiling.tileSize, global*tiling.getRowsPerPass(), 1,
+                                tiling.tileSize, tiling.getRowsPerPass(), 1);
+                        queue.finish();
+                        if(run > 0) {
+                            time = Math.min(time, System.nanoTime()-start);
+                        }
+                    }
+                    if(time < bestTime) {
+                        bestTime = time;
+                        best = tiling;
+                    }
+                }catch(final CLException ex) {
+                    // out of resources for this tiling
+                    LOG.fine("skipping "+tiling+": "+ex.getMessage());
+                }
+            }
+            if(best == null) {
+                throw new RuntimeException("no tiling could be run on "+device.getName());
+            }
+            LOG.info(device.getName()+(dp ? " dgemm " : " sgemm ")+best+": "
+                    +String.format(Locale.ROOT, "%.1f", 2.0*size*size*size/bestTime)+" GFlop/s");
+            return best;
+        }finally{
+            a.release();
+            b.release();
+            c.release();
+        }
+    }
+
+    private void checkDoubleFP() {
+        if(!device.isDoubleFPAvailable()) {
+            throw new UnsupportedOperationException(device.getName()+" does not support double precision");
+        }
+    }
+
+    /**
+     * Returns the kernel for the precision, transposes and tiling, builds it on first use.
+     */
+    private CLKernel getKernel(final boolean dp, final boolean transA, final boolean transB, final Tiling tiling) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        final String key = (dp ? "double" : "float")+(transA ? " TA" : "")+(transB ? " TB" : "")+" "+tiling;
+        CLKernel kernel = kernels.get(key);
+        if(kernel == null) {
+            final StringBuilder source = new StringBuilder();
+            if(dp) {
+                checkDoubleFP();
+                source.append("#pragma OPENCL EXTENSION cl_khr_fp64 : enable\n");
+            }
+            source.append("#define T ").append(dp ? "double" : "float").append('\n');
+            source.append("#define TS ").append(tiling.tileSize).append('\n');
+            source.append("#define WPT ").append(tiling.workPerThread).append('\n');
+            if(transA) {
+                source.append("#define TRANS_A\n");
+            }
+            if(transB) {
+                source.append("#define TRANS_B\n");
+            }
+            source.append(SOURCE);
+            final CLProgram program = queue.getContext().createProgram(source.toString()).build(device);
+            programs.add(program);
+            kernel = program.createCLKernel("gemm");
+            kernels.put(key, kernel);
+        }
+        return kernel;
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final CLProgram program : programs) {
+            program.release();
+        }
+        programs.clear();
+        kernels.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [device: "+device.getName()+" sgemm: "+tilings[0]+" dgemm: "+tilings[1]+"]";
+    }
+
+    /**
+     * Tile size and work per thread of the tiled kernel.
+     */
+    public static final class Tiling {
+
+        /**
+         * Edge length of the square tiles of C, A and B.
+         */
+        public final int tileSize;
+
+        /**
+         * Number of elements of C computed by one work item.
+         */
+        public final int workPerThread;
+
+        /**
+         * @throws IllegalArgumentException if the values are not positive or workPerThread does not divide tileSize.
+         */
+        public Tiling(final int tileSize, final int workPerThread) {
+            if(tileSize <= 0 || workPerThread <= 0) {
+                throw new IllegalArgumentException("tile size and work per thread must be positive but were "+tileSize+", "+workPerThread);
+            }else if(tileSize % workPerThread != 0) {
+                throw new IllegalArgumentException("work per thread "+workPerThread+" must divide tile size "+tileSize);
+            }
+            this.tileSize = tileSize;
+            this.workPerThread = workPerThread;
+        }
+
+        /**
+         * Returns the second work-group dimension, the tile size divided by the work per thread.
+         */
+        public int getRowsPerPass() {
+            return tileSize / workPerThread;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(!(obj instanceof Tiling)) {
+                return false;
+            }
+            final Tiling other = (Tiling) obj;
+            return tileSize == other.tileSize && workPerThread == other.workPerThread;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31*tileSize + workPerThread;
+        }
+
+        @Override
+        public String toString() {
+            return tileSize+"x"+tileSize+"/"+workPerThread;
+        }
+    }
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.linalg;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.nio.FloatBuffer;
+
+/**
+ * Sparse matrix products of {@link CLCSRMatrix}s with dense float vectors and matrices.
+ * <p>
+ * {@link #spmv} computes <code>y = A*x</code> with one of two kernels. The scalar kernel assigns a work item to every
+ * row and suits matrices with short rows of similar length. The vector kernel assigns a group of
+ * 2 to {@value #MAX_VECTOR_WIDTH} work items to every row which read the row together and reduce their sums in local
+ * memory, this keeps memory accesses coalesced for long rows and spreads the work of long rows of irregular matrices.
+ * The kernel and vector width are chosen from the row length statistics of the matrix by {@link #selectVectorWidth}.
+ * </p>
+ * <p>
+ * {@link #spmm} computes <code>C = A*B</code> for a dense row-major B of k columns, one work item per element of C.
+ * Neighbouring work items share the row of A and read neighbouring elements of B.
+ * </p>
+ * <pre>
+ * CLCSRMatrix.Builder builder = CLCSRMatrix.builder(rows, cols);
+ * builder.add(row, col, value);
+ * CLCSRMatrix a = builder.build(context);
+ * CLSparse sparse = CLSparse.create(queue);
+ * sparse.spmv(a, x, y);
+ * </pre>
+ * Instances enqueue on an in-order queue and are not thread safe.
+ */
+public class CLSparse implements CLResource {
+
+    private static final String SOURCE =
+              "kernel void spmv_scalar(const int rows, global const int* ptr, global const int* cols,\n"
+            + "                          global const float* vals, global const float* x, global float* y) {\n"
+            + "    const int row = get_global_id(0);\n"
+            + "    if(row >= rows) {\n"
+            + "        return;\n"
+            + "    }\n"
+            + "    const int end = ptr[row+1];\n"
+            + "    float sum = 0;\n"
+            + "    for(int i = ptr[row]; i < end; i++) {\n"
+            + "        sum += vals[i] * x[cols[i]];\n"
+            + "    }\n"
+            + "    y[row] = sum;\n"
+            + "}\n"
+            + "\n"
+            + "kernel void spmv_vector(const int rows, global const int* ptr, global const int* cols,\n"
+            + "                          global const float* vals, global const float* x, global float* y,\n"
+            + "                          const int width, local float* partial) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int lane = lid & (width-1);\n"
+            + "    const int row = get_global_id(0) / width;\n"
+            + "    float sum = 0;\n"
+            + "    if(row < rows) {\n"
+            + "        const int end = ptr[row+1];\n"
+            + "        for(int i = ptr[row]+lane; i < end; i += width) {\n"
+            + "            sum += vals[i] * x[cols[i]];\n"
+            + "        }\n"
+            + "    }\n"
+            + "    partial[lid] = sum;\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int s = width/2; s > 0; s >>= 1) {\n"
+            + "        if(lane < s) {\n"
+            + "            partial[lid] += partial[lid+s];\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    if(lane == 0 && row < rows) {\n"
+            + "        y[row] = partial[lid];\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void spmm(const int rows, const int k, global const int* ptr, global const int* cols,\n"
+            + "                 global const float* vals, global const float* b, global float* c) {\n"
+            + "    const int j = get_global_id(0);\n"
+            + "    const int row = get_global_id(1);\n"
+            + "    if(j >= k || row >= rows) {\n"
+            + "        return;\n"
+            + "    }\n"
+            + "    const int end = ptr[row+1];\n"
+            + "    float sum = 0;\n"
+            + "    for(int i = ptr[row]; i < end; i++) {\n"
+            + "        sum += vals[i] * b[cols[i]*k + j];\n"
+            + "    }\n"
+            + "    c[row*k + j] = sum;\n"
+            + "}\n";
+
+    /**
+     * Largest number of work items sharing a row.
+     */
+    public static final int MAX_VECTOR_WIDTH = 32;
+
+    /**
+     * Largest mean row length for which the scalar kernel is chosen.
+     */
+    public static final int SCALAR_MAX_MEAN_ROW_LENGTH = 4;
+
+    private static final int MAX_WORK_GROUP_SIZE = 256;
+    private static final int SPMM_WORK_GROUP_WIDTH = 16;
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+
+    private CLProgram program;
+    private CLKernel scalar;
+    private CLKernel vector;
+    private CLKernel spmm;
+    private int workGroupSize;
+
+    private boolean released;
+
+    private CLSparse(final CLCommandQueue queue) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+    }
+
+    /**
+     * Creates sparse products running on the given queue.
+     * @throws IllegalArgumentException if the queue executes out of order.
+     */
+    public static CLSparse create(final CLCommandQueue queue) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("sparse products require an in-order queue");
+        }
+        return new CLSparse(queue);
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns the number of work items per row used for the matrix, 1 selects the scalar kernel.
+     * Matrices with a mean row length of at most {@value #SCALAR_MAX_MEAN_ROW_LENGTH} and no row longer than
+     * {@value #MAX_VECTOR_WIDTH} elements use the scalar kernel, all others a power of two width of about the mean
+     * row length, at least 2 and at most {@value #MAX_VECTOR_WIDTH}.
+     */
+    public static int selectVectorWidth(final CLCSRMatrix matrix) {
+        final double mean = matrix.getMeanRowLength();
+        if(mean <= SCALAR_MAX_MEAN_ROW_LENGTH && matrix.getMaxRowLength() <= MAX_VECTOR_WIDTH) {
+            return 1;
+        }
+        final int length = (int)Math.min(MAX_VECTOR_WIDTH, Math.ceil(mean));
+        final int width = Integer.highestOneBit(length) < length ? Integer.highestOneBit(length) << 1 : length;
+        return Math.max(2, width);
+    }
+
+    /**
+     * Enqueues <code>y = A*x</code> with the kernel selected by {@link #selectVectorWidth}.
+     * @throws IllegalArgumentException if x has fewer elements than A columns or y fewer than A rows.
+     */
+    public void spmv(final CLCSRMatrix a, final CLBuffer<FloatBuffer> x, final CLBuffer<FloatBuffer> y) {
+        spmv(a, x, y, selectVectorWidth(a));
+    }
+
+    /**
+     * Enqueues <code>y = A*x</code> with the given number of work items per row, 1 runs the scalar kernel.
+     * @param vectorWidth a power of two of at most {@value #MAX_VECTOR_WIDTH}.
+     * @see #spmv(CLCSRMatrix, CLBuffer, CLBuffer)
+     */
+    public void spmv(final CLCSRMatrix a, final CLBuffer<FloatBuffer> x, final CLBuffer<FloatBuffer> y, final int vectorWidth) {
+        if(a == null || x == null || y == null) {
+            throw new NullPointerException("matrix and vectors must not be null");
+        }else if(vectorWidth < 1 || vectorWidth > MAX_VECTOR_WIDTH || Integer.bitCount(vectorWidth) != 1) {
+            throw new IllegalArgumentException("vector width must be a power of two up to "+MAX_VECTOR_WIDTH+" but was "+vectorWidth);
+        }
+        checkVector("x", x, a.getColumns());
+        checkVector("y", y, a.getRows());
+        init();
+        final int rows = a.getRows();
+        if(rows == 0) {
+            return;
+        }
+        // the vector width must fit into a work-group
+        final int width = Math.min(vectorWidth, workGroupSize);
+        if(width == 1) {
+            setMatrixArgs(scalar, a).setArg(4, x).setArg(5, y);
+            queue.put1DRangeKernel(scalar, 0, roundUp(rows, workGroupSize), workGroupSize);
+        }else{
+            setMatrixArgs(vector, a).setArg(4, x).setArg(5, y).setArg(6, width).setNullArg(7, workGroupSize*4);
+            queue.put1DRangeKernel(vector, 0, roundUp((long)rows*width, workGroupSize), workGroupSize);
+        }
+    }
+
+    /**
+     * Enqueues <code>C = A*B</code> for a dense row-major B of A columns x k and C of A rows x k elements.
+     * @throws IllegalArgumentException if B or C are too small.
+     */
+    public void spmm(final CLCSRMatrix a, final CLBuffer<FloatBuffer> b, final CLBuffer<FloatBuffer> c, final int k) {
+        if(a == null || b == null || c == null) {
+            throw new NullPointerException("matrices must not be null");
+        }else if(k < 0) {
+            throw new IllegalArgumentException("k must not be negative but was "+k);
+        }
+        checkVector("B", b, (long)a.getColumns()*k);
+        checkVector("C", c, (long)a.getRows()*k);
+        init();
+        final int rows = a.getRows();
+        if(rows == 0 || k == 0) {
+            return;
+        }
+        final int width = Math.min(SPMM_WORK_GROUP_WIDTH, workGroupSize);
+        final int height = workGroupSize / width;
+        spmm.setArg(0, rows).setArg(1, k).setArg(2, a.getRowPointers()).setArg(3, a.getColumnIndices())
+            .setArg(4, a.getValues()).setArg(5, b).setArg(6, c);
+        queue.put2DRangeKernel(spmm, 0, 0, roundUp(k, width), roundUp(rows, height), width, height);
+    }
+
+    private static CLKernel setMatrixArgs(final CLKernel kernel, final CLCSRMatrix a) {
+        return kernel.setArg(0, a.getRows()).setArg(1, a.getRowPointers())
+                     .setArg(2, a.getColumnIndices()).setArg(3, a.getValues());
+    }
+
+    private static void checkVector(final String name, final CLBuffer<FloatBuffer> buffer, final long required) {
+        if(required > buffer.getCLCapacity()) {
+            throw new IllegalArgumentException(name+" requires "+required+" elements but capacity is "+buffer.getCLCapacity());
+        }else if(required > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(name+" exceeds the int index range");
+        }
+    }
+
+    private static long roundUp(final long size, final int multiple) {
+        return (size+multiple-1) / multiple * multiple;
+    }
+
+    /**
+     * Builds the program on first use.
+     */
+    private void init() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        if(program == null) {
+            program = queue.getContext().createProgram(SOURCE).build(device);
+            scalar = program.createCLKernel("spmv_scalar");
+            vector = program.createCLKernel("spmv_vector");
+            spmm = program.createCLKernel("spmm");
+            long size = Math.min(MAX_WORK_GROUP_SIZE, device.getMaxWorkGroupSize());
+            size = Math.min(size, scalar.getWorkGroupSize(device));
+            size = Math.min(size, vector.getWorkGroupSize(device));
+            size = Math.min(size, spmm.getWorkGroupSize(device));
+            workGroupSize = Integer.highestOneBit((int)Math.max(1, size));
+        }
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        if(program != null) {
+            program.release();
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [queue: "+queue+"]";
+    }
+
+}
@@ -0,0 +1,597 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.primitives;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data parallel primitives on int, long, float and double buffers: reduce, inclusive and exclusive scan,
+ * stream compaction and histogram.
+ * <p>
+ * The element type is derived from the NIO buffer of the {@link CLBuffer}s. Kernels are built once per element type
+ * for the device of the queue, work-group sizes are chosen from the device and kernel properties.
+ * All operations split the input into one contiguous range per work-group, the number of work-groups
+ * depends on the number of compute units. Scans work in place, compaction is stable.
+ * </p>
+ * <p>
+ * Operations are enqueued on the in-order queue of this instance, methods returning a value block until it is available.
+ * Instances are not thread safe.
+ * </p>
+ * <pre>
+ * CLPrimitives primitives = CLPrimitives.create(queue);
+ * int sum = primitives.reduce(buffer, n, Operator.SUM).intValue();
+ * primitives.exclusiveScan(buffer, offsets, n, Operator.SUM);
+ * </pre>
+ */
+public class CLPrimitives implements CLResource {
+
+    /**
+     * Associative operators of reductions and scans.
+     */
+    public enum Operator {
+
+        SUM(0), MIN(1), MAX(2);
+
+        /**
+         * Value of the operator in the kernels.
+         */
+        public final int CODE;
+
+        private Operator(final int code) {
+            this.CODE = code;
+        }
+    }
+
+    static final int MAX_WORK_GROUP_SIZE = 256;
+
+    private static final String SOURCE =
+              "#if !defined(__OPENCL_VERSION__) || __OPENCL_VERSION__ < 110\n"
+            + "#pragma OPENCL EXTENSION cl_khr_global_int32_base_atomics : enable\n"
+            + "#pragma OPENCL EXTENSION cl_khr_local_int32_base_atomics : enable\n"
+            + "#endif\n"
+            + "#ifndef PREDICATE\n"
+            + "#define PREDICATE(x) ((x) != 0)\n"
+            + "#endif\n"
+            + "\n"
+            + "inline T combine(const T a, const T b, const int op) {\n"
+            + "    return op == 0 ? a+b : (op == 1 ? min(a, b) : max(a, b));\n"
+            + "}\n"
+            + "\n"
+            // inclusive Hillis-Steele scan of one value per work item, scratch holds the scanned tile afterwards
+            + "inline T scan_group(T value, local T* scratch, const int op) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    scratch[lid] = value;\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int offset = 1; offset < get_local_size(0); offset <<= 1) {\n"
+            + "        const T other = lid >= offset ? scratch[lid-offset] : value;\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        if(lid >= offset) {\n"
+            + "            value = combine(other, value, op);\n"
+            + "            scratch[lid] = value;\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    return value;\n"
+            + "}\n"
+            + "\n"
+            + "inline int count_group(int value, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    scratch[lid] = value;\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int offset = 1; offset < get_local_size(0); offset <<= 1) {\n"
+            + "        const int other = lid >= offset ? scratch[lid-offset] : 0;\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        value += other;\n"
+            + "        scratch[lid] = value;\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    return value;\n"
+            + "}\n"
+            + "\n"
+            + "kernel void reduce(global const T* in, const int n, const int chunk, const int op, const T identity,\n"
+            + "                   global T* partials, local T* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    T acc = identity;\n"
+            + "    for(int i = begin+lid; i < end; i += get_local_size(0)) {\n"
+            + "        acc = combine(acc, in[i], op);\n"
+            + "    }\n"
+            + "    scratch[lid] = acc;\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int s = get_local_size(0)/2; s > 0; s >>= 1) {\n"
+            + "        if(lid < s) {\n"
+            + "            scratch[lid] = combine(scratch[lid], scratch[lid+s], op);\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    if(lid == 0) {\n"
+            + "        partials[get_group_id(0)] = scratch[0];\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            // exclusive scan of the group results in a single work-group, the total is stored behind the last group
+            + "kernel void scan_partials(global T* partials, const int groups, const int op, const T identity, local T* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const T inclusive = scan_group(lid < groups ? partials[lid] : identity, scratch, op);\n"
+            + "    const T exclusive = lid == 0 ? identity : scratch[lid-1];\n"
+            + "    if(lid < groups) {\n"
+            + "        partials[lid] = exclusive;\n"
+            + "    }\n"
+            + "    if(lid == groups-1) {\n"
+            + "        partials[groups] = inclusive;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void scan(global const T* in, global T* out, const int n, const int chunk, const int op, const T identity,\n"
+            + "                 const int inclusive, global const T* partials, local T* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int size = get_local_size(0);\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    T carry = partials[get_group_id(0)];\n"
+            + "    for(int base = begin; base < end; base += size) {\n"
+            + "        const int i = base+lid;\n"
+            + "        const T scanned = scan_group(i < end ? in[i] : identity, scratch, op);\n"
+            + "        const T exclusive = lid == 0 ? identity : scratch[lid-1];\n"
+            + "        const T total = scratch[size-1];\n"
+            + "        if(i < end) {\n"
+            + "            out[i] = combine(carry, inclusive ? scanned : exclusive, op);\n"
+            + "        }\n"
+            + "        carry = combine(carry, total, op);\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void compact_count(global const T* in, const int n, const int chunk, global int* counts, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    int count = 0;\n"
+            + "    for(int i = begin+lid; i < end; i += get_local_size(0)) {\n"
+            + "        count += PREDICATE(in[i]) ? 1 : 0;\n"
+            + "    }\n"
+            + "    const int total = count_group(count, scratch);\n"
+            + "    if(lid == get_local_size(0)-1) {\n"
+            + "        counts[get_group_id(0)] = total;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void compact_offsets(global int* counts, const int groups, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int inclusive = count_group(lid < groups ? counts[lid] : 0, scratch);\n"
+            + "    const int exclusive = lid == 0 ? 0 : scratch[lid-1];\n"
+            + "    if(lid < groups) {\n"
+            + "        counts[lid] = exclusive;\n"
+            + "    }\n"
+            + "    if(lid == groups-1) {\n"
+            + "        counts[groups] = inclusive;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void compact(global const T* in, global T* out, const int n, const int chunk,\n"
+            + "                    global const int* offsets, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int size = get_local_size(0);\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    int carry = offsets[get_group_id(0)];\n"
+            + "    for(int base = begin; base < end; base += size) {\n"
+            + "        const int i = base+lid;\n"
+            + "        T x = 0;\n"
+            + "        int keep = 0;\n"
+            + "        if(i < end) {\n"
+            + "            x = in[i];\n"
+            + "            keep = PREDICATE(x) ? 1 : 0;\n"
+            + "        }\n"
+            + "        const int index = count_group(keep, scratch);\n"
+            + "        if(keep) {\n"
+            + "            out[carry+index-1] = x;\n"
+            + "        }\n"
+            + "        carry += scratch[size-1];\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "inline int bin_of(const T x, const T lo, const T hi, const int bins) {\n"
+            + "#ifdef INTEGER\n"
+            + "    if(x < lo || x >= hi) {\n"
+            + "        return -1;\n"
+            + "    }\n"
+            + "    return (int)(((ulong)((long)x-(long)lo) * (ulong)bins) / (ulong)((long)hi-(long)lo));\n"
+            + "#else\n"
+            + "    if(!(x >= lo && x < hi)) {\n"
+            + "        return -1;\n"
+            + "    }\n"
+            + "    return min((int)((x-lo) * ((T)bins / (hi-lo))), bins-1);\n"
+            + "#endif\n"
+            + "}\n"
+            + "\n"
+            + "kernel void histogram_clear(global int* bins, const int count) {\n"
+            + "    const int i = get_global_id(0);\n"
+            + "    if(i < count) {\n"
+            + "        bins[i] = 0;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void histogram_local(global const T* in, const int n, const T lo, const T hi,\n"
+            + "                            global int* bins, const int count, local int* local_bins) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    for(int b = lid; b < count; b += get_local_size(0)) {\n"
+            + "        local_bins[b] = 0;\n"
+            + "    }\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int i = get_global_id(0); i < n; i += get_global_size(0)) {\n"
+            + "        const int b = bin_of(in[i], lo, hi, count);\n"
+            + "        if(b >= 0) {\n"
+            + "            atomic_inc(&local_bins[b]);\n"
+            + "        }\n"
+            + "    }\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int b = lid; b < count; b += get_local_size(0)) {\n"
+            + "        const int c = local_bins[b];\n"
+            + "        if(c != 0) {\n"
+            + "            atomic_add(&bins[b], c);\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void histogram_global(global const T* in, const int n, const T lo, const T hi,\n"
+            + "                             global int* bins, const int count) {\n"
+            + "    for(int i = get_global_id(0); i < n; i += get_global_size(0)) {\n"
+            + "        const int b = bin_of(in[i], lo, hi, count);\n"
+            + "        if(b >= 0) {\n"
+            + "            atomic_inc(&bins[b]);\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+
+    private final Map<String, Kernels> programs = new HashMap<String, Kernels>();
+
+    // group results plus total, large enough for all element types
+    private final CLBuffer<ByteBuffer> partials;
+    private final CLBuffer<IntBuffer> counts;
+
+    private boolean released;
+
+    private CLPrimitives(final CLCommandQueue queue) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+        final CLContext context = queue.getContext();
+        this.partials = context.createBuffer(Buffers.newDirectByteBuffer((MAX_WORK_GROUP_SIZE+1)*8), Mem.READ_WRITE);
+        this.counts = context.createIntBuffer(MAX_WORK_GROUP_SIZE+1, Mem.READ_WRITE);
+    }
+
+    /**
+     * Creates primitives running on the given queue.
+     * @throws IllegalArgumentException if the queue executes out of order.
+     */
+    public static CLPrimitives create(final CLCommandQueue queue) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("primitives require an in-order queue");
+        }
+        return new CLPrimitives(queue);
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Builds the kernels for the given element types upfront, kernels are otherwise built on first use.
+     * Double precision is skipped on devices without support.
+     * @return this
+     */
+    public CLPrimitives prepare() {
+        for (final ElementType type : ElementType.values()) {
+            if(type != ElementType.DOUBLE || device.isDoubleFPAvailable()) {
+                getKernels(type, null);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the work-group size used for the given buffer's element type.
+     */
+    public int getWorkGroupSize(final CLBuffer<?> buffer) {
+        return getKernels(ElementType.of(buffer), null).workGroupSize;
+    }
+
+    /**
+     * Reduces the first count elements of the buffer with the given operator.
+     * Blocks until the result is available, returns the neutral element of the operator if count is 0.
+     * @return the result boxed as the element type of the buffer.
+     */
+    public Number reduce(final CLBuffer<?> input, final int count, final Operator op) {
+        final ElementType type = ElementType.of(input);
+        checkCount(input, count);
+        if(count == 0) {
+            return type.identity(op);
+        }
+        final Kernels kernels = getKernels(type, null);
+        final int groups = kernels.groups(count);
+        final int chunk = chunk(count, groups);
+
+        final CLKernel reduce = kernels.get("reduce");
+        reduce.setArg(0, input).setArg(1, count).setArg(2, chunk).setArg(3, op.CODE);
+        type.setArg(reduce, 4, type.identity(op));
+        reduce.setArg(5, partials).setNullArg(6, kernels.workGroupSize*type.size);
+        queue.put1DRangeKernel(reduce, 0, groups*kernels.workGroupSize, kernels.workGroupSize);
+        queue.putReadBuffer(partials, true);
+
+        final ByteBuffer results = partials.getBuffer();
+        Number result = type.get(results, 0);
+        for (int i = 1; i < groups; i++) {
+            result = type.combine(result, type.get(results, i), op);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the inclusive scan of the first count input elements to output, input and output may be the same buffer.
+     * <code>output[i] = input[0] op ... op input[i]</code>
+     */
+    public void inclusiveScan(final CLBuffer<?> input, final CLBuffer<?> output, final int count, final Operator op) {
+        scan(input, output, count, op, true);
+    }
+
+    /**
+     * Writes the exclusive scan of the first count input elements to output, input and output may be the same buffer.
+     * <code>output[0]</code> is the neutral element of the operator, <code>output[i] = input[0] op ... op input[i-1]</code>
+     */
+    public void exclusiveScan(final CLBuffer<?> input, final CLBuffer<?> output, final int count, final Operator op) {
+        scan(input, output, count, op, false);
+    }
+
+    private void scan(final CLBuffer<?> input, final CLBuffer<?> output, final int count, final Operator op, final boolean inclusive) {
+        final ElementType type = ElementType.of(input);
+        checkOutput(type, output, count);
+        checkCount(input, count);
+        if(count == 0) {
+            return;
+        }
+        final Kernels kernels = getKernels(type, null);
+        final int wgs = kernels.workGroupSize;
+        final int groups = kernels.groups(count);
+        final int chunk = chunk(count, groups);
+        final Number identity = type.identity(op);
+        final int scratch = wgs*type.size;
+
+        final CLKernel reduce = kernels.get("reduce");
+        reduce.setArg(0, input).setArg(1, count).setArg(2, chunk).setArg(3, op.CODE);
+        type.setArg(reduce, 4, identity);
+        reduce.setArg(5, partials).setNullArg(6, scratch);
+        queue.put1DRangeKernel(reduce, 0, groups*wgs, wgs);
+
+        final CLKernel scanPartials = kernels.get("scan_partials");
+        scanPartials.setArg(0, partials).setArg(1, groups).setArg(2, op.CODE);
+        type.setArg(scanPartials, 3, identity);
+        scanPartials.setNullArg(4, scratch);
+        queue.put1DRangeKernel(scanPartials, 0, wgs, wgs);
+
+        final CLKernel scan = kernels.get("scan");
+        scan.setArg(0, input).setArg(1, output).setArg(2, count).setArg(3, chunk).setArg(4, op.CODE);
+        type.setArg(scan, 5, identity);
+        scan.setArg(6, inclusive ? 1 : 0).setArg(7, partials).setNullArg(8, scratch);
+        queue.put1DRangeKernel(scan, 0, groups*wgs, wgs);
+    }
+
+    /**
+     * Copies all elements not equal to zero to the front of output, preserving their order.
+     * @return the number of copied elements.
+     * @see #compact(CLBuffer, CLBuffer, int, String)
+     */
+    public int compact(final CLBuffer<?> input, final CLBuffer<?> output, final int count) {
+        return compact(input, output, count, null);
+    }
+
+    /**
+     * Copies all elements matching the condition to the front of output, preserving their order.
+     * Input and output must not overlap. Blocks until the number of copied elements is available.
+     * @param condition OpenCL C expression of the element <code>x</code>, e.g. <code>"x > 0 && x < 100"</code>,
+     *                  null keeps all elements not equal to zero. Every distinct condition is compiled once.
+     * @return the number of copied elements.
+     */
+    public int compact(final CLBuffer<?> input, final CLBuffer<?> output, final int count, final String condition) {
+        final ElementType type = ElementType.of(input);
+        checkOutput(type, output, count);
+        checkCount(input, count);
+        if(count == 0) {
+            return 0;
+        }
+        final Kernels kernels = getKernels(type, condition);
+        final int wgs = kernels.workGroupSize;
+        final int groups = kernels.groups(count);
+        final int chunk = chunk(count, groups);
+
+        final CLKernel countKernel = kernels.get("compact_count");
+        countKernel.setArg(0, input).setArg(1, count).setArg(2, chunk).setArg(3, counts).setNullArg(4, wgs*4);
+        queue.put1DRangeKernel(countKernel, 0, groups*wgs, wgs);
+
+        final CLKernel offsets = kernels.get("compact_offsets");
+        offsets.setArg(0, counts).setArg(1, groups).setNullArg(2, wgs*4);
+        queue.put1DRangeKernel(offsets, 0, wgs, wgs);
+
+        final CLKernel compact = kernels.get("compact");
+        compact.setArg(0, input).setArg(1, output).setArg(2, count).setArg(3, chunk).setArg(4, counts).setNullArg(5, wgs*4);
+        queue.put1DRangeKernel(compact, 0, groups*wgs, wgs);
+
+        queue.putReadBuffer(counts, true);
+        return counts.getBuffer().get(groups);
+    }
+
+    /**
+     * Counts the first count input elements in <code>bins.getCLCapacity()</code> equally sized bins
+     * between min (inclusive) and max (exclusive), elements outside of the range are ignored.
+     * The bins are overwritten. Integer bins are computed exactly, for long elements
+     * <code>(max-min)*bins</code> must not exceed 64 bit.
+     */
+    public void histogram(final CLBuffer<?> input, final int count, final CLBuffer<IntBuffer> bins, final double min, final double max) {
+        final ElementType type = ElementType.of(input);
+        checkCount(input, count);
+        if(!(min < max)) {
+            throw new IllegalArgumentException("min must be less than max but was "+min+" >= "+max);
+        }
+        final int binCount = bins.getCLCapacity();
+        if(binCount <= 0) {
+            throw new IllegalArgumentException("bins must not be empty");
+        }
+        final Kernels kernels = getKernels(type, null);
+        final int wgs = kernels.workGroupSize;
+
+        final CLKernel clear = kernels.get("histogram_clear");
+        clear.setArg(0, bins).setArg(1, binCount);
+        queue.put1DRangeKernel(clear, 0, roundUp(binCount, wgs), wgs);
+        if(count == 0) {
+            return;
+        }
+
+        // per work-group bins in local memory if they fit
+        final boolean local = binCount*4L <= device.getLocalMemSize()/2;
+        final CLKernel histogram = kernels.get(local ? "histogram_local" : "histogram_global");
+        histogram.setArg(0, input).setArg(1, count);
+        type.setArg(histogram, 2, type.cast(min));
+        type.setArg(histogram, 3, type.cast(max));
+        histogram.setArg(4, bins).setArg(5, binCount);
+        if(local) {
+            histogram.setNullArg(6, binCount*4);
+        }
+        queue.put1DRangeKernel(histogram, 0, kernels.groups(count)*wgs, wgs);
+    }
+
+    private static int chunk(final int count, final int groups) {
+        return (count+groups-1) / groups;
+    }
+
+    private static int roundUp(final int value, final int multiple) {
+        return (value+multiple-1) / multiple * multiple;
+    }
+
+    private static void checkCount(final CLBuffer<?> input, final int count) {
+        if(count < 0 || count > input.getCLCapacity()) {
+            throw new IllegalArgumentException("count must be in [0, "+input.getCLCapacity()+"] but was "+count);
+        }
+    }
+
+    private static void checkOutput(final ElementType type, final CLBuffer<?> output, final int count) {
+        if(ElementType.of(output) != type) {
+            throw new IllegalArgumentException("output must be a "+type.name+" buffer but was "+output);
+        }else if(output.getCLCapacity() < count) {
+            throw new IllegalArgumentException("output capacity "+output.getCLCapacity()+" less than count "+count);
+        }
+    }
+
+    /**
+     * Returns the kernels for the element type and compaction condition, builds them on first use.
+     */
+    private Kernels getKernels(final ElementType type, final String condition) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        final String key = condition == null ? type.name : type.name+" "+condition;
+        Kernels kernels = programs.get(key);
+        if(kernels == null) {
+            if(type == ElementType.DOUBLE && !device.isDoubleFPAvailable()) {
+                throw new UnsupportedOperationException(device.getName()+" does not support double precision");
+            }
+            final StringBuilder source = new StringBuilder();
+            if(type == ElementType.DOUBLE) {
+                source.append("#pragma OPENCL EXTENSION cl_khr_fp64 : enable\n");
+            }
+            source.append("#define T ").append(type.name).append('\n');
+            if(type.integer) {
+                source.append("#define INTEGER\n");
+            }
+            if(condition != null) {
+                source.append("#define PREDICATE(x) (").append(condition).append(")\n");
+            }
+            source.append(SOURCE);
+
+            final CLProgram program = queue.getContext().createProgram(source.toString()).build(device);
+            kernels = new Kernels(program, type, device);
+            programs.put(key, kernels);
+        }
+        return kernels;
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final Kernels kernels : programs.values()) {
+            kernels.program.release();
+        }
+        programs.clear();
+        partials.release();
+        counts.release();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [device: "+device.getName()+" programs: "+programs.keySet()+"]";
+    }
+
+    /**
+     * Kernels of one program and the work-group size they share.
+     */
+    private static final class Kernels {
+
+        private final CLProgram program;
+        private final Map<String, CLKernel> kernels;
+        private final int workGroupSize;
+        private final int maxGroups;
+
+        private Kernels(final CLProgram program, final ElementType type, final CLDevice device) {
+            this.program = program;
+            this.kernels = program.createCLKernels();
+
+            // the smallest work-group size all kernels support, the partial results of all groups
+            // are scanned by a single group, local memory holds one element per work item
+            long size = Math.min(MAX_WORK_GROUP_SIZE, device.getMaxWorkGroupSize());
+            size = Math.min(size, device.getLocalMemSize() / (2*type.size));
+            for (final CLKernel kernel : kernels.values()) {
+                size = Math.min(size, kernel.getWorkGroupSize(device));
+            }
+            this.workGroupSize = Integer.highestOneBit((int)Math.max(1, size));
+            this.maxGroups = Math.max(1, Math.min(workGroupSize, device.getMaxComputeUnits()*4));
+        }
+
+        private CLKernel get(final String name) {
+            return kernels.get(name);
+        }
+
+        /**
+         * Returns the number of work-groups for the given number of elements.
+         */
+        private int groups(final int count) {
+            return Math.max(1, Math.min(maxGroups, (count+workGroupSize-1) / workGroupSize));
+        }
+    }
+
+}
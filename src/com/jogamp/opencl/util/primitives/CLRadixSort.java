@@ -0,0 +1,373 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.primitives;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stable LSD radix sort of int, long, float and double keys with optional values, sorting in place.
+ * <p>
+ * Every pass sorts by one 4 bit digit: work-groups count the digits of their contiguous range in local memory,
+ * a single work-group scans the counts of all groups and the groups scatter their range tile by tile,
+ * ranking the keys of a tile with a local scan. The work-group size is chosen to fit the local rank table
+ * into the {@link CLDevice#getLocalMemSize() local memory} of the device.
+ * Keys are sorted by their bit patterns, signed integers and floating point numbers are mapped to an unsigned order
+ * on the fly, -0.0 is sorted before 0.0 and all NaNs last regardless of their sign bit, like {@link java.util.Arrays#sort(float[])}.
+ * NaNs keep their bit patterns and their relative order.
+ * Double keys do not require double precision support of the device.
+ * </p>
+ * <p>
+ * The sort is enqueued on the in-order queue of this instance and uses temporary buffers of the size of
+ * the sorted buffers, which are kept for subsequent sorts until the instance is released.
+ * Instances are not thread safe.
+ * </p>
+ * <pre>
+ * CLRadixSort sort = CLRadixSort.create(queue);
+ * sort.sort(keys, values, n);
+ * </pre>
+ */
+public class CLRadixSort implements CLResource {
+
+    static final int RADIX_BITS = 4;
+    static final int RADIX = 1 << RADIX_BITS;
+
+    private static final String SOURCE =
+              "#define RADIX "+RADIX+"\n"
+            + "#define RADIX_MASK "+(RADIX-1)+"\n"
+            + "\n"
+            // maps the key bits to an unsigned order
+            + "inline K order(const K k) {\n"
+            + "#if defined(FLOATING)\n"
+            // all NaNs sort after +inf, independent of sign and payload
+            + "    if((k & ~((K)1 << (BITS-1))) > EXP_MASK) {\n"
+            + "        return (K)-1;\n"
+            + "    }\n"
+            + "    return k ^ ((k >> (BITS-1)) != 0 ? (K)-1 : ((K)1 << (BITS-1)));\n"
+            + "#elif defined(SIGNED)\n"
+            + "    return k ^ ((K)1 << (BITS-1));\n"
+            + "#else\n"
+            + "    return k;\n"
+            + "#endif\n"
+            + "}\n"
+            + "\n"
+            + "inline int scan_group(int value, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    scratch[lid] = value;\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int offset = 1; offset < get_local_size(0); offset <<= 1) {\n"
+            + "        const int other = lid >= offset ? scratch[lid-offset] : 0;\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        value += other;\n"
+            + "        scratch[lid] = value;\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "    return value;\n"
+            + "}\n"
+            + "\n"
+            // digit counts of each group, stored digit major
+            + "kernel void radix_histogram(global const K* keys, const int n, const int chunk, const int shift,\n"
+            + "                            global int* hist, local int* counts) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int size = get_local_size(0);\n"
+            + "    for(int d = lid; d < RADIX; d += size) {\n"
+            + "        counts[d] = 0;\n"
+            + "    }\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    for(int i = begin+lid; i < end; i += size) {\n"
+            + "        atomic_inc(&counts[(order(keys[i]) >> shift) & RADIX_MASK]);\n"
+            + "    }\n"
+            + "    barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    for(int d = lid; d < RADIX; d += size) {\n"
+            + "        hist[d*get_num_groups(0) + get_group_id(0)] = counts[d];\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            // exclusive scan of the histogram in a single work-group, every item scans a block
+            + "kernel void radix_scan(global int* hist, const int count, local int* scratch) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int block = (count + get_local_size(0)-1) / get_local_size(0);\n"
+            + "    const int begin = min(count, lid*block);\n"
+            + "    const int end = min(count, begin+block);\n"
+            + "    int sum = 0;\n"
+            + "    for(int i = begin; i < end; i++) {\n"
+            + "        sum += hist[i];\n"
+            + "    }\n"
+            + "    int offset = scan_group(sum, scratch) - sum;\n"
+            + "    for(int i = begin; i < end; i++) {\n"
+            + "        const int c = hist[i];\n"
+            + "        hist[i] = offset;\n"
+            + "        offset += c;\n"
+            + "    }\n"
+            + "}\n"
+            + "\n"
+            + "kernel void radix_scatter(global const K* keys, global K* keys_out,\n"
+            + "#ifdef V\n"
+            + "                          global const V* values, global V* values_out,\n"
+            + "#endif\n"
+            + "                          const int n, const int chunk, const int shift, global const int* hist,\n"
+            + "                          local int* ranks, local int* scratch, local int* bases) {\n"
+            + "    const int lid = get_local_id(0);\n"
+            + "    const int size = get_local_size(0);\n"
+            + "    for(int d = lid; d < RADIX; d += size) {\n"
+            + "        bases[d] = hist[d*get_num_groups(0) + get_group_id(0)];\n"
+            + "    }\n"
+            + "    const int begin = get_group_id(0)*chunk;\n"
+            + "    const int end = min(n, begin+chunk);\n"
+            + "    for(int base = begin; base < end; base += size) {\n"
+            + "        const int i = base+lid;\n"
+            + "        K key = 0;\n"
+            + "        int digit = RADIX;\n"
+            + "        if(i < end) {\n"
+            + "            key = keys[i];\n"
+            + "            digit = (order(key) >> shift) & RADIX_MASK;\n"
+            + "        }\n"
+            // one flag per digit and work item, digit major
+            + "        for(int d = 0; d < RADIX; d++) {\n"
+            + "            ranks[d*size + lid] = digit == d ? 1 : 0;\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            // exclusive scan of the flags, every item scans RADIX consecutive entries
+            + "        int sum = 0;\n"
+            + "        for(int j = 0; j < RADIX; j++) {\n"
+            + "            sum += ranks[lid*RADIX + j];\n"
+            + "        }\n"
+            + "        int offset = scan_group(sum, scratch) - sum;\n"
+            + "        for(int j = 0; j < RADIX; j++) {\n"
+            + "            const int c = ranks[lid*RADIX + j];\n"
+            + "            ranks[lid*RADIX + j] = offset;\n"
+            + "            offset += c;\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        if(digit < RADIX) {\n"
+            + "            const int pos = bases[digit] + ranks[digit*size + lid] - ranks[digit*size];\n"
+            + "            keys_out[pos] = key;\n"
+            + "#ifdef V\n"
+            + "            values_out[pos] = values[i];\n"
+            + "#endif\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "        const int valid = min(size, end-base);\n"
+            + "        for(int d = lid; d < RADIX; d += size) {\n"
+            + "            const int next = d+1 < RADIX ? ranks[(d+1)*size] : valid;\n"
+            + "            bases[d] += next - ranks[d*size];\n"
+            + "        }\n"
+            + "        barrier(CLK_LOCAL_MEM_FENCE);\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final int MAX_GROUPS_PER_UNIT = 4;
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+    private final Map<String, Kernels> programs = new HashMap<String, Kernels>();
+
+    private CLBuffer<?> tempKeys;
+    private CLBuffer<?> tempValues;
+    private CLBuffer<?> hist;
+
+    private boolean released;
+
+    private CLRadixSort(final CLCommandQueue queue) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+    }
+
+    /**
+     * Creates a sort running on the given queue.
+     * @throws IllegalArgumentException if the queue executes out of order.
+     */
+    public static CLRadixSort create(final CLCommandQueue queue) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }else if(queue.isOutOfOrderModeEnabled()) {
+            throw new IllegalArgumentException("radix sort requires an in-order queue");
+        }
+        return new CLRadixSort(queue);
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Sorts the first count keys in ascending order.
+     */
+    public void sort(final CLBuffer<?> keys, final int count) {
+        sort(keys, null, count);
+    }
+
+    /**
+     * Sorts the first count keys in ascending order and reorders the values with them, equal keys keep their order.
+     * @param values int, long, float or double values or null.
+     * @throws IllegalArgumentException if the temporary keys or values would exceed 2 GB.
+     */
+    public void sort(final CLBuffer<?> keys, final CLBuffer<?> values, final int count) {
+        final ElementType keyType = ElementType.of(keys);
+        final ElementType valueType = values == null ? null : ElementType.of(values);
+        if(count < 0 || count > keys.getCLCapacity()) {
+            throw new IllegalArgumentException("count must be in [0, "+keys.getCLCapacity()+"] but was "+count);
+        }else if(values != null && values.getCLCapacity() < count) {
+            throw new IllegalArgumentException("values capacity "+values.getCLCapacity()+" less than count "+count);
+        }
+        final Kernels kernels = getKernels(keyType, valueType);
+        if(count <= 1) {
+            return;
+        }
+
+        final int wgs = kernels.workGroupSize;
+        final int groups = Math.max(1, Math.min(device.getMaxComputeUnits()*MAX_GROUPS_PER_UNIT, (count+wgs-1) / wgs));
+        final int chunk = (count+groups-1) / groups;
+        final CLContext context = queue.getContext();
+
+        tempKeys = ensureCapacity(context, tempKeys, (long)count*keyType.size);
+        if(values != null) {
+            tempValues = ensureCapacity(context, tempValues, (long)count*valueType.size);
+        }
+        hist = ensureCapacity(context, hist, (long)RADIX*groups*4);
+
+        final CLKernel histogram = kernels.histogram;
+        final CLKernel scan = kernels.scan;
+        final CLKernel scatter = kernels.scatter;
+        scan.setArg(0, hist).setArg(1, RADIX*groups).setNullArg(2, wgs*4);
+
+        // even number of passes, the result ends up in the input buffers
+        CLBuffer<?> keysIn = keys, keysOut = tempKeys;
+        CLBuffer<?> valuesIn = values, valuesOut = tempValues;
+        for (int shift = 0; shift < keyType.size*8; shift += RADIX_BITS) {
+
+            histogram.setArg(0, keysIn).setArg(1, count).setArg(2, chunk).setArg(3, shift)
+                     .setArg(4, hist).setNullArg(5, RADIX*4);
+            queue.put1DRangeKernel(histogram, 0, groups*wgs, wgs);
+
+            queue.put1DRangeKernel(scan, 0, wgs, wgs);
+
+            int arg = 0;
+            scatter.setArg(arg++, keysIn).setArg(arg++, keysOut);
+            if(values != null) {
+                scatter.setArg(arg++, valuesIn).setArg(arg++, valuesOut);
+            }
+            scatter.setArg(arg++, count).setArg(arg++, chunk).setArg(arg++, shift).setArg(arg++, hist)
+                   .setNullArg(arg++, RADIX*wgs*4).setNullArg(arg++, wgs*4).setNullArg(arg++, RADIX*4);
+            queue.put1DRangeKernel(scatter, 0, groups*wgs, wgs);
+
+            CLBuffer<?> swap = keysIn;
+            keysIn = keysOut;
+            keysOut = swap;
+            swap = valuesIn;
+            valuesIn = valuesOut;
+            valuesOut = swap;
+        }
+    }
+
+    /**
+     * Returns the work-group size used for the given key and value buffers.
+     */
+    public int getWorkGroupSize(final CLBuffer<?> keys, final CLBuffer<?> values) {
+        return getKernels(ElementType.of(keys), values == null ? null : ElementType.of(values)).workGroupSize;
+    }
+
+    private static CLBuffer<?> ensureCapacity(final CLContext context, final CLBuffer<?> buffer, final long size) {
+        if(buffer != null && buffer.getCLSize() >= size) {
+            return buffer;
+        }else if(size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("temporary buffer of "+size+" bytes exceeds the int size range");
+        }
+        if(buffer != null) {
+            buffer.release();
+        }
+        return context.createBuffer((int)size, Mem.READ_WRITE);
+    }
+
+    private Kernels getKernels(final ElementType keyType, final ElementType valueType) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        final String key = keyType.size*8+(keyType == ElementType.INT || keyType == ElementType.LONG ? "s" : "f")
+                         + (valueType == null ? "" : "v"+valueType.size*8);
+        Kernels kernels = programs.get(key);
+        if(kernels == null) {
+            final StringBuilder source = new StringBuilder();
+            source.append("#define K ").append(keyType.size == 4 ? "uint" : "ulong").append('\n');
+            source.append("#define BITS ").append(keyType.size*8).append('\n');
+            if(keyType.integer) {
+                source.append("#define SIGNED\n");
+            }else{
+                source.append("#define FLOATING\n");
+                source.append("#define EXP_MASK ").append(keyType.size == 4 ? "0x7F800000u" : "0x7FF0000000000000ul").append('\n');
+            }
+            if(valueType != null) {
+                source.append("#define V ").append(valueType.size == 4 ? "uint" : "ulong").append('\n');
+            }
+            source.append(SOURCE);
+            final CLProgram program = queue.getContext().createProgram(source.toString()).build(device);
+            kernels = new Kernels(program, device);
+            programs.put(key, kernels);
+        }
+        return kernels;
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final Kernels kernels : programs.values()) {
+            kernels.program.release();
+        }
+        programs.clear();
+        for (final CLBuffer<?> buffer : new CLBuffer<?>[] {tempKeys, tempValues, hist}) {
+            if(buffer != null) {
+                buffer.release();
+            }
+        }
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [device: "+device.getName()+" programs: "+programs.keySet()+"]";
+    }
+
+    private static final class Kernels {
+
+        private final CLProgram program;
+        private final CLKernel histogram;
+        private final CLKernel scan;
+        private final CLKernel scatter;
+        private final int workGroupSize;
+
+        private Kernels(final CLProgram program, final CLDevice device) {
+            this.program = program;
+            this.histogram = program.createCLKernel("radix_histogram");
+            this.scan = program.createCLKernel("radix_scan");
+            this.scatter = program.createCLKernel("radix_scatter");
+
+            // the scatter kernel needs a rank per digit and work item plus scan scratch and digit bases
+            final long localMem = device.getLocalMemSize() / 2;
+            long size = Math.min(CLPrimitives.MAX_WORK_GROUP_SIZE, device.getMaxWorkGroupSize());
+            size = Math.min(size, (localMem/4 - RADIX) / (RADIX+1));
+            size = Math.min(size, histogram.getWorkGroupSize(device));
+            size = Math.min(size, scan.getWorkGroupSize(device));
+            size = Math.min(size, scatter.getWorkGroupSize(device));
+            this.workGroupSize = Integer.highestOneBit((int)Math.max(1, size));
+        }
+    }
+
+}
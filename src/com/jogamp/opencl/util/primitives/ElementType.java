@@ -0,0 +1,142 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.primitives;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.util.primitives.CLPrimitives.Operator;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Element types supported by the primitives, derived from the NIO buffer of a {@link CLBuffer}.
+ */
+enum ElementType {
+
+    INT("int", 4, true),
+    LONG("long", 8, true),
+    FLOAT("float", 4, false),
+    DOUBLE("double", 8, false);
+
+    /**
+     * OpenCL C type name.
+     */
+    final String name;
+
+    /**
+     * Size in bytes.
+     */
+    final int size;
+
+    final boolean integer;
+
+    private ElementType(final String name, final int size, final boolean integer) {
+        this.name = name;
+        this.size = size;
+        this.integer = integer;
+    }
+
+    /**
+     * Returns the element type of the NIO buffer of the given buffer.
+     * @throws IllegalArgumentException if the buffer has no int, long, float or double NIO buffer.
+     */
+    static ElementType of(final CLBuffer<?> buffer) {
+        final Buffer nio = buffer.getBuffer();
+        if(nio instanceof IntBuffer) {
+            return INT;
+        }else if(nio instanceof LongBuffer) {
+            return LONG;
+        }else if(nio instanceof FloatBuffer) {
+            return FLOAT;
+        }else if(nio instanceof DoubleBuffer) {
+            return DOUBLE;
+        }
+        throw new IllegalArgumentException("buffer must wrap an int, long, float or double buffer but was "+nio);
+    }
+
+    /**
+     * Returns the neutral element of the operator.
+     */
+    Number identity(final Operator op) {
+        switch(op) {
+            case SUM: return cast(0);
+            case MIN: return this == INT ? Integer.MAX_VALUE : this == LONG ? Long.MAX_VALUE
+                           : this == FLOAT ? (Number)Float.POSITIVE_INFINITY : (Number)Double.POSITIVE_INFINITY;
+            case MAX: return this == INT ? Integer.MIN_VALUE : this == LONG ? Long.MIN_VALUE
+                           : this == FLOAT ? (Number)Float.NEGATIVE_INFINITY : (Number)Double.NEGATIVE_INFINITY;
+            default: throw new RuntimeException("unknown operator: "+op);
+        }
+    }
+
+    /**
+     * Converts the value to the boxed type of this element type.
+     */
+    Number cast(final Number value) {
+        switch(this) {
+            case INT:    return value.intValue();
+            case LONG:   return value.longValue();
+            case FLOAT:  return value.floatValue();
+            default:     return value.doubleValue();
+        }
+    }
+
+    Number cast(final double value) {
+        switch(this) {
+            case INT:    return (int)value;
+            case LONG:   return (long)value;
+            case FLOAT:  return (float)value;
+            default:     return value;
+        }
+    }
+
+    void setArg(final CLKernel kernel, final int index, final Number value) {
+        switch(this) {
+            case INT:    kernel.setArg(index, value.intValue());    break;
+            case LONG:   kernel.setArg(index, value.longValue());   break;
+            case FLOAT:  kernel.setArg(index, value.floatValue());  break;
+            default:     kernel.setArg(index, value.doubleValue()); break;
+        }
+    }
+
+    /**
+     * Reads the element with the given index from a native ordered byte buffer.
+     */
+    Number get(final ByteBuffer buffer, final int index) {
+        switch(this) {
+            case INT:    return buffer.getInt(index*size);
+            case LONG:   return buffer.getLong(index*size);
+            case FLOAT:  return buffer.getFloat(index*size);
+            default:     return buffer.getDouble(index*size);
+        }
+    }
+
+    /**
+     * Combines two values with the same semantics as the kernels.
+     */
+    Number combine(final Number a, final Number b, final Operator op) {
+        switch(this) {
+            case INT: {
+                final int x = a.intValue(), y = b.intValue();
+                return op == Operator.SUM ? x+y : op == Operator.MIN ? Math.min(x, y) : Math.max(x, y);
+            }
+            case LONG: {
+                final long x = a.longValue(), y = b.longValue();
+                return op == Operator.SUM ? x+y : op == Operator.MIN ? Math.min(x, y) : Math.max(x, y);
+            }
+            case FLOAT: {
+                final float x = a.floatValue(), y = b.floatValue();
+                return op == Operator.SUM ? x+y : op == Operator.MIN ? Math.min(x, y) : Math.max(x, y);
+            }
+            default: {
+                final double x = a.doubleValue(), y = b.doubleValue();
+                return op == Operator.SUM ? x+y : op == Operator.MIN ? Math.min(x, y) : Math.max(x, y);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.random;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.CLResource;
+import com.jogamp.opencl.util.concurrent.CLQueueContext;
+import com.jogamp.opencl.util.concurrent.CLQueueContextFactory;
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fills {@link CLBuffer}s with uniform or normal distributed random numbers generated on the device by the counter
+ * based generator Philox4x32-10 (Salmon et al., "Parallel Random Numbers: As Easy as 1, 2, 3", SC 2011).
+ * <p>
+ * Every 128 bit block of the random stream is the Philox bijection of its 64 bit block index and the 64 bit stream
+ * number, keyed by the 64 bit seed. The value at position p of a fill therefore only depends on seed, stream,
+ * distribution, element type and p, not on the device, the work split or the fills before.
+ * Filling <code>[offset, offset+count)</code> in one call or in several calls with adjacent offsets,
+ * for example on the queues of a {@link com.jogamp.opencl.util.concurrent.CLCommandQueuePool} using
+ * {@link com.jogamp.opencl.util.concurrent.CLRangeSplitter}, produces the same numbers.
+ * Disjoint offset ranges or different streams give independent numbers.
+ * </p>
+ * <p>
+ * Uniform ints use one 32 bit word, uniform floats the upper 24 bits of a word and uniform doubles 53 bits of two words.
+ * Normal numbers are computed with the Box-Muller transform from pairs of uniform numbers.
+ * Doubles require {@link CLDevice#isDoubleFPAvailable()}.
+ * </p>
+ * <pre>
+ * CLRandom random = CLRandom.create(queue, 42);
+ * random.fillNormal(buffer, n, 0, 0, 1);
+ * </pre>
+ * Instances are bound to one queue and are not thread safe.
+ */
+public class CLRandom implements CLResource {
+
+    private static final String SOURCE =
+              "inline uint4 philox(uint4 c, uint k0, uint k1) {\n"
+            + "    for(int i = 0; i < 10; i++) {\n"
+            + "        const uint hi0 = mul_hi(0xD2511F53u, c.x), lo0 = 0xD2511F53u * c.x;\n"
+            + "        const uint hi1 = mul_hi(0xCD9E8D57u, c.z), lo1 = 0xCD9E8D57u * c.z;\n"
+            + "        c = (uint4)(hi1 ^ c.y ^ k0, lo1, hi0 ^ c.w ^ k1, lo0);\n"
+            + "        k0 += 0x9E3779B9u;\n"
+            + "        k1 += 0xBB67AE85u;\n"
+            + "    }\n"
+            + "    return c;\n"
+            + "}\n"
+            + "\n"
+            + "#define FLOAT_UNIT (1.0f/16777216.0f)\n"
+            + "#define DOUBLE_UNIT (1.0/9007199254740992.0)\n"
+            + "#define TWO_PI_F 6.2831855f\n"
+            + "\n"
+            // 53 bits of two words, as java.util.Random.nextDouble()
+            + "#ifdef DOUBLE\n"
+            + "#define TWO_PI 6.283185307179586\n"
+            + "inline double bits53(const uint a, const uint b) {\n"
+            + "    return (double)(((ulong)(a >> 5) << 26) | (b >> 6));\n"
+            + "}\n"
+            + "#endif\n"
+            + "\n"
+            // a is the minimum or mean and b the range or standard deviation
+            + "kernel void fill(global T* out, const int count, const ulong offset, const uint key0, const uint key1,\n"
+            + "                 const ulong stream, const P a, const P b) {\n"
+            + "    const ulong block = offset/VALUES + get_global_id(0);\n"
+            + "    const uint4 r = philox((uint4)((uint)block, (uint)(block >> 32), (uint)stream, (uint)(stream >> 32)), key0, key1);\n"
+            + "    T v[VALUES];\n"
+            + "#if defined(INT)\n"
+            // full range if the range is 0, else min + floor(word * range / 2^32)
+            + "    const uint w[4] = {r.x, r.y, r.z, r.w};\n"
+            + "    for(int l = 0; l < 4; l++) {\n"
+            + "        v[l] = b == 0 ? (T)w[l] : a + (T)mul_hi(w[l], (uint)b);\n"
+            + "    }\n"
+            + "#elif defined(FLOAT) && defined(UNIFORM)\n"
+            + "    const uint w[4] = {r.x, r.y, r.z, r.w};\n"
+            + "    for(int l = 0; l < 4; l++) {\n"
+            + "        v[l] = a + b * ((w[l] >> 8) * FLOAT_UNIT);\n"
+            + "    }\n"
+            + "#elif defined(FLOAT)\n"
+            + "    const uint w[4] = {r.x, r.y, r.z, r.w};\n"
+            + "    for(int l = 0; l < 4; l += 2) {\n"
+            // u1 in (0, 1] avoids log(0)
+            + "        const float radius = sqrt(-2.0f * log(((w[l] >> 8) + 1) * FLOAT_UNIT));\n"
+            + "        const float angle = TWO_PI_F * ((w[l+1] >> 8) * FLOAT_UNIT);\n"
+            + "        v[l]   = a + b * radius * cos(angle);\n"
+            + "        v[l+1] = a + b * radius * sin(angle);\n"
+            + "    }\n"
+            + "#elif defined(UNIFORM)\n"
+            + "    v[0] = a + b * (bits53(r.x, r.y) * DOUBLE_UNIT);\n"
+            + "    v[1] = a + b * (bits53(r.z, r.w) * DOUBLE_UNIT);\n"
+            + "#else\n"
+            + "    const double radius = sqrt(-2.0 * log((bits53(r.x, r.y) + 1) * DOUBLE_UNIT));\n"
+            + "    const double angle = TWO_PI * (bits53(r.z, r.w) * DOUBLE_UNIT);\n"
+            + "    v[0] = a + b * radius * cos(angle);\n"
+            + "    v[1] = a + b * radius * sin(angle);\n"
+            + "#endif\n"
+            + "    for(int l = 0; l < VALUES; l++) {\n"
+            + "        const long pos = (long)(block*VALUES + l - offset);\n"
+            + "        if(pos >= 0 && pos < count) {\n"
+            + "            out[pos] = v[l];\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+    private final CLCommandQueue queue;
+    private final CLDevice device;
+    private final long seed;
+    private final long stream;
+    private final Map<String, CLKernel> kernels = new HashMap<String, CLKernel>();
+    private final Map<String, CLProgram> programs = new HashMap<String, CLProgram>();
+
+    private boolean released;
+
+    private CLRandom(final CLCommandQueue queue, final long seed, final long stream) {
+        this.queue = queue;
+        this.device = queue.getDevice();
+        this.seed = seed;
+        this.stream = stream;
+    }
+
+    /**
+     * Creates a generator of stream 0 of the given seed.
+     */
+    public static CLRandom create(final CLCommandQueue queue, final long seed) {
+        return create(queue, seed, 0);
+    }
+
+    /**
+     * Creates a generator of the given stream of the seed, streams are independent.
+     */
+    public static CLRandom create(final CLCommandQueue queue, final long seed, final long stream) {
+        if(queue == null) {
+            throw new NullPointerException("queue was null");
+        }
+        return new CLRandom(queue, seed, stream);
+    }
+
+    /**
+     * Creates a factory of queue contexts holding a generator of stream 0 of the given seed,
+     * every queue of a pool produces the same numbers for the same offsets.
+     */
+    public static CLQueueContextFactory<RandomQueueContext> createContextFactory(final long seed) {
+        return new CLQueueContextFactory<RandomQueueContext>() {
+            @Override
+            public RandomQueueContext setup(final CLCommandQueue queue, final CLQueueContext old) {
+                return new RandomQueueContext(create(queue, seed));
+            }
+        };
+    }
+
+    /**
+     * Enqueues a fill of the first count elements of the buffer with the values
+     * <code>[offset, offset+count)</code> of the uniform distribution in [0, 1) for floats and doubles,
+     * or over all 32 bit values for ints.
+     * @throws IllegalArgumentException if the buffer is no int, float or double buffer or smaller than count.
+     */
+    public void fillUniform(final CLBuffer<?> buffer, final int count, final long offset) {
+        final Type type = Type.of(buffer);
+        fill(buffer, type, true, count, offset, 0, type == Type.INT ? 0 : 1);
+    }
+
+    /**
+     * Enqueues a fill with uniform numbers in [min, max). Int ranges are mapped by a multiply,
+     * which has a bias of at most <code>(max-min)/2^32</code>.
+     * @throws IllegalArgumentException if min is not smaller than max or an int range exceeds 2^32 or int bounds are not integers.
+     */
+    public void fillUniform(final CLBuffer<?> buffer, final int count, final long offset, final double min, final double max) {
+        final Type type = Type.of(buffer);
+        if(!(min < max)) {
+            throw new IllegalArgumentException("min must be smaller than max but was ["+min+", "+max+")");
+        }
+        if(type == Type.INT) {
+            final long range = (long)max - (long)min;
+            if(min != Math.rint(min) || max != Math.rint(max) || min < Integer.MIN_VALUE || max-1 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("int bounds must be integers in the int range but were ["+min+", "+max+")");
+            }
+            // a range of 2^32 wraps to 0, the full range
+            fill(buffer, type, true, count, offset, min, (int)range);
+        }else{
+            fill(buffer, type, true, count, offset, min, max-min);
+        }
+    }
+
+    /**
+     * Enqueues a fill with normal distributed floats or doubles.
+     * @throws IllegalArgumentException if the buffer is no float or double buffer or smaller than count.
+     */
+    public void fillNormal(final CLBuffer<?> buffer, final int count, final long offset, final double mean, final double stddev) {
+        final Type type = Type.of(buffer);
+        if(type == Type.INT) {
+            throw new IllegalArgumentException("normal numbers require a float or double buffer");
+        }
+        fill(buffer, type, false, count, offset, mean, stddev);
+    }
+
+    private void fill(final CLBuffer<?> buffer, final Type type, final boolean uniform, final int count, final long offset,
+                      final double a, final double b) {
+        if(count < 0 || count > buffer.getCLCapacity()) {
+            throw new IllegalArgumentException("count must be in [0, "+buffer.getCLCapacity()+"] but was "+count);
+        }else if(offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative but was "+offset);
+        }
+        final CLKernel kernel = getKernel(type, uniform);
+        if(count == 0) {
+            return;
+        }
+        final int values = type.valuesPerBlock();
+        final long blocks = (offset % values + count + values-1) / values;
+
+        kernel.setArg(0, buffer).setArg(1, count).setArg(2, offset)
+              .setArg(3, (int)seed).setArg(4, (int)(seed >>> 32)).setArg(5, stream);
+        switch(type) {
+            case INT:    kernel.setArg(6, (int)a).setArg(7, (int)b);                 break;
+            case FLOAT:  kernel.setArg(6, (float)a).setArg(7, (float)b);             break;
+            default:     kernel.setArg(6, a).setArg(7, b);                           break;
+        }
+        queue.put1DRangeKernel(kernel, 0, blocks, 0);
+    }
+
+    private CLKernel getKernel(final Type type, final boolean uniform) {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        final String key = type.name+(uniform ? " uniform" : " normal");
+        CLKernel kernel = kernels.get(key);
+        if(kernel == null) {
+            final StringBuilder source = new StringBuilder();
+            if(type == Type.DOUBLE) {
+                if(!device.isDoubleFPAvailable()) {
+                    throw new UnsupportedOperationException(device.getName()+" does not support double precision");
+                }
+                source.append("#pragma OPENCL EXTENSION cl_khr_fp64 : enable\n");
+            }
+            source.append("#define T ").append(type.name).append('\n');
+            source.append("#define P ").append(type.name).append('\n');
+            source.append("#define ").append(type.name().toUpperCase()).append('\n');
+            source.append(uniform ? "#define UNIFORM\n" : "#define NORMAL\n");
+            source.append("#define VALUES ").append(type.valuesPerBlock()).append('\n');
+            source.append(SOURCE);
+            final CLProgram program = queue.getContext().createProgram(source.toString()).build(device);
+            programs.put(key, program);
+            kernel = program.createCLKernel("fill");
+            kernels.put(key, kernel);
+        }
+        return kernel;
+    }
+
+    public CLCommandQueue getQueue() {
+        return queue;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    @Override
+    public void release() {
+        if(released) {
+            throw new RuntimeException(getClass().getSimpleName()+" already released");
+        }
+        released = true;
+        for (final CLProgram program : programs.values()) {
+            program.release();
+        }
+        programs.clear();
+        kernels.clear();
+    }
+
+    @Override
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()+" [seed: "+seed+" stream: "+stream+" device: "+device.getName()+"]";
+    }
+
+    /**
+     * Queue context holding a generator for the queue.
+     * @see CLRandom#createContextFactory(long)
+     */
+    public static class RandomQueueContext extends CLQueueContext {
+
+        public final CLRandom random;
+
+        public RandomQueueContext(final CLRandom random) {
+            super(random.getQueue());
+            this.random = random;
+        }
+
+        public CLRandom getRandom() {
+            return random;
+        }
+
+        @Override
+        public void release() {
+            random.release();
+        }
+
+        @Override
+        public boolean isReleased() {
+            return random.isReleased();
+        }
+    }
+
+    private enum Type {
+
+        INT("int"), FLOAT("float"), DOUBLE("double");
+
+        private final String name;
+
+        private Type(final String name) {
+            this.name = name;
+        }
+
+        private static Type of(final CLBuffer<?> buffer) {
+            final Buffer nio = buffer.getBuffer();
+            if(nio instanceof IntBuffer) {
+                return INT;
+            }else if(nio instanceof FloatBuffer) {
+                return FLOAT;
+            }else if(nio instanceof DoubleBuffer) {
+                return DOUBLE;
+            }
+            throw new IllegalArgumentException("buffer must wrap an int, float or double buffer but was "+nio);
+        }
+
+        /**
+         * Values generated from one 128 bit block.
+         */
+        private int valuesPerBlock() {
+            return this == DOUBLE ? 2 : 4;
+        }
+    }
+
+}
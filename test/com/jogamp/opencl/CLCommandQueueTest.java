@@ -521,6 +521,86 @@ public class CLCommandQueueTest extends UITestCase {
         }
 
     }
+
+    @Test
+    public void deviceBarrierTest() throws InterruptedException {
+
+        out.println(" - - - device side QueueBarrier test - - - ");
+
+        final int elements = ONE_MB / SIZEOF_INT;
+        final int rounds = 200;
+
+        final CLContext context = CLContext.create();
+
+        try{
+            final CLDevice[] devices = context.getDevices();
+
+            // two queues of one context, the first and the last device may be the same device
+            final CLCommandQueue queue1 = devices[0].createCommandQueue();
+            final CLCommandQueue queue2 = devices[devices.length-1].createCommandQueue();
+
+            final CLBuffer<ByteBuffer> clBufferA = context.createByteBuffer(elements * SIZEOF_INT);
+            final CLBuffer<ByteBuffer> clBufferB = context.createByteBuffer(elements * SIZEOF_INT);
+            fillBuffer(clBufferA.buffer, 12345);
+
+            final MultiQueueBarrier barrier = new MultiQueueBarrier(queue1, queue2);
+
+            // commands enqueued on queue2 after the barrier must see the writes of queue1
+            queue1.putWriteBuffer(clBufferA, false);
+            barrier.enqueueBarrier(queue1);
+            assertEquals(1, barrier.getDeviceCount());
+            barrier.enqueueBarrier(queue2);
+            assertEquals(2, barrier.getDeviceCount());
+            queue2.putCopyBuffer(clBufferA, clBufferB)
+                  .putReadBuffer(clBufferB, true);
+
+            checkIfEqual(clBufferA.buffer, clBufferB.buffer, elements);
+            queue1.finish();
+
+            // the same on both queues at once, the queues wait on each other's markers
+            fillBuffer(clBufferA.buffer, 54321);
+            queue1.putWriteBuffer(clBufferA, false);
+            barrier.enqueueBarrier();
+            assertEquals(2, barrier.getDeviceCount());
+            queue2.putCopyBuffer(clBufferA, clBufferB)
+                  .putReadBuffer(clBufferB, true);
+
+            checkIfEqual(clBufferA.buffer, clBufferB.buffer, elements);
+            queue1.finish();
+
+            // latency comparison between host and device side synchronization
+            long time = nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                barrier.waitFor(queue1).waitFor(queue2).await();
+            }
+            final long latch = nanoTime() - time;
+
+            time = nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                barrier.enqueueBarrier(queue1).enqueueBarrier(queue2);
+            }
+            queue1.finish();
+            queue2.finish();
+            final long device = nanoTime() - time;
+
+            time = nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                barrier.enqueueBarrier();
+            }
+            queue1.finish();
+            queue2.finish();
+            final long markers = nanoTime() - time;
+
+            out.println("latch barrier:  "+(latch/rounds/1000.0)+"us per round");
+            out.println("device barrier: "+(device/rounds/1000.0)+"us per round");
+            out.println("marker barrier: "+(markers/rounds/1000.0)+"us per round");
+
+        }finally{
+            context.release();
+        }
+
+    }
+
     public static void main(final String[] args) throws IOException {
         final String tstname = CLCommandQueueTest.class.getName();
         org.junit.runner.JUnitCore.main(tstname);
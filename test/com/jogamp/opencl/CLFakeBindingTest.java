@@ -0,0 +1,320 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl;
+
+import com.jogamp.opencl.CLEvent.CommandType;
+import com.jogamp.opencl.CLEvent.ExecutionStatus;
+import com.jogamp.opencl.CLEvent.ProfilingCommand;
+import com.jogamp.opencl.CLImageFormat.ChannelOrder;
+import com.jogamp.opencl.CLImageFormat.ChannelType;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.impl.CLFakeBinding;
+import com.jogamp.opencl.llb.CL;
+import com.jogamp.opencl.spi.CLInfoAccessor;
+import com.jogamp.opencl.util.CLDeviceProfiler;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the high level bindings against the fake binding, runs without OpenCL driver.
+ * The binding is installed once per JVM, the build forks a JVM per test class.
+ */
+public class CLFakeBindingTest {
+
+    private static final String SOURCE =
+              "kernel void scale(global float* data, float factor, int n) { }\n"
+            + "__kernel void empty(void) { }\n";
+
+    private static CLFakeBinding fake;
+
+    @BeforeClass
+    public static void install() {
+        fake = CLFakeBinding.install(2);
+    }
+
+    @Test
+    public void platformTest() {
+        assertTrue(CLPlatform.isAvailable());
+        final CLPlatform platform = CLPlatform.getDefault();
+        assertEquals(CLFakeBinding.PLATFORM_NAME, platform.getName());
+        assertEquals(2, platform.listCLDevices().length);
+        final CLDevice device = platform.listCLDevices()[0];
+        assertEquals(CLDevice.Type.CPU, device.getType());
+        assertEquals(3, device.getMaxWorkItemDimensions());
+        assertTrue(device.getMaxWorkGroupSize() > 0);
+    }
+
+    @Test
+    public void profilerTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault());
+        try{
+            final CLDeviceProfiler profiler = CLDeviceProfiler.create(null).setCalibrationTime(1, TimeUnit.MILLISECONDS);
+            final CLDevice device = context.getMaxFlopsDevice(profiler);
+            assertNotNull(device);
+            profiler.profile(context.getDevices()[0]);
+
+            // profiling runs on a temporary context, the devices still belong to the profiled context
+            for (final CLDevice contextDevice : context.getDevices()) {
+                assertSame(context, contextDevice.getContext());
+                final CLCommandQueue queue = contextDevice.createCommandQueue();
+                queue.finish();
+                queue.release();
+            }
+        }finally{
+            context.release();
+        }
+    }
+
+    /**
+     * Records a device snapshot from constant values, as if it had been taken on a previous run.
+     */
+    private static CLInfoSnapshot recordSnapshot(final long computeUnits) {
+        final CLInfoSnapshot.Recorder recorder = new CLInfoSnapshot.Recorder(new CLInfoAccessor() {
+            @Override
+            public long getLong(final int key) {
+                return key == CL.CL_DEVICE_MAX_COMPUTE_UNITS ? computeUnits : 256;
+            }
+            @Override
+            public long getUInt32Long(final int key) {
+                return 0;
+            }
+            @Override
+            public String getString(final int key) {
+                return CLFakeBinding.DEVICE_NAME;
+            }
+            @Override
+            public int[] getInts(final int key, final int n) {
+                return new int[n];
+            }
+        }, true, CL.CL_DEVICE_NAME);
+        recorder.getLong(CL.CL_DEVICE_MAX_COMPUTE_UNITS);
+        recorder.getLong(CL.CL_DEVICE_MAX_WORK_GROUP_SIZE);
+        return recorder.toSnapshot(Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void snapshotTest() {
+        final CLDevice[] devices = CLPlatform.getDefault().listCLDevices();
+        final CLDevice device = devices[devices.length-1];
+
+        // a warm start restores without any native call
+        final CLInfoSnapshot snapshot = recordSnapshot(42);
+        fake.resetStatistics();
+        device.restore(snapshot);
+        try{
+            assertEquals(42, device.getMaxComputeUnits());
+            assertEquals(256, device.getMaxWorkGroupSize());
+            assertEquals(0, fake.getCallCount("clGetDeviceInfo"));
+        }finally{
+            // the registry is process wide, don't leak the snapshot into other tests
+            new CLSnapshotAccessor(snapshot, device.ID, CLSnapshotAccessor.DEVICES).forget();
+        }
+
+        // other objects of the same device share the snapshot until it is forgotten
+        final CLSnapshotAccessor.Registry registry = new CLSnapshotAccessor.Registry();
+        final CLSnapshotAccessor first = new CLSnapshotAccessor(snapshot, 7, registry);
+        final CLSnapshotAccessor second = new CLSnapshotAccessor(snapshot, 7, registry);
+        final CLSnapshotAccessor other = new CLSnapshotAccessor(snapshot, 8, registry);
+        first.restore(snapshot);
+        assertSame(snapshot, second.current());
+        assertNull(other.current());
+
+        // e.g. a released sub device, the ID may be reused by the implementation
+        first.forget();
+        assertNull(second.current());
+        assertNull(new CLSnapshotAccessor(snapshot, 7, registry).current());
+
+        final CLInfoSnapshot replaced = recordSnapshot(4);
+        new CLSnapshotAccessor(snapshot, 7, registry).restore(replaced);
+        assertSame(replaced, first.current());
+        assertSame(replaced, second.current());
+        assertEquals(4, second.getLong(CL.CL_DEVICE_MAX_COMPUTE_UNITS));
+    }
+
+    @Test
+    public void bindingVersionTest() {
+        final CLDevice device = CLPlatform.getDefault().listCLDevices()[0];
+        try{
+            // devices newer than 2.0 use the 2.0 binding, e.g. for partitioning and migration
+            fake.setDeviceVersion("OpenCL 3.0 JOCL fake");
+            assertTrue(device.getVersion().isAtLeast(CLVersion.CL_2_1));
+            assertTrue(CLPlatform.getBindingVersion(device.getVersion()).isEqual(CLVersion.CL_2_0));
+            fake.setDeviceVersion("OpenCL 2.1 JOCL fake");
+            assertTrue(CLPlatform.getBindingVersion(device.getVersion()).isEqual(CLVersion.CL_2_0));
+            fake.setDeviceVersion("OpenCL 2.0 JOCL fake");
+            assertTrue(CLPlatform.getBindingVersion(device.getVersion()).isEqual(CLVersion.CL_2_0));
+            fake.setDeviceVersion("OpenCL 1.2 JOCL fake");
+            assertTrue(CLPlatform.getBindingVersion(device.getVersion()).isEqual(CLVersion.CL_1_2));
+        }finally{
+            fake.setDeviceVersion("OpenCL 1.1 JOCL fake");
+        }
+        assertTrue(CLPlatform.getBindingVersion(device.getVersion()).isEqual(CLVersion.CL_1_1));
+    }
+
+    @Test
+    public void bufferTest() {
+        final CLContext context = CLContext.create();
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLBuffer<FloatBuffer> a = context.createFloatBuffer(1024, Mem.READ_WRITE);
+            final CLBuffer<FloatBuffer> b = context.createFloatBuffer(1024, Mem.READ_WRITE);
+            for (int i = 0; i < 1024; i++) {
+                a.getBuffer().put(i, i);
+            }
+            queue.putWriteBuffer(a, true).putCopyBuffer(a, b).putReadBuffer(b, true);
+            for (int i = 0; i < 1024; i++) {
+                assertEquals(i, b.getBuffer().get(i), 0);
+            }
+        }finally{
+            context.release();
+        }
+        assertEquals(fake.getObjectCounts().toString(), 0, fake.getObjectCount());
+    }
+
+    @Test
+    public void imageFormatTest() {
+        final CLContext context = CLContext.create();
+        try{
+            // every format once, each read from its own slot of the native array
+            final CLImageFormat[] formats2d = context.getSupportedImage2dFormats();
+            assertEquals(5, formats2d.length);
+            assertEquals(new HashSet<CLImageFormat>(Arrays.asList(
+                    new CLImageFormat(ChannelOrder.RGBA, ChannelType.FLOAT), new CLImageFormat(ChannelOrder.RGBA, ChannelType.UNORM_INT8),
+                    new CLImageFormat(ChannelOrder.RGBA, ChannelType.HALF_FLOAT), new CLImageFormat(ChannelOrder.BGRA, ChannelType.UNORM_INT8),
+                    new CLImageFormat(ChannelOrder.R, ChannelType.FLOAT))),
+                new HashSet<CLImageFormat>(Arrays.asList(formats2d)));
+
+            final CLImageFormat[] formats3d = context.getSupportedImage3dFormats(Mem.READ_ONLY);
+            assertEquals(2, formats3d.length);
+            assertEquals(new HashSet<CLImageFormat>(Arrays.asList(
+                    new CLImageFormat(ChannelOrder.RGBA, ChannelType.FLOAT), new CLImageFormat(ChannelOrder.RGBA, ChannelType.UNORM_INT8))),
+                new HashSet<CLImageFormat>(Arrays.asList(formats3d)));
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void kernelTest() {
+        final CLContext context = CLContext.create();
+        try{
+            final CLProgram program = context.createProgram(SOURCE).build();
+            assertTrue(program.isExecutable());
+            assertEquals(2, program.createCLKernels().size());
+
+            final CLKernel kernel = program.createCLKernel("scale");
+            assertEquals(3, kernel.numArgs);
+            final CLBuffer<?> buffer = context.createBuffer(64, Mem.READ_WRITE);
+
+            fake.resetStatistics();
+            kernel.putArg(buffer).putArg(2.0f).putArg(16);
+            assertEquals(3, fake.getCallCount("clSetKernelArg"));
+
+            try{
+                kernel.setArg(3, 1);
+                fail("expected exception");
+            }catch(final CLException ex) {
+                assertEquals(CL.CL_INVALID_ARG_INDEX, ex.errorcode);
+            }
+            try{
+                program.createCLKernel("missing");
+                fail("expected exception");
+            }catch(final CLException ex) {
+                assertEquals(CL.CL_INVALID_KERNEL_NAME, ex.errorcode);
+            }
+        }finally{
+            context.release();
+        }
+        assertEquals(fake.getObjectCounts().toString(), 0, fake.getObjectCount());
+    }
+
+    @Test
+    public void profilingTest() {
+        final CLContext context = CLContext.create();
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue(CLCommandQueue.Mode.PROFILING_MODE);
+            final CLKernel kernel = context.createProgram(SOURCE).build().createCLKernel("empty");
+
+            fake.setCommandDuration(5, TimeUnit.MILLISECONDS);
+            final CLEventList events = new CLEventList(1);
+            queue.put1DRangeKernel(kernel, 0, 1024, 0, events);
+            fake.setCommandDuration(0, TimeUnit.MILLISECONDS);
+
+            final CLEvent event = events.getEvent(0);
+            assertEquals(CommandType.NDRANGE_KERNEL, event.getType());
+            assertEquals(ExecutionStatus.COMPLETE, event.getStatus());
+            final long time = event.getProfilingInfo(ProfilingCommand.END) - event.getProfilingInfo(ProfilingCommand.START);
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(5), time);
+            events.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void userEventTest() throws InterruptedException {
+        final CLContext context = CLContext.create();
+        try{
+            final CLUserEvent event = CLUserEvent.create(context);
+            assertEquals(ExecutionStatus.SUBMITTED, event.getStatus());
+
+            final AtomicInteger status = new AtomicInteger(Integer.MIN_VALUE);
+            event.registerCallback(new CLEventListener() {
+                @Override
+                public void eventStateChanged(final CLEvent e, final int s) {
+                    status.set(s);
+                }
+            });
+            assertEquals(Integer.MIN_VALUE, status.get());
+
+            final CLEventList events = new CLEventList(event);
+            final Thread waiter = new Thread() {
+                @Override
+                public void run() {
+                    try{
+                        Thread.sleep(50);
+                    }catch(final InterruptedException ex) {
+                        return;
+                    }
+                    event.setComplete();
+                }
+            };
+            waiter.start();
+            events.waitForEvents();
+            waiter.join();
+
+            assertEquals(ExecutionStatus.COMPLETE, event.getStatus());
+            assertEquals(CL.CL_COMPLETE, status.get());
+            event.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void releaseTest() {
+        final CL cl = fake.getBinding();
+        final CLContext context = CLContext.create();
+        final CLBuffer<?> buffer = context.createBuffer(64, Mem.READ_ONLY);
+        final long id = buffer.ID;
+        buffer.release();
+        assertEquals(CL.CL_INVALID_MEM_OBJECT, cl.clReleaseMemObject(id));
+        context.release();
+        assertEquals(fake.getObjectCounts().toString(), 0, fake.getObjectCount());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void reinstallTest() {
+        CLFakeBinding.install();
+    }
+
+}
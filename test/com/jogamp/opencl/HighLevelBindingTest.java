@@ -39,16 +39,29 @@ import com.jogamp.opencl.CLDevice.GlobalMemCacheType;
 import com.jogamp.opencl.CLDevice.LocalMemType;
 import com.jogamp.opencl.CLDevice.Type;
 import com.jogamp.opencl.CLDevice.Capabilities;
+import com.jogamp.opencl.impl.CLTLAccessorFactory;
+import com.jogamp.opencl.impl.CLTLInfoAccessor;
 import com.jogamp.opencl.llb.CL;
 import com.jogamp.opencl.test.util.MiscUtils;
 import com.jogamp.opencl.test.util.UITestCase;
-
+import com.jogamp.opencl.util.CLDeviceFilters;
+import com.jogamp.opencl.util.CLDeviceProfile;
+import com.jogamp.opencl.util.CLDeviceProfile.Metric;
+import com.jogamp.opencl.util.CLDeviceProfiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.FixMethodOrder;
@@ -222,6 +235,175 @@ public class HighLevelBindingTest extends UITestCase {
         }
     }
 
+    @Test
+    public void snapshotTest() throws IOException, ClassNotFoundException {
+
+        out.println(" - - - highLevelTest; info snapshots - - - ");
+
+        final CLPlatform platform = CLPlatform.getDefault();
+        final CLDevice device = platform.listCLDevices()[0];
+
+        final Map<String, String> liveProperties = device.getProperties();
+        final String name = device.getName();
+        final long maxMemAlloc = device.getMaxMemAllocSize();
+        final int[] maxWorkItemSizes = device.getMaxWorkItemSizes();
+
+        final CLInfoSnapshot snapshot = device.snapshot();
+        assertTrue(snapshot.isDeviceSnapshot());
+        assertEquals(name, snapshot.getName());
+        assertSame(snapshot, device.snapshot());
+        assertSame(snapshot, device.getSnapshot());
+
+        // getters are served from the snapshot, new device objects with the same ID share it
+        assertEquals(liveProperties, snapshot.getProperties());
+        assertEquals(name, device.getName());
+        assertEquals(maxMemAlloc, device.getMaxMemAllocSize());
+        assertArrayEquals(maxWorkItemSizes, device.getMaxWorkItemSizes());
+        assertSame(snapshot, platform.listCLDevices()[0].getSnapshot());
+
+        // availability is queried on every call
+        assertFalse(snapshot.contains(CL.CL_DEVICE_AVAILABLE));
+        assertTrue(device.isAvailable());
+
+        // warm start from a serialized snapshot
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        oos.writeObject(snapshot);
+        oos.close();
+        final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final CLInfoSnapshot restored = (CLInfoSnapshot)ois.readObject();
+        ois.close();
+
+        assertEquals(snapshot.getProperties(), restored.getProperties());
+        device.restore(restored);
+        assertSame(restored, device.getSnapshot());
+        assertEquals(name, device.getName());
+        assertEquals(maxMemAlloc, device.getMaxMemAllocSize());
+
+        final CLInfoSnapshot platformSnapshot = platform.snapshot();
+        assertFalse(platformSnapshot.isDeviceSnapshot());
+        assertEquals(platform.getName(), platformSnapshot.getName());
+        assertEquals(platform.getProperties(), platformSnapshot.getProperties());
+        try{
+            device.restore(platformSnapshot);
+            fail("restored platform snapshot on device");
+        }catch(final IllegalArgumentException expected) { }
+
+        out.println(snapshot);
+        out.println(platformSnapshot);
+    }
+
+    @Test
+    public void infoAccessorAllocationTest() {
+
+        out.println(" - - - highLevelTest; info query allocations - - - ");
+
+        final CLPlatform platform = CLPlatform.getDefault();
+        final CLDevice device = platform.listCLDevices()[0];
+        final CLTLInfoAccessor accessor = (CLTLInfoAccessor)new CLTLAccessorFactory().createDeviceInfoAccessor(platform.getCLBinding(), device.ID);
+
+        // interned values are returned as the same instance
+        final String name = accessor.getString(CL.CL_DEVICE_NAME);
+        assertSame(name, accessor.getString(CL.CL_DEVICE_NAME));
+        assertEquals(device.getName(), name);
+
+        final StringBuilder builder = new StringBuilder(1024);
+        assertEquals(name.length(), accessor.getString(CL.CL_DEVICE_NAME, builder));
+        assertEquals(name, builder.toString());
+
+        final int[] sizes = new int[3];
+        assertArrayEquals(accessor.getInts(CL.CL_DEVICE_MAX_WORK_ITEM_SIZES, 3), accessor.getInts(CL.CL_DEVICE_MAX_WORK_ITEM_SIZES, sizes));
+
+        // extensions are usually larger than the initial thread local buffer
+        final String extensions = accessor.getString(CL.CL_DEVICE_EXTENSIONS);
+        assertSame(extensions, accessor.getString(CL.CL_DEVICE_EXTENSIONS));
+
+        final java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if(!(mx instanceof com.sun.management.ThreadMXBean)) {
+            out.println("thread allocation counter not available");
+            return;
+        }
+        final com.sun.management.ThreadMXBean threadMX = (com.sun.management.ThreadMXBean)mx;
+        final long thread = Thread.currentThread().getId();
+        final int queries = 10000;
+
+        long start = threadMX.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < queries; i++) {
+            accessor.getInts(CL.CL_DEVICE_MAX_WORK_ITEM_SIZES, 3);
+        }
+        final double allocatingInts = (threadMX.getThreadAllocatedBytes(thread)-start) / (double)queries;
+
+        start = threadMX.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < queries; i++) {
+            accessor.getInts(CL.CL_DEVICE_MAX_WORK_ITEM_SIZES, sizes);
+        }
+        final double freeInts = (threadMX.getThreadAllocatedBytes(thread)-start) / (double)queries;
+
+        start = threadMX.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < queries; i++) {
+            builder.setLength(0);
+            accessor.getString(CL.CL_DEVICE_EXTENSIONS, builder);
+        }
+        final double freeString = (threadMX.getThreadAllocatedBytes(thread)-start) / (double)queries;
+
+        start = threadMX.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < queries; i++) {
+            accessor.getString(CL.CL_DEVICE_EXTENSIONS);
+        }
+        final double internedString = (threadMX.getThreadAllocatedBytes(thread)-start) / (double)queries;
+
+        out.println("bytes per query; getInts(key, n): "+allocatingInts+" getInts(key, dest): "+freeInts
+                   +" getString(key, builder): "+freeString+" interned getString(key): "+internedString);
+
+        assertTrue(freeInts < allocatingInts);
+        assertTrue(freeString < allocatingInts);
+        assertTrue(internedString < allocatingInts);
+    }
+
+    @Test
+    public void deviceProfileTest() throws IOException {
+
+        out.println(" - - - highLevelTest; device profiles - - - ");
+
+        final File directory = File.createTempFile("jocl-profiles", "");
+        assertTrue(directory.delete());
+
+        final CLPlatform platform = CLPlatform.getDefault();
+        final CLDevice[] devices = platform.listCLDevices();
+
+        final CLDeviceProfiler profiler = CLDeviceProfiler.create(directory).setCalibrationTime(5, TimeUnit.MILLISECONDS);
+        final CLDeviceProfile profile = profiler.getProfile(devices[0]);
+        out.println(profile);
+
+        assertTrue(profile.matches(devices[0]));
+        assertTrue(profile.getMemoryBandwidth() > 0);
+        assertTrue(profile.getFlops() > 0);
+        assertTrue(profile.getLaunchLatency() > 0);
+        assertTrue(profile.getTransferRate() > 0);
+        assertSame(profile, profiler.getProfile(devices[0]));
+
+        // stored profiles are loaded instead of measured again
+        final CLDeviceProfile loaded = CLDeviceProfiler.create(directory).getProfile(devices[0]);
+        assertEquals(profile.getKey(), loaded.getKey());
+        assertEquals(profile.getFlops(), loaded.getFlops(), 0);
+        assertEquals(profile.getLaunchLatency(), loaded.getLaunchLatency());
+
+        final CLDevice[] ranked = profiler.rank(devices, Metric.FLOPS);
+        assertEquals(devices.length, ranked.length);
+        assertEquals(ranked[0], platform.getMaxFlopsDevice(profiler));
+        for (int i = 1; i < ranked.length; i++) {
+            assertTrue(profiler.getProfile(ranked[i-1]).getFlops() >= profiler.getProfile(ranked[i]).getFlops());
+        }
+
+        assertEquals(devices.length, platform.listCLDevices(CLDeviceFilters.profile(profiler, Metric.FLOPS, 0)).length);
+        assertEquals(0, platform.listCLDevices(CLDeviceFilters.profile(profiler, Metric.FLOPS, Double.MAX_VALUE)).length);
+
+        for (final File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
     @Test
     public void createContextTest() {
 
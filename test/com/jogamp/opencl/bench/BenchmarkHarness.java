@@ -0,0 +1,346 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.util.Filter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal benchmark harness measuring the average time and allocation per operation.
+ * <p>
+ * Every benchmark is warmed up, then measured in several iterations. The number of operations per iteration is
+ * calibrated to fill the iteration time. Results are printed and written as JSON (or CSV if the output file
+ * ends with <code>.csv</code>).
+ * </p>
+ * Configured by system properties:
+ * <ul>
+ * <li><code>jocl.bench.warmup</code> warmup time per benchmark in ms (default 500)</li>
+ * <li><code>jocl.bench.time</code> time per measurement iteration in ms (default 200)</li>
+ * <li><code>jocl.bench.iterations</code> number of measurement iterations (default 5)</li>
+ * <li><code>jocl.bench.filter</code> regular expression selecting benchmarks by name (default all)</li>
+ * <li><code>jocl.bench.out</code> output file (default none)</li>
+ * </ul>
+ * The benchmark classes select their device with {@link #selectDevice}, print the throughput with {@link Rate}s
+ * and finish with {@link #writeResults(String[])}.
+ */
+public class BenchmarkHarness {
+
+    private final long warmupNanos;
+    private final long iterationNanos;
+    private final int iterations;
+    private final Pattern filter;
+    private final PrintStream log;
+
+    private final List<Result> results = new ArrayList<Result>();
+    private final ThreadMXBean threadMX = ManagementFactory.getThreadMXBean();
+
+    public BenchmarkHarness(final long warmupMillis, final long iterationMillis, final int iterations, final String filter, final PrintStream log) {
+        if(iterations <= 0) {
+            throw new IllegalArgumentException("iterations must be positive but was "+iterations);
+        }
+        this.warmupNanos = warmupMillis * 1000000;
+        this.iterationNanos = iterationMillis * 1000000;
+        this.iterations = iterations;
+        this.filter = filter == null ? null : Pattern.compile(filter);
+        this.log = log;
+    }
+
+    public static BenchmarkHarness fromSystemProperties() {
+        return new BenchmarkHarness(Long.getLong("jocl.bench.warmup", 500),
+                                    Long.getLong("jocl.bench.time", 200),
+                                    Integer.getInteger("jocl.bench.iterations", 5),
+                                    System.getProperty("jocl.bench.filter"), System.out);
+    }
+
+    /**
+     * Returns the fastest device of the default platform.
+     */
+    public static CLDevice selectDevice() {
+        return selectDevice(null);
+    }
+
+    /**
+     * Returns the fastest device accepted by the given filter of the first platform having one,
+     * or the fastest device of the default platform if no device is accepted. Prints the selected device.
+     */
+    @SuppressWarnings("unchecked")
+    public static CLDevice selectDevice(final Filter<CLDevice> preferred) {
+        CLDevice device = null;
+        if(preferred != null) {
+            for (final CLPlatform platform : CLPlatform.listCLPlatforms()) {
+                device = platform.getMaxFlopsDevice(preferred);
+                if(device != null) {
+                    break;
+                }
+            }
+        }
+        if(device == null) {
+            device = CLPlatform.getDefault().getMaxFlopsDevice();
+        }
+        System.out.println("device: "+device);
+        return device;
+    }
+
+    /**
+     * Returns true if the benchmark with the given name is selected by the filter.
+     */
+    public boolean isSelected(final String name) {
+        return filter == null || filter.matcher(name).find();
+    }
+
+    /**
+     * Runs the given benchmark if it is selected and records the result.
+     */
+    public Result run(final String name, final Benchmark benchmark) {
+        if(!isSelected(name)) {
+            return null;
+        }
+
+        // warmup
+        long ops = 1;
+        final long warmupEnd = System.nanoTime() + warmupNanos;
+        do{
+            final long time = batch(benchmark, ops);
+            ops = calibrate(ops, time);
+        }while(System.nanoTime() < warmupEnd);
+
+        final double[] nanosPerOp = new double[iterations];
+        long allocated = 0;
+        long totalOps = 0;
+        for (int i = 0; i < iterations; i++) {
+            final long allocStart = allocatedBytes();
+            final long time = batch(benchmark, ops);
+            allocated += allocatedBytes() - allocStart;
+            totalOps += ops;
+            nanosPerOp[i] = time / (double)ops;
+            ops = calibrate(ops, time);
+        }
+
+        final boolean tracked = threadMX instanceof com.sun.management.ThreadMXBean;
+        final Result result = new Result(name, nanosPerOp, tracked ? allocated / (double)totalOps : -1);
+        results.add(result);
+        if(log != null) {
+            log.println(result);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the given benchmark if it is selected, records the result and prints the throughputs
+     * of the work done by one operation.
+     */
+    public Result run(final String name, final Benchmark benchmark, final Rate... rates) {
+        final Result result = run(name, benchmark);
+        if(result != null && log != null) {
+            final StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-48s", name));
+            for (final Rate rate : rates) {
+                line.append(String.format(Locale.ROOT, " %12.3f %s", rate.amount * rate.scale / result.getMean(), rate.unit));
+            }
+            log.println(line);
+        }
+        return result;
+    }
+
+    private long batch(final Benchmark benchmark, final long ops) {
+        final long start = System.nanoTime();
+        for (long i = 0; i < ops; i++) {
+            benchmark.run();
+        }
+        benchmark.sync();
+        return System.nanoTime() - start;
+    }
+
+    private long calibrate(final long ops, final long time) {
+        if(time <= 0) {
+            return ops * 2;
+        }
+        // converge to the iteration time, grow at most by a factor of 4 per step
+        final double target = ops * (iterationNanos / (double)time);
+        return Math.max(1, Math.min(ops * 4, (long)target));
+    }
+
+    private long allocatedBytes() {
+        if(threadMX instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean)threadMX).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Writes all results to the file given as first argument or by the <code>jocl.bench.out</code> property, if any.
+     */
+    public void writeResults(final String[] args) throws IOException {
+        final String out = args.length > 0 ? args[0] : System.getProperty("jocl.bench.out");
+        if(out != null) {
+            write(new File(out));
+            System.out.println("results written to "+out);
+        }
+    }
+
+    /**
+     * Writes all results to the given file, as CSV if the file name ends with <code>.csv</code>, as JSON otherwise.
+     */
+    public void write(final File file) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try{
+            if(file.getName().endsWith(".csv")) {
+                writeCSV(writer);
+            }else{
+                writeJSON(writer);
+            }
+        }finally{
+            writer.close();
+        }
+    }
+
+    public void writeJSON(final Writer writer) throws IOException {
+        writer.write("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            final Result result = results.get(i);
+            writer.write(String.format(Locale.ROOT,
+                    "  {\"benchmark\": \"%s\", \"mode\": \"avgt\", \"unit\": \"ns/op\", \"score\": %.3f, \"error\": %.3f,"
+                  + " \"min\": %.3f, \"max\": %.3f, \"iterations\": %d, \"allocBytesPerOp\": %.1f}%s\n",
+                    result.name.replace("\\", "\\\\").replace("\"", "\\\""), result.getMean(), result.getStdDev(),
+                    result.getMin(), result.getMax(), result.nanosPerOp.length, result.allocPerOp,
+                    i < results.size()-1 ? "," : ""));
+        }
+        writer.write("]\n");
+    }
+
+    public void writeCSV(final Writer writer) throws IOException {
+        writer.write("benchmark,score_ns_per_op,error,min,max,iterations,alloc_bytes_per_op\n");
+        for (final Result result : results) {
+            writer.write(String.format(Locale.ROOT, "\"%s\",%.3f,%.3f,%.3f,%.3f,%d,%.1f\n",
+                    result.name.replace("\"", "\"\""), result.getMean(), result.getStdDev(),
+                    result.getMin(), result.getMax(), result.nanosPerOp.length, result.allocPerOp));
+        }
+    }
+
+    /**
+     * A benchmarked operation.
+     */
+    public static abstract class Benchmark {
+
+        /**
+         * Runs one operation.
+         */
+        public abstract void run();
+
+        /**
+         * Called after every batch of operations and included in the measured time,
+         * e.g. to wait for enqueued commands.
+         */
+        public void sync() { }
+
+    }
+
+    /**
+     * Work done by one operation of a benchmark, printed as throughput.
+     */
+    public static final class Rate {
+
+        private final double amount;
+        private final double scale;
+        private final String unit;
+
+        private Rate(final double amount, final double scale, final String unit) {
+            this.amount = amount;
+            this.scale = scale;
+            this.unit = unit;
+        }
+
+        public static Rate gigaBytes(final double bytes) {
+            return new Rate(bytes, 1, "GB/s");
+        }
+
+        public static Rate gigaFlops(final double flops) {
+            return new Rate(flops, 1, "GFlop/s");
+        }
+
+        public static Rate megaElements(final double elements) {
+            return new Rate(elements, 1000, "Melem/s");
+        }
+
+        public static Rate megaPixels(final double pixels) {
+            return new Rate(pixels, 1000, "MPixel/s");
+        }
+    }
+
+    public static final class Result {
+
+        private final String name;
+        private final double[] nanosPerOp;
+        private final double allocPerOp;
+
+        private Result(final String name, final double[] nanosPerOp, final double allocPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.allocPerOp = allocPerOp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getMean() {
+            double sum = 0;
+            for (final double value : nanosPerOp) {
+                sum += value;
+            }
+            return sum / nanosPerOp.length;
+        }
+
+        public double getStdDev() {
+            final double mean = getMean();
+            double sum = 0;
+            for (final double value : nanosPerOp) {
+                sum += (value-mean)*(value-mean);
+            }
+            return nanosPerOp.length < 2 ? 0 : Math.sqrt(sum / (nanosPerOp.length-1));
+        }
+
+        public double getMin() {
+            final double[] sorted = nanosPerOp.clone();
+            Arrays.sort(sorted);
+            return sorted[0];
+        }
+
+        public double getMax() {
+            final double[] sorted = nanosPerOp.clone();
+            Arrays.sort(sorted);
+            return sorted[sorted.length-1];
+        }
+
+        /**
+         * Returns the allocated bytes per operation or a negative value if allocations can not be measured.
+         */
+        public double getAllocPerOp() {
+            return allocPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-48s %14.1f ns/op  +- %10.1f  %10.1f B/op", name, getMean(), getStdDev(), allocPerOp);
+        }
+    }
+
+}
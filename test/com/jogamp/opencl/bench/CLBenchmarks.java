@@ -0,0 +1,236 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Measures the overhead of the binding and of common enqueue operations against the default platform.
+ * <p>
+ * Run with <code>ant benchmark.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * The harness is not part of the JUnit run since results depend on the machine and the OpenCL implementation.
+ * </p>
+ */
+public class CLBenchmarks {
+
+    private static final String PROGRAM_SOURCE =
+              "kernel void args(global float* buffer, int i, float f, long l) {\n"
+            + "    if(get_global_id(0) == 0 && i < 0) buffer[0] = f+l;\n"
+            + "}\n"
+            + "kernel void empty() { }\n";
+
+    private static final int[] TRANSFER_SIZES = new int[] {4*1024, 64*1024, 1024*1024, 16*1024*1024};
+
+    private CLBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+
+        System.out.println("platform: "+CLPlatform.getDefault());
+
+        final CLContext context = CLContext.create(BenchmarkHarness.selectDevice());
+        try{
+            final CLDevice device = context.getDevices()[0];
+            final CLCommandQueue queue = device.createCommandQueue();
+
+            runKernelArgBenchmarks(harness, context);
+            runEnqueueBenchmarks(harness, context, queue);
+            runTransferBenchmarks(harness, context, queue);
+            runEventBenchmarks(harness, queue);
+            runInfoBenchmarks(harness, device);
+            runBuildBenchmarks(harness, context);
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    private static void runKernelArgBenchmarks(final BenchmarkHarness harness, final CLContext context) {
+
+        final CLProgram program = context.createProgram(PROGRAM_SOURCE).build();
+        final CLKernel kernel = program.createCLKernel("args");
+        final CLBuffer<?> buffer = context.createBuffer(64, Mem.READ_WRITE);
+
+        harness.run("kernel.setArg.int", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.setArg(1, 42);
+            }
+        });
+        harness.run("kernel.setArg.float", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.setArg(2, 4.2f);
+            }
+        });
+        harness.run("kernel.setArg.long", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.setArg(3, 42L);
+            }
+        });
+        harness.run("kernel.setArg.buffer", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.setArg(0, buffer);
+            }
+        });
+        harness.run("kernel.putArg.all", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.rewind().putArg(buffer).putArg(42).putArg(4.2f).putArg(42L);
+            }
+        });
+        harness.run("kernel.setArgs.boxed", new Benchmark() {
+            @Override
+            public void run() {
+                kernel.setArgs(buffer, 42, 4.2f, 42L);
+            }
+        });
+
+        program.release();
+    }
+
+    private static void runEnqueueBenchmarks(final BenchmarkHarness harness, final CLContext context, final CLCommandQueue queue) {
+
+        final CLProgram program = context.createProgram(PROGRAM_SOURCE).build();
+        final CLKernel empty = program.createCLKernel("empty");
+
+        harness.run("queue.putNDRangeKernel.enqueue", new Benchmark() {
+            @Override
+            public void run() {
+                queue.put1DRangeKernel(empty, 0, 1, 0);
+            }
+            @Override
+            public void sync() {
+                queue.finish();
+            }
+        });
+        harness.run("queue.putNDRangeKernel.roundtrip", new Benchmark() {
+            @Override
+            public void run() {
+                queue.put1DRangeKernel(empty, 0, 1, 0);
+                queue.finish();
+            }
+        });
+
+        program.release();
+    }
+
+    private static void runTransferBenchmarks(final BenchmarkHarness harness, final CLContext context, final CLCommandQueue queue) {
+
+        for (final int size : TRANSFER_SIZES) {
+            if(size > context.getDevices()[0].getMaxMemAllocSize()) {
+                continue;
+            }
+            final CLBuffer<ByteBuffer> buffer = context.createByteBuffer(size, Mem.READ_WRITE);
+            final String suffix = size >= 1024*1024 ? (size/(1024*1024))+"M" : (size/1024)+"K";
+
+            harness.run("queue.putWriteBuffer."+suffix, new Benchmark() {
+                @Override
+                public void run() {
+                    queue.putWriteBuffer(buffer, true);
+                }
+            });
+            harness.run("queue.putReadBuffer."+suffix, new Benchmark() {
+                @Override
+                public void run() {
+                    queue.putReadBuffer(buffer, true);
+                }
+            });
+            buffer.release();
+        }
+    }
+
+    private static void runEventBenchmarks(final BenchmarkHarness harness, final CLCommandQueue queue) {
+
+        harness.run("events.create", new Benchmark() {
+            @Override
+            public void run() {
+                new CLEventList(4);
+            }
+        });
+
+        final CLEventList reused = new CLEventList(1);
+        harness.run("events.marker.wait", new Benchmark() {
+            @Override
+            public void run() {
+                queue.putMarker(reused);
+                reused.waitForEvents();
+                reused.release();
+            }
+        });
+        harness.run("events.marker.create.wait", new Benchmark() {
+            @Override
+            public void run() {
+                final CLEventList events = new CLEventList(1);
+                queue.putMarker(events);
+                events.waitForEvents();
+                events.release();
+            }
+        });
+    }
+
+    private static void runInfoBenchmarks(final BenchmarkHarness harness, final CLDevice device) {
+
+        // the snapshot is global for the device, so live queries have to be measured first
+        if(device.getSnapshot() == null) {
+            runInfoBenchmarks(harness, device, "live");
+        }
+        device.snapshot();
+        runInfoBenchmarks(harness, device, "snapshot");
+    }
+
+    private static void runInfoBenchmarks(final BenchmarkHarness harness, final CLDevice device, final String mode) {
+
+        harness.run("device.info."+mode+".getName", new Benchmark() {
+            @Override
+            public void run() {
+                device.getName();
+            }
+        });
+        harness.run("device.info."+mode+".getMaxWorkGroupSize", new Benchmark() {
+            @Override
+            public void run() {
+                device.getMaxWorkGroupSize();
+            }
+        });
+        harness.run("device.info."+mode+".getMaxWorkItemSizes", new Benchmark() {
+            @Override
+            public void run() {
+                device.getMaxWorkItemSizes();
+            }
+        });
+        harness.run("device.info."+mode+".getExtensions", new Benchmark() {
+            @Override
+            public void run() {
+                device.getExtensions();
+            }
+        });
+    }
+
+    private static void runBuildBenchmarks(final BenchmarkHarness harness, final CLContext context) {
+
+        harness.run("program.build", new Benchmark() {
+            @Override
+            public void run() {
+                context.createProgram(PROGRAM_SOURCE).build().release();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.fft.CLFFTPlan;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+
+/**
+ * Measures the throughput of {@link CLFFTPlan}s on the fastest device of the default platform.
+ * <p>
+ * Run with <code>ant benchmark.fft.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * Transforms run in place on device resident data and include the wait for completion. The throughput is printed
+ * in GFlop/s using the usual estimate of 5 N log2(N) flops for a complex and half of it for a real transform.
+ * </p>
+ */
+public class CLFFTBenchmarks {
+
+    private CLFFTBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice();
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+
+            // 1D transforms of about 16M complex elements in total
+            for (final int n : new int[] {256, 1024, 4096, 1000, 1024*1024}) {
+                run(harness, queue, "fft.complex.1d."+n+"x"+(16*1024*1024/n), CLFFTPlan.create1D(queue, n, 16*1024*1024/n), n, 1);
+            }
+            for (final int n : new int[] {512, 1000, 2048}) {
+                run(harness, queue, "fft.complex.2d."+n+"x"+n, CLFFTPlan.create2D(queue, n, n, 1), n*n, 1);
+            }
+            for (final int n : new int[] {1024, 1024*1024}) {
+                run(harness, queue, "fft.real.1d."+n+"x"+(16*1024*1024/n), CLFFTPlan.createReal1D(queue, n, 16*1024*1024/n), n, 0.5);
+            }
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    private static void run(final BenchmarkHarness harness, final CLCommandQueue queue, final String name,
+                            final CLFFTPlan plan, final int n, final double flopFactor) {
+        final int elements = n*plan.getBatch();
+        final CLContext context = queue.getContext();
+        final CLBuffer<FloatBuffer> in = context.createFloatBuffer(2*elements, Mem.READ_WRITE);
+        final CLBuffer<FloatBuffer> out = plan.isReal() ? context.createFloatBuffer(2*elements+2*plan.getBatch(), Mem.READ_WRITE) : in;
+        queue.putWriteBuffer(in, true);
+        try{
+            if(harness.isSelected(name)) {
+                System.out.println(name+": "+plan);
+            }
+            final double flops = flopFactor * 5.0 * elements * (Math.log(n)/Math.log(2));
+            harness.run(name, new Benchmark() {
+                @Override
+                public void run() {
+                    plan.forward(in, out);
+                }
+                @Override
+                public void sync() {
+                    queue.finish();
+                }
+            }, Rate.gigaFlops(flops));
+        }finally{
+            plan.release();
+            in.release();
+            if(out != in) {
+                out.release();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.linalg.CLGemm;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * Compares {@link CLGemm} on the fastest device of the default platform with a straightforward single threaded
+ * Java multiply in i-k-j loop order.
+ * <p>
+ * Run with <code>ant benchmark.gemm.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * Device benchmarks run on device resident matrices and include the wait for completion,
+ * autotuning runs before the first measurement. The throughput is printed in GFlop/s.
+ * </p>
+ */
+public class CLGemmBenchmarks {
+
+    private static final int[] SIZES = new int[] {128, 512, 1024};
+
+    // batches of small square matrices
+    private static final int[][] BATCHES = new int[][] {{4, 100000}, {16, 10000}};
+
+    private CLGemmBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice();
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLGemm gemm = CLGemm.create(queue);
+            System.out.println("sgemm tiling: "+gemm.getTiling(false));
+            if(device.isDoubleFPAvailable()) {
+                System.out.println("dgemm tiling: "+gemm.getTiling(true));
+            }
+            final Random random = new Random(42);
+
+            for (final int size : SIZES) {
+                final float[] a = random(random, size*size);
+                final float[] b = random(random, size*size);
+                final float[] c = new float[size*size];
+                final CLBuffer<FloatBuffer> ca = buffer(context, a);
+                final CLBuffer<FloatBuffer> cb = buffer(context, b);
+                final CLBuffer<FloatBuffer> cc = context.createFloatBuffer(size*size, Mem.READ_WRITE);
+                queue.putWriteBuffer(ca, false).putWriteBuffer(cb, true);
+                final double flops = 2.0*size*size*size;
+
+                harness.run("gemm.java.float."+size, new Benchmark() {
+                    @Override
+                    public void run() {
+                        multiply(size, a, 0, b, 0, c, 0);
+                    }
+                }, Rate.gigaFlops(flops));
+                harness.run("gemm.device.float."+size, new Benchmark() {
+                    @Override
+                    public void run() {
+                        gemm.gemm(false, false, size, size, size, 1, ca, size, cb, size, 0, cc, size);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaFlops(flops));
+                if(device.isDoubleFPAvailable()) {
+                    final CLBuffer<?> da = context.createDoubleBuffer(size*size, Mem.READ_ONLY);
+                    final CLBuffer<?> dc = context.createDoubleBuffer(size*size, Mem.READ_WRITE);
+                    queue.putWriteBuffer(da, true);
+                    harness.run("gemm.device.double."+size, new Benchmark() {
+                        @Override
+                        public void run() {
+                            gemm.gemm(false, true, size, size, size, 1, da, size, da, size, 0, dc, size);
+                        }
+                        @Override
+                        public void sync() {
+                            queue.finish();
+                        }
+                    }, Rate.gigaFlops(flops));
+                    da.release();
+                    dc.release();
+                }
+                ca.release();
+                cb.release();
+                cc.release();
+            }
+
+            for (final int[] config : BATCHES) {
+                final int size = config[0], batch = config[1], elements = size*size;
+                final float[] a = random(random, batch*elements);
+                final float[] b = random(random, batch*elements);
+                final float[] c = new float[batch*elements];
+                final CLBuffer<FloatBuffer> ca = buffer(context, a);
+                final CLBuffer<FloatBuffer> cb = buffer(context, b);
+                final CLBuffer<FloatBuffer> cc = context.createFloatBuffer(batch*elements, Mem.READ_WRITE);
+                queue.putWriteBuffer(ca, false).putWriteBuffer(cb, true);
+                final double flops = 2.0*size*size*size*batch;
+                final String name = size+"x"+size+"x"+batch;
+
+                harness.run("gemm.java.batched."+name, new Benchmark() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < batch; i++) {
+                            multiply(size, a, i*elements, b, i*elements, c, i*elements);
+                        }
+                    }
+                }, Rate.gigaFlops(flops));
+                harness.run("gemm.device.batched."+name, new Benchmark() {
+                    @Override
+                    public void run() {
+                        gemm.gemmBatched(false, false, size, size, size, 1, ca, size, elements, cb, size, elements,
+                                         0, cc, size, elements, batch);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaFlops(flops));
+                ca.release();
+                cb.release();
+                cc.release();
+            }
+            gemm.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    private static float[] random(final Random random, final int size) {
+        final float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextFloat();
+        }
+        return values;
+    }
+
+    private static CLBuffer<FloatBuffer> buffer(final CLContext context, final float[] values) {
+        final CLBuffer<FloatBuffer> buffer = context.createFloatBuffer(values.length, Mem.READ_ONLY);
+        buffer.getBuffer().put(values).rewind();
+        return buffer;
+    }
+
+    private static void multiply(final int size, final float[] a, final int offsetA, final float[] b, final int offsetB,
+                                 final float[] c, final int offsetC) {
+        for (int i = 0; i < size; i++) {
+            final int row = offsetC + i*size;
+            for (int j = 0; j < size; j++) {
+                c[row+j] = 0;
+            }
+            for (int p = 0; p < size; p++) {
+                final float x = a[offsetA + i*size + p];
+                final int rowB = offsetB + p*size;
+                for (int j = 0; j < size; j++) {
+                    c[row+j] += x*b[rowB+j];
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLImage2d;
+import com.jogamp.opencl.CLImageFormat;
+import com.jogamp.opencl.CLImageFormat.ChannelOrder;
+import com.jogamp.opencl.CLImageFormat.ChannelType;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.Filter;
+import com.jogamp.opencl.util.image.CLImageOperators;
+import com.jogamp.opencl.util.image.CLImageOperators.ColorConversion;
+import com.jogamp.opencl.util.image.CLImageOperators.Interpolation;
+import com.jogamp.opencl.util.image.CLImageOperators.Pipeline;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Measures the {@link CLImageOperators} on RGBA images on the fastest device supporting images.
+ * <p>
+ * Run with <code>ant benchmark.image.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * Operators run on device resident images and include the wait for completion, the throughput is printed in
+ * megapixels per second of the destination. The pointwise benchmarks compare a fused pipeline with one pipeline per
+ * operation, and the separable Gaussian blur with the equivalent 2D convolution.
+ * </p>
+ */
+public class CLImageBenchmarks {
+
+    private static final int WIDTH = 4096;
+    private static final int HEIGHT = 4096;
+
+    private CLImageBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice(new Filter<CLDevice>() {
+            @Override
+            public boolean accept(final CLDevice item) {
+                return item.isImageSupportAvailable();
+            }
+        });
+        if(!device.isImageSupportAvailable()) {
+            System.out.println("no device with image support");
+            return;
+        }
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLImageOperators operators = CLImageOperators.create(queue);
+            System.out.println("intermediate format: "+operators.getIntermediateFormat());
+
+            for (final ChannelType type : new ChannelType[] {ChannelType.UNORM_INT8, ChannelType.FLOAT}) {
+                final CLImageFormat format = new CLImageFormat(ChannelOrder.RGBA, type);
+                final CLImage2d<?> src = context.createImage2d(WIDTH, HEIGHT, format, Mem.READ_WRITE);
+                final CLImage2d<?> dst = context.createImage2d(WIDTH, HEIGHT, format, Mem.READ_WRITE);
+                final CLImage2d<?> half = context.createImage2d(WIDTH/2, HEIGHT/2, format, Mem.READ_WRITE);
+                final String prefix = "image."+type.name().toLowerCase(Locale.ROOT)+".";
+
+                run(harness, queue, prefix+"gaussian.separable.sigma1", operators.pipeline().gaussianBlur(1), src, dst);
+                final float[] gauss = new float[7*7];
+                for (int j = 0; j < 7; j++) {
+                    for (int i = 0; i < 7; i++) {
+                        gauss[j*7+i] = (float)Math.exp(-((i-3)*(i-3)+(j-3)*(j-3))/2.0);
+                    }
+                }
+                run(harness, queue, prefix+"gaussian.convolve7x7", operators.pipeline().convolve(gauss, 7, 7), src, dst);
+                run(harness, queue, prefix+"box.radius4", operators.pipeline().boxFilter(4, 4), src, dst);
+                run(harness, queue, prefix+"sobel", operators.pipeline().sobel(), src, dst);
+                run(harness, queue, prefix+"resize.bilinear.half", operators.pipeline().resize(WIDTH/2, HEIGHT/2, Interpolation.BILINEAR), src, half);
+                run(harness, queue, prefix+"resize.bicubic.half", operators.pipeline().resize(WIDTH/2, HEIGHT/2, Interpolation.BICUBIC), src, half);
+
+                final Pipeline[] steps = new Pipeline[] {
+                    operators.pipeline().convertColor(ColorConversion.RGB_TO_GRAY), operators.pipeline().gamma(0.45f),
+                    operators.pipeline().invert(), operators.pipeline().scale(1.5f, -0.1f)
+                };
+                final Pipeline fused = operators.pipeline().convertColor(ColorConversion.RGB_TO_GRAY).gamma(0.45f)
+                                                .invert().scale(1.5f, -0.1f);
+                run(harness, queue, prefix+"pointwise4.fused", fused, src, dst);
+                harness.run(prefix+"pointwise4.separate", new Benchmark() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < steps.length; i++) {
+                            steps[i].apply(i % 2 == 0 ? src : dst, i % 2 == 0 ? dst : src);
+                        }
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.megaPixels(WIDTH*HEIGHT));
+
+                src.release();
+                dst.release();
+                half.release();
+            }
+            operators.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    private static void run(final BenchmarkHarness harness, final CLCommandQueue queue, final String name,
+                            final Pipeline pipeline, final CLImage2d<?> src, final CLImage2d<?> dst) {
+        harness.run(name, new Benchmark() {
+            @Override
+            public void run() {
+                pipeline.apply(src, dst);
+            }
+            @Override
+            public void sync() {
+                queue.finish();
+            }
+        }, Rate.megaPixels((long)dst.width*dst.height));
+    }
+
+}
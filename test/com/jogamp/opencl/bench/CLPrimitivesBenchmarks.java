@@ -0,0 +1,126 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.CLDeviceFilters;
+import com.jogamp.opencl.util.primitives.CLPrimitives;
+import com.jogamp.opencl.util.primitives.CLPrimitives.Operator;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+/**
+ * Measures the throughput of {@link CLPrimitives} on the fastest CPU device, or the fastest device if there is no CPU device.
+ * <p>
+ * Run with <code>ant benchmark.primitives.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * Every benchmark includes the wait for completion, the throughput is printed in million elements per second.
+ * </p>
+ */
+public class CLPrimitivesBenchmarks {
+
+    private static final int[] SIZES = new int[] {64*1024, 1024*1024, 16*1024*1024};
+
+    private CLPrimitivesBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+
+        final CLDevice device = BenchmarkHarness.selectDevice(CLDeviceFilters.type(CLDevice.Type.CPU));
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLPrimitives primitives = CLPrimitives.create(queue).prepare();
+
+            for (final int size : SIZES) {
+                if(size*4L*2 > device.getMaxMemAllocSize()) {
+                    continue;
+                }
+                final String suffix = size >= 1024*1024 ? (size/(1024*1024))+"M" : (size/1024)+"K";
+                final Random random = new Random(42);
+
+                final CLBuffer<IntBuffer> ints = context.createIntBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<IntBuffer> intsOut = context.createIntBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<FloatBuffer> floats = context.createFloatBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<FloatBuffer> floatsOut = context.createFloatBuffer(size, Mem.READ_WRITE);
+                for (int i = 0; i < size; i++) {
+                    ints.getBuffer().put(i, random.nextInt(1000));
+                    floats.getBuffer().put(i, random.nextFloat());
+                }
+                queue.putWriteBuffer(ints, false).putWriteBuffer(floats, true);
+                final CLBuffer<IntBuffer> bins = context.createIntBuffer(256, Mem.READ_WRITE);
+
+                harness.run("primitives.reduce.int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.reduce(ints, size, Operator.SUM);
+                    }
+                }, Rate.megaElements(size));
+                harness.run("primitives.reduce.float."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.reduce(floats, size, Operator.MAX);
+                    }
+                }, Rate.megaElements(size));
+                harness.run("primitives.scan.int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.exclusiveScan(ints, intsOut, size, Operator.SUM);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.megaElements(size));
+                harness.run("primitives.scan.float."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.inclusiveScan(floats, floatsOut, size, Operator.SUM);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.megaElements(size));
+                harness.run("primitives.compact.int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.compact(ints, intsOut, size, "x < 500");
+                    }
+                }, Rate.megaElements(size));
+                harness.run("primitives.histogram.float."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        primitives.histogram(floats, size, bins, 0, 1);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.megaElements(size));
+
+                ints.release();
+                intsOut.release();
+                floats.release();
+                floatsOut.release();
+                bins.release();
+            }
+            primitives.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.primitives.CLRadixSort;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the throughput of {@link CLRadixSort} with sorting on the host, using the fastest device of the default platform.
+ * <p>
+ * Run with <code>ant benchmark.sort.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * The host sorts use <code>Arrays.parallelSort</code> if the runtime provides it and <code>Arrays.sort</code> otherwise,
+ * every host iteration includes the copy of the unsorted keys. The device sorts run in place on device resident data,
+ * which does not change the work of a LSD radix sort, and include the wait for completion.
+ * The throughput is printed in GB/s of sorted keys and values.
+ * </p>
+ */
+public class CLRadixSortBenchmarks {
+
+    private static final int[] SIZES = new int[] {1024*1024, 16*1024*1024};
+
+    private CLRadixSortBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice();
+
+        // looked up once, the measured iterations only invoke them
+        final Method parallelInts = getParallelSort(int[].class);
+        final Method parallelLongs = getParallelSort(long[].class);
+        final Method parallelFloats = getParallelSort(float[].class);
+        final String hostSort = parallelInts != null ? "parallelSort" : "sort";
+        System.out.println("host: Arrays."+hostSort+", "+Runtime.getRuntime().availableProcessors()+" processors");
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRadixSort sort = CLRadixSort.create(queue);
+
+            for (final int size : SIZES) {
+                // keys, values and the temporary buffers of both
+                if(size*8L*4 > device.getGlobalMemSize() || size*8L > device.getMaxMemAllocSize()) {
+                    continue;
+                }
+                final String suffix = (size/(1024*1024))+"M";
+                final Random random = new Random(42);
+
+                final int[] intKeys = new int[size];
+                final long[] longKeys = new long[size];
+                final float[] floatKeys = new float[size];
+                for (int i = 0; i < size; i++) {
+                    intKeys[i] = random.nextInt();
+                    longKeys[i] = random.nextLong();
+                    floatKeys[i] = (float)random.nextGaussian();
+                }
+                final int[] intWork = new int[size];
+                final long[] longWork = new long[size];
+                final float[] floatWork = new float[size];
+
+                final CLBuffer<IntBuffer> ints = context.createIntBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<LongBuffer> longs = context.createLongBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<FloatBuffer> floats = context.createFloatBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<IntBuffer> values = context.createIntBuffer(size, Mem.READ_WRITE);
+                ints.getBuffer().put(intKeys).rewind();
+                longs.getBuffer().put(longKeys).rewind();
+                floats.getBuffer().put(floatKeys).rewind();
+                for (int i = 0; i < size; i++) {
+                    values.getBuffer().put(i, i);
+                }
+                queue.putWriteBuffer(ints, false).putWriteBuffer(longs, false)
+                     .putWriteBuffer(floats, false).putWriteBuffer(values, true);
+
+                harness.run("sort.host."+hostSort+".int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        System.arraycopy(intKeys, 0, intWork, 0, size);
+                        hostSort(parallelInts, intWork);
+                    }
+                }, Rate.gigaBytes(size*4L));
+                harness.run("sort.host."+hostSort+".long."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        System.arraycopy(longKeys, 0, longWork, 0, size);
+                        hostSort(parallelLongs, longWork);
+                    }
+                }, Rate.gigaBytes(size*8L));
+                harness.run("sort.host."+hostSort+".float."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        System.arraycopy(floatKeys, 0, floatWork, 0, size);
+                        hostSort(parallelFloats, floatWork);
+                    }
+                }, Rate.gigaBytes(size*4L));
+                harness.run("sort.device.int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        sort.sort(ints, size);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaBytes(size*4L));
+                harness.run("sort.device.long."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        sort.sort(longs, size);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaBytes(size*8L));
+                harness.run("sort.device.float."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        sort.sort(floats, size);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaBytes(size*4L));
+                harness.run("sort.device.int-int."+suffix, new Benchmark() {
+                    @Override
+                    public void run() {
+                        sort.sort(ints, values, size);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaBytes(size*8L));
+
+                ints.release();
+                longs.release();
+                floats.release();
+                values.release();
+            }
+            sort.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    // Arrays.parallelSort is not available on all supported runtimes
+    private static Method getParallelSort(final Class<?> type) {
+        try{
+            return Arrays.class.getMethod("parallelSort", type);
+        }catch(final NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Sorts with the given Arrays.parallelSort method or with Arrays.sort if it is null.
+     */
+    private static void hostSort(final Method parallelSort, final Object array) {
+        if(parallelSort != null) {
+            try{
+                parallelSort.invoke(null, array);
+                return;
+            }catch(final Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        if(array instanceof int[]) {
+            Arrays.sort((int[])array);
+        }else if(array instanceof long[]) {
+            Arrays.sort((long[])array);
+        }else{
+            Arrays.sort((float[])array);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.random.CLRandom;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * Compares filling a device buffer with {@link CLRandom} with generating the numbers on the host
+ * with java.util.Random and uploading them, on the fastest device of the default platform.
+ * <p>
+ * Run with <code>ant benchmark.random.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * Every benchmark includes the wait for completion, the throughput is printed in GB/s of generated numbers.
+ * </p>
+ */
+public class CLRandomBenchmarks {
+
+    private static final int SIZE = 16*1024*1024;
+
+    private CLRandomBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice();
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRandom random = CLRandom.create(queue, 42);
+            final CLBuffer<FloatBuffer> buffer = context.createFloatBuffer(SIZE, Mem.READ_WRITE);
+            final Random host = new Random(42);
+
+            harness.run("random.host.uniform.float", new Benchmark() {
+                @Override
+                public void run() {
+                    final FloatBuffer floats = buffer.getBuffer();
+                    for (int i = 0; i < SIZE; i++) {
+                        floats.put(i, host.nextFloat());
+                    }
+                    queue.putWriteBuffer(buffer, true);
+                }
+            }, Rate.gigaBytes(SIZE*4L));
+            harness.run("random.host.normal.float", new Benchmark() {
+                @Override
+                public void run() {
+                    final FloatBuffer floats = buffer.getBuffer();
+                    for (int i = 0; i < SIZE; i++) {
+                        floats.put(i, (float)host.nextGaussian());
+                    }
+                    queue.putWriteBuffer(buffer, true);
+                }
+            }, Rate.gigaBytes(SIZE*4L));
+            harness.run("random.device.uniform.float", new Benchmark() {
+                private long offset;
+                @Override
+                public void run() {
+                    random.fillUniform(buffer, SIZE, offset);
+                    offset += SIZE;
+                }
+                @Override
+                public void sync() {
+                    queue.finish();
+                }
+            }, Rate.gigaBytes(SIZE*4L));
+            harness.run("random.device.normal.float", new Benchmark() {
+                private long offset;
+                @Override
+                public void run() {
+                    random.fillNormal(buffer, SIZE, offset, 0, 1);
+                    offset += SIZE;
+                }
+                @Override
+                public void sync() {
+                    queue.finish();
+                }
+            }, Rate.gigaBytes(SIZE*4L));
+            buffer.release();
+            random.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+}
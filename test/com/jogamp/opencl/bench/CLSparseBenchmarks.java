@@ -0,0 +1,160 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.bench;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.bench.BenchmarkHarness.Benchmark;
+import com.jogamp.opencl.bench.BenchmarkHarness.Rate;
+import com.jogamp.opencl.util.linalg.CLCSRMatrix;
+import com.jogamp.opencl.util.linalg.CLSparse;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the {@link CLSparse} kernels on synthetic matrices with a single threaded Java CSR product,
+ * on the fastest device of the default platform.
+ * <p>
+ * Run with <code>ant benchmark.sparse.run</code> or directly, see {@link BenchmarkHarness} for the configuration properties.
+ * The row lengths of the power-law matrices follow a Pareto distribution, a few rows are much longer than the mean,
+ * the uniform matrix has rows of equal length. Columns are uniformly distributed. Device benchmarks include the wait
+ * for completion, the throughput is printed in GFlop/s and in GB/s of the minimal memory traffic.
+ * </p>
+ */
+public class CLSparseBenchmarks {
+
+    private static final int ROWS = 1 << 20;
+    private static final int COLS = 1 << 20;
+
+    // name, minimum row length, Pareto shape, zero for uniform rows
+    private static final Object[][] MATRICES = new Object[][] {
+        {"uniform8", 8, 0.0}, {"powerlaw1.5", 2, 1.5}, {"powerlaw2.5", 8, 2.5}
+    };
+
+    private static final int SPMM_COLUMNS = 16;
+
+    private CLSparseBenchmarks() { }
+
+    public static void main(final String[] args) throws IOException {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromSystemProperties();
+        final CLDevice device = BenchmarkHarness.selectDevice();
+
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLSparse sparse = CLSparse.create(queue);
+            final Random random = new Random(42);
+
+            final CLBuffer<FloatBuffer> x = context.createFloatBuffer(COLS, Mem.READ_ONLY);
+            final CLBuffer<FloatBuffer> y = context.createFloatBuffer(ROWS, Mem.READ_WRITE);
+            for (int i = 0; i < COLS; i++) {
+                x.getBuffer().put(i, random.nextFloat());
+            }
+            queue.putWriteBuffer(x, true);
+
+            for (final Object[] spec : MATRICES) {
+                final long start = System.nanoTime();
+                final CLCSRMatrix matrix = generate(context, random, (Integer)spec[1], (Double)spec[2]);
+                System.out.println(spec[0]+": "+matrix+" deviation: "
+                        +String.format(Locale.ROOT, "%.1f", matrix.getRowLengthDeviation())
+                        +" built in "+(System.nanoTime()-start)/1000000+" ms");
+
+                final long nnz = matrix.getNonZeros();
+                final double flops = 2.0*nnz;
+                final long bytes = nnz*12 + ROWS*12L;
+                final String prefix = "sparse."+spec[0]+".";
+
+                harness.run(prefix+"spmv.java", new Benchmark() {
+                    @Override
+                    public void run() {
+                        multiply(matrix, x.getBuffer(), y.getBuffer());
+                    }
+                }, Rate.gigaFlops(flops), Rate.gigaBytes(bytes));
+                for (int width = 1; width <= CLSparse.MAX_VECTOR_WIDTH; width *= 4) {
+                    final int vectorWidth = width;
+                    harness.run(prefix+"spmv.device.width"+width, new Benchmark() {
+                        @Override
+                        public void run() {
+                            sparse.spmv(matrix, x, y, vectorWidth);
+                        }
+                        @Override
+                        public void sync() {
+                            queue.finish();
+                        }
+                    }, Rate.gigaFlops(flops), Rate.gigaBytes(bytes));
+                }
+                harness.run(prefix+"spmv.device.auto"+CLSparse.selectVectorWidth(matrix), new Benchmark() {
+                    @Override
+                    public void run() {
+                        sparse.spmv(matrix, x, y);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaFlops(flops), Rate.gigaBytes(bytes));
+
+                final int k = SPMM_COLUMNS;
+                final CLBuffer<FloatBuffer> b = context.createFloatBuffer(COLS*k, Mem.READ_ONLY);
+                final CLBuffer<FloatBuffer> c = context.createFloatBuffer(ROWS*k, Mem.READ_WRITE);
+                queue.putWriteBuffer(b, true);
+                harness.run(prefix+"spmm.device."+k, new Benchmark() {
+                    @Override
+                    public void run() {
+                        sparse.spmm(matrix, b, c, k);
+                    }
+                    @Override
+                    public void sync() {
+                        queue.finish();
+                    }
+                }, Rate.gigaFlops(flops*k), Rate.gigaBytes(nnz*8 + nnz*4L*k + ROWS*(4L+4L*k)));
+                b.release();
+                c.release();
+                matrix.release();
+            }
+            sparse.release();
+        }finally{
+            context.release();
+        }
+
+        harness.writeResults(args);
+    }
+
+    /**
+     * Streams random coordinates into a builder, row lengths are Pareto distributed for a positive shape.
+     */
+    private static CLCSRMatrix generate(final CLContext context, final Random random, final int minLength, final double shape) {
+        final CLCSRMatrix.Builder builder = CLCSRMatrix.builder(ROWS, COLS, ROWS*minLength*2);
+        for (int r = 0; r < ROWS; r++) {
+            final double length = shape > 0 ? minLength * Math.pow(1-random.nextDouble(), -1/shape) : minLength;
+            // rows are added interleaved
+            final int row = (int)((r * 0x9E3779B1L) & (ROWS-1));
+            for (int i = (int)Math.min(COLS, length); i > 0; i--) {
+                builder.add(row, random.nextInt(COLS), random.nextFloat());
+            }
+        }
+        return builder.build(context);
+    }
+
+    private static void multiply(final CLCSRMatrix matrix, final FloatBuffer x, final FloatBuffer y) {
+        final IntBuffer pointers = matrix.getRowPointers().getBuffer();
+        final IntBuffer columns = matrix.getColumnIndices().getBuffer();
+        final FloatBuffer values = matrix.getValues().getBuffer();
+        for (int r = 0; r < matrix.getRows(); r++) {
+            float sum = 0;
+            for (int i = pointers.get(r); i < pointers.get(r+1); i++) {
+                sum += values.get(i) * x.get(columns.get(i));
+            }
+            y.put(r, sum);
+        }
+    }
+
+}
@@ -0,0 +1,1665 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.impl;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLErrorHandler;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.llb.CL;
+import com.jogamp.opencl.llb.impl.BuildProgramCallback;
+import com.jogamp.opencl.llb.impl.CLEventCallback;
+import com.jogamp.opencl.llb.impl.CLImageFormatImpl;
+import com.jogamp.opencl.llb.impl.CLMemObjectDestructorCallback;
+import com.jogamp.opencl.spi.CLBindingProvider;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-JVM implementation of the {@link CL} binding for measuring and testing the Java layers without OpenCL driver.
+ * <p>
+ * The binding keeps handle tables of all created objects and answers info queries with the values of a
+ * 1.1 CPU device. Buffers are backed by host memory, reads, writes, copies and maps move real data.
+ * Kernels are not executed, every command completes immediately and its profiling timestamps span the
+ * {@link #setCommandDuration simulated command duration}. Every binding call can be slowed down by a
+ * {@link #setCallLatency simulated call latency}.
+ * </p>
+ * <pre>
+ * CLFakeBinding fake = CLFakeBinding.install();
+ * CLContext context = CLContext.create();
+ * ...
+ * assertEquals(0, fake.getObjectCount());
+ * </pre>
+ * Calls only allocate the objects they create and the answers of info queries, allocation measurements
+ * of the Java layers are not distorted by the binding.
+ */
+public class CLFakeBinding implements CL {
+
+    public static final String PLATFORM_NAME = "JOCL fake platform";
+    public static final String DEVICE_NAME = "JOCL fake device";
+
+    private static final int SIZE_T = PointerBuffer.ELEMENT_SIZE;
+
+    private static final Pattern KERNEL_PATTERN = Pattern.compile("(?:__)?kernel\\s+void\\s+(\\w+)\\s*\\(([^)]*)\\)");
+
+    /**
+     * Supported image formats as channel order and type, 3d images support the first IMAGE_3D_FORMATS.
+     */
+    private static final int[][] IMAGE_FORMATS = {
+        {CL.CL_RGBA, CL.CL_FLOAT}, {CL.CL_RGBA, CL.CL_UNORM_INT8}, {CL.CL_RGBA, CL.CL_HALF_FLOAT},
+        {CL.CL_BGRA, CL.CL_UNORM_INT8}, {CL.CL_R, CL.CL_FLOAT}
+    };
+    private static final int IMAGE_3D_FORMATS = 2;
+
+    private enum Kind { PLATFORM, DEVICE, CONTEXT, QUEUE, MEMORY, PROGRAM, KERNEL, EVENT, OTHER }
+
+    private final long platform;
+    private final long[] devices;
+
+    private final Map<Long, FakeObject> objects = new ConcurrentHashMap<Long, FakeObject>();
+    private final AtomicLong nextID = new AtomicLong(0x1000);
+
+    private final AtomicLong calls = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> callsByFunction = new ConcurrentHashMap<String, AtomicLong>();
+
+    private volatile long callLatencyNanos;
+    private volatile String deviceVersion = "OpenCL 1.1 JOCL fake";
+    private volatile long commandNanos;
+
+    private CLFakeBinding(final int deviceCount) {
+        this.platform = create(Kind.PLATFORM, 0).id;
+        this.devices = new long[deviceCount];
+        for (int i = 0; i < deviceCount; i++) {
+            final FakeObject device = create(Kind.DEVICE, platform);
+            device.name = deviceCount == 1 ? DEVICE_NAME : DEVICE_NAME+" "+i;
+            devices[i] = device.id;
+        }
+    }
+
+    /**
+     * Initializes JOCL with a fake binding with one device.
+     * @see #install(int)
+     */
+    public static CLFakeBinding install() {
+        return install(1);
+    }
+
+    /**
+     * Initializes JOCL with a fake binding with the given number of CPU devices.
+     * Has to be called before any other use of JOCL.
+     * @throws IllegalStateException if JOCL has already been initialized with another binding.
+     */
+    public static CLFakeBinding install(final int deviceCount) {
+        if(deviceCount <= 0) {
+            throw new IllegalArgumentException("deviceCount must be positive but was "+deviceCount);
+        }
+        final CLFakeBinding fake = new CLFakeBinding(deviceCount);
+        CLPlatform.initialize(fake.new Factory());
+        if(CLPlatform.getLowLevelCLInterface() != fake) {
+            throw new IllegalStateException("JOCL has already been initialized");
+        }
+        return fake;
+    }
+
+    /**
+     * Returns the binding which can be used directly without {@link #install() installing} it.
+     */
+    public CL getBinding() {
+        return this;
+    }
+
+    /**
+     * Sets the CL_DEVICE_VERSION all devices report, OpenCL 1.1 by default.
+     */
+    public CLFakeBinding setDeviceVersion(final String version) {
+        this.deviceVersion = version;
+        return this;
+    }
+
+    /**
+     * Sets the time every binding call spins before it returns.
+     */
+    public CLFakeBinding setCallLatency(final long time, final TimeUnit unit) {
+        this.callLatencyNanos = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * Sets the time between start and end profiling timestamp of every command.
+     * Commands still complete immediately.
+     */
+    public CLFakeBinding setCommandDuration(final long time, final TimeUnit unit) {
+        this.commandNanos = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * Returns the number of binding calls since installation or the last {@link #resetStatistics() reset}.
+     */
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * Returns the number of calls of the given binding function, e.g. <code>"clSetKernelArg"</code>.
+     */
+    public long getCallCount(final String function) {
+        final AtomicLong count = callsByFunction.get(function);
+        return count == null ? 0 : count.get();
+    }
+
+    public void resetStatistics() {
+        calls.set(0);
+        callsByFunction.clear();
+    }
+
+    /**
+     * Returns the number of living (not released) objects, platform and devices excluded.
+     * Useful to detect resource leaks of the Java layers.
+     */
+    public int getObjectCount() {
+        int count = 0;
+        for (final FakeObject object : objects.values()) {
+            if(object.kind != Kind.PLATFORM && object.kind != Kind.DEVICE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of living objects per kind, e.g. <code>{MEMORY=2, EVENT=1}</code>.
+     */
+    public Map<String, Integer> getObjectCounts() {
+        final Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        for (final FakeObject object : objects.values()) {
+            if(object.kind != Kind.PLATFORM && object.kind != Kind.DEVICE) {
+                final Integer count = counts.get(object.kind.name());
+                counts.put(object.kind.name(), count == null ? 1 : count+1);
+            }
+        }
+        return counts;
+    }
+
+    private FakeObject create(final Kind kind, final long parent) {
+        final FakeObject object = new FakeObject(nextID.getAndAdd(8), kind, parent);
+        objects.put(object.id, object);
+        return object;
+    }
+
+    private FakeObject get(final long id, final Kind kind) {
+        final FakeObject object = objects.get(id);
+        return object != null && object.kind == kind ? object : null;
+    }
+
+    /**
+     * State of one fake OpenCL object, the used fields depend on the kind.
+     */
+    private static final class FakeObject {
+
+        private final long id;
+        private final Kind kind;
+        private final long parent;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        // device, kernel
+        private String name;
+        // context, program
+        private long[] devices;
+        // queue
+        private long device;
+        private long properties;
+        // memory
+        private long flags;
+        private long size;
+        private ByteBuffer storage;
+        private List<CLMemObjectDestructorCallback> destructors;
+        // program
+        private String source;
+        private String options;
+        private boolean built;
+        private Map<String, Integer> kernels;
+        // kernel
+        private int numArgs;
+        // event
+        private int status;
+        private int commandType;
+        private long queue;
+        private long queued, submit, start, end;
+        private List<CLEventCallback> callbacks;
+
+        private FakeObject(final long id, final Kind kind, final long parent) {
+            this.id = id;
+            this.kind = kind;
+            this.parent = parent;
+        }
+
+        private synchronized ByteBuffer storage() {
+            if(storage == null) {
+                storage = Buffers.newDirectByteBuffer((int)size);
+            }
+            return storage;
+        }
+    }
+
+    private final class Factory extends CLTLAccessorFactory implements CLBindingProvider {
+        @Override
+        public CL getBinding() {
+            return CLFakeBinding.this;
+        }
+    }
+
+    /**
+     * Counts the call of the given binding function and spins for the simulated call latency.
+     */
+    private void call(final String function) {
+        calls.incrementAndGet();
+        AtomicLong count = callsByFunction.get(function);
+        if(count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = callsByFunction.putIfAbsent(function, newCount);
+            if(count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+
+        final long latency = callLatencyNanos;
+        if(latency > 0) {
+            final long end = System.nanoTime() + latency;
+            while(System.nanoTime() < end) { }
+        }
+    }
+
+    /**
+     * Writes the error code into the error out parameter, either the IntBuffer or the int[] at the given offset.
+     */
+    private static void setError(final IntBuffer buffer, final int[] array, final int offset, final int error) {
+        if(buffer != null) {
+            buffer.put(buffer.position(), error);
+        }else if(array != null) {
+            array[offset] = error;
+        }
+    }
+
+    private static void setCount(final IntBuffer buffer, final int count) {
+        if(buffer != null) {
+            buffer.put(buffer.position(), count);
+        }
+    }
+
+    private static long[] toArray(final PointerBuffer buffer, final int count) {
+        final long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = buffer.get(buffer.position()+i);
+        }
+        return ids;
+    }
+
+    // platform, devices
+
+    @Override
+    public int clGetPlatformIDs(final int num_entries, final PointerBuffer platforms, final IntBuffer num_platforms) {
+        call("clGetPlatformIDs");
+        return getPlatformIDs(num_entries, platforms, num_platforms);
+    }
+
+    @Override
+    public int clIcdGetPlatformIDsKHR(final int num_entries, final PointerBuffer platforms, final IntBuffer num_platforms) {
+        call("clIcdGetPlatformIDsKHR");
+        return getPlatformIDs(num_entries, platforms, num_platforms);
+    }
+
+    private int getPlatformIDs(final int entries, final PointerBuffer platforms, final IntBuffer count) {
+        if(platforms != null && entries > 0) {
+            platforms.put(platforms.position(), platform);
+        }
+        setCount(count, 1);
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clGetDeviceIDs(final long platform, final long device_type, final int num_entries, final PointerBuffer ids, final IntBuffer num_devices) {
+        call("clGetDeviceIDs");
+        if(platform != this.platform) {
+            return CL.CL_INVALID_PLATFORM;
+        }
+        final boolean matches = (device_type & (CL.CL_DEVICE_TYPE_CPU | CL.CL_DEVICE_TYPE_DEFAULT)) != 0 || device_type == CL.CL_DEVICE_TYPE_ALL;
+        final int found = matches ? devices.length : 0;
+        setCount(num_devices, found);
+        if(found == 0) {
+            return CL.CL_DEVICE_NOT_FOUND;
+        }
+        if(ids != null) {
+            final int n = Math.min(found, num_entries);
+            for (int i = 0; i < n; i++) {
+                ids.put(ids.position()+i, devices[i]);
+            }
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clCreateSubDevicesEXT(final long in_device, final LongBuffer properties, final int num_entries, final PointerBuffer out_devices, final IntBuffer num_devices) {
+        call("clCreateSubDevicesEXT");
+        return CL.CL_INVALID_OPERATION;
+    }
+
+    @Override
+    public int clCreateSubDevicesEXT(final long in_device, final long[] properties, final int properties_offset, final int num_entries,
+                                     final PointerBuffer out_devices, final int[] num_devices, final int num_devices_offset) {
+        call("clCreateSubDevicesEXT");
+        return CL.CL_INVALID_OPERATION;
+    }
+
+    @Override
+    public int clRetainDeviceEXT(final long device) {
+        call("clRetainDeviceEXT");
+        return retain(device);
+    }
+
+    @Override
+    public int clReleaseDeviceEXT(final long device) {
+        call("clReleaseDeviceEXT");
+        return release(device, CL.CL_INVALID_DEVICE);
+    }
+
+    @Override
+    public int clUnloadCompiler() {
+        call("clUnloadCompiler");
+        return CL.CL_SUCCESS;
+    }
+
+    // contexts
+
+    @Override
+    public long clCreateContext(final PointerBuffer properties, final PointerBuffer devices, final CLErrorHandler pfn_notify, final IntBuffer errcode_ret) {
+        call("clCreateContext");
+        final long[] contextDevices = devices == null ? new long[0] : toArray(devices, devices.remaining());
+        for (final long device : contextDevices) {
+            if(get(device, Kind.DEVICE) == null) {
+                setError(errcode_ret, null, 0, CL.CL_INVALID_DEVICE);
+                return 0;
+            }
+        }
+        return createContext(contextDevices, errcode_ret);
+    }
+
+    @Override
+    public long clCreateContextFromType(final PointerBuffer properties, final long device_type, final CLErrorHandler pfn_notify, final IntBuffer errcode_ret) {
+        call("clCreateContextFromType");
+        return createContext(devices.clone(), errcode_ret);
+    }
+
+    private long createContext(final long[] contextDevices, final IntBuffer error) {
+        if(contextDevices.length == 0) {
+            setError(error, null, 0, CL.CL_DEVICE_NOT_FOUND);
+            return 0;
+        }
+        final FakeObject context = create(Kind.CONTEXT, platform);
+        context.devices = contextDevices;
+        setError(error, null, 0, CL.CL_SUCCESS);
+        return context.id;
+    }
+
+    @Override
+    public int clRetainContext(final long context) {
+        call("clRetainContext");
+        return retain(context);
+    }
+
+    @Override
+    public int clReleaseContext(final long context) {
+        call("clReleaseContext");
+        return release(context, CL.CL_INVALID_CONTEXT);
+    }
+
+    // command queues
+
+    @Override
+    public long clCreateCommandQueue(final long context, final long device, final long properties, final IntBuffer errcode_ret) {
+        call("clCreateCommandQueue");
+        return createCommandQueue(context, device, properties, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateCommandQueue(final long context, final long device, final long properties, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateCommandQueue");
+        return createCommandQueue(context, device, properties, null, errcode_ret, errcode_ret_offset);
+    }
+
+    private long createCommandQueue(final long contextID, final long device, final long properties, final IntBuffer eb, final int[] ea, final int eo) {
+        final FakeObject context = get(contextID, Kind.CONTEXT);
+        if(context == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_CONTEXT);
+            return 0;
+        }
+        final FakeObject queue = create(Kind.QUEUE, context.id);
+        queue.device = device;
+        queue.properties = properties;
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return queue.id;
+    }
+
+    @Override
+    public int clSetCommandQueueProperty(final long command_queue, final long properties, final int enable, final LongBuffer old_properties) {
+        call("clSetCommandQueueProperty");
+        return CL.CL_INVALID_OPERATION;
+    }
+
+    @Override
+    public int clRetainCommandQueue(final long command_queue) {
+        call("clRetainCommandQueue");
+        return retain(command_queue);
+    }
+
+    @Override
+    public int clReleaseCommandQueue(final long command_queue) {
+        call("clReleaseCommandQueue");
+        return release(command_queue, CL.CL_INVALID_COMMAND_QUEUE);
+    }
+
+    @Override
+    public int clFlush(final long command_queue) {
+        call("clFlush");
+        return get(command_queue, Kind.QUEUE) == null ? CL.CL_INVALID_COMMAND_QUEUE : CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clFinish(final long command_queue) {
+        call("clFinish");
+        return get(command_queue, Kind.QUEUE) == null ? CL.CL_INVALID_COMMAND_QUEUE : CL.CL_SUCCESS;
+    }
+
+    // memory objects
+
+    @Override
+    public long clCreateBuffer(final long context, final long flags, final long size, final Buffer host_ptr, final IntBuffer errcode_ret) {
+        call("clCreateBuffer");
+        return createBuffer(context, flags, size, host_ptr, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateBuffer(final long context, final long flags, final long size, final Buffer host_ptr, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateBuffer");
+        return createBuffer(context, flags, size, host_ptr, null, errcode_ret, errcode_ret_offset);
+    }
+
+    private long createBuffer(final long contextID, final long flags, final long size, final Buffer host, final IntBuffer eb, final int[] ea, final int eo) {
+        final FakeObject context = get(contextID, Kind.CONTEXT);
+        if(context == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_CONTEXT);
+            return 0;
+        }else if(size <= 0 || size > Integer.MAX_VALUE) {
+            setError(eb, ea, eo, CL.CL_INVALID_BUFFER_SIZE);
+            return 0;
+        }
+        final FakeObject mem = create(Kind.MEMORY, context.id);
+        mem.flags = flags;
+        mem.size = size;
+        if(host != null && (flags & CL.CL_MEM_USE_HOST_PTR) != 0 && host instanceof ByteBuffer) {
+            final ByteBuffer bb = ((ByteBuffer)host).duplicate();
+            bb.limit(bb.position()+(int)size);
+            mem.storage = bb.slice().order(ByteOrder.nativeOrder());
+        }else if(host != null && (flags & (CL.CL_MEM_COPY_HOST_PTR | CL.CL_MEM_USE_HOST_PTR)) != 0) {
+            copyFromHost(host, mem.storage(), 0, (int)size);
+        }
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return mem.id;
+    }
+
+    @Override
+    public long clCreateSubBuffer(final long buffer, final long flags, final int buffer_create_type, final Buffer buffer_create_info, final IntBuffer errcode_ret) {
+        call("clCreateSubBuffer");
+        return createSubBuffer(buffer, flags, buffer_create_info, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateSubBuffer(final long buffer, final long flags, final int buffer_create_type, final Buffer buffer_create_info, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateSubBuffer");
+        return createSubBuffer(buffer, flags, buffer_create_info, null, errcode_ret, errcode_ret_offset);
+    }
+
+    private long createSubBuffer(final long parentID, final long flags, final Buffer info, final IntBuffer eb, final int[] ea, final int eo) {
+        final FakeObject parent = get(parentID, Kind.MEMORY);
+        if(parent == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_MEM_OBJECT);
+            return 0;
+        }
+        final ByteBuffer region = ((ByteBuffer)info).duplicate().order(ByteOrder.nativeOrder());
+        final long origin = SIZE_T == 8 ? region.getLong(0) : region.getInt(0);
+        final long size = SIZE_T == 8 ? region.getLong(8) : region.getInt(4);
+        if(origin < 0 || size <= 0 || origin+size > parent.size) {
+            setError(eb, ea, eo, CL.CL_INVALID_VALUE);
+            return 0;
+        }
+        final FakeObject mem = create(Kind.MEMORY, parent.parent);
+        mem.flags = flags;
+        mem.size = size;
+        final ByteBuffer storage = parent.storage().duplicate();
+        storage.position((int)origin).limit((int)(origin+size));
+        mem.storage = storage.slice().order(ByteOrder.nativeOrder());
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return mem.id;
+    }
+
+    /**
+     * Images, samplers and GL objects only exist as handles.
+     */
+    private long createHandle(final Kind kind, final long contextID, final IntBuffer eb, final int[] ea, final int eo) {
+        if(get(contextID, Kind.CONTEXT) == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_CONTEXT);
+            return 0;
+        }
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return create(kind, contextID).id;
+    }
+
+    @Override
+    public long clCreateImage2D(final long context, final long flags, final CLImageFormatImpl image_format, final long image_width, final long image_height,
+                                final long image_row_pitch, final Buffer host_ptr, final IntBuffer errcode_ret) {
+        call("clCreateImage2D");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateImage2D(final long context, final long flags, final CLImageFormatImpl image_format, final long image_width, final long image_height,
+                                final long image_row_pitch, final Buffer host_ptr, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateImage2D");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public long clCreateImage3D(final long context, final long flags, final CLImageFormatImpl image_format, final long image_width, final long image_height,
+                                final long image_depth, final long image_row_pitch, final long image_slice_pitch, final Buffer host_ptr, final IntBuffer errcode_ret) {
+        call("clCreateImage3D");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateImage3D(final long context, final long flags, final CLImageFormatImpl image_format, final long image_width, final long image_height,
+                                final long image_depth, final long image_row_pitch, final long image_slice_pitch, final Buffer host_ptr,
+                                final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateImage3D");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public int clGetSupportedImageFormats(final long context, final long flags, final int image_type, final int num_entries,
+                                          final CLImageFormatImpl image_formats, final IntBuffer num_image_formats) {
+        call("clGetSupportedImageFormats");
+        if(get(context, Kind.CONTEXT) == null) {
+            return CL.CL_INVALID_CONTEXT;
+        }
+        final int count = imageFormatCount(image_type);
+        setCount(num_image_formats, count);
+        if(image_formats != null) {
+            final ByteBuffer buffer = image_formats.getBuffer().duplicate().order(ByteOrder.nativeOrder());
+            for (int i = 0; i < Math.min(count, num_entries); i++) {
+                buffer.putInt(i*CLImageFormatImpl.size(), IMAGE_FORMATS[i][0]);
+                buffer.putInt(i*CLImageFormatImpl.size()+4, IMAGE_FORMATS[i][1]);
+            }
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clGetSupportedImageFormats(final long context, final long flags, final int image_type, final int num_entries,
+                                          final CLImageFormatImpl image_formats, final int[] num_image_formats, final int num_image_formats_offset) {
+        final IntBuffer count = num_image_formats == null ? null : IntBuffer.allocate(1);
+        final int ret = clGetSupportedImageFormats(context, flags, image_type, num_entries, image_formats, count);
+        if(count != null) {
+            num_image_formats[num_image_formats_offset] = count.get(0);
+        }
+        return ret;
+    }
+
+    private static int imageFormatCount(final int type) {
+        return type == CL.CL_MEM_OBJECT_IMAGE3D ? IMAGE_3D_FORMATS : IMAGE_FORMATS.length;
+    }
+
+    @Override
+    public long clCreateFromGLBuffer(final long context, final long flags, final int bufobj, final IntBuffer errcode_ret) {
+        call("clCreateFromGLBuffer");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateFromGLBuffer(final long context, final long flags, final int bufobj, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateFromGLBuffer");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public long clCreateFromGLTexture2D(final long context, final long flags, final int target, final int miplevel, final int texture, final IntBuffer errcode_ret) {
+        call("clCreateFromGLTexture2D");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateFromGLTexture2D(final long context, final long flags, final int target, final int miplevel, final int texture,
+                                        final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateFromGLTexture2D");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public long clCreateFromGLTexture3D(final long context, final long flags, final int target, final int miplevel, final int texture, final IntBuffer errcode_ret) {
+        call("clCreateFromGLTexture3D");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateFromGLTexture3D(final long context, final long flags, final int target, final int miplevel, final int texture,
+                                        final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateFromGLTexture3D");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public long clCreateFromGLRenderbuffer(final long context, final long flags, final int renderbuffer, final IntBuffer errcode_ret) {
+        call("clCreateFromGLRenderbuffer");
+        return createHandle(Kind.MEMORY, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateFromGLRenderbuffer(final long context, final long flags, final int renderbuffer, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateFromGLRenderbuffer");
+        return createHandle(Kind.MEMORY, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public int clGetGLObjectInfo(final long memobj, final IntBuffer gl_object_type, final IntBuffer gl_object_name) {
+        call("clGetGLObjectInfo");
+        return CL.CL_INVALID_GL_OBJECT;
+    }
+
+    @Override
+    public int clGetGLObjectInfo(final long memobj, final int[] gl_object_type, final int gl_object_type_offset, final int[] gl_object_name, final int gl_object_name_offset) {
+        call("clGetGLObjectInfo");
+        return CL.CL_INVALID_GL_OBJECT;
+    }
+
+    @Override
+    public int clSetMemObjectDestructorCallback(final long memObjID, final CLMemObjectDestructorCallback cb) {
+        call("clSetMemObjectDestructorCallback");
+        final FakeObject mem = get(memObjID, Kind.MEMORY);
+        if(mem == null) {
+            return CL.CL_INVALID_MEM_OBJECT;
+        }
+        synchronized(mem) {
+            if(mem.destructors == null) {
+                mem.destructors = new ArrayList<CLMemObjectDestructorCallback>();
+            }
+            mem.destructors.add(cb);
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clRetainMemObject(final long memobj) {
+        call("clRetainMemObject");
+        return retain(memobj);
+    }
+
+    @Override
+    public int clReleaseMemObject(final long memobj) {
+        call("clReleaseMemObject");
+        return release(memobj, CL.CL_INVALID_MEM_OBJECT);
+    }
+
+    // samplers
+
+    @Override
+    public long clCreateSampler(final long context, final int normalized_coords, final int addressing_mode, final int filter_mode, final IntBuffer errcode_ret) {
+        call("clCreateSampler");
+        return createHandle(Kind.OTHER, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateSampler(final long context, final int normalized_coords, final int addressing_mode, final int filter_mode,
+                                final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateSampler");
+        return createHandle(Kind.OTHER, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public int clRetainSampler(final long sampler) {
+        call("clRetainSampler");
+        return retain(sampler);
+    }
+
+    @Override
+    public int clReleaseSampler(final long sampler) {
+        call("clReleaseSampler");
+        return release(sampler, CL.CL_INVALID_SAMPLER);
+    }
+
+    // programs, kernels
+
+    @Override
+    public long clCreateProgramWithSource(final long context, final int count, final String[] strings, final PointerBuffer lengths, final IntBuffer errcode_ret) {
+        call("clCreateProgramWithSource");
+        final FakeObject ctx = get(context, Kind.CONTEXT);
+        if(ctx == null) {
+            setError(errcode_ret, null, 0, CL.CL_INVALID_CONTEXT);
+            return 0;
+        }
+        final StringBuilder source = new StringBuilder();
+        for (final String string : strings) {
+            source.append(string);
+        }
+        final FakeObject program = create(Kind.PROGRAM, ctx.id);
+        program.source = source.toString();
+        program.devices = ctx.devices;
+        setError(errcode_ret, null, 0, CL.CL_SUCCESS);
+        return program.id;
+    }
+
+    @Override
+    public long clCreateProgramWithBinary(final long context, final int num_devices, final PointerBuffer device_list, final PointerBuffer lengths,
+                                          final PointerBuffer binaries, final IntBuffer binary_status, final IntBuffer errcode_ret) {
+        call("clCreateProgramWithBinary");
+        // binaries are never reported, see CL_PROGRAM_BINARY_SIZES
+        setError(errcode_ret, null, 0, CL.CL_INVALID_BINARY);
+        return 0;
+    }
+
+    @Override
+    public int clBuildProgram(final long programID, final int deviceCount, final PointerBuffer devices, final String options, final BuildProgramCallback cb) {
+        call("clBuildProgram");
+        final FakeObject program = get(programID, Kind.PROGRAM);
+        if(program == null) {
+            return CL.CL_INVALID_PROGRAM;
+        }
+        final Map<String, Integer> kernels = new LinkedHashMap<String, Integer>();
+        final Matcher matcher = KERNEL_PATTERN.matcher(program.source);
+        while(matcher.find()) {
+            final String params = matcher.group(2).trim();
+            kernels.put(matcher.group(1), params.isEmpty() || params.equals("void") ? 0 : params.split(",").length);
+        }
+        synchronized(program) {
+            program.kernels = kernels;
+            program.options = options;
+            program.built = true;
+        }
+        if(cb != null) {
+            cb.buildFinished(program.id);
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clRetainProgram(final long program) {
+        call("clRetainProgram");
+        return retain(program);
+    }
+
+    @Override
+    public int clReleaseProgram(final long program) {
+        call("clReleaseProgram");
+        return release(program, CL.CL_INVALID_PROGRAM);
+    }
+
+    private FakeObject newKernel(final FakeObject program, final String name) {
+        final FakeObject kernel = create(Kind.KERNEL, program.id);
+        kernel.name = name;
+        kernel.numArgs = program.kernels.get(name);
+        return kernel;
+    }
+
+    @Override
+    public long clCreateKernel(final long program, final String kernel_name, final IntBuffer errcode_ret) {
+        call("clCreateKernel");
+        return createKernel(program, kernel_name, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateKernel(final long program, final String kernel_name, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateKernel");
+        return createKernel(program, kernel_name, null, errcode_ret, errcode_ret_offset);
+    }
+
+    private long createKernel(final long programID, final String name, final IntBuffer eb, final int[] ea, final int eo) {
+        final FakeObject program = get(programID, Kind.PROGRAM);
+        if(program == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_PROGRAM);
+            return 0;
+        }else if(!program.built) {
+            setError(eb, ea, eo, CL.CL_INVALID_PROGRAM_EXECUTABLE);
+            return 0;
+        }else if(!program.kernels.containsKey(name)) {
+            setError(eb, ea, eo, CL.CL_INVALID_KERNEL_NAME);
+            return 0;
+        }
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return newKernel(program, name).id;
+    }
+
+    @Override
+    public int clCreateKernelsInProgram(final long programID, final int num_kernels, final PointerBuffer kernels, final IntBuffer num_kernels_ret) {
+        call("clCreateKernelsInProgram");
+        final FakeObject program = get(programID, Kind.PROGRAM);
+        if(program == null) {
+            return CL.CL_INVALID_PROGRAM;
+        }else if(!program.built) {
+            return CL.CL_INVALID_PROGRAM_EXECUTABLE;
+        }
+        setCount(num_kernels_ret, program.kernels.size());
+        if(kernels != null) {
+            if(num_kernels < program.kernels.size()) {
+                return CL.CL_INVALID_VALUE;
+            }
+            int i = 0;
+            for (final String name : program.kernels.keySet()) {
+                kernels.put(kernels.position()+i++, newKernel(program, name).id);
+            }
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clSetKernelArg(final long kernelID, final int arg_index, final long arg_size, final Buffer arg_value) {
+        call("clSetKernelArg");
+        final FakeObject kernel = get(kernelID, Kind.KERNEL);
+        if(kernel == null) {
+            return CL.CL_INVALID_KERNEL;
+        }
+        return arg_index < 0 || arg_index >= kernel.numArgs ? CL.CL_INVALID_ARG_INDEX : CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clRetainKernel(final long kernel) {
+        call("clRetainKernel");
+        return retain(kernel);
+    }
+
+    @Override
+    public int clReleaseKernel(final long kernel) {
+        call("clReleaseKernel");
+        return release(kernel, CL.CL_INVALID_KERNEL);
+    }
+
+    // events
+
+    @Override
+    public long clCreateUserEvent(final long context, final IntBuffer errcode_ret) {
+        call("clCreateUserEvent");
+        return createUserEvent(context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateUserEvent(final long context, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateUserEvent");
+        return createUserEvent(context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    private long createUserEvent(final long contextID, final IntBuffer eb, final int[] ea, final int eo) {
+        final FakeObject context = get(contextID, Kind.CONTEXT);
+        if(context == null) {
+            setError(eb, ea, eo, CL.CL_INVALID_CONTEXT);
+            return 0;
+        }
+        final FakeObject event = create(Kind.EVENT, context.id);
+        event.status = CL.CL_SUBMITTED;
+        event.commandType = CL.CL_COMMAND_USER;
+        event.queued = event.submit = event.start = event.end = System.nanoTime();
+        setError(eb, ea, eo, CL.CL_SUCCESS);
+        return event.id;
+    }
+
+    @Override
+    public long clCreateEventFromGLsyncKHR(final long context, final long cl_GLsync, final IntBuffer errcode_ret) {
+        call("clCreateEventFromGLsyncKHR");
+        return createHandle(Kind.EVENT, context, errcode_ret, null, 0);
+    }
+
+    @Override
+    public long clCreateEventFromGLsyncKHR(final long context, final long cl_GLsync, final int[] errcode_ret, final int errcode_ret_offset) {
+        call("clCreateEventFromGLsyncKHR");
+        return createHandle(Kind.EVENT, context, null, errcode_ret, errcode_ret_offset);
+    }
+
+    @Override
+    public int clWaitForEvents(final int num_events, final PointerBuffer event_list) {
+        call("clWaitForEvents");
+        if(num_events <= 0 || event_list == null) {
+            return CL.CL_INVALID_VALUE;
+        }
+        int ret = CL.CL_SUCCESS;
+        for (int i = 0; i < num_events; i++) {
+            final FakeObject event = get(event_list.get(event_list.position()+i), Kind.EVENT);
+            if(event == null) {
+                return CL.CL_INVALID_EVENT;
+            }
+            // only user events can be pending
+            synchronized(event) {
+                while(event.status > CL.CL_COMPLETE) {
+                    try{
+                        event.wait();
+                    }catch(final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return CL.CL_INVALID_EVENT;
+                    }
+                }
+                if(event.status < 0) {
+                    ret = CL.CL_EXEC_STATUS_ERROR_FOR_EVENTS_IN_WAIT_LIST;
+                }
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public int clSetUserEventStatus(final long id, final int status) {
+        call("clSetUserEventStatus");
+        final FakeObject event = get(id, Kind.EVENT);
+        if(event == null || event.commandType != CL.CL_COMMAND_USER) {
+            return CL.CL_INVALID_EVENT;
+        }else if(status > CL.CL_COMPLETE) {
+            return CL.CL_INVALID_VALUE;
+        }
+        final List<CLEventCallback> callbacks;
+        synchronized(event) {
+            if(event.status <= CL.CL_COMPLETE) {
+                return CL.CL_INVALID_OPERATION;
+            }
+            event.status = status;
+            event.end = System.nanoTime();
+            callbacks = event.callbacks;
+            event.callbacks = null;
+            event.notifyAll();
+        }
+        if(callbacks != null) {
+            for (final CLEventCallback callback : callbacks) {
+                callback.eventStateChanged(id, status);
+            }
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clSetEventCallback(final long id, final int trigger, final CLEventCallback callback) {
+        call("clSetEventCallback");
+        final FakeObject event = get(id, Kind.EVENT);
+        if(event == null) {
+            return CL.CL_INVALID_EVENT;
+        }
+        final int status;
+        synchronized(event) {
+            if(event.status > trigger) {
+                if(event.callbacks == null) {
+                    event.callbacks = new ArrayList<CLEventCallback>();
+                }
+                event.callbacks.add(callback);
+                return CL.CL_SUCCESS;
+            }
+            status = event.status;
+        }
+        callback.eventStateChanged(id, status);
+        return CL.CL_SUCCESS;
+    }
+
+    @Override
+    public int clRetainEvent(final long event) {
+        call("clRetainEvent");
+        return retain(event);
+    }
+
+    @Override
+    public int clReleaseEvent(final long event) {
+        call("clReleaseEvent");
+        return release(event, CL.CL_INVALID_EVENT);
+    }
+
+    private int retain(final long id) {
+        final FakeObject object = objects.get(id);
+        if(object == null) {
+            return CL.CL_INVALID_VALUE;
+        }
+        object.references.incrementAndGet();
+        return CL.CL_SUCCESS;
+    }
+
+    private int release(final long id, final int invalid) {
+        final FakeObject object = objects.get(id);
+        if(object == null) {
+            return invalid;
+        }
+        if(object.kind == Kind.PLATFORM || (object.kind == Kind.DEVICE && object.parent == platform)) {
+            // root devices are not reference counted
+            return CL.CL_SUCCESS;
+        }
+        if(object.references.decrementAndGet() == 0) {
+            objects.remove(id);
+            if(object.destructors != null) {
+                for (final CLMemObjectDestructorCallback destructor : object.destructors) {
+                    destructor.memoryDeallocated(id);
+                }
+            }
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    // commands
+
+    /**
+     * Completes a command of the given queue, creates the event if requested.
+     */
+    private int complete(final FakeObject queue, final int commandType, final PointerBuffer event) {
+        if(event != null) {
+            final FakeObject e = create(Kind.EVENT, queue.parent);
+            e.commandType = commandType;
+            e.queue = queue.id;
+            e.status = CL.CL_COMPLETE;
+            e.queued = e.submit = e.start = System.nanoTime();
+            e.end = e.start + commandNanos;
+            event.put(event.position(), e.id);
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    /**
+     * Commands which are not modelled, they complete without effect.
+     */
+    private int enqueue(final long queueID, final int commandType, final PointerBuffer event) {
+        final FakeObject queue = get(queueID, Kind.QUEUE);
+        return queue == null ? CL.CL_INVALID_COMMAND_QUEUE : complete(queue, commandType, event);
+    }
+
+    @Override
+    public int clEnqueueReadBuffer(final long command_queue, final long buffer, final int blocking_read, final long offset, final long cb, final Buffer ptr,
+                                   final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueReadBuffer");
+        final FakeObject queue = get(command_queue, Kind.QUEUE);
+        final FakeObject mem = get(buffer, Kind.MEMORY);
+        if(queue == null) {
+            return CL.CL_INVALID_COMMAND_QUEUE;
+        }else if(mem == null) {
+            return CL.CL_INVALID_MEM_OBJECT;
+        }else if(offset < 0 || cb < 0 || offset+cb > mem.size) {
+            return CL.CL_INVALID_VALUE;
+        }
+        copyToHost(mem.storage(), (int)offset, ptr, (int)cb);
+        return complete(queue, CL.CL_COMMAND_READ_BUFFER, event);
+    }
+
+    @Override
+    public int clEnqueueWriteBuffer(final long command_queue, final long buffer, final int blocking_write, final long offset, final long cb, final Buffer ptr,
+                                    final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueWriteBuffer");
+        final FakeObject queue = get(command_queue, Kind.QUEUE);
+        final FakeObject mem = get(buffer, Kind.MEMORY);
+        if(queue == null) {
+            return CL.CL_INVALID_COMMAND_QUEUE;
+        }else if(mem == null) {
+            return CL.CL_INVALID_MEM_OBJECT;
+        }else if(offset < 0 || cb < 0 || offset+cb > mem.size) {
+            return CL.CL_INVALID_VALUE;
+        }
+        copyFromHost(ptr, mem.storage(), (int)offset, (int)cb);
+        return complete(queue, CL.CL_COMMAND_WRITE_BUFFER, event);
+    }
+
+    @Override
+    public int clEnqueueCopyBuffer(final long command_queue, final long src_buffer, final long dst_buffer, final long src_offset, final long dst_offset, final long cb,
+                                   final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueCopyBuffer");
+        final FakeObject queue = get(command_queue, Kind.QUEUE);
+        final FakeObject src = get(src_buffer, Kind.MEMORY);
+        final FakeObject dest = get(dst_buffer, Kind.MEMORY);
+        if(queue == null) {
+            return CL.CL_INVALID_COMMAND_QUEUE;
+        }else if(src == null || dest == null) {
+            return CL.CL_INVALID_MEM_OBJECT;
+        }else if(src_offset+cb > src.size || dst_offset+cb > dest.size) {
+            return CL.CL_INVALID_VALUE;
+        }
+        final ByteBuffer from = src.storage().duplicate();
+        from.position((int)src_offset).limit((int)(src_offset+cb));
+        final ByteBuffer to = dest.storage().duplicate();
+        to.position((int)dst_offset);
+        to.put(from);
+        return complete(queue, CL.CL_COMMAND_COPY_BUFFER, event);
+    }
+
+    @Override
+    public int clEnqueueReadBufferRect(final long command_queue, final long buffer, final int blocking_read, final PointerBuffer buffer_offset,
+                                       final PointerBuffer host_offset, final PointerBuffer region, final long buffer_row_pitch, final long buffer_slice_pitch,
+                                       final long host_row_pitch, final long host_slice_pitch, final Buffer ptr,
+                                       final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueReadBufferRect");
+        return enqueue(command_queue, CL.CL_COMMAND_READ_BUFFER_RECT, event);
+    }
+
+    @Override
+    public int clEnqueueWriteBufferRect(final long command_queue, final long buffer, final int blocking_write, final PointerBuffer buffer_offset,
+                                        final PointerBuffer host_offset, final PointerBuffer region, final long buffer_row_pitch, final long buffer_slice_pitch,
+                                        final long host_row_pitch, final long host_slice_pitch, final Buffer ptr,
+                                        final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueWriteBufferRect");
+        return enqueue(command_queue, CL.CL_COMMAND_WRITE_BUFFER_RECT, event);
+    }
+
+    @Override
+    public int clEnqueueCopyBufferRect(final long command_queue, final long src_buffer, final long dst_buffer, final PointerBuffer src_origin,
+                                       final PointerBuffer dst_origin, final PointerBuffer region, final long src_row_pitch, final long src_slice_pitch,
+                                       final long dst_row_pitch, final long dst_slice_pitch,
+                                       final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueCopyBufferRect");
+        return enqueue(command_queue, CL.CL_COMMAND_COPY_BUFFER_RECT, event);
+    }
+
+    @Override
+    public int clEnqueueReadImage(final long command_queue, final long image, final int blocking_read, final PointerBuffer origin, final PointerBuffer region,
+                                  final long row_pitch, final long slice_pitch, final Buffer ptr,
+                                  final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueReadImage");
+        return enqueue(command_queue, CL.CL_COMMAND_READ_IMAGE, event);
+    }
+
+    @Override
+    public int clEnqueueWriteImage(final long command_queue, final long image, final int blocking_write, final PointerBuffer origin, final PointerBuffer region,
+                                   final long input_row_pitch, final long input_slice_pitch, final Buffer ptr,
+                                   final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueWriteImage");
+        return enqueue(command_queue, CL.CL_COMMAND_WRITE_IMAGE, event);
+    }
+
+    @Override
+    public int clEnqueueCopyImage(final long command_queue, final long src_image, final long dst_image, final PointerBuffer src_origin,
+                                  final PointerBuffer dst_origin, final PointerBuffer region,
+                                  final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueCopyImage");
+        return enqueue(command_queue, CL.CL_COMMAND_COPY_IMAGE, event);
+    }
+
+    @Override
+    public int clEnqueueCopyImageToBuffer(final long command_queue, final long src_image, final long dst_buffer, final PointerBuffer src_origin,
+                                          final PointerBuffer region, final long dst_offset,
+                                          final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueCopyImageToBuffer");
+        return enqueue(command_queue, CL.CL_COMMAND_COPY_IMAGE_TO_BUFFER, event);
+    }
+
+    @Override
+    public int clEnqueueCopyBufferToImage(final long command_queue, final long src_buffer, final long dst_image, final long src_offset,
+                                          final PointerBuffer dst_origin, final PointerBuffer region,
+                                          final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueCopyBufferToImage");
+        return enqueue(command_queue, CL.CL_COMMAND_COPY_BUFFER_TO_IMAGE, event);
+    }
+
+    @Override
+    public ByteBuffer clEnqueueMapBuffer(final long command_queue, final long buffer, final int blocking_map, final long map_flags, final long offset, final long cb,
+                                         final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event, final IntBuffer errcode_ret) {
+        call("clEnqueueMapBuffer");
+        final FakeObject queue = get(command_queue, Kind.QUEUE);
+        final FakeObject mem = get(buffer, Kind.MEMORY);
+        if(queue == null) {
+            setError(errcode_ret, null, 0, CL.CL_INVALID_COMMAND_QUEUE);
+            return Buffers.newDirectByteBuffer(0);
+        }else if(mem == null || offset < 0 || offset+cb > mem.size) {
+            setError(errcode_ret, null, 0, mem == null ? CL.CL_INVALID_MEM_OBJECT : CL.CL_INVALID_VALUE);
+            return Buffers.newDirectByteBuffer(0);
+        }
+        final ByteBuffer mapped = mem.storage().duplicate();
+        mapped.position((int)offset).limit((int)(offset+cb));
+        complete(queue, CL.CL_COMMAND_MAP_BUFFER, event);
+        setError(errcode_ret, null, 0, CL.CL_SUCCESS);
+        return mapped.slice().order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public ByteBuffer clEnqueueMapImage(final long command_queue, final long image, final int blocking_map, final long map_flags,
+                                        final PointerBuffer origin, final PointerBuffer region, final PointerBuffer image_row_pitch, final PointerBuffer image_slice_pitch,
+                                        final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event, final IntBuffer errcode_ret) {
+        call("clEnqueueMapImage");
+        setError(errcode_ret, null, 0, get(command_queue, Kind.QUEUE) == null ? CL.CL_INVALID_COMMAND_QUEUE : CL.CL_INVALID_OPERATION);
+        return Buffers.newDirectByteBuffer(0);
+    }
+
+    @Override
+    public int clEnqueueUnmapMemObject(final long command_queue, final long memobj, final Buffer mapped_ptr,
+                                       final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueUnmapMemObject");
+        return enqueue(command_queue, CL.CL_COMMAND_UNMAP_MEM_OBJECT, event);
+    }
+
+    @Override
+    public int clEnqueueNDRangeKernel(final long command_queue, final long kernel, final int work_dim, final PointerBuffer global_work_offset,
+                                      final PointerBuffer global_work_size, final PointerBuffer local_work_size,
+                                      final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueNDRangeKernel");
+        return enqueueKernel(command_queue, kernel, CL.CL_COMMAND_NDRANGE_KERNEL, event);
+    }
+
+    @Override
+    public int clEnqueueTask(final long command_queue, final long kernel,
+                             final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueTask");
+        return enqueueKernel(command_queue, kernel, CL.CL_COMMAND_TASK, event);
+    }
+
+    private int enqueueKernel(final long queueID, final long kernel, final int commandType, final PointerBuffer event) {
+        final FakeObject queue = get(queueID, Kind.QUEUE);
+        if(queue == null) {
+            return CL.CL_INVALID_COMMAND_QUEUE;
+        }else if(get(kernel, Kind.KERNEL) == null) {
+            return CL.CL_INVALID_KERNEL;
+        }
+        return complete(queue, commandType, event);
+    }
+
+    @Override
+    public int clEnqueueMarker(final long command_queue, final PointerBuffer event) {
+        call("clEnqueueMarker");
+        return enqueue(command_queue, CL.CL_COMMAND_MARKER, event);
+    }
+
+    @Override
+    public int clEnqueueWaitForEvents(final long command_queue, final int num_events, final PointerBuffer event_list) {
+        call("clEnqueueWaitForEvents");
+        return enqueue(command_queue, 0, null);
+    }
+
+    @Override
+    public int clEnqueueBarrier(final long command_queue) {
+        call("clEnqueueBarrier");
+        return enqueue(command_queue, 0, null);
+    }
+
+    @Override
+    public int clEnqueueAcquireGLObjects(final long command_queue, final int num_objects, final PointerBuffer mem_objects,
+                                         final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueAcquireGLObjects");
+        return enqueue(command_queue, CL.CL_COMMAND_ACQUIRE_GL_OBJECTS, event);
+    }
+
+    @Override
+    public int clEnqueueReleaseGLObjects(final long command_queue, final int num_objects, final PointerBuffer mem_objects,
+                                         final int num_events_in_wait_list, final PointerBuffer event_wait_list, final PointerBuffer event) {
+        call("clEnqueueReleaseGLObjects");
+        return enqueue(command_queue, CL.CL_COMMAND_RELEASE_GL_OBJECTS, event);
+    }
+
+    // info queries: (object, [device,] name, valueSize, value, valueSizeRet)
+
+    @Override
+    public int clGetPlatformInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetPlatformInfo");
+        final FakeObject object = get(id, Kind.PLATFORM);
+        return object == null ? CL.CL_INVALID_PLATFORM : info(platformInfo(param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetDeviceInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetDeviceInfo");
+        final FakeObject object = objects.get(id);
+        return object == null ? CL.CL_INVALID_DEVICE : info(deviceInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetContextInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetContextInfo");
+        final FakeObject object = get(id, Kind.CONTEXT);
+        return object == null ? CL.CL_INVALID_CONTEXT : info(contextInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetCommandQueueInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetCommandQueueInfo");
+        final FakeObject object = get(id, Kind.QUEUE);
+        return object == null ? CL.CL_INVALID_COMMAND_QUEUE : info(queueInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetMemObjectInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetMemObjectInfo");
+        final FakeObject object = get(id, Kind.MEMORY);
+        return object == null ? CL.CL_INVALID_MEM_OBJECT : info(memInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetImageInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetImageInfo");
+        final FakeObject object = get(id, Kind.MEMORY);
+        return object == null ? CL.CL_INVALID_MEM_OBJECT : info(null, param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetGLTextureInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetGLTextureInfo");
+        final FakeObject object = get(id, Kind.MEMORY);
+        return object == null ? CL.CL_INVALID_MEM_OBJECT : info(null, param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetGLContextInfoKHR(final PointerBuffer properties, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetGLContextInfoKHR");
+        return CL.CL_INVALID_OPERATION;
+    }
+
+    @Override
+    public int clGetSamplerInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetSamplerInfo");
+        final FakeObject object = get(id, Kind.OTHER);
+        return object == null ? CL.CL_INVALID_SAMPLER : info(null, param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetProgramInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetProgramInfo");
+        final FakeObject object = get(id, Kind.PROGRAM);
+        return object == null ? CL.CL_INVALID_PROGRAM : info(programInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetProgramBuildInfo(final long id, final long device, final int param_name, final long param_value_size, final Buffer param_value,
+                                     final PointerBuffer param_value_size_ret) {
+        call("clGetProgramBuildInfo");
+        final FakeObject object = get(id, Kind.PROGRAM);
+        return object == null ? CL.CL_INVALID_PROGRAM : info(buildInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetKernelInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetKernelInfo");
+        final FakeObject object = get(id, Kind.KERNEL);
+        return object == null ? CL.CL_INVALID_KERNEL : info(kernelInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetKernelWorkGroupInfo(final long id, final long device, final int param_name, final long param_value_size, final Buffer param_value,
+                                        final PointerBuffer param_value_size_ret) {
+        call("clGetKernelWorkGroupInfo");
+        final FakeObject object = get(id, Kind.KERNEL);
+        return object == null ? CL.CL_INVALID_KERNEL : info(workGroupInfo(param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetEventInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetEventInfo");
+        final FakeObject object = get(id, Kind.EVENT);
+        return object == null ? CL.CL_INVALID_EVENT : info(eventInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    @Override
+    public int clGetEventProfilingInfo(final long id, final int param_name, final long param_value_size, final Buffer param_value, final PointerBuffer param_value_size_ret) {
+        call("clGetEventProfilingInfo");
+        final FakeObject object = get(id, Kind.EVENT);
+        return object == null ? CL.CL_INVALID_EVENT : info(profilingInfo(object, param_name), param_value_size, param_value, param_value_size_ret);
+    }
+
+    /**
+     * Answers an info query with the given value, unknown properties (null) are zero.
+     */
+    private static int info(byte[] bytes, final long valueSize, final Buffer value, final PointerBuffer valueSizeRet) {
+        if(bytes == null) {
+            bytes = new byte[valueSize > 0 ? (int)valueSize : 8];
+        }
+        if(value != null) {
+            if(valueSize < bytes.length && bytes.length > 8) {
+                return CL.CL_INVALID_VALUE;
+            }
+            final ByteBuffer src = ByteBuffer.wrap(bytes, 0, (int)Math.min(bytes.length, valueSize)).order(ByteOrder.nativeOrder());
+            copyToHost(src, 0, value, src.remaining());
+        }
+        if(valueSizeRet != null) {
+            valueSizeRet.put(valueSizeRet.position(), bytes.length);
+        }
+        return CL.CL_SUCCESS;
+    }
+
+    private byte[] platformInfo(final int key) {
+        switch(key) {
+            case CL.CL_PLATFORM_PROFILE:    return string("FULL_PROFILE");
+            case CL.CL_PLATFORM_VERSION:    return string("OpenCL 1.1 JOCL fake");
+            case CL.CL_PLATFORM_NAME:       return string(PLATFORM_NAME);
+            case CL.CL_PLATFORM_VENDOR:     return string("JogAmp Community");
+            case CL.CL_PLATFORM_EXTENSIONS: return string("");
+            default:                        return null;
+        }
+    }
+
+    private byte[] deviceInfo(final FakeObject device, final int key) {
+        switch(key) {
+            case CL.CL_DEVICE_TYPE:                     return ulong(CL.CL_DEVICE_TYPE_CPU);
+            case CL.CL_DEVICE_VENDOR_ID:                return uint(0);
+            case CL.CL_DEVICE_MAX_COMPUTE_UNITS:        return uint(Runtime.getRuntime().availableProcessors());
+            case CL.CL_DEVICE_MAX_WORK_ITEM_DIMENSIONS: return uint(3);
+            case CL.CL_DEVICE_MAX_WORK_ITEM_SIZES:      return sizeT(1024, 1024, 1024);
+            case CL.CL_DEVICE_MAX_WORK_GROUP_SIZE:      return sizeT(1024);
+            case CL.CL_DEVICE_MAX_CLOCK_FREQUENCY:      return uint(1000);
+            case CL.CL_DEVICE_ADDRESS_BITS:             return uint(SIZE_T*8);
+            case CL.CL_DEVICE_MAX_MEM_ALLOC_SIZE:       return ulong(Integer.MAX_VALUE);
+            case CL.CL_DEVICE_GLOBAL_MEM_SIZE:          return ulong(Runtime.getRuntime().maxMemory());
+            case CL.CL_DEVICE_LOCAL_MEM_SIZE:           return ulong(32*1024);
+            case CL.CL_DEVICE_LOCAL_MEM_TYPE:           return uint(CL.CL_GLOBAL);
+            case CL.CL_DEVICE_MAX_CONSTANT_BUFFER_SIZE: return ulong(64*1024);
+            case CL.CL_DEVICE_MAX_PARAMETER_SIZE:       return sizeT(1024);
+            case CL.CL_DEVICE_MEM_BASE_ADDR_ALIGN:      return uint(1024);
+            case CL.CL_DEVICE_PROFILING_TIMER_RESOLUTION: return sizeT(1);
+            case CL.CL_DEVICE_AVAILABLE:                return uint(CL.CL_TRUE);
+            case CL.CL_DEVICE_COMPILER_AVAILABLE:       return uint(CL.CL_TRUE);
+            case CL.CL_DEVICE_HOST_UNIFIED_MEMORY:      return uint(CL.CL_TRUE);
+            case CL.CL_DEVICE_ENDIAN_LITTLE:            return uint(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? CL.CL_TRUE : CL.CL_FALSE);
+            case CL.CL_DEVICE_EXECUTION_CAPABILITIES:   return ulong(CL.CL_EXEC_KERNEL);
+            case CL.CL_DEVICE_QUEUE_PROPERTIES:         return ulong(CL.CL_QUEUE_PROFILING_ENABLE | CL.CL_QUEUE_OUT_OF_ORDER_EXEC_MODE_ENABLE);
+            case CL.CL_DEVICE_PLATFORM:                 return sizeT(platform);
+            case CL.CL_DEVICE_NAME:                     return string(device.name);
+            case CL.CL_DEVICE_VENDOR:                   return string("JogAmp Community");
+            case CL.CL_DRIVER_VERSION:                  return string("1.0");
+            case CL.CL_DEVICE_PROFILE:                  return string("FULL_PROFILE");
+            case CL.CL_DEVICE_VERSION:                  return string(deviceVersion);
+            case CL.CL_DEVICE_OPENCL_C_VERSION:         return string("OpenCL C 1.1");
+            case CL.CL_DEVICE_EXTENSIONS:               return string("");
+            default:                                    return null;
+        }
+    }
+
+    private byte[] contextInfo(final FakeObject context, final int key) {
+        switch(key) {
+            case CL.CL_CONTEXT_DEVICES:         return sizeT(context.devices);
+            case CL.CL_CONTEXT_NUM_DEVICES:     return uint(context.devices.length);
+            case CL.CL_CONTEXT_REFERENCE_COUNT: return uint(context.references.get());
+            default:                            return null;
+        }
+    }
+
+    private byte[] queueInfo(final FakeObject queue, final int key) {
+        switch(key) {
+            case CL.CL_QUEUE_CONTEXT:         return sizeT(queue.parent);
+            case CL.CL_QUEUE_DEVICE:          return sizeT(queue.device);
+            case CL.CL_QUEUE_PROPERTIES:      return ulong(queue.properties);
+            case CL.CL_QUEUE_REFERENCE_COUNT: return uint(queue.references.get());
+            default:                          return null;
+        }
+    }
+
+    private byte[] memInfo(final FakeObject mem, final int key) {
+        switch(key) {
+            case CL.CL_MEM_TYPE:            return uint(CL.CL_MEM_OBJECT_BUFFER);
+            case CL.CL_MEM_FLAGS:           return ulong(mem.flags);
+            case CL.CL_MEM_SIZE:            return sizeT(mem.size);
+            case CL.CL_MEM_MAP_COUNT:       return uint(0);
+            case CL.CL_MEM_REFERENCE_COUNT: return uint(mem.references.get());
+            case CL.CL_MEM_CONTEXT:         return sizeT(mem.parent);
+            default:                        return null;
+        }
+    }
+
+    private byte[] programInfo(final FakeObject program, final int key) {
+        switch(key) {
+            case CL.CL_PROGRAM_CONTEXT:         return sizeT(program.parent);
+            case CL.CL_PROGRAM_NUM_DEVICES:     return uint(program.devices.length);
+            case CL.CL_PROGRAM_DEVICES:         return sizeT(program.devices);
+            case CL.CL_PROGRAM_SOURCE:          return string(program.source);
+            case CL.CL_PROGRAM_REFERENCE_COUNT: return uint(program.references.get());
+            case CL.CL_PROGRAM_BINARY_SIZES:    return sizeT(new long[program.devices.length]);
+            default:                            return null;
+        }
+    }
+
+    private byte[] buildInfo(final FakeObject program, final int key) {
+        switch(key) {
+            case CL.CL_PROGRAM_BUILD_STATUS:  return uint(program.built ? CL.CL_BUILD_SUCCESS : CL.CL_BUILD_NONE);
+            case CL.CL_PROGRAM_BUILD_OPTIONS: return string(program.options == null ? "" : program.options);
+            case CL.CL_PROGRAM_BUILD_LOG:     return string("");
+            default:                          return null;
+        }
+    }
+
+    private byte[] kernelInfo(final FakeObject kernel, final int key) {
+        switch(key) {
+            case CL.CL_KERNEL_FUNCTION_NAME:   return string(kernel.name);
+            case CL.CL_KERNEL_NUM_ARGS:        return uint(kernel.numArgs);
+            case CL.CL_KERNEL_REFERENCE_COUNT: return uint(kernel.references.get());
+            case CL.CL_KERNEL_PROGRAM:         return sizeT(kernel.parent);
+            default:                           return null;
+        }
+    }
+
+    private byte[] workGroupInfo(final int key) {
+        switch(key) {
+            case CL.CL_KERNEL_WORK_GROUP_SIZE:         return sizeT(1024);
+            case CL.CL_KERNEL_COMPILE_WORK_GROUP_SIZE: return sizeT(0, 0, 0);
+            case CL.CL_KERNEL_LOCAL_MEM_SIZE:          return ulong(0);
+            default:                                   return null;
+        }
+    }
+
+    private byte[] eventInfo(final FakeObject event, final int key) {
+        switch(key) {
+            case CL.CL_EVENT_COMMAND_EXECUTION_STATUS: synchronized(event) { return uint(event.status); }
+            case CL.CL_EVENT_COMMAND_TYPE:             return uint(event.commandType);
+            case CL.CL_EVENT_COMMAND_QUEUE:            return sizeT(event.queue);
+            case CL.CL_EVENT_REFERENCE_COUNT:          return uint(event.references.get());
+            case CL.CL_EVENT_CONTEXT:                  return sizeT(event.parent);
+            default:                                   return null;
+        }
+    }
+
+    private byte[] profilingInfo(final FakeObject event, final int key) {
+        switch(key) {
+            case CL.CL_PROFILING_COMMAND_QUEUED: return ulong(event.queued);
+            case CL.CL_PROFILING_COMMAND_SUBMIT: return ulong(event.submit);
+            case CL.CL_PROFILING_COMMAND_START:  return ulong(event.start);
+            case CL.CL_PROFILING_COMMAND_END:    return ulong(event.end);
+            default:                             return null;
+        }
+    }
+
+    private static byte[] uint(final long value) {
+        final byte[] bytes = new byte[4];
+        ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder()).putInt(0, (int)value);
+        return bytes;
+    }
+
+    private static byte[] ulong(final long value) {
+        final byte[] bytes = new byte[8];
+        ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder()).putLong(0, value);
+        return bytes;
+    }
+
+    private static byte[] sizeT(final long... values) {
+        final ByteBuffer bb = ByteBuffer.allocate(values.length*SIZE_T).order(ByteOrder.nativeOrder());
+        for (final long value : values) {
+            if(SIZE_T == 8) {
+                bb.putLong(value);
+            }else{
+                bb.putInt((int)value);
+            }
+        }
+        return bb.array();
+    }
+
+    private static byte[] string(final String value) {
+        final byte[] chars = value.getBytes();
+        final byte[] bytes = new byte[chars.length+1];
+        System.arraycopy(chars, 0, bytes, 0, chars.length);
+        return bytes;
+    }
+
+    /**
+     * Copies bytes from the storage to the host buffer, starting at the position of the host buffer.
+     */
+    private static void copyToHost(final ByteBuffer storage, final int offset, final Buffer host, final int bytes) {
+        final ByteBuffer src = storage.duplicate().order(ByteOrder.nativeOrder());
+        src.position(offset).limit(offset+bytes);
+        final ByteBuffer view = src.slice().order(ByteOrder.nativeOrder());
+        if(host instanceof ByteBuffer) {
+            ((ByteBuffer)host).duplicate().put(view);
+        }else if(host instanceof FloatBuffer) {
+            ((FloatBuffer)host).duplicate().put(view.asFloatBuffer());
+        }else if(host instanceof IntBuffer) {
+            ((IntBuffer)host).duplicate().put(view.asIntBuffer());
+        }else if(host instanceof LongBuffer) {
+            ((LongBuffer)host).duplicate().put(view.asLongBuffer());
+        }else if(host instanceof DoubleBuffer) {
+            ((DoubleBuffer)host).duplicate().put(view.asDoubleBuffer());
+        }else if(host instanceof ShortBuffer) {
+            ((ShortBuffer)host).duplicate().put(view.asShortBuffer());
+        }else if(host instanceof CharBuffer) {
+            ((CharBuffer)host).duplicate().put(view.asCharBuffer());
+        }
+    }
+
+    /**
+     * Copies bytes from the host buffer, starting at its position, to the storage.
+     */
+    private static void copyFromHost(final Buffer host, final ByteBuffer storage, final int offset, final int bytes) {
+        final ByteBuffer dest = storage.duplicate().order(ByteOrder.nativeOrder());
+        dest.position(offset).limit(offset+bytes);
+        final ByteBuffer view = dest.slice().order(ByteOrder.nativeOrder());
+        if(host instanceof ByteBuffer) {
+            final ByteBuffer src = ((ByteBuffer)host).duplicate();
+            src.limit(src.position()+bytes);
+            view.put(src);
+        }else if(host instanceof FloatBuffer) {
+            final FloatBuffer src = ((FloatBuffer)host).duplicate();
+            src.limit(src.position()+bytes/4);
+            view.asFloatBuffer().put(src);
+        }else if(host instanceof IntBuffer) {
+            final IntBuffer src = ((IntBuffer)host).duplicate();
+            src.limit(src.position()+bytes/4);
+            view.asIntBuffer().put(src);
+        }else if(host instanceof LongBuffer) {
+            final LongBuffer src = ((LongBuffer)host).duplicate();
+            src.limit(src.position()+bytes/8);
+            view.asLongBuffer().put(src);
+        }else if(host instanceof DoubleBuffer) {
+            final DoubleBuffer src = ((DoubleBuffer)host).duplicate();
+            src.limit(src.position()+bytes/8);
+            view.asDoubleBuffer().put(src);
+        }else if(host instanceof ShortBuffer) {
+            final ShortBuffer src = ((ShortBuffer)host).duplicate();
+            src.limit(src.position()+bytes/2);
+            view.asShortBuffer().put(src);
+        }else if(host instanceof CharBuffer) {
+            final CharBuffer src = ((CharBuffer)host).duplicate();
+            src.limit(src.position()+bytes/2);
+            view.asCharBuffer().put(src);
+        }
+    }
+
+}
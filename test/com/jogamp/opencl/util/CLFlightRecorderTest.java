@@ -0,0 +1,249 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.common.nio.PointerBuffer;
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandListener;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLEvent.CommandType;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLProgram;
+import com.jogamp.opencl.impl.CLFakeBinding;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Tests the command listener hooks and the flight recorder events against the fake binding.
+ */
+public class CLFlightRecorderTest {
+
+    private static final String SOURCE = "kernel void record_me(global float* data) { }";
+
+    private static CLFakeBinding fake;
+
+    @BeforeClass
+    public static void install() {
+        fake = CLFakeBinding.install();
+    }
+
+    /**
+     * Records the calls it receives.
+     */
+    private static class Calls implements CLCommandListener {
+
+        private final List<String> calls = new ArrayList<String>();
+        private final boolean completion;
+
+        private Calls(final boolean completion) {
+            this.completion = completion;
+        }
+
+        @Override
+        public void commandEnqueued(final CLCommandQueue queue, final CommandType type, final String name, final long hostStart, final long hostEnd) {
+            calls.add(type.name());
+        }
+        @Override
+        public void kernelEnqueued(final CLCommandQueue queue, final CLKernel kernel, final int workDimension,
+                                   final PointerBuffer globalWorkSize, final PointerBuffer localWorkSize) {
+            calls.add(kernel.name+" "+workDimension+(globalWorkSize == null ? ""
+                    : " "+globalWorkSize.get(globalWorkSize.position()+1)+" "+localWorkSize.get(localWorkSize.position()+1)));
+        }
+        @Override
+        public boolean needsCompletion() {
+            return completion;
+        }
+        @Override
+        public void commandCompleted(final CLCommandQueue queue, final CommandType type, final String name, final long hostEnqueued,
+                                     final long queued, final long submit, final long start, final long end) {
+            calls.add("completed "+type.name());
+        }
+        @Override
+        public void waitCompleted(final CLCommandQueue queue, final long hostStart, final long hostEnd) {
+            calls.add("wait "+(queue != null));
+        }
+        @Override
+        public void programBuilt(final CLProgram program, final String options, final CLDevice[] devices, final boolean success,
+                                 final long hostStart, final long hostEnd) {
+            calls.add("build "+options+" "+success);
+        }
+        @Override
+        public void memoryCreated(final CLMemory<?> memory) {
+            calls.add("create "+memory.getCLSize());
+        }
+        @Override
+        public void memoryReleased(final CLMemory<?> memory) {
+            calls.add("release "+memory.getCLSize());
+        }
+    }
+
+    /**
+     * Runs one of each instrumented operations.
+     */
+    private static void work(final CLContext context) {
+        final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+        final CLProgram program = context.createProgram(SOURCE).build("-Werror");
+        final CLKernel kernel = program.createCLKernel("record_me");
+        final CLBuffer<?> buffer = context.createBuffer(256, Mem.READ_ONLY);
+        buffer.createSubBuffer(64, 128, Mem.READ_ONLY);
+        kernel.setArg(0, buffer);
+        queue.put2DRangeKernel(kernel, 0, 0, 64, 32, 16, 8).putTask(kernel).finish();
+
+        final CLEventList events = new CLEventList(1);
+        queue.putWriteBuffer(buffer, false, events);
+        events.waitForEvents();
+        events.release();
+        buffer.release();
+    }
+
+    @Test
+    public void hooksTest() {
+
+        final Calls listener = new Calls(false);
+        final List<String> calls = listener.calls;
+
+        final CLContext context = CLContext.create();
+        try{
+            context.addCommandListener(listener);
+            CLEventList.addWaitListener(listener);
+            try{
+                work(context);
+            }finally{
+                context.removeCommandListener(listener);
+                CLEventList.removeWaitListener(listener);
+            }
+
+            final List<String> expected = new ArrayList<String>();
+            expected.add("build -Werror true");
+            expected.add("create 256");
+            expected.add("create 128");
+            expected.add("NDRANGE_KERNEL");
+            expected.add("record_me 2 32 8");
+            expected.add("TASK");
+            expected.add("record_me 1");
+            expected.add("wait true");
+            expected.add("WRITE_BUFFER");
+            expected.add("wait false");
+            expected.add("release 128");
+            expected.add("release 256");
+            assertEquals(expected, calls);
+
+            // no more calls after removal
+            work(context);
+            assertEquals(expected.size(), calls.size());
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void completionTest() {
+
+        final CLContext context = CLContext.create();
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue(CLCommandQueue.Mode.PROFILING_MODE);
+            final CLBuffer<?> buffer = context.createBuffer(256, Mem.READ_WRITE);
+
+            // listeners without completion cost no events and callbacks on profiling queues
+            final Calls enqueues = new Calls(false);
+            queue.addCommandListener(enqueues);
+            final long callbacks = fake.getCallCount("clSetEventCallback");
+            queue.putWriteBuffer(buffer, false).putReadBuffer(buffer, true);
+            assertEquals(callbacks, fake.getCallCount("clSetEventCallback"));
+            assertEquals(Arrays.asList("WRITE_BUFFER", "READ_BUFFER"), enqueues.calls);
+
+            final Calls completions = new Calls(true);
+            queue.addCommandListener(completions);
+            queue.putWriteBuffer(buffer, false).finish();
+            assertEquals(callbacks+1, fake.getCallCount("clSetEventCallback"));
+            assertEquals(Arrays.asList("WRITE_BUFFER", "READ_BUFFER", "WRITE_BUFFER", "wait true"), enqueues.calls);
+            assertEquals(Arrays.asList("WRITE_BUFFER", "completed WRITE_BUFFER", "wait true"), completions.calls);
+
+            queue.removeCommandListener(completions);
+            queue.putWriteBuffer(buffer, true);
+            assertEquals(callbacks+1, fake.getCallCount("clSetEventCallback"));
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void recordingTest() throws Exception {
+        assumeTrue(CLFlightRecorder.isAvailable());
+
+        final CLFlightRecorder recorder = CLFlightRecorder.install();
+        assertSame(recorder, CLFlightRecorder.install());
+        final CLContext context = CLContext.create();
+        try{
+            recorder.instrument(context);
+            // not recording, the recorder is no listener
+            assertFalse(recorder.isAttached());
+            work(context);
+
+            final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+            final Object recording = recordingClass.newInstance();
+            recordingClass.getMethod("start").invoke(recording);
+            assertTrue(recorder.isAttached());
+            work(context);
+            recordingClass.getMethod("stop").invoke(recording);
+            assertFalse(recorder.isAttached());
+
+            final File file = File.createTempFile("jocl", ".jfr");
+            file.deleteOnExit();
+            recordingClass.getMethod("dump", java.nio.file.Path.class).invoke(recording, file.toPath());
+            recordingClass.getMethod("close").invoke(recording);
+
+            final Method readAll = Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", java.nio.file.Path.class);
+            final List<String> names = new ArrayList<String>();
+            final List<String> kernels = new ArrayList<String>();
+            for (final Object event : (List<?>)readAll.invoke(null, file.toPath())) {
+                final Object type = event.getClass().getMethod("getEventType").invoke(event);
+                final String name = (String)type.getClass().getMethod("getName").invoke(type);
+                if(name.startsWith("jocl.")) {
+                    names.add(name);
+                }
+                if(name.equals("jocl.KernelEnqueue")) {
+                    final Method getString = event.getClass().getMethod("getString", String.class);
+                    kernels.add(getString.invoke(event, "kernel")+" "+getString.invoke(event, "globalWorkSize")+" "+getString.invoke(event, "localWorkSize"));
+                }
+            }
+
+            assertEquals(1, count(names, "jocl.ProgramBuild"));
+            assertEquals(2, count(names, "jocl.MemoryCreate"));
+            assertEquals(2, count(names, "jocl.MemoryRelease"));
+            assertEquals(2, count(names, "jocl.Wait"));
+            assertEquals(2, kernels.size());
+            assertTrue(kernels.toString(), kernels.contains("record_me 64x32 16x8"));
+            assertTrue(kernels.toString(), kernels.contains("record_me 1 null"));
+        }finally{
+            recorder.release();
+            context.release();
+        }
+        assertTrue(recorder.isReleased());
+    }
+
+    private static int count(final List<String> list, final String value) {
+        int count = 0;
+        for (final String element : list) {
+            if(element.equals(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLEventList;
+import com.jogamp.opencl.CLKernel;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.impl.CLFakeBinding;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the timeline export against the fake binding, runs without OpenCL driver.
+ */
+public class CLTimelineTracerTest {
+
+    private static CLFakeBinding fake;
+
+    @BeforeClass
+    public static void install() {
+        fake = CLFakeBinding.install();
+    }
+
+    private static String read(final File file) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try{
+            String line;
+            while((line = reader.readLine()) != null) {
+                sb.append(line).append('\n');
+            }
+        }finally{
+            reader.close();
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void traceTest() throws IOException {
+
+        final File file = File.createTempFile("timeline", ".json");
+        file.deleteOnExit();
+
+        final CLContext context = CLContext.create();
+        final CLTimelineTracer tracer = CLTimelineTracer.create(file);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue(CLCommandQueue.Mode.PROFILING_MODE);
+            tracer.instrument(queue);
+
+            final CLKernel kernel = context.createProgram("kernel void trace_me(void) { }").build().createCLKernel("trace_me");
+            final CLBuffer<?> buffer = context.createBuffer(64, Mem.READ_WRITE);
+
+            fake.setCommandDuration(1, TimeUnit.MILLISECONDS);
+            queue.putWriteBuffer(buffer, false).put1DRangeKernel(kernel, 0, 64, 0).finish();
+
+            final CLEventList events = new CLEventList(1);
+            queue.putReadBuffer(buffer, false, events);
+            events.waitForEvents();
+            events.release();
+            fake.setCommandDuration(0, TimeUnit.MILLISECONDS);
+
+            tracer.remove(queue);
+            queue.put1DRangeKernel(kernel, 0, 64, 0);
+        }finally{
+            tracer.release();
+            context.release();
+        }
+        assertTrue(tracer.isReleased());
+        assertEquals(0, tracer.getDroppedEvents());
+
+        final String json = read(file);
+        assertTrue(json, json.startsWith("[\n"));
+        assertTrue(json, json.trim().endsWith("]"));
+
+        assertTrue(json, json.contains("\"args\":{\"name\":\"host\"}"));
+        assertTrue(json, json.contains("\"args\":{\"name\":\""+CLFakeBinding.DEVICE_NAME));
+        assertTrue(json, json.contains("\"args\":{\"name\":\"queue 1\"}"));
+
+        // host enqueue span and device span of the kernel, not traced after remove
+        assertEquals(json, 2, count(json, "\"name\":\"trace_me\""));
+        assertTrue(json, json.contains("\"cat\":\"kernel\""));
+        assertTrue(json, json.contains("\"name\":\"WRITE_BUFFER\""));
+        assertTrue(json, json.contains("\"name\":\"READ_BUFFER\""));
+        assertTrue(json, json.contains("\"dur\":1000.000"));
+
+        assertEquals(json, 1, count(json, "\"name\":\"finish\""));
+        assertEquals(json, 1, count(json, "\"name\":\"waitForEvents\""));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void capacityTest() throws IOException {
+        CLTimelineTracer.create(new File("unused.json"), 1, 1, TimeUnit.SECONDS);
+    }
+
+    private static int count(final String text, final String pattern) {
+        int count = 0;
+        int index = 0;
+        while((index = text.indexOf(pattern, index)) != -1) {
+            count++;
+            index += pattern.length();
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.impl.CLFakeBinding;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the setup of the queue contexts of a pool against the fake binding.
+ */
+public class CLCommandQueuePoolTest {
+
+    @Rule
+    public Timeout methodTimeout = new Timeout(20000);
+
+    @BeforeClass
+    public static void install() {
+        CLFakeBinding.install();
+    }
+
+    private static class BlankContext extends CLQueueContext {
+
+        private boolean released;
+
+        private BlankContext(final CLCommandQueue queue) {
+            super(queue);
+        }
+
+        @Override
+        public void release() {
+            released = true;
+        }
+
+        @Override
+        public boolean isReleased() {
+            return released;
+        }
+
+    }
+
+    @Test
+    public void emptyTest() {
+        try{
+            CLCommandQueuePool.create(new CLQueueContextFactory<BlankContext>() {
+                @Override
+                public BlankContext setup(final CLCommandQueue queue, final CLQueueContext old) {
+                    return new BlankContext(queue);
+                }
+            }, Collections.<CLCommandQueue>emptyList());
+            fail("expected exception");
+        }catch(final IllegalArgumentException ex) {
+            // a pool without queues could never run a task
+        }
+    }
+
+    @Test
+    public void interruptedSetupTest() throws InterruptedException {
+
+        final CLContext context = CLContext.create();
+        try{
+            final CLDevice device = context.getDevices()[0];
+            final CLCommandQueue first = device.createCommandQueue();
+            final CLCommandQueue second = device.createCommandQueue();
+
+            final CountDownLatch started = new CountDownLatch(2);
+            final CountDownLatch cancelled = new CountDownLatch(2);
+            final CLQueueContextFactory<BlankContext> factory = new CLQueueContextFactory<BlankContext>() {
+                @Override
+                public BlankContext setup(final CLCommandQueue queue, final CLQueueContext old) {
+                    started.countDown();
+                    try{
+                        // blocks until the pending setup is cancelled
+                        new CountDownLatch(1).await();
+                    }catch(final InterruptedException ex) {
+                        cancelled.countDown();
+                    }
+                    return new BlankContext(queue);
+                }
+            };
+
+            // interrupts the thread creating the pool once both setups are running
+            final Thread creator = Thread.currentThread();
+            new Thread() {
+                @Override
+                public void run() {
+                    try{
+                        started.await();
+                        creator.interrupt();
+                    }catch(final InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            }.start();
+
+            try{
+                CLCommandQueuePool.create(factory, Arrays.asList(first, second));
+                fail("expected exception");
+            }catch(final RuntimeException ex) {
+                assertTrue(ex.getCause() instanceof InterruptedException);
+            }
+            // the interrupt is restored and the setups are cancelled
+            assertTrue(Thread.interrupted());
+            cancelled.await();
+        }finally{
+            context.release();
+        }
+    }
+
+}
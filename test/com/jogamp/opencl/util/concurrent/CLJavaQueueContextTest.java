@@ -0,0 +1,210 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.util.concurrent.CLJavaKernel.WorkItem;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the java fallback of the queue pool, runs without OpenCL driver.
+ */
+public class CLJavaQueueContextTest {
+
+    @Rule
+    public Timeout methodTimeout = new Timeout(20000);
+
+    private static CLJavaContextFactory createFactory(final CLJavaExecutor executor) {
+        return new CLJavaContextFactory(executor)
+            .register(new CLJavaKernel("scale", 2) {
+                @Override
+                public void run(final WorkItem item) {
+                    final FloatBuffer data = getFloatBuffer(0);
+                    final int i = (int)item.getGlobalId(0);
+                    data.put(i, data.get(i) * getFloat(1));
+                }
+            })
+            .register(new CLJavaKernel("ids", 2) {
+                @Override
+                public void run(final WorkItem item) {
+                    final IntBuffer out = getIntBuffer(0);
+                    final int width = getInt(1);
+                    final int x = (int)item.getGlobalId(0);
+                    final int y = (int)item.getGlobalId(1);
+                    out.put(y*width+x, (int)(item.getGlobalId(0)*1000+item.getGlobalId(1)));
+                }
+            })
+            .register(new CLJavaKernel("fail", 0) {
+                @Override
+                public void run(final WorkItem item) {
+                    if(item.getGlobalId(0) == 4242) {
+                        throw new IllegalStateException("work item "+item.getGlobalId(0));
+                    }
+                }
+            });
+    }
+
+    /**
+     * Scales the buffer using only the methods shared by OpenCL and Java contexts.
+     */
+    static final class ScaleTask implements CLTask<CLQueueContext, FloatBuffer> {
+
+        private final FloatBuffer data;
+        private final float factor;
+
+        ScaleTask(final FloatBuffer data, final float factor) {
+            this.data = data;
+            this.factor = factor;
+        }
+
+        @Override
+        public FloatBuffer execute(final CLQueueContext context) {
+            final CLTaskBuffer<FloatBuffer> buffer = context.createBuffer(data, Mem.READ_WRITE);
+            try{
+                context.putWriteBuffer(buffer, false)
+                       .put1DRangeKernel("scale", 0, data.remaining(), 0, buffer, factor)
+                       .putReadBuffer(buffer, true);
+            }finally{
+                buffer.release();
+            }
+            return data;
+        }
+    }
+
+    @Test
+    public void poolTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(4).setMinChunkSize(64);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(createFactory(executor), 3);
+        try{
+            assertEquals(3, pool.getSize());
+            assertTrue(pool.getQueues().isEmpty());
+
+            final int tasks = 12;
+            final int size = 100000;
+            final List<FloatBuffer> buffers = new ArrayList<FloatBuffer>();
+            final List<CLTask<CLJavaQueueContext, Integer>> jobs = new ArrayList<CLTask<CLJavaQueueContext, Integer>>();
+            for (int t = 0; t < tasks; t++) {
+                final FloatBuffer data = Buffers.newDirectFloatBuffer(size);
+                for (int i = 0; i < size; i++) {
+                    data.put(i, i);
+                }
+                buffers.add(data);
+                final int factor = t;
+                jobs.add(new CLTask<CLJavaQueueContext, Integer>() {
+                    @Override
+                    public Integer execute(final CLJavaQueueContext context) {
+                        final CLJavaKernel kernel = context.getKernel("scale");
+                        kernel.rewind().putArg(data).putArg((float)factor);
+                        context.put1DRangeKernel(kernel, 0, size, 0);
+                        return factor;
+                    }
+                });
+            }
+
+            final List<Future<Integer>> results = pool.invokeAll(jobs);
+            for (int t = 0; t < tasks; t++) {
+                assertEquals(t, (int)results.get(t).get());
+                final FloatBuffer data = buffers.get(t);
+                for (int i = 0; i < size; i += 97) {
+                    assertEquals(i*(float)t, data.get(i), 0);
+                }
+            }
+
+            // pools without queues switch to new java contexts
+            pool.switchContext(createFactory(executor));
+            assertEquals(3, pool.getSize());
+            assertTrue(pool.getQueues().isEmpty());
+            pool.setFinishAction(CLCommandQueuePool.FinishAction.FINISH);
+
+            final FloatBuffer data = buffers.get(2);
+            pool.submit(new ScaleTask(data, 0.5f)).get();
+            for (int i = 0; i < size; i += 97) {
+                assertEquals(i, data.get(i), 0);
+            }
+        }finally{
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void rangeTest() {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(3).setMinChunkSize(7);
+        final CLJavaQueueContext context = createFactory(executor).setup(null);
+        try{
+            final int width = 37;
+            final int height = 23;
+            final IntBuffer out = Buffers.newDirectIntBuffer(width*height);
+            context.put2DRangeKernel(context.getKernel("ids").setArgs(out, width), 0, 0, width, height, 0, 0);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    assertEquals(x*1000+y, out.get(y*width+x));
+                }
+            }
+
+            // offsets shift the ids, sizes stay the same
+            final FloatBuffer data = Buffers.newDirectFloatBuffer(100);
+            for (int i = 0; i < 100; i++) {
+                data.put(i, 1);
+            }
+            context.put1DRangeKernel(context.getKernel("scale").setArgs(data, 3.0f), 50, 50, 10);
+            assertEquals(1, data.get(49), 0);
+            assertEquals(3, data.get(50), 0);
+            assertEquals(3, data.get(99), 0);
+
+            try{
+                context.put1DRangeKernel(context.getKernel("scale"), 0, 100, 30);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // 100 is not a multiple of 30
+            }
+        }finally{
+            context.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void failureTest() {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(4).setMinChunkSize(16);
+        final CLJavaQueueContext context = createFactory(executor).setup(null);
+        try{
+            context.put1DRangeKernel(context.getKernel("fail"), 0, 10000, 0);
+            fail("expected exception");
+        }catch(final IllegalStateException ex) {
+            assertEquals("work item 4242", ex.getMessage());
+        }finally{
+            context.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void copyTest() {
+        final CLJavaContextFactory factory = createFactory(CLJavaExecutor.getDefault());
+        final CLJavaQueueContext a = factory.setup(null);
+        final CLJavaQueueContext b = factory.setup(null);
+        assertNotSame(a.getKernel("scale"), b.getKernel("scale"));
+
+        a.getKernel("scale").setArg(1, 2.0f);
+        assertNull(b.getKernel("scale").getArg(1));
+        a.release();
+        b.release();
+    }
+
+}
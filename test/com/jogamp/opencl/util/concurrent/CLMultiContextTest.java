@@ -10,12 +10,14 @@ import com.jogamp.opencl.CLContext;
 import com.jogamp.opencl.CLDevice;
 import com.jogamp.opencl.CLKernel;
 import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.CLVersion;
 import com.jogamp.opencl.test.util.MiscUtils;
 import com.jogamp.opencl.test.util.UITestCase;
 import com.jogamp.opencl.util.concurrent.CLQueueContext.CLSimpleQueueContext;
 import com.jogamp.opencl.util.concurrent.CLQueueContextFactory.CLSimpleContextFactory;
 
 import java.io.IOException;
+import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -26,9 +28,11 @@ import org.junit.rules.Timeout;
 import org.junit.runners.MethodSorters;
 
 import com.jogamp.opencl.util.CLMultiContext;
+import com.jogamp.opencl.util.CLTransferEngine;
 
 import java.nio.Buffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
@@ -71,6 +75,90 @@ public class CLMultiContextTest extends UITestCase {
 
     }
 
+    @Test
+    public void sharedMultiContextTest() {
+
+        final CLPlatform[] platforms = CLPlatform.listCLPlatforms();
+        final CLMultiContext mc = CLMultiContext.createShared(platforms);
+
+        try{
+            assertTrue(mc.isShared());
+            assertTrue(mc.getContexts().size() <= platforms.length);
+
+            for (final CLDevice device : mc.getDevices()) {
+                assertNotNull(mc.getContext(device));
+            }
+
+            // move a buffer between the first and the last device of a context
+            final CLContext context = mc.getContexts().get(0);
+            final CLDevice[] devices = context.getDevices();
+            final CLCommandQueue first = devices[0].createCommandQueue();
+            final CLCommandQueue last = devices[devices.length-1].createCommandQueue();
+
+            final int elements = 1024;
+            final CLBuffer<IntBuffer> src = context.createIntBuffer(elements);
+            final CLBuffer<IntBuffer> dest = context.createIntBuffer(elements);
+            for (int i = 0; i < elements; i++) {
+                src.getBuffer().put(i, i);
+            }
+
+            first.putWriteBuffer(src, true);
+            CLMultiContext.migrate(last, null, null, src);
+            CLMultiContext.copy(last, src, dest, null, null);
+            last.putReadBuffer(dest, true);
+
+            assertEquals(src.getBuffer(), dest.getBuffer());
+            // every device since OpenCL 1.2 can migrate, including 2.1 and later
+            assertEquals(last.getDevice().getVersion().isAtLeast(CLVersion.CL_1_2), last.isMigrateMemObjectsSupported());
+
+        }finally{
+            mc.release();
+        }
+
+    }
+
+    @Test
+    public void transferEngineTest() {
+
+        // two contexts on the same device are sufficient for cross context transfers
+        final CLDevice device = CLPlatform.getDefault().getMaxFlopsDevice();
+        final CLMultiContext mc = CLMultiContext.wrap(CLContext.create(device), CLContext.create(device));
+
+        try{
+            final CLContext srcContext = mc.getContexts().get(0);
+            final CLContext destContext = mc.getContexts().get(1);
+
+            final int elements = 10*256*1024+17;
+            final CLBuffer<IntBuffer> src = srcContext.createIntBuffer(elements);
+            final CLBuffer<IntBuffer> dest = destContext.createIntBuffer(elements);
+            for (int i = 0; i < elements; i++) {
+                src.getBuffer().put(i, i);
+            }
+
+            final CLCommandQueue srcQueue = srcContext.getDevices()[0].createCommandQueue();
+            final CLCommandQueue destQueue = destContext.getDevices()[0].createCommandQueue();
+            srcQueue.putWriteBuffer(src, true);
+
+            final CLTransferEngine engine = CLTransferEngine.create(srcQueue, destQueue, 1024*1024, 3);
+            try{
+                engine.transfer(src, dest);
+                destQueue.putReadBuffer(dest, true);
+                assertEquals(src.getBuffer(), dest.getBuffer());
+
+                assertEquals(src.getCLSize(), engine.getBytesTransferred());
+                assertEquals(1, engine.getTransferCount());
+                assertTrue(engine.getThroughput() > 0);
+                out.println(engine);
+            }finally{
+                engine.release();
+            }
+
+        }finally{
+            mc.release();
+        }
+
+    }
+
     private final static String programSource =
           "kernel void compute(global int* array, int numElements) { \n"
         + "    int index = get_global_id(0);                         \n"
@@ -78,6 +166,14 @@ public class CLMultiContextTest extends UITestCase {
         + "        return;                                           \n"
         + "    }                                                     \n"
         + "    array[index]++;                                       \n"
+        + "}                                                         \n"
+        + "kernel void square(global const int* in, global int* out) { \n"
+        + "    int index = get_global_id(0) - get_global_offset(0);  \n"
+        + "    out[index] = in[index] * in[index];                   \n"
+        + "}                                                         \n"
+        + "kernel void scale(global float* data, float factor) {     \n"
+        + "    int index = get_global_id(0);                         \n"
+        + "    data[index] *= factor;                                \n"
         + "}                                                         \n";
 
     private final class CLTestTask implements CLTask<CLSimpleQueueContext, Buffer> {
@@ -172,6 +268,274 @@ public class CLMultiContextTest extends UITestCase {
         }
     }
 
+    @Test
+    public void sharedTaskTest() throws InterruptedException, ExecutionException {
+
+        final CLMultiContext mc = CLMultiContext.create(CLPlatform.listCLPlatforms());
+
+        try {
+            final int elements = 1024*64;
+            final FloatBuffer data = Buffers.newDirectFloatBuffer(elements);
+            for (int i = 0; i < elements; i++) {
+                data.put(i, i);
+            }
+
+            final CLJavaContextFactory javaFactory = new CLJavaContextFactory().register(new CLJavaKernel("scale", 2) {
+                @Override
+                public void run(final CLJavaKernel.WorkItem item) {
+                    final FloatBuffer buffer = getFloatBuffer(0);
+                    final int i = (int)item.getGlobalId(0);
+                    buffer.put(i, buffer.get(i) * getFloat(1));
+                }
+            });
+
+            // the same task runs on OpenCL queues and on the java fallback
+            final CLCommandQueuePool<CLSimpleQueueContext> clPool = CLCommandQueuePool.create(CLQueueContextFactory.createSimple(programSource), mc);
+            final CLCommandQueuePool<CLJavaQueueContext> javaPool = CLCommandQueuePool.create(javaFactory, 2);
+            try{
+                clPool.submit(new CLJavaQueueContextTest.ScaleTask(data, 2)).get();
+                javaPool.submit(new CLJavaQueueContextTest.ScaleTask(data, 3)).get();
+            }finally{
+                clPool.release();
+                javaPool.release();
+            }
+
+            for (int i = 0; i < elements; i++) {
+                assertEquals(i*6, data.get(i), 0);
+            }
+        }finally{
+            mc.release();
+        }
+    }
+
+    @Test
+    public void parallelMapTest() throws InterruptedException, ExecutionException {
+
+        final CLMultiContext mc = CLMultiContext.create(CLPlatform.listCLPlatforms());
+
+        try {
+            final CLSimpleContextFactory factory = CLQueueContextFactory.createSimple(programSource);
+            final List<CLDevice> devices = mc.getDevices();
+
+            final int elements = 1024*1024;
+            final IntBuffer data = Buffers.newDirectIntBuffer(elements);
+
+            final CLParallelMap.ChunkKernel<CLSimpleQueueContext> kernel = new CLParallelMap.ChunkKernel<CLSimpleQueueContext>() {
+                @Override
+                public void enqueue(final CLSimpleQueueContext qc, final CLBuffer<?> chunk, final int offset, final int size) {
+                    final CLKernel compute = qc.getKernel("compute").putArg(chunk).putArg(size).rewind();
+                    qc.getQueue().put1DRangeKernel(compute, 0, size, 0);
+                }
+            };
+
+            final CLParallelMap.HostCombiner<CLSimpleQueueContext, Long> sum = new CLParallelMap.HostCombiner<CLSimpleQueueContext, Long>() {
+                @Override
+                public Long reduce(final Buffer chunk) {
+                    final IntBuffer ints = (IntBuffer)chunk;
+                    long value = 0;
+                    while(ints.hasRemaining()) {
+                        value += ints.get();
+                    }
+                    ints.rewind();
+                    return value;
+                }
+                @Override
+                public Long combine(final Long a, final Long b) {
+                    return a + b;
+                }
+            };
+
+            // scaling from 1 to N queues, every run must produce the results of the single queue run
+            final IntBuffer reference = Buffers.newDirectIntBuffer(elements);
+            Long referenceSum = null;
+            for (int queues = 1; queues <= devices.size(); queues++) {
+
+                for (int i = 0; i < elements; i++) {
+                    data.put(i, i % 1000);
+                }
+
+                final CLCommandQueuePool<CLSimpleQueueContext> pool = CLCommandQueuePool.create(factory, devices.subList(0, queues));
+                try{
+                    final CLParallelMap<CLSimpleQueueContext> map = CLParallelMap.create(pool).setChunkSize(1024, 64*1024);
+                    try{
+                        map.map(data, kernel); // warmup and first measurement
+                        final long start = nanoTime();
+                        map.map(data, kernel); // reuses the chunk buffers of the first run
+                        final long time = nanoTime() - start;
+
+                        final Long result = map.reduce(data, kernel, sum);
+
+                        if(referenceSum == null) {
+                            long expected = 0;
+                            for (int i = 0; i < elements; i++) {
+                                assertEquals(i % 1000 + 3, data.get(i));
+                                expected += i % 1000 + 3;
+                            }
+                            assertEquals(expected, result.longValue());
+                            reference.put(data).rewind();
+                            data.rewind();
+                            referenceSum = result;
+                        }else{
+                            assertEquals(referenceSum, result);
+                            assertEquals(reference, data);
+                        }
+
+                        out.println(queues+" queue(s): "+(time/1000000.0)+"ms "+map.getThroughput());
+                    }finally{
+                        map.release();
+                    }
+                }finally{
+                    pool.release();
+                }
+            }
+        }finally{
+            mc.release();
+        }
+    }
+
+    @Test
+    public void rangeSplitterTest() throws InterruptedException, ExecutionException {
+
+        final CLMultiContext mc = CLMultiContext.create(CLPlatform.listCLPlatforms());
+
+        try {
+            final CLSimpleContextFactory factory = CLQueueContextFactory.createSimple(programSource);
+            final CLCommandQueuePool<CLSimpleQueueContext> pool = CLCommandQueuePool.create(factory, mc);
+
+            try{
+                final int elements = 1024*1024;
+                final IntBuffer input = Buffers.newDirectIntBuffer(elements);
+                final IntBuffer output = Buffers.newDirectIntBuffer(elements);
+                for (int i = 0; i < elements; i++) {
+                    input.put(i, i % 1000);
+                }
+
+                final CLRangeSplitter.RangeKernel<CLSimpleQueueContext> square = new CLRangeSplitter.RangeKernel<CLSimpleQueueContext>() {
+                    @Override
+                    public void enqueue(final CLSimpleQueueContext qc, final CLBuffer<?> out, final CLBuffer<?>[] in, final int offset, final int size) {
+                        final CLKernel kernel = qc.getKernel("square").putArg(in[0]).putArg(out).rewind();
+                        qc.getQueue().put1DRangeKernel(kernel, offset, size, 0);
+                    }
+                };
+
+                final CLRangeSplitter<CLSimpleQueueContext> splitter = CLRangeSplitter.create(pool).setGranularity(64);
+
+                // the shares are rebalanced after every launch, the device buffers are reused and hold only the share
+                for (int run = 0; run < 3; run++) {
+                    final long start = nanoTime();
+                    splitter.launch(elements, square, output, input);
+                    final long time = nanoTime() - start;
+
+                    for (int i = 0; i < elements; i++) {
+                        assertEquals((i % 1000)*(i % 1000), output.get(i));
+                        output.put(i, 0);
+                    }
+
+                    double sum = 0;
+                    for (final Double share : splitter.getShares().values()) {
+                        sum += share;
+                    }
+                    assertEquals(1.0, sum, 0.000001);
+                    out.println("run "+run+": "+(time/1000000.0)+"ms "+splitter);
+                }
+
+                // offsets of the shares are passed in order
+                final List<Integer> offsets = splitter.launch(elements, new CLRangeSplitter.RangeTask<CLSimpleQueueContext, Integer>() {
+                    @Override
+                    public Integer execute(final CLSimpleQueueContext qc, final int offset, final int size) {
+                        return offset;
+                    }
+                });
+                int last = -1;
+                for (final Integer offset : offsets) {
+                    if(offset != null) {
+                        assertTrue(offset > last);
+                        assertEquals(0, offset % 64);
+                        last = offset;
+                    }
+                }
+
+                // the device buffers are kept until the splitter is released
+                splitter.release();
+                assertTrue(splitter.isReleased());
+            }finally{
+                pool.release();
+            }
+        }finally{
+            mc.release();
+        }
+    }
+
+    @Test
+    public void subDeviceScalingTest() throws InterruptedException, ExecutionException {
+
+        CLDevice root = null;
+        for (final CLPlatform platform : CLPlatform.listCLPlatforms()) {
+            for (final CLDevice device : platform.listCLDevices()) {
+                if(device.getMaxSubDevices() > 1 && (root == null || device.getMaxComputeUnits() > root.getMaxComputeUnits())) {
+                    root = device;
+                }
+            }
+        }
+        if(root == null) {
+            out.println("aborting test... no partitionable device found");
+            return;
+        }
+        out.println("partitioning "+root+" affinity domains: "+root.getPartitionAffinityDomains());
+
+        final CLSimpleContextFactory factory = CLQueueContextFactory.createSimple(programSource);
+        final int elements = 4*1024*1024;
+        final IntBuffer data = Buffers.newDirectIntBuffer(elements);
+
+        final CLParallelMap.ChunkKernel<CLSimpleQueueContext> kernel = new CLParallelMap.ChunkKernel<CLSimpleQueueContext>() {
+            @Override
+            public void enqueue(final CLSimpleQueueContext qc, final CLBuffer<?> chunk, final int offset, final int size) {
+                final CLKernel compute = qc.getKernel("compute").putArg(chunk).putArg(size).rewind();
+                qc.getQueue().put1DRangeKernel(compute, 0, size, 0);
+            }
+        };
+
+        // one queue per partition, from one partition up to the maximum number of sub devices
+        final int computeUnits = root.getMaxComputeUnits();
+        final int maxPartitions = Math.min(root.getMaxSubDevices(), computeUnits);
+        int runs = 0;
+        for (int partitions = 1; partitions <= maxPartitions; partitions *= 2) {
+
+            final CLDevice[] subDevices = root.partitionEqually(computeUnits/partitions);
+            assertTrue(subDevices.length >= partitions);
+            for (final CLDevice subDevice : subDevices) {
+                assertTrue(subDevice.isSubDevice());
+                assertEquals(root, subDevice.getParentDevice());
+            }
+
+            // sub devices need a context like root devices, one per partition here
+            final CLMultiContext mc = CLMultiContext.create(Arrays.asList(subDevices));
+            try{
+                assertEquals(subDevices.length, mc.getDevices().size());
+                final CLCommandQueuePool<CLSimpleQueueContext> pool = CLCommandQueuePool.create(factory, mc);
+                try{
+                    assertEquals(subDevices.length, pool.getSize());
+                    final CLParallelMap<CLSimpleQueueContext> map = CLParallelMap.create(pool);
+                    map.map(data, kernel); // warmup
+                    final long start = nanoTime();
+                    map.map(data, kernel);
+                    final long time = nanoTime() - start;
+                    map.release();
+                    runs += 2;
+                    out.println(subDevices.length+" sub device(s): "+(time/1000000.0)+"ms");
+                }finally{
+                    pool.release();
+                }
+            }finally{
+                mc.release();
+                for (final CLDevice subDevice : subDevices) {
+                    subDevice.releaseSubDevice();
+                }
+            }
+        }
+        checkBuffer(runs, data);
+    }
+
     private void checkBuffer(final int expected, final IntBuffer data) {
         while(data.hasRemaining()) {
             assertEquals(expected, data.get());
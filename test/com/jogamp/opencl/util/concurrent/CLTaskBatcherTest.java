@@ -0,0 +1,174 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import com.jogamp.opencl.util.concurrent.CLTaskBatcher.BatchProcessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the batching front-end on the java fallback of the queue pool, runs without OpenCL driver.
+ */
+public class CLTaskBatcherTest {
+
+    @Rule
+    public Timeout methodTimeout = new Timeout(20000);
+
+    /**
+     * Doubles every request and records the size of every processed batch.
+     */
+    private static class Doubler implements BatchProcessor<CLJavaQueueContext, Integer, Integer> {
+
+        private final List<Integer> batches = Collections.synchronizedList(new ArrayList<Integer>());
+
+        @Override
+        public List<Integer> process(final CLJavaQueueContext context, final List<Integer> requests) {
+            batches.add(requests.size());
+            final List<Integer> results = new ArrayList<Integer>(requests.size());
+            for (final Integer request : requests) {
+                if(request < 0) {
+                    throw new IllegalArgumentException("negative request "+request);
+                }
+                results.add(request*2);
+            }
+            return results;
+        }
+
+    }
+
+    private static CLCommandQueuePool<CLJavaQueueContext> createPool(final CLJavaExecutor executor) {
+        return CLCommandQueuePool.create(new CLJavaContextFactory(executor), 2);
+    }
+
+    private static void assertFailure(final Future<?> future, final Class<? extends Throwable> cause) throws InterruptedException {
+        try{
+            future.get();
+            fail("expected exception");
+        }catch(final ExecutionException ex) {
+            assertTrue(ex.getCause().toString(), cause.isInstance(ex.getCause()));
+        }
+    }
+
+    @Test
+    public void sizeTriggerTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = createPool(executor);
+        final Doubler doubler = new Doubler();
+        // the deadline never fires during the test
+        final CLTaskBatcher<CLJavaQueueContext, Integer, Integer> batcher = CLTaskBatcher.create(pool, doubler, 4, 1, TimeUnit.HOURS);
+        try{
+            final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(batcher.submit(i));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertEquals(2*i, futures.get(i).get().intValue());
+            }
+            assertEquals(2, doubler.batches.size());
+            assertEquals(4, doubler.batches.get(0).intValue());
+            assertEquals(4, doubler.batches.get(1).intValue());
+            assertEquals(4, batcher.getAverageBatchSize(), 0);
+        }finally{
+            batcher.release();
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void deadlineTriggerTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = createPool(executor);
+        final Doubler doubler = new Doubler();
+        final CLTaskBatcher<CLJavaQueueContext, Integer, Integer> batcher = CLTaskBatcher.create(pool, doubler, 100, 20, TimeUnit.MILLISECONDS);
+        try{
+            final Future<Integer> a = batcher.submit(1);
+            final Future<Integer> b = batcher.submit(2);
+            final Future<Integer> c = batcher.submit(3);
+            // completes only if the deadline dispatched the incomplete batch
+            assertEquals(2, a.get().intValue());
+            assertEquals(4, b.get().intValue());
+            assertEquals(6, c.get().intValue());
+            assertEquals(Collections.singletonList(3), doubler.batches);
+        }finally{
+            batcher.release();
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void releaseTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = createPool(executor);
+        final Doubler doubler = new Doubler();
+        final CLTaskBatcher<CLJavaQueueContext, Integer, Integer> batcher = CLTaskBatcher.create(pool, doubler, 100, 1, TimeUnit.HOURS);
+        try{
+            final Future<Integer> a = batcher.submit(5);
+            final Future<Integer> b = batcher.submit(6);
+            assertFalse(a.isDone());
+
+            batcher.release();
+            assertTrue(batcher.isReleased());
+            assertEquals(10, a.get().intValue());
+            assertEquals(12, b.get().intValue());
+            assertEquals(Collections.singletonList(2), doubler.batches);
+
+            try{
+                batcher.submit(7);
+                fail("expected exception");
+            }catch(final IllegalStateException ex) {
+                // already released
+            }
+            try{
+                batcher.release();
+                fail("expected exception");
+            }catch(final RuntimeException ex) {
+                // released twice
+            }
+        }finally{
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void failureTest() throws InterruptedException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = createPool(executor);
+        final CLTaskBatcher<CLJavaQueueContext, Integer, Integer> batcher = CLTaskBatcher.create(pool, new Doubler(), 2, 1, TimeUnit.HOURS);
+        try{
+            // the processor fails the whole batch
+            final Future<Integer> a = batcher.submit(1);
+            final Future<Integer> b = batcher.submit(-1);
+            assertFailure(a, IllegalArgumentException.class);
+            assertFailure(b, IllegalArgumentException.class);
+
+            // the batch can not be dispatched to a released pool
+            pool.release();
+            final Future<Integer> c = batcher.submit(3);
+            final Future<Integer> d = batcher.submit(4);
+            assertFailure(c, RejectedExecutionException.class);
+            assertFailure(d, RejectedExecutionException.class);
+        }finally{
+            batcher.release();
+            executor.release();
+        }
+    }
+
+}
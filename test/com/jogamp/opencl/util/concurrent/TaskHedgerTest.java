@@ -0,0 +1,213 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests hedged execution on the java fallback of the queue pool, runs without OpenCL driver.
+ * Attempts are told apart by their invocation order and block on latches, no assertion depends on timing.
+ */
+public class TaskHedgerTest {
+
+    @Rule
+    public Timeout methodTimeout = new Timeout(20000);
+
+    /**
+     * Blocks the first invocation until released, returns the invocation number.
+     */
+    private static class SlowPrimary implements CLTask<CLJavaQueueContext, Integer> {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final CountDownLatch primaryStarted = new CountDownLatch(1);
+        private final CountDownLatch primaryReleased = new CountDownLatch(1);
+
+        @Override
+        public Integer execute(final CLJavaQueueContext context) {
+            final int invocation = invocations.incrementAndGet();
+            if(invocation == 1) {
+                primaryStarted.countDown();
+                await(primaryReleased);
+            }
+            return invocation;
+        }
+
+    }
+
+    /**
+     * Occupies a queue until released.
+     */
+    private static class Blocker implements CLTask<CLJavaQueueContext, Void> {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public Void execute(final CLJavaQueueContext context) {
+            started.countDown();
+            await(released);
+            return null;
+        }
+
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try{
+            latch.await();
+        }catch(final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitFired(final TaskHedger<?> hedger, final long count) throws InterruptedException {
+        while(hedger.getHedgesFired() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void hedgeWinsTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 2);
+        final TaskHedger<CLJavaQueueContext> hedger = new TaskHedger<CLJavaQueueContext>(pool, 0.5, TimeUnit.MILLISECONDS.toNanos(5));
+        try{
+            final SlowPrimary task = new SlowPrimary();
+            final CLTaskClass taskClass = new CLTaskClass("hedged", 1);
+            final Future<Integer> result = hedger.submit(task, taskClass);
+
+            // the primary blocks, the hedge completes the future
+            assertEquals(2, result.get().intValue());
+            assertEquals(1, hedger.getHedgesFired());
+            assertEquals(1, hedger.getHedgesWon());
+            assertEquals(0, hedger.getSampleCount());
+            assertEquals(1, taskClass.getTaskCount());
+
+            // the execution time of the losing primary is recorded too
+            task.primaryReleased.countDown();
+            while(hedger.getSampleCount() == 0) {
+                Thread.sleep(1);
+            }
+            assertEquals(1, hedger.getSampleCount());
+            assertEquals(2, result.get().intValue());
+
+            // the class counts the hedged task once, not once per attempt
+            assertEquals(1, taskClass.getTaskCount());
+        }finally{
+            hedger.shutdown();
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void armedOnStartTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 2);
+        final TaskHedger<CLJavaQueueContext> hedger = new TaskHedger<CLJavaQueueContext>(pool, 0.5, TimeUnit.MILLISECONDS.toNanos(5));
+        try{
+            final Blocker first = new Blocker();
+            final Blocker second = new Blocker();
+            pool.submit(first);
+            pool.submit(second);
+            first.started.await();
+            second.started.await();
+
+            // the primary waits for a queue much longer than the hedging delay
+            final SlowPrimary task = new SlowPrimary();
+            final Future<Integer> result = hedger.submit(task, pool.getDefaultTaskClass());
+            Thread.sleep(50);
+            assertEquals(0, hedger.getHedgesFired());
+            assertFalse(result.isDone());
+
+            // the delay starts when the primary starts
+            first.released.countDown();
+            task.primaryStarted.await();
+            awaitFired(hedger, 1);
+            second.released.countDown();
+            assertEquals(2, result.get().intValue());
+            assertEquals(1, hedger.getHedgesWon());
+
+            task.primaryReleased.countDown();
+        }finally{
+            hedger.shutdown();
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void losingHedgeCancelledTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(2);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 2);
+        final TaskHedger<CLJavaQueueContext> hedger = new TaskHedger<CLJavaQueueContext>(pool, 0.5, TimeUnit.MILLISECONDS.toNanos(5));
+        try{
+            final SlowPrimary task = new SlowPrimary();
+            final Future<Integer> result = hedger.submit(task, pool.getDefaultTaskClass());
+            task.primaryStarted.await();
+
+            // keep the hedge waiting behind a blocker on the other queue
+            final Blocker blocker = new Blocker();
+            pool.submit(blocker);
+            blocker.started.await();
+            awaitFired(hedger, 1);
+
+            task.primaryReleased.countDown();
+            assertEquals(1, result.get().intValue());
+
+            // the losing hedge never runs, the queue it waited for drains
+            blocker.released.countDown();
+            pool.submit(new CLTask<CLJavaQueueContext, Void>() {
+                @Override
+                public Void execute(final CLJavaQueueContext context) {
+                    return null;
+                }
+            }).get();
+            assertEquals(1, task.invocations.get());
+            assertEquals(0, hedger.getHedgesWon());
+            assertEquals(1, hedger.getSampleCount());
+        }finally{
+            hedger.shutdown();
+            pool.release();
+            executor.release();
+        }
+    }
+
+    @Test
+    public void singleQueueTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(1);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 1);
+        final TaskHedger<CLJavaQueueContext> hedger = new TaskHedger<CLJavaQueueContext>(pool, 0.5, TimeUnit.MILLISECONDS.toNanos(5));
+        try{
+            final SlowPrimary task = new SlowPrimary();
+            final Future<Integer> result = hedger.submit(task, pool.getDefaultTaskClass());
+            task.primaryStarted.await();
+
+            // a duplicate could only run after the primary, it is never started
+            Thread.sleep(50);
+            assertEquals(0, hedger.getHedgesFired());
+
+            task.primaryReleased.countDown();
+            assertEquals(1, result.get().intValue());
+            assertEquals(1, task.invocations.get());
+        }finally{
+            hedger.shutdown();
+            pool.release();
+            executor.release();
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests weighted fair queuing between task classes, runs without OpenCL driver.
+ */
+public class WeightedFairTaskQueueTest {
+
+    @Rule
+    public Timeout methodTimeout = new Timeout(20000);
+
+    private static class Item implements Runnable, WeightedFairTaskQueue.Classified {
+
+        private final CLTaskClass taskClass;
+
+        private Item(final CLTaskClass taskClass) {
+            this.taskClass = taskClass;
+        }
+
+        @Override
+        public CLTaskClass getTaskClass() {
+            return taskClass;
+        }
+
+        @Override
+        public void run() { }
+
+    }
+
+    private static String drain(final WeightedFairTaskQueue queue) {
+        final StringBuilder order = new StringBuilder();
+        Runnable next;
+        while((next = queue.poll()) != null) {
+            order.append(next instanceof Item ? ((Item)next).taskClass.getName() : "?");
+        }
+        return order.toString();
+    }
+
+    @Test
+    public void weightTest() {
+
+        final CLTaskClass heavy = new CLTaskClass("H", 3);
+        final CLTaskClass light = new CLTaskClass("L", 1);
+        final WeightedFairTaskQueue queue = new WeightedFairTaskQueue(new CLTaskClass("D", 1));
+
+        for (int i = 0; i < 6; i++) {
+            queue.offer(new Item(heavy));
+        }
+        for (int i = 0; i < 6; i++) {
+            queue.offer(new Item(light));
+        }
+        assertEquals(12, queue.size());
+
+        // virtual start times H: 0, 1/3, 2/3, 1, 4/3, 5/3  L: 0, 1, 2, ..., ties go to the older class
+        assertEquals("HLHHHLHHLLLL", drain(queue));
+        assertEquals(0, queue.size());
+        assertNull(queue.peek());
+
+        // unclassified work items belong to the default class
+        queue.offer(new Runnable() {
+            @Override
+            public void run() { }
+        });
+        queue.offer(new Item(light));
+        assertEquals("?L", drain(queue));
+    }
+
+    @Test
+    public void starvationTest() {
+
+        final CLTaskClass bulk = new CLTaskClass("B", 100);
+        final CLTaskClass small = new CLTaskClass("S", 1);
+        final WeightedFairTaskQueue queue = new WeightedFairTaskQueue(new CLTaskClass("D", 1));
+
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(new Item(bulk));
+        }
+        queue.offer(new Item(small));
+        queue.offer(new Item(small));
+
+        // the small class is served at least once per 100 bulk tasks, although it was enqueued last
+        final String order = drain(queue);
+        assertEquals(1002, order.length());
+        final int first = order.indexOf('S');
+        final int second = order.indexOf('S', first+1);
+        assertTrue("first at "+first, first >= 0 && first <= 101);
+        assertTrue("second at "+second, second > first && second-first <= 101);
+
+        // a class which arrives late does not get credit for its idle time
+        final CLTaskClass late = new CLTaskClass("N", 1);
+        for (int i = 0; i < 4; i++) {
+            queue.offer(new Item(small));
+        }
+        for (int i = 0; i < 4; i++) {
+            queue.offer(new Item(late));
+        }
+        assertEquals("SNSNSNSN", drain(queue));
+    }
+
+    @Test
+    public void transientClassesTest() {
+
+        final CLTaskClass steady = new CLTaskClass("S", 1);
+        final WeightedFairTaskQueue queue = new WeightedFairTaskQueue(new CLTaskClass("D", 1));
+
+        // one class per request, the state of finished classes is dropped
+        for (int i = 0; i < 10000; i++) {
+            queue.offer(new Item(new CLTaskClass("R"+i, 1)));
+            queue.offer(new Item(steady));
+            assertNotNull(queue.poll());
+            assertNotNull(queue.poll());
+        }
+        assertEquals(0, queue.size());
+        assertTrue("classes: "+queue.getClassCount(), queue.getClassCount() <= 32);
+
+        // the steady class was just served, a new class goes first
+        final CLTaskClass light = new CLTaskClass("L", 1);
+        queue.offer(new Item(steady));
+        queue.offer(new Item(steady));
+        queue.offer(new Item(light));
+        queue.offer(new Item(light));
+        assertEquals("LSLS", drain(queue));
+    }
+
+    @Test
+    public void poolTest() throws InterruptedException, ExecutionException {
+
+        final CLJavaExecutor executor = CLJavaExecutor.create(1);
+        final CLCommandQueuePool<CLJavaQueueContext> pool = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 1);
+        final CLCommandQueuePool<CLJavaQueueContext> other = CLCommandQueuePool.create(new CLJavaContextFactory(executor), 1);
+        try{
+            final CLTaskClass heavy = new CLTaskClass("H", 3);
+            final CLTaskClass light = new CLTaskClass("L", 1);
+            final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+            // occupy the only queue until all tasks are pending
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final Future<Void> blocker = pool.submit(new CLTask<CLJavaQueueContext, Void>() {
+                @Override
+                public Void execute(final CLJavaQueueContext context) {
+                    started.countDown();
+                    try{
+                        blocked.await();
+                    }catch(final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }
+            });
+            started.await();
+
+            final List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (final CLTaskClass taskClass : Arrays.asList(heavy, heavy, heavy, heavy, light, light, light, light)) {
+                futures.add(pool.submit(new CLTask<CLJavaQueueContext, String>() {
+                    @Override
+                    public String execute(final CLJavaQueueContext context) {
+                        order.add(taskClass.getName());
+                        return taskClass.getName();
+                    }
+                }, taskClass));
+            }
+            blocked.countDown();
+            blocker.get();
+            for (final Future<String> future : futures) {
+                future.get();
+            }
+
+            assertEquals(Arrays.asList("H", "L", "H", "H", "H", "L", "L", "L"), order);
+            assertEquals(4, heavy.getTaskCount());
+            assertEquals(4, light.getTaskCount());
+
+            // the default class is per pool
+            assertEquals(1, pool.getDefaultTaskClass().getTaskCount());
+            assertNotSame(pool.getDefaultTaskClass(), other.getDefaultTaskClass());
+            assertEquals(0, other.getDefaultTaskClass().getTaskCount());
+        }finally{
+            pool.release();
+            other.release();
+            executor.release();
+        }
+    }
+
+}
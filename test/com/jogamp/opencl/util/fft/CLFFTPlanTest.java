@@ -0,0 +1,232 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.fft;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the transforms with a direct DFT computed in double precision.
+ */
+public class CLFFTPlanTest extends UITestCase {
+
+    // powers of two, mixed radices, a prime radix and odd pass counts
+    private static final int[] SIZES = new int[] {1, 2, 8, 12, 13, 30, 64, 105, 1024};
+
+    // relative to the largest magnitude of the transform
+    private static final double TOLERANCE = 1e-5;
+
+    private static float[] random(final Random random, final int size) {
+        final float[] values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextFloat()-0.5f;
+        }
+        return values;
+    }
+
+    private static CLBuffer<FloatBuffer> buffer(final CLContext context, final float[] values) {
+        final CLBuffer<FloatBuffer> buffer = context.createFloatBuffer(values.length, Mem.READ_WRITE);
+        buffer.getBuffer().put(values).rewind();
+        return buffer;
+    }
+
+    /**
+     * Direct 2D DFT of interleaved complex data, a 1D transform has one row.
+     */
+    private static double[] dft(final float[] data, final int offset, final int rows, final int cols) {
+        final double[] result = new double[2*rows*cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                double re = 0, im = 0;
+                for (int y = 0; y < rows; y++) {
+                    for (int x = 0; x < cols; x++) {
+                        final double angle = -2*Math.PI*((double)r*y/rows + (double)c*x/cols);
+                        final double dr = data[offset + 2*(y*cols+x)], di = data[offset + 2*(y*cols+x)+1];
+                        re += dr*Math.cos(angle) - di*Math.sin(angle);
+                        im += dr*Math.sin(angle) + di*Math.cos(angle);
+                    }
+                }
+                result[2*(r*cols+c)] = re;
+                result[2*(r*cols+c)+1] = im;
+            }
+        }
+        return result;
+    }
+
+    private static void assertTransform(final String message, final double[] expected, final FloatBuffer actual, final int offset) {
+        double max = 1;
+        for (final double value : expected) {
+            max = Math.max(max, Math.abs(value));
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(message+" at "+i, expected[i], actual.get(offset+i), max*TOLERANCE);
+        }
+    }
+
+    @Test
+    public void complex1DTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final Random random = new Random(42);
+            final int batch = 3;
+            for (final int n : SIZES) {
+                final CLFFTPlan plan = CLFFTPlan.create1D(queue, n, batch);
+                final float[] data = random(random, 2*n*batch);
+                final CLBuffer<FloatBuffer> in = buffer(context, data);
+                final CLBuffer<FloatBuffer> out = context.createFloatBuffer(2*n*batch, Mem.READ_WRITE);
+                queue.putWriteBuffer(in, false);
+
+                plan.forward(in, out);
+                queue.putReadBuffer(out, false).putReadBuffer(in, true);
+                for (int b = 0; b < batch; b++) {
+                    assertTransform("forward "+n+" batch "+b, dft(data, 2*n*b, 1, n), out.getBuffer(), 2*n*b);
+                }
+                for (int i = 0; i < data.length; i++) {
+                    assertEquals("input modified at "+i, data[i], in.getBuffer().get(i), 0);
+                }
+
+                // in place round trip
+                plan.forward(in, in);
+                plan.inverse(in, in);
+                queue.putReadBuffer(in, true);
+                for (int i = 0; i < data.length; i++) {
+                    assertEquals("round trip "+n+" at "+i, data[i], in.getBuffer().get(i), 1e-5);
+                }
+                plan.release();
+                in.release();
+                out.release();
+            }
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void complex2DTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final Random random = new Random(42);
+            final int[][] sizes = new int[][] {{4, 8}, {6, 10}, {16, 16}, {9, 1}, {1, 7}};
+            final int batch = 2;
+            for (final int[] size : sizes) {
+                final int rows = size[0], cols = size[1], elements = rows*cols;
+                final CLFFTPlan plan = CLFFTPlan.create2D(queue, rows, cols, batch);
+                final float[] data = random(random, 2*elements*batch);
+                final CLBuffer<FloatBuffer> buffer = buffer(context, data);
+                queue.putWriteBuffer(buffer, false);
+
+                plan.forward(buffer, buffer);
+                queue.putReadBuffer(buffer, true);
+                for (int b = 0; b < batch; b++) {
+                    assertTransform(rows+"x"+cols+" batch "+b, dft(data, 2*elements*b, rows, cols), buffer.getBuffer(), 2*elements*b);
+                }
+                plan.inverse(buffer, buffer);
+                queue.putReadBuffer(buffer, true);
+                for (int i = 0; i < data.length; i++) {
+                    assertEquals("round trip "+rows+"x"+cols+" at "+i, data[i], buffer.getBuffer().get(i), 1e-5);
+                }
+                plan.release();
+                buffer.release();
+            }
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void realTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final Random random = new Random(42);
+            final int batch = 2;
+            for (final int n : new int[] {2, 4, 24, 1000, 2048}) {
+                final int h = n/2;
+                final CLFFTPlan plan = CLFFTPlan.createReal1D(queue, n, batch);
+                assertTrue(plan.isReal());
+                final float[] data = random(random, n*batch);
+                final CLBuffer<FloatBuffer> in = buffer(context, data);
+                final CLBuffer<FloatBuffer> out = context.createFloatBuffer(2*(h+1)*batch, Mem.READ_WRITE);
+                queue.putWriteBuffer(in, false);
+
+                plan.forward(in, out);
+                queue.putReadBuffer(out, true);
+                for (int b = 0; b < batch; b++) {
+                    final float[] complex = new float[2*n];
+                    for (int i = 0; i < n; i++) {
+                        complex[2*i] = data[b*n+i];
+                    }
+                    final double[] expected = new double[2*(h+1)];
+                    System.arraycopy(dft(complex, 0, 1, n), 0, expected, 0, expected.length);
+                    assertTransform("real "+n+" batch "+b, expected, out.getBuffer(), 2*(h+1)*b);
+                }
+                plan.release();
+                in.release();
+                out.release();
+            }
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            try{
+                CLFFTPlan.create1D(queue, 17, 1);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // unsupported prime factor
+            }
+            try{
+                CLFFTPlan.createReal1D(queue, 15, 1);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // odd real size
+            }
+            try{
+                CLFFTPlan.create2D(queue, 8, 8, 0);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // no transforms
+            }
+            assertArrayEquals(new int[] {4, 4, 2, 3, 5}, CLFFTPlan.factor(480));
+
+            final CLFFTPlan plan = CLFFTPlan.create1D(queue, 16, 2);
+            assertEquals(2, plan.getPassCount());
+            try{
+                plan.forward(context.createFloatBuffer(63), context.createFloatBuffer(64));
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // input too small
+            }
+            final CLFFTPlan real = CLFFTPlan.createReal1D(queue, 16, 1);
+            try{
+                real.inverse(context.createFloatBuffer(16), context.createFloatBuffer(18));
+                fail("expected exception");
+            }catch(final UnsupportedOperationException ex) {
+                // no complex-to-real transform
+            }
+            plan.release();
+            real.release();
+            assertTrue(plan.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
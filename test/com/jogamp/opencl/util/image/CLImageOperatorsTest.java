@@ -0,0 +1,322 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.image;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLImage2d;
+import com.jogamp.opencl.CLImageFormat;
+import com.jogamp.opencl.CLImageFormat.ChannelOrder;
+import com.jogamp.opencl.CLImageFormat.ChannelType;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import com.jogamp.opencl.util.image.CLImageOperators.ColorConversion;
+import com.jogamp.opencl.util.image.CLImageOperators.Interpolation;
+import com.jogamp.opencl.util.image.CLImageOperators.Pipeline;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the image operators with Java implementations on RGBA float images, pixels outside of the image
+ * are clamped to the edge.
+ */
+public class CLImageOperatorsTest extends UITestCase {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    private static CLDevice getImageDevice() {
+        for (final CLPlatform platform : CLPlatform.listCLPlatforms()) {
+            for (final CLDevice device : platform.listCLDevices()) {
+                if(device.isImageSupportAvailable()) {
+                    return device;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static CLImage2d<FloatBuffer> image(final CLContext context, final int width, final int height) {
+        return context.createImage2d(Buffers.newDirectFloatBuffer(width*height*4), width, height,
+                                    new CLImageFormat(ChannelOrder.RGBA, ChannelType.FLOAT));
+    }
+
+    private static float[] random(final Random random, final int size) {
+        final float[] pixels = new float[size*4];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = random.nextFloat();
+        }
+        return pixels;
+    }
+
+    private static float at(final float[] pixels, final int width, final int height, final int x, final int y, final int c) {
+        final int cx = Math.min(Math.max(x, 0), width-1);
+        final int cy = Math.min(Math.max(y, 0), height-1);
+        return pixels[(cy*width + cx)*4 + c];
+    }
+
+    private static float[] convolve(final float[] pixels, final float[] weights, final int kw, final int kh) {
+        final float[] result = new float[pixels.length];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                for (int c = 0; c < 4; c++) {
+                    float sum = 0;
+                    for (int j = 0; j < kh; j++) {
+                        for (int i = 0; i < kw; i++) {
+                            sum += weights[j*kw+i] * at(pixels, WIDTH, HEIGHT, x+i-kw/2, y+j-kh/2, c);
+                        }
+                    }
+                    result[(y*WIDTH + x)*4 + c] = sum;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the pipeline on the pixels and compares with the expected pixels.
+     */
+    private static void check(final String name, final CLCommandQueue queue, final Pipeline pipeline, final float[] pixels,
+                              final float[] expected, final int width, final int height, final float tolerance) {
+        final CLContext context = queue.getContext();
+        final CLImage2d<FloatBuffer> src = image(context, WIDTH, HEIGHT);
+        final CLImage2d<FloatBuffer> dst = image(context, width, height);
+        src.getBuffer().put(pixels).rewind();
+        queue.putWriteImage(src, false);
+        pipeline.apply(src, dst);
+        queue.putReadImage(dst, true);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(name+" at pixel "+i/4+" channel "+i%4, expected[i], dst.getBuffer().get(i), tolerance);
+        }
+        src.release();
+        dst.release();
+    }
+
+    /**
+     * Returns the precision of intermediate images.
+     */
+    private static float tolerance(final CLImageOperators operators) {
+        switch(operators.getIntermediateFormat().getImageChannelDataType()) {
+            case FLOAT:
+                return 1e-5f;
+            case HALF_FLOAT:
+                return 2e-3f;
+            default:
+                return 2/255.0f;
+        }
+    }
+
+    @Test
+    public void filterTest() {
+        final CLDevice device = getImageDevice();
+        if(device == null) {
+            System.out.println("WARNING: can not test image operators.");
+            return;
+        }
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLImageOperators operators = CLImageOperators.create(queue);
+            final float[] pixels = random(new Random(42), WIDTH*HEIGHT);
+            final float tolerance = tolerance(operators);
+
+            // Gaussian as the outer product of the normalized 1D weights
+            final float sigma = 1.5f;
+            final int radius = (int)Math.ceil(3*sigma);
+            final float[] gauss = new float[2*radius+1];
+            double sum = 0;
+            for (int i = 0; i < gauss.length; i++) {
+                gauss[i] = (float)Math.exp(-(i-radius)*(i-radius)/(2.0*sigma*sigma));
+                sum += gauss[i];
+            }
+            final float[] gauss2d = new float[gauss.length*gauss.length];
+            for (int j = 0; j < gauss.length; j++) {
+                for (int i = 0; i < gauss.length; i++) {
+                    gauss2d[j*gauss.length+i] = (float)(gauss[i]/sum * gauss[j]/sum);
+                }
+            }
+            check("gaussian", queue, operators.pipeline().gaussianBlur(sigma), pixels,
+                  convolve(pixels, gauss2d, gauss.length, gauss.length), WIDTH, HEIGHT, tolerance);
+
+            final float[] box = new float[5*3];
+            Arrays.fill(box, 1/15.0f);
+            check("box", queue, operators.pipeline().boxFilter(2, 1), pixels, convolve(pixels, box, 5, 3), WIDTH, HEIGHT, tolerance);
+
+            final float[] weights = new float[] {1, 2, 0, -1, 0.5f, 3};
+            check("convolve", queue, operators.pipeline().convolve(weights, 3, 2), pixels,
+                  convolve(pixels, weights, 3, 2), WIDTH, HEIGHT, 1e-5f);
+
+            final float[] gx = convolve(pixels, new float[] {-1, 0, 1, -2, 0, 2, -1, 0, 1}, 3, 3);
+            final float[] gy = convolve(pixels, new float[] {-1, -2, -1, 0, 0, 0, 1, 2, 1}, 3, 3);
+            final float[] sobel = new float[pixels.length];
+            for (int i = 0; i < sobel.length; i++) {
+                sobel[i] = i % 4 == 3 ? pixels[i] : (float)Math.sqrt(gx[i]*gx[i] + gy[i]*gy[i]);
+            }
+            check("sobel", queue, operators.pipeline().sobel(), pixels, sobel, WIDTH, HEIGHT, 1e-4f);
+            operators.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void resizeTest() {
+        final CLDevice device = getImageDevice();
+        if(device == null) {
+            System.out.println("WARNING: can not test image operators.");
+            return;
+        }
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLImageOperators operators = CLImageOperators.create(queue);
+            final float[] pixels = random(new Random(1), WIDTH*HEIGHT);
+            final int width = 61, height = 15;
+
+            final float[] bilinear = new float[width*height*4];
+            final float[] bicubic = new float[width*height*4];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    final float u = (x+0.5f)*WIDTH/width - 0.5f;
+                    final float v = (y+0.5f)*HEIGHT/height - 0.5f;
+                    final int x0 = (int)Math.floor(u), y0 = (int)Math.floor(v);
+                    final float a = u-x0, b = v-y0;
+                    for (int c = 0; c < 4; c++) {
+                        bilinear[(y*width + x)*4 + c] =
+                                (1-a)*(1-b)*at(pixels, WIDTH, HEIGHT, x0, y0, c) + a*(1-b)*at(pixels, WIDTH, HEIGHT, x0+1, y0, c)
+                              + (1-a)*b*at(pixels, WIDTH, HEIGHT, x0, y0+1, c) + a*b*at(pixels, WIDTH, HEIGHT, x0+1, y0+1, c);
+                        float sum = 0;
+                        for (int j = -1; j <= 2; j++) {
+                            for (int i = -1; i <= 2; i++) {
+                                sum += catmullRom(u-x0-i) * catmullRom(v-y0-j) * at(pixels, WIDTH, HEIGHT, x0+i, y0+j, c);
+                            }
+                        }
+                        bicubic[(y*width + x)*4 + c] = sum;
+                    }
+                }
+            }
+            // sampler interpolation weights have a few bits only
+            check("bilinear", queue, operators.pipeline().resize(width, height, Interpolation.BILINEAR), pixels, bilinear, width, height, 0.01f);
+            check("bicubic", queue, operators.pipeline().resize(width, height, Interpolation.BICUBIC), pixels, bicubic, width, height, 1e-5f);
+            operators.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    private static float catmullRom(final float t) {
+        final float d = Math.abs(t);
+        return d < 1 ? (1.5f*d - 2.5f)*d*d + 1 : d < 2 ? ((-0.5f*d + 2.5f)*d - 4)*d + 2 : 0;
+    }
+
+    @Test
+    public void fusionTest() {
+        final CLDevice device = getImageDevice();
+        if(device == null) {
+            System.out.println("WARNING: can not test image operators.");
+            return;
+        }
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLImageOperators operators = CLImageOperators.create(queue);
+            final float[] pixels = random(new Random(7), WIDTH*HEIGHT);
+
+            final Pipeline pointwise = operators.pipeline().convertColor(ColorConversion.RGB_TO_GRAY).gamma(0.5f)
+                                                .invert().scale(2, -0.5f).clamp(0, 1);
+            assertEquals(1, pointwise.getKernelCount());
+            final float[] expected = new float[pixels.length];
+            for (int i = 0; i < pixels.length; i += 4) {
+                final float luma = 0.299f*pixels[i] + 0.587f*pixels[i+1] + 0.114f*pixels[i+2];
+                final float value = Math.min(Math.max((1-(float)Math.sqrt(luma))*2 - 0.5f, 0), 1);
+                expected[i] = expected[i+1] = expected[i+2] = value;
+                expected[i+3] = pixels[i+3];
+            }
+            check("pointwise", queue, pointwise, pixels, expected, WIDTH, HEIGHT, 1e-5f);
+
+            // the conversion back is fused into the conversion
+            final Pipeline roundTrip = operators.pipeline().convertColor(ColorConversion.RGB_TO_YCBCR)
+                                                .convertColor(ColorConversion.YCBCR_TO_RGB)
+                                                .convertColor(ColorConversion.SWAP_RB).convertColor(ColorConversion.SWAP_RB);
+            assertEquals(1, roundTrip.getKernelCount());
+            check("round trip", queue, roundTrip, pixels, pixels, WIDTH, HEIGHT, 1e-5f);
+
+            // blur passes, sobel with fused threshold
+            final Pipeline edges = operators.pipeline().gaussianBlur(1).sobel().threshold(0.5f);
+            assertEquals(3, edges.getKernelCount());
+            assertEquals(1, operators.pipeline().getKernelCount());
+            check("copy", queue, operators.pipeline(), pixels, pixels, WIDTH, HEIGHT, 0);
+            operators.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLDevice device = getImageDevice();
+        if(device == null) {
+            System.out.println("WARNING: can not test image operators.");
+            return;
+        }
+        final CLContext context = CLContext.create(device);
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLImageOperators operators = CLImageOperators.create(queue);
+            final CLImage2d<FloatBuffer> image = image(context, WIDTH, HEIGHT);
+            final CLImage2d<FloatBuffer> small = image(context, WIDTH/2, HEIGHT);
+
+            final CLImageFormat intermediate = operators.getIntermediateFormat();
+            assertTrue(CLImageOperators.isFloatFormat(intermediate));
+            assertEquals(ChannelOrder.RGBA, intermediate.getImageChannelOrder());
+            assertEquals(intermediate, CLImageOperators.selectFormat(context.getSupportedImage2dFormats(Mem.READ_WRITE), ChannelOrder.RGBA));
+            assertNull(CLImageOperators.selectFormat(new CLImageFormat[] {new CLImageFormat(ChannelOrder.RGBA, ChannelType.UNSIGNED_INT8)}, ChannelOrder.RGBA));
+            assertFalse(CLImageOperators.isFloatFormat(new CLImageFormat(ChannelOrder.R, ChannelType.SIGNED_INT32)));
+
+            try{
+                operators.sobel(image, image);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // same image
+            }
+            try{
+                operators.sobel(image, small);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // size mismatch
+            }
+            try{
+                operators.pipeline().gaussianBlur(0);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // no blur
+            }
+            try{
+                operators.convolve(image, small, new float[5], 2, 2);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // weight count
+            }
+            final CLImage2d<?> ints = context.createImage2d(WIDTH, HEIGHT, new CLImageFormat(ChannelOrder.RGBA, ChannelType.UNSIGNED_INT8));
+            try{
+                operators.sobel(ints, image);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // integer image
+            }
+            operators.release();
+            assertTrue(operators.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
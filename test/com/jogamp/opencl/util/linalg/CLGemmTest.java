@@ -0,0 +1,222 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.linalg;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import com.jogamp.opencl.util.linalg.CLGemm.Tiling;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the matrix multiply with a Java implementation for all tilings the device supports.
+ */
+public class CLGemmTest extends UITestCase {
+
+    // m, n, k below, at and above tile boundaries
+    private static final int[][] SIZES = new int[][] {{1, 1, 1}, {7, 5, 3}, {32, 32, 32}, {65, 17, 100}, {20, 33, 0}};
+
+    /**
+     * Row-major reference, small integers keep the float results exact.
+     */
+    private static void gemm(final boolean transA, final boolean transB, final int m, final int n, final int k,
+                             final double alpha, final double[] a, final int lda, final int offsetA,
+                             final double[] b, final int ldb, final int offsetB,
+                             final double beta, final double[] c, final int ldc, final int offsetC) {
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int p = 0; p < k; p++) {
+                    sum += a[offsetA + (transA ? p*lda + i : i*lda + p)] * b[offsetB + (transB ? j*ldb + p : p*ldb + j)];
+                }
+                final int index = offsetC + i*ldc + j;
+                c[index] = beta == 0 ? alpha*sum : alpha*sum + beta*c[index];
+            }
+        }
+    }
+
+    private static double[] random(final Random random, final int size) {
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(7)-3;
+        }
+        return values;
+    }
+
+    private static CLBuffer<FloatBuffer> floats(final CLContext context, final double[] values) {
+        final CLBuffer<FloatBuffer> buffer = context.createFloatBuffer(values.length, Mem.READ_WRITE);
+        for (int i = 0; i < values.length; i++) {
+            buffer.getBuffer().put(i, (float)values[i]);
+        }
+        return buffer;
+    }
+
+    @Test
+    public void floatTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLGemm gemm = CLGemm.create(queue);
+            final List<Tiling> tilings = gemm.getCandidateTilings(false);
+            assertFalse(tilings.isEmpty());
+            assertTrue(tilings.contains(gemm.getTiling(false)));
+
+            final Random random = new Random(42);
+            for (final Tiling tiling : tilings) {
+                gemm.setTiling(false, tiling);
+                for (final int[] size : SIZES) {
+                    final int m = size[0], n = size[1], k = size[2];
+                    for (int t = 0; t < 4; t++) {
+                        final boolean transA = (t & 1) != 0, transB = (t & 2) != 0;
+                        // padded leading dimensions
+                        final int lda = (transA ? m : k)+1, ldb = (transB ? k : n)+2, ldc = n+3;
+                        final double[] a = random(random, (transA ? k : m)*lda+1);
+                        final double[] b = random(random, (transB ? n : k)*ldb+1);
+                        final double[] c = random(random, m*ldc+1);
+                        final CLBuffer<FloatBuffer> ca = floats(context, a), cb = floats(context, b), cc = floats(context, c);
+                        queue.putWriteBuffer(ca, false).putWriteBuffer(cb, false).putWriteBuffer(cc, false);
+
+                        gemm.gemm(transA, transB, m, n, k, 2, ca, lda, cb, ldb, -1, cc, ldc);
+                        gemm(transA, transB, m, n, k, 2, a, lda, 0, b, ldb, 0, -1, c, ldc, 0);
+                        queue.putReadBuffer(cc, true);
+                        for (int i = 0; i < c.length; i++) {
+                            assertEquals(tiling+" "+m+"x"+n+"x"+k+" trans "+t+" at "+i, c[i], cc.getBuffer().get(i), 0);
+                        }
+                        ca.release();
+                        cb.release();
+                        cc.release();
+                    }
+                }
+            }
+            gemm.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void batchedTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLGemm gemm = CLGemm.create(queue);
+
+            final Random random = new Random(42);
+            final int batch = 1000, m = 4, n = 3, k = 5;
+            // A per multiply, B shared by all
+            final double[] a = random(random, batch*m*k);
+            final double[] b = random(random, k*n);
+            final double[] c = new double[batch*m*n];
+            final CLBuffer<FloatBuffer> ca = floats(context, a), cb = floats(context, b), cc = floats(context, c);
+            queue.putWriteBuffer(ca, false).putWriteBuffer(cb, false);
+
+            gemm.gemmBatched(false, false, m, n, k, 1, ca, k, m*k, cb, n, 0, 0, cc, n, m*n, batch);
+            queue.putReadBuffer(cc, true);
+            for (int i = 0; i < batch; i++) {
+                gemm(false, false, m, n, k, 1, a, k, i*m*k, b, n, 0, 0, c, n, i*m*n);
+            }
+            for (int i = 0; i < c.length; i++) {
+                assertEquals("at "+i, c[i], cc.getBuffer().get(i), 0);
+            }
+            gemm.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void doubleTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLGemm gemm = CLGemm.create(queue);
+            final int size = 100;
+            final CLBuffer<DoubleBuffer> a = context.createDoubleBuffer(size*size, Mem.READ_ONLY);
+            final CLBuffer<DoubleBuffer> c = context.createDoubleBuffer(size*size, Mem.READ_WRITE);
+
+            if(!queue.getDevice().isDoubleFPAvailable()) {
+                try{
+                    gemm.gemm(false, false, size, size, size, 1, a, size, a, size, 0, c, size);
+                    fail("expected exception");
+                }catch(final UnsupportedOperationException ex) {
+                    // no double precision
+                }
+                return;
+            }
+
+            // A = 0.1*I, C = A^T*A
+            for (int i = 0; i < size; i++) {
+                a.getBuffer().put(i*size+i, 0.1);
+            }
+            queue.putWriteBuffer(a, false);
+            gemm.gemm(true, false, size, size, size, 1, a, size, a, size, 0, c, size);
+            queue.putReadBuffer(c, true);
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    assertEquals(i == j ? 0.1*0.1 : 0, c.getBuffer().get(i*size+j), 0);
+                }
+            }
+            gemm.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLGemm gemm = CLGemm.create(queue);
+            final CLBuffer<FloatBuffer> f = context.createFloatBuffer(16);
+
+            // empty products are no-ops
+            gemm.gemm(false, false, 0, 4, 4, 1, f, 4, f, 4, 0, f, 4);
+            try{
+                gemm.gemm(false, false, 4, 4, 4, 1, f, 4, f, 4, 0, context.createFloatBuffer(15), 4);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // C too small
+            }
+            try{
+                gemm.gemm(false, false, 4, 4, 4, 1, f, 3, f, 4, 0, context.createFloatBuffer(16), 4);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // leading dimension smaller than columns
+            }
+            try{
+                gemm.gemm(false, false, 4, 4, 4, 1, f, 4, context.createDoubleBuffer(16), 4, 0, context.createFloatBuffer(16), 4);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // mixed precision
+            }
+            try{
+                gemm.gemmBatched(false, false, 2, 2, 2, 1, f, 2, 4, f, 2, 4, 0, context.createFloatBuffer(16), 2, 0, 2);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // overlapping results
+            }
+            try{
+                new Tiling(16, 3);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // work per thread does not divide tile size
+            }
+            gemm.release();
+            assertTrue(gemm.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
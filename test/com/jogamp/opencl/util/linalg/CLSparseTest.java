@@ -0,0 +1,206 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.linalg;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Builds CSR matrices from shuffled coordinates and compares the sparse products with dense Java products.
+ */
+public class CLSparseTest extends UITestCase {
+
+    /**
+     * Fills a dense matrix with small integers at random positions, with a few long rows.
+     */
+    private static float[][] randomDense(final Random random, final int rows, final int cols) {
+        final float[][] dense = new float[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            final int length = r % 17 == 0 ? cols/2 : random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                dense[r][random.nextInt(cols)] = random.nextInt(7)-3;
+            }
+        }
+        return dense;
+    }
+
+    /**
+     * Adds the elements in random order, every element is split into two duplicates.
+     */
+    private static CLCSRMatrix build(final CLContext context, final Random random, final float[][] dense) {
+        final int rows = dense.length, cols = dense[0].length;
+        final int[] order = new int[rows*cols];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length-1; i > 0; i--) {
+            final int j = random.nextInt(i+1);
+            final int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        final CLCSRMatrix.Builder builder = CLCSRMatrix.builder(rows, cols, 16);
+        for (final int index : order) {
+            final int r = index / cols, c = index % cols;
+            if(dense[r][c] != 0) {
+                builder.add(r, c, dense[r][c]-1).add(r, c, 1);
+            }
+        }
+        return builder.build(context);
+    }
+
+    @Test
+    public void builderTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final Random random = new Random(7);
+            final float[][] dense = randomDense(random, 100, 60);
+            final CLCSRMatrix matrix = build(context, random, dense);
+            assertEquals(100, matrix.getRows());
+            assertEquals(60, matrix.getColumns());
+
+            final IntBuffer pointers = matrix.getRowPointers().getBuffer();
+            final IntBuffer columns = matrix.getColumnIndices().getBuffer();
+            final FloatBuffer values = matrix.getValues().getBuffer();
+            assertEquals(0, pointers.get(0));
+            assertEquals(matrix.getNonZeros(), pointers.get(100));
+            assertEquals(matrix.getNonZeros(), matrix.getValues().getCLCapacity());
+            int max = 0;
+            for (int r = 0; r < 100; r++) {
+                final float[] row = new float[60];
+                for (int i = pointers.get(r); i < pointers.get(r+1); i++) {
+                    row[columns.get(i)] += values.get(i);
+                }
+                assertArrayEquals("row "+r, dense[r], row, 0);
+                max = Math.max(max, pointers.get(r+1)-pointers.get(r));
+            }
+            assertEquals(max, matrix.getMaxRowLength());
+            assertEquals(matrix.getNonZeros()/100.0, matrix.getMeanRowLength(), 1e-9);
+
+            final CLCSRMatrix.Builder builder = CLCSRMatrix.builder(3, 3);
+            try{
+                builder.add(3, 0, 1);
+                fail("expected exception");
+            }catch(final IndexOutOfBoundsException ex) {
+                // outside of the matrix
+            }
+            final CLCSRMatrix empty = builder.build(context);
+            assertEquals(0, empty.getNonZeros());
+            try{
+                builder.add(0, 0, 1);
+                fail("expected exception");
+            }catch(final IllegalStateException ex) {
+                // already built
+            }
+            matrix.release();
+            empty.release();
+            assertTrue(matrix.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void spmvTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLSparse sparse = CLSparse.create(queue);
+            final Random random = new Random(42);
+            final int rows = 1000, cols = 300;
+            final float[][] dense = randomDense(random, rows, cols);
+            final CLCSRMatrix matrix = build(context, random, dense);
+
+            final CLBuffer<FloatBuffer> x = context.createFloatBuffer(cols, Mem.READ_ONLY);
+            final CLBuffer<FloatBuffer> y = context.createFloatBuffer(rows, Mem.READ_WRITE);
+            final float[] expected = new float[rows];
+            for (int c = 0; c < cols; c++) {
+                x.getBuffer().put(c, random.nextInt(5)-2);
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    expected[r] += dense[r][c]*x.getBuffer().get(c);
+                }
+            }
+            queue.putWriteBuffer(x, false);
+
+            for (int width = 1; width <= CLSparse.MAX_VECTOR_WIDTH; width *= 2) {
+                sparse.spmv(matrix, x, y, width);
+                queue.putReadBuffer(y, true);
+                for (int r = 0; r < rows; r++) {
+                    assertEquals("width "+width+" row "+r, expected[r], y.getBuffer().get(r), 0);
+                }
+            }
+            sparse.spmv(matrix, x, y);
+            queue.putReadBuffer(y, true);
+            for (int r = 0; r < rows; r++) {
+                assertEquals("row "+r, expected[r], y.getBuffer().get(r), 0);
+            }
+
+            try{
+                sparse.spmv(matrix, y, x);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // y too small
+            }
+            try{
+                sparse.spmv(matrix, x, y, 3);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // not a power of two
+            }
+            matrix.release();
+            sparse.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void spmmTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLSparse sparse = CLSparse.create(queue);
+            final Random random = new Random(1);
+            final int rows = 123, cols = 77, k = 19;
+            final float[][] dense = randomDense(random, rows, cols);
+            final CLCSRMatrix matrix = build(context, random, dense);
+
+            final CLBuffer<FloatBuffer> b = context.createFloatBuffer(cols*k, Mem.READ_ONLY);
+            final CLBuffer<FloatBuffer> c = context.createFloatBuffer(rows*k, Mem.READ_WRITE);
+            for (int i = 0; i < cols*k; i++) {
+                b.getBuffer().put(i, random.nextInt(5)-2);
+            }
+            queue.putWriteBuffer(b, false);
+            sparse.spmm(matrix, b, c, k);
+            queue.putReadBuffer(c, true);
+            for (int r = 0; r < rows; r++) {
+                for (int j = 0; j < k; j++) {
+                    float expected = 0;
+                    for (int p = 0; p < cols; p++) {
+                        expected += dense[r][p]*b.getBuffer().get(p*k+j);
+                    }
+                    assertEquals("("+r+", "+j+")", expected, c.getBuffer().get(r*k+j), 0);
+                }
+            }
+            matrix.release();
+            sparse.release();
+            assertTrue(sparse.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.primitives;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLDevice;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import com.jogamp.opencl.util.primitives.CLPrimitives.Operator;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the primitives with sequential implementations, prefers a CPU device.
+ */
+public class CLPrimitivesTest extends UITestCase {
+
+    // sizes below, at and above work-group and group boundaries
+    private static final int[] SIZES = new int[] {1, 7, 256, 1000, 65537, 1000003};
+
+    /**
+     * Returns the first CPU device of all platforms or the fastest device of the default platform.
+     */
+    static CLDevice getTestDevice() {
+        for (final CLPlatform platform : CLPlatform.listCLPlatforms()) {
+            final CLDevice[] devices = platform.listCLDevices(CLDevice.Type.CPU);
+            if(devices.length > 0) {
+                return devices[0];
+            }
+        }
+        return CLPlatform.getDefault().getMaxFlopsDevice();
+    }
+
+    private static long combine(final long a, final long b, final Operator op) {
+        return op == Operator.SUM ? a+b : op == Operator.MIN ? Math.min(a, b) : Math.max(a, b);
+    }
+
+    @Test
+    public void intTest() {
+        final CLContext context = CLContext.create(getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLPrimitives primitives = CLPrimitives.create(queue);
+            final int wgs = primitives.getWorkGroupSize(context.createIntBuffer(1));
+            assertTrue(wgs > 0 && wgs <= CLPrimitives.MAX_WORK_GROUP_SIZE && Integer.bitCount(wgs) == 1);
+
+            final Random random = new Random(42);
+            for (final int size : SIZES) {
+                final CLBuffer<IntBuffer> in = context.createIntBuffer(size, Mem.READ_WRITE);
+                final CLBuffer<IntBuffer> out = context.createIntBuffer(size, Mem.READ_WRITE);
+                final int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextInt(2001)-1000;
+                    in.getBuffer().put(i, values[i]);
+                }
+                queue.putWriteBuffer(in, false);
+
+                for (final Operator op : Operator.values()) {
+                    long expected = ElementType.INT.identity(op).longValue();
+                    for (final int value : values) {
+                        expected = combine(expected, value, op);
+                    }
+                    assertEquals(op+" of "+size, (int)expected, primitives.reduce(in, size, op).intValue());
+
+                    primitives.inclusiveScan(in, out, size, op);
+                    queue.putReadBuffer(out, true);
+                    long acc = ElementType.INT.identity(op).longValue();
+                    for (int i = 0; i < size; i++) {
+                        acc = combine(acc, values[i], op);
+                        assertEquals("inclusive "+op+" at "+i, (int)acc, out.getBuffer().get(i));
+                    }
+
+                    primitives.exclusiveScan(in, out, size, op);
+                    queue.putReadBuffer(out, true);
+                    acc = ElementType.INT.identity(op).longValue();
+                    for (int i = 0; i < size; i++) {
+                        assertEquals("exclusive "+op+" at "+i, (int)acc, out.getBuffer().get(i));
+                        acc = combine(acc, values[i], op);
+                    }
+                }
+
+                final int kept = primitives.compact(in, out, size, "x > 100 && x % 3 == 0");
+                queue.putReadBuffer(out, true);
+                int k = 0;
+                for (final int value : values) {
+                    if(value > 100 && value % 3 == 0) {
+                        assertEquals("compact at "+k, value, out.getBuffer().get(k++));
+                    }
+                }
+                assertEquals(k, kept);
+
+                final CLBuffer<IntBuffer> bins = context.createIntBuffer(10, Mem.READ_WRITE);
+                primitives.histogram(in, size, bins, -500, 500);
+                queue.putReadBuffer(bins, true);
+                final int[] expectedBins = new int[10];
+                for (final int value : values) {
+                    if(value >= -500 && value < 500) {
+                        expectedBins[(value+500)/100]++;
+                    }
+                }
+                for (int b = 0; b < 10; b++) {
+                    assertEquals("bin "+b, expectedBins[b], bins.getBuffer().get(b));
+                }
+
+                in.release();
+                out.release();
+                bins.release();
+            }
+            primitives.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void inPlaceScanTest() {
+        final CLContext context = CLContext.create(getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLPrimitives primitives = CLPrimitives.create(queue);
+
+            final int size = 100000;
+            final CLBuffer<LongBuffer> buffer = context.createLongBuffer(size, Mem.READ_WRITE);
+            for (int i = 0; i < size; i++) {
+                buffer.getBuffer().put(i, 1L << 32);
+            }
+            queue.putWriteBuffer(buffer, false);
+            assertEquals(size * (1L << 32), primitives.reduce(buffer, size, Operator.SUM).longValue());
+
+            primitives.exclusiveScan(buffer, buffer, size, Operator.SUM);
+            queue.putReadBuffer(buffer, true);
+            for (int i = 0; i < size; i++) {
+                assertEquals(i * (1L << 32), buffer.getBuffer().get(i));
+            }
+
+            // count smaller than the buffer
+            assertEquals(0L, primitives.reduce(buffer, 1, Operator.MAX).longValue());
+            assertEquals(0, primitives.compact(buffer, context.createLongBuffer(size), 1));
+            primitives.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void floatingPointTest() {
+        final CLContext context = CLContext.create(getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLPrimitives primitives = CLPrimitives.create(queue);
+
+            final int size = 50000;
+            final CLBuffer<FloatBuffer> floats = context.createFloatBuffer(size, Mem.READ_WRITE);
+            for (int i = 0; i < size; i++) {
+                floats.getBuffer().put(i, (i % 100) / 4.0f);
+            }
+            queue.putWriteBuffer(floats, false);
+            // exact in float, sums of quarters stay below 2^24
+            assertEquals(size/100 * 1237.5f, primitives.reduce(floats, size, Operator.SUM).floatValue(), 0);
+            assertEquals(0, primitives.reduce(floats, size, Operator.MIN).floatValue(), 0);
+            assertEquals(24.75f, primitives.reduce(floats, size, Operator.MAX).floatValue(), 0);
+
+            final CLBuffer<IntBuffer> bins = context.createIntBuffer(4, Mem.READ_WRITE);
+            primitives.histogram(floats, size, bins, 0, 32);
+            queue.putReadBuffer(bins, true);
+            final int[] perHundred = new int[] {32, 32, 32, 4};
+            for (int b = 0; b < 4; b++) {
+                assertEquals(size/100 * perHundred[b], bins.getBuffer().get(b));
+            }
+
+            if(queue.getDevice().isDoubleFPAvailable()) {
+                final CLBuffer<DoubleBuffer> doubles = context.createDoubleBuffer(size, Mem.READ_WRITE);
+                for (int i = 0; i < size; i++) {
+                    doubles.getBuffer().put(i, i % 2 == 0 ? 0.5 : -0.25);
+                }
+                queue.putWriteBuffer(doubles, false);
+                assertEquals(size/2 * 0.25, primitives.reduce(doubles, size, Operator.SUM).doubleValue(), 0);
+                assertEquals(size/2, primitives.compact(doubles, context.createDoubleBuffer(size), size, "x > 0"));
+            }
+            primitives.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLContext context = CLContext.create(getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLPrimitives primitives = CLPrimitives.create(queue);
+            final CLBuffer<IntBuffer> ints = context.createIntBuffer(16);
+
+            assertEquals(Integer.MAX_VALUE, primitives.reduce(ints, 0, Operator.MIN));
+            try{
+                primitives.reduce(ints, 17, Operator.SUM);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // count larger than buffer
+            }
+            try{
+                primitives.inclusiveScan(ints, context.createFloatBuffer(16), 16, Operator.SUM);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // type mismatch
+            }
+            try{
+                primitives.reduce(context.createByteBuffer(16), 16, Operator.SUM);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // unsupported element type
+            }
+            primitives.release();
+            assertTrue(primitives.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.primitives;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.test.util.UITestCase;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the radix sort with Arrays.sort, prefers a CPU device.
+ */
+public class CLRadixSortTest extends UITestCase {
+
+    private static final int[] SIZES = new int[] {1, 2, 7, 256, 1000, 65537, 1000003};
+
+    @Test
+    public void intTest() {
+        final CLContext context = CLContext.create(CLPrimitivesTest.getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRadixSort sort = CLRadixSort.create(queue);
+            final int wgs = sort.getWorkGroupSize(context.createIntBuffer(1), null);
+            assertTrue(wgs > 0 && wgs <= CLPrimitives.MAX_WORK_GROUP_SIZE && Integer.bitCount(wgs) == 1);
+
+            final Random random = new Random(42);
+            for (final int size : SIZES) {
+                final CLBuffer<IntBuffer> keys = context.createIntBuffer(size, Mem.READ_WRITE);
+                final int[] expected = new int[size];
+                for (int i = 0; i < size; i++) {
+                    expected[i] = i % 5 == 0 ? random.nextInt(100)-50 : random.nextInt();
+                    keys.getBuffer().put(i, expected[i]);
+                }
+                queue.putWriteBuffer(keys, false);
+                Arrays.sort(expected);
+
+                sort.sort(keys, size);
+                queue.putReadBuffer(keys, true);
+                for (int i = 0; i < size; i++) {
+                    assertEquals("size "+size+" at "+i, expected[i], keys.getBuffer().get(i));
+                }
+                keys.release();
+            }
+            sort.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void keyValueTest() {
+        final CLContext context = CLContext.create(CLPrimitivesTest.getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRadixSort sort = CLRadixSort.create(queue);
+
+            final Random random = new Random(42);
+            final int size = 300000;
+            final CLBuffer<LongBuffer> keys = context.createLongBuffer(size, Mem.READ_WRITE);
+            final CLBuffer<IntBuffer> values = context.createIntBuffer(size, Mem.READ_WRITE);
+            final long[] original = new long[size];
+            for (int i = 0; i < size; i++) {
+                // few distinct keys spread over all bits to check stability
+                original[i] = (random.nextInt(64)-32) * 0x0102030405060708L;
+                keys.getBuffer().put(i, original[i]);
+                values.getBuffer().put(i, i);
+            }
+            queue.putWriteBuffer(keys, false).putWriteBuffer(values, false);
+
+            sort.sort(keys, values, size);
+            queue.putReadBuffer(keys, false).putReadBuffer(values, true);
+            for (int i = 0; i < size; i++) {
+                final long key = keys.getBuffer().get(i);
+                final int value = values.getBuffer().get(i);
+                assertEquals("value at "+i, original[value], key);
+                if(i > 0) {
+                    final long previous = keys.getBuffer().get(i-1);
+                    assertTrue("order at "+i, previous <= key);
+                    assertTrue("stability at "+i, previous != key || values.getBuffer().get(i-1) < value);
+                }
+            }
+
+            // count smaller than the buffers leaves the rest untouched
+            keys.getBuffer().put(0, 5).put(1, 3).put(2, 1);
+            queue.putWriteBuffer(keys, false);
+            sort.sort(keys, 2);
+            queue.putReadBuffer(keys, true);
+            assertEquals(3, keys.getBuffer().get(0));
+            assertEquals(5, keys.getBuffer().get(1));
+            assertEquals(1, keys.getBuffer().get(2));
+
+            sort.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void floatingPointTest() {
+        final CLContext context = CLContext.create(CLPrimitivesTest.getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRadixSort sort = CLRadixSort.create(queue);
+
+            final Random random = new Random(42);
+            final int size = 100000;
+            final CLBuffer<FloatBuffer> floats = context.createFloatBuffer(size, Mem.READ_WRITE);
+            final CLBuffer<DoubleBuffer> doubles = context.createDoubleBuffer(size, Mem.READ_WRITE);
+            final CLBuffer<FloatBuffer> values = context.createFloatBuffer(size, Mem.READ_WRITE);
+            final float[] expectedFloats = new float[size];
+            final double[] expectedDoubles = new double[size];
+            final float[] special = new float[] {0.0f, -0.0f, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                                                 Float.MIN_VALUE, -Float.MIN_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE,
+                                                 Float.NaN, Float.intBitsToFloat(0xFFC00001), Float.intBitsToFloat(0x7F800001)};
+            for (int i = 0; i < size; i++) {
+                expectedFloats[i] = i < special.length ? special[i] : (float)random.nextGaussian() * 1000;
+                expectedDoubles[i] = i < special.length ? special[i] : random.nextGaussian() * 1e100;
+                floats.getBuffer().put(i, expectedFloats[i]);
+                doubles.getBuffer().put(i, expectedDoubles[i]);
+                values.getBuffer().put(i, expectedFloats[i]);
+            }
+            queue.putWriteBuffer(floats, false).putWriteBuffer(doubles, false).putWriteBuffer(values, false);
+            Arrays.sort(expectedFloats);
+            Arrays.sort(expectedDoubles);
+
+            sort.sort(floats, values, size);
+            sort.sort(doubles, size);
+            queue.putReadBuffer(floats, false).putReadBuffer(doubles, false).putReadBuffer(values, true);
+            for (int i = 0; i < size; i++) {
+                // Arrays.sort orders -0.0 before 0.0 and all NaNs last as well
+                assertEquals("float at "+i, Float.floatToIntBits(expectedFloats[i]), Float.floatToIntBits(floats.getBuffer().get(i)));
+                assertEquals("value at "+i, Float.floatToIntBits(expectedFloats[i]), Float.floatToIntBits(values.getBuffer().get(i)));
+                assertEquals("double at "+i, Double.doubleToLongBits(expectedDoubles[i]), Double.doubleToLongBits(doubles.getBuffer().get(i)));
+            }
+            sort.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLContext context = CLContext.create(CLPrimitivesTest.getTestDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRadixSort sort = CLRadixSort.create(queue);
+            final CLBuffer<IntBuffer> keys = context.createIntBuffer(16);
+
+            sort.sort(keys, 0);
+            try{
+                sort.sort(keys, 17);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // count larger than buffer
+            }
+            try{
+                sort.sort(keys, context.createIntBuffer(8), 16);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // values smaller than count
+            }
+            try{
+                sort.sort(context.createByteBuffer(16), 16);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // unsupported key type
+            }
+            sort.release();
+            assertTrue(sort.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Created on Monday, October 19 2026
+ */
+package com.jogamp.opencl.util.random;
+
+import com.jogamp.opencl.CLBuffer;
+import com.jogamp.opencl.CLCommandQueue;
+import com.jogamp.opencl.CLContext;
+import com.jogamp.opencl.CLMemory.Mem;
+import com.jogamp.opencl.CLPlatform;
+import com.jogamp.opencl.test.util.UITestCase;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the generator with a host implementation of Philox4x32-10 and checks the distributions.
+ */
+public class CLRandomTest extends UITestCase {
+
+    private static final int SIZE = 100003;
+
+    /**
+     * Host reference of Philox4x32-10.
+     */
+    static int[] philox(final int[] counter, int k0, int k1) {
+        final int[] c = counter.clone();
+        for (int i = 0; i < 10; i++) {
+            final long p0 = 0xD2511F53L * (c[0] & 0xFFFFFFFFL);
+            final long p1 = 0xCD9E8D57L * (c[2] & 0xFFFFFFFFL);
+            final int c1 = c[1], c3 = c[3];
+            c[0] = (int)(p1 >>> 32) ^ c1 ^ k0;
+            c[1] = (int)p1;
+            c[2] = (int)(p0 >>> 32) ^ c3 ^ k1;
+            c[3] = (int)p0;
+            k0 += 0x9E3779B9;
+            k1 += 0xBB67AE85;
+        }
+        return c;
+    }
+
+    @Test
+    public void referenceTest() {
+        // known answers of the Random123 distribution
+        assertArrayEquals(new int[] {0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8}, philox(new int[4], 0, 0));
+        assertArrayEquals(new int[] {0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1},
+                          philox(new int[] {0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344}, 0xa4093822, 0x299f31d0));
+    }
+
+    @Test
+    public void intTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final long seed = 0x123456789ABCDEFL, stream = 3;
+            final CLRandom random = CLRandom.create(queue, seed, stream);
+            final CLBuffer<IntBuffer> all = context.createIntBuffer(SIZE, Mem.READ_WRITE);
+            final CLBuffer<IntBuffer> parts = context.createIntBuffer(SIZE, Mem.READ_WRITE);
+
+            final long offset = (1L << 33) + 5;
+            random.fillUniform(all, SIZE, offset);
+            queue.putReadBuffer(all, true);
+            for (int i = 0; i < SIZE; i++) {
+                final long position = offset+i;
+                final long block = position / 4;
+                final int[] words = philox(new int[] {(int)block, (int)(block >>> 32), (int)stream, (int)(stream >>> 32)},
+                                           (int)seed, (int)(seed >>> 32));
+                assertEquals("at "+i, words[(int)(position % 4)], all.getBuffer().get(i));
+            }
+
+            // the same numbers in pieces
+            final int[] cuts = new int[] {0, 1, 7, 333, 5000, 77777, SIZE};
+            for (int i = 0; i < cuts.length-1; i++) {
+                random.fillUniform(parts, cuts[i+1]-cuts[i], offset+cuts[i]);
+                queue.putReadBuffer(parts, true);
+                for (int j = cuts[i]; j < cuts[i+1]; j++) {
+                    assertEquals("split at "+j, all.getBuffer().get(j), parts.getBuffer().get(j-cuts[i]));
+                }
+            }
+
+            // bounded ints
+            random.fillUniform(all, SIZE, 0, -10, 10);
+            queue.putReadBuffer(all, true);
+            final int[] histogram = new int[20];
+            for (int i = 0; i < SIZE; i++) {
+                final int value = all.getBuffer().get(i);
+                assertTrue("range at "+i+": "+value, value >= -10 && value < 10);
+                histogram[value+10]++;
+            }
+            for (final int count : histogram) {
+                assertEquals(SIZE/20, count, SIZE/20 * 0.1);
+            }
+            random.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void floatTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRandom random = CLRandom.create(queue, 42);
+            final CLBuffer<FloatBuffer> buffer = context.createFloatBuffer(SIZE, Mem.READ_WRITE);
+
+            random.fillUniform(buffer, SIZE, 0);
+            queue.putReadBuffer(buffer, true);
+            double sum = 0, squares = 0;
+            for (int i = 0; i < SIZE; i++) {
+                final float value = buffer.getBuffer().get(i);
+                assertTrue("range at "+i+": "+value, value >= 0 && value < 1);
+                sum += value;
+                squares += value*value;
+            }
+            assertEquals(0.5, sum/SIZE, 0.01);
+            assertEquals(1.0/12, squares/SIZE - (sum/SIZE)*(sum/SIZE), 0.01);
+
+            random.fillNormal(buffer, SIZE, 0, 2, 3);
+            queue.putReadBuffer(buffer, true);
+            sum = 0;
+            squares = 0;
+            for (int i = 0; i < SIZE; i++) {
+                final float value = buffer.getBuffer().get(i);
+                sum += value;
+                squares += value*value;
+            }
+            assertEquals(2, sum/SIZE, 0.05);
+            assertEquals(9, squares/SIZE - (sum/SIZE)*(sum/SIZE), 0.2);
+
+            // different streams are different sequences
+            final CLRandom other = CLRandom.create(queue, 42, 1);
+            final CLBuffer<FloatBuffer> second = context.createFloatBuffer(SIZE, Mem.READ_WRITE);
+            random.fillUniform(buffer, SIZE, 0);
+            other.fillUniform(second, SIZE, 0);
+            queue.putReadBuffer(buffer, false).putReadBuffer(second, true);
+            int equal = 0;
+            for (int i = 0; i < SIZE; i++) {
+                if(buffer.getBuffer().get(i) == second.getBuffer().get(i)) {
+                    equal++;
+                }
+            }
+            assertTrue(equal < 10);
+            random.release();
+            other.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void doubleTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRandom random = CLRandom.create(queue, 42);
+            final CLBuffer<DoubleBuffer> buffer = context.createDoubleBuffer(SIZE, Mem.READ_WRITE);
+            if(!queue.getDevice().isDoubleFPAvailable()) {
+                try{
+                    random.fillUniform(buffer, SIZE, 0);
+                    fail("expected exception");
+                }catch(final UnsupportedOperationException ex) {
+                    // no double precision
+                }
+                return;
+            }
+
+            random.fillUniform(buffer, SIZE, 7, -1, 1);
+            queue.putReadBuffer(buffer, true);
+            final double first = buffer.getBuffer().get(0);
+            double sum = 0;
+            for (int i = 0; i < SIZE; i++) {
+                final double value = buffer.getBuffer().get(i);
+                assertTrue("range at "+i+": "+value, value >= -1 && value < 1);
+                sum += value;
+            }
+            assertEquals(0, sum/SIZE, 0.02);
+
+            // an odd offset starts within a block
+            random.fillUniform(buffer, 1, 7, -1, 1);
+            queue.putReadBuffer(buffer, true);
+            assertEquals(first, buffer.getBuffer().get(0), 0);
+
+            random.fillNormal(buffer, SIZE, 0, 0, 1);
+            queue.putReadBuffer(buffer, true);
+            sum = 0;
+            double squares = 0;
+            for (int i = 0; i < SIZE; i++) {
+                final double value = buffer.getBuffer().get(i);
+                sum += value;
+                squares += value*value;
+            }
+            assertEquals(0, sum/SIZE, 0.02);
+            assertEquals(1, squares/SIZE - (sum/SIZE)*(sum/SIZE), 0.05);
+            random.release();
+        }finally{
+            context.release();
+        }
+    }
+
+    @Test
+    public void argumentTest() {
+        final CLContext context = CLContext.create(CLPlatform.getDefault().getMaxFlopsDevice());
+        try{
+            final CLCommandQueue queue = context.getDevices()[0].createCommandQueue();
+            final CLRandom random = CLRandom.create(queue, 1);
+            final CLBuffer<IntBuffer> ints = context.createIntBuffer(16);
+            try{
+                random.fillUniform(ints, 17, 0);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // count larger than buffer
+            }
+            try{
+                random.fillNormal(ints, 16, 0, 0, 1);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // normal ints
+            }
+            try{
+                random.fillUniform(ints, 16, 0, 0.5, 2);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // fractional int bound
+            }
+            try{
+                random.fillUniform(context.createLongBuffer(16), 16, 0);
+                fail("expected exception");
+            }catch(final IllegalArgumentException ex) {
+                // unsupported type
+            }
+            // the full int range
+            random.fillUniform(ints, 16, 0, Integer.MIN_VALUE, 1L+Integer.MAX_VALUE);
+            random.release();
+            assertTrue(random.isReleased());
+        }finally{
+            context.release();
+        }
+    }
+
+}